@@ -0,0 +1,57 @@
+/**
+ * ActionMetrics - Time and allocation recorded for a repeated UI action
+ * Allocation is measured on the calling thread with AllocationProbe, so
+ * record from the thread that did the work (normally the EDT).
+ */
+public class ActionMetrics {
+    private final String name;
+    private final LatencyStats time = new LatencyStats(256);
+    private long count;
+    private long totalBytes;
+    private long lastBytes;
+    private long maxBytes;
+
+    public ActionMetrics(String name) {
+        this.name = name;
+    }
+
+    public synchronized void record(long elapsedNanos, long allocatedBytes) {
+        time.record(elapsedNanos);
+        count++;
+        totalBytes += allocatedBytes;
+        lastBytes = allocatedBytes;
+        if (allocatedBytes > maxBytes) {
+            maxBytes = allocatedBytes;
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyStats getTime() {
+        return time;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getLastBytes() {
+        return lastBytes;
+    }
+
+    public synchronized long getMeanBytes() {
+        return count == 0 ? 0 : totalBytes / count;
+    }
+
+    public synchronized long getMaxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: %s, alloc mean=%dB last=%dB max=%dB",
+            name, time, getMeanBytes(), lastBytes, maxBytes);
+    }
+}
@@ -0,0 +1,38 @@
+import java.lang.management.*;
+
+/**
+ * AllocationProbe - Per-thread allocated byte counter
+ * Wraps the HotSpot ThreadMXBean extension that reports how many bytes the
+ * current thread has allocated. Returns 0 on JVMs without that extension.
+ */
+public final class AllocationProbe {
+    private static final com.sun.management.ThreadMXBean THREADS = lookup();
+
+    private AllocationProbe() {
+    }
+
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /** Total bytes allocated so far by the calling thread. */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getThreadAllocatedBytes(Thread.currentThread().getId()) : 0;
+    }
+
+    private static com.sun.management.ThreadMXBean lookup() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+                if (threads.isThreadAllocatedMemorySupported()) {
+                    threads.setThreadAllocatedMemoryEnabled(true);
+                    return threads;
+                }
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            // Fall through to the unsupported probe
+        }
+        return null;
+    }
+}
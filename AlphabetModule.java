@@ -7,34 +7,36 @@ import java.awt.event.*;
  * Displays letters with corresponding pictures and pronunciation
  */
 public class AlphabetModule extends JPanel {
-    private final Font CONTENT_FONT = new Font("Segoe UI", Font.PLAIN, 24);
-    private final Font EXAMPLE_FONT = new Font("Segoe UI", Font.ITALIC, 20);
-    private final Color BUTTON_COLOR = new Color(70, 130, 180);
-    private final Color HOVER_COLOR = new Color(100, 149, 237);
+    private final Font CONTENT_FONT = Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 24);
+    private final Font EXAMPLE_FONT = Styles.font(Styles.BODY_FAMILY, Font.ITALIC, 20);
     private char currentLetter = 'A';
-    private JLabel letterLabel;
+    private GlyphLabel letterLabel;
     private JLabel wordLabel;
     private JButton prevButton;
     private JButton nextButton;
+    private JButton reviewButton;
     private JButton homeButton;
+    // Content labels follow the language; Localization only holds this weakly
+    private final Runnable localeListener = this::updateDisplay;
     
     public AlphabetModule(CardLayout cardLayout, JPanel mainPanel) {
         setLayout(new BorderLayout(10, 10));
-        setBackground(new Color(245, 245, 255));
+        ThemeEngine.bindBackground(this, ThemeEngine.Token.BACKGROUND);
         
         // Create header panel
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setOpaque(false);
         
         // Create home button
-        homeButton = new JButton("Home");
-        homeButton.setFont(new Font("Comic Sans MS", Font.BOLD, 16));
+        homeButton = Localization.bind(new JButton(), "nav.home");
+        homeButton.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 16));
         homeButton.addActionListener(e -> cardLayout.show(mainPanel, "MainMenu"));
         headerPanel.add(homeButton, BorderLayout.WEST);
         
         // Create title
-        JLabel titleLabel = new JLabel("Learn the Alphabet", SwingConstants.CENTER);
-        titleLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 28));
+        JLabel titleLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "alphabet.title");
+        titleLabel.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 28));
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.HEADING);
         headerPanel.add(titleLabel, BorderLayout.CENTER);
         
         add(headerPanel, BorderLayout.NORTH);
@@ -44,16 +46,16 @@ public class AlphabetModule extends JPanel {
         contentPanel.setOpaque(false);
         
         // Create letter display
-        letterLabel = new JLabel(String.valueOf(currentLetter));
-        letterLabel.setFont(new Font("Segoe UI", Font.BOLD, 150));
-        letterLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        letterLabel.setForeground(new Color(70, 130, 180));
+        // The giant letter is painted from cached sprites instead of laying out text
+        letterLabel = new GlyphLabel(String.valueOf(currentLetter));
+        letterLabel.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 150));
+        ThemeEngine.bindForeground(letterLabel, ThemeEngine.Token.ACCENT);
         
         // Create word example
         wordLabel = new JLabel(getExampleWord(currentLetter));
         wordLabel.setFont(EXAMPLE_FONT);
         wordLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        wordLabel.setForeground(new Color(60, 60, 60));
+        ThemeEngine.bindForeground(wordLabel, ThemeEngine.Token.TEXT);
         
         contentPanel.add(letterLabel, BorderLayout.CENTER);
         contentPanel.add(wordLabel, BorderLayout.SOUTH);
@@ -64,77 +66,97 @@ public class AlphabetModule extends JPanel {
         JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         navigationPanel.setOpaque(false);
         
-        prevButton = new JButton("Previous");
-        nextButton = new JButton("Next");
+        prevButton = Localization.bind(new JButton(), "nav.previous");
+        nextButton = Localization.bind(new JButton(), "nav.next");
+        reviewButton = Localization.bind(new JButton(), "nav.review");
         
         styleNavigationButton(prevButton);
         styleNavigationButton(nextButton);
+        styleNavigationButton(reviewButton);
         
         prevButton.addActionListener(e -> showPreviousLetter());
         nextButton.addActionListener(e -> showNextLetter());
+        reviewButton.addActionListener(e -> showReviewLetter());
         
         navigationPanel.add(prevButton);
         navigationPanel.add(nextButton);
+        navigationPanel.add(reviewButton);
         
         add(navigationPanel, BorderLayout.SOUTH);
         
+        // Tapping the giant letter says it again
+        letterLabel.setCursor(Styles.HAND_CURSOR);
+        letterLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                pronounce();
+            }
+        });
+        
         updateButtonStates();
+        Localization.addListener(localeListener);
+        prefetchNeighbours();
     }
     
     private void styleNavigationButton(JButton button) {
-        button.setFont(new Font("Segoe UI", Font.BOLD, 20));
+        button.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20));
         button.setPreferredSize(new Dimension(120, 40));
-        button.setBackground(BUTTON_COLOR);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(HOVER_COLOR);
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(BUTTON_COLOR);
-            }
-        });
+        KidButtonUI.apply(button);
     }
     
-    private void showPreviousLetter() {
+    void showPreviousLetter() {
         if (currentLetter > 'A') {
-            currentLetter--;
-            updateDisplay();
+            showLetter((char) (currentLetter - 1));
         }
     }
     
-    private void showNextLetter() {
+    void showNextLetter() {
         if (currentLetter < 'Z') {
-            currentLetter++;
-            updateDisplay();
+            showLetter((char) (currentLetter + 1));
         }
     }
     
-    private void updateDisplay() {
+    // Letters come from the spaced repetition scheduler, most overdue first
+    void showReviewLetter() {
+        SpacedRepetitionScheduler scheduler = SpacedRepetitionScheduler.forSubject(QuizType.ALPHABET);
+        int item = scheduler.next();
+        scheduler.markSeen(item, System.currentTimeMillis());
+        showLetter((char) ('A' + item));
+    }
+    
+    // Slides towards the letter: later letters come in from the right, earlier from the left
+    private void showLetter(char letter) {
+        letterLabel.slideTo(String.valueOf(letter), letter < currentLetter ? -1 : 1);
+        currentLetter = letter;
+        updateDisplay();
+        pronounce();
+    }
+    
+    void updateDisplay() {
         letterLabel.setText(String.valueOf(currentLetter));
         wordLabel.setText(getExampleWord(currentLetter));
         updateButtonStates();
     }
     
+    private void pronounce() {
+        PronunciationPlayer.shared().play(PronunciationPlayer.LETTERS, String.valueOf(currentLetter));
+        prefetchNeighbours();
+    }
+    
+    // The letters either side, wrapping round, so the next tap is already decoded
+    private void prefetchNeighbours() {
+        char previous = currentLetter == 'A' ? 'Z' : (char) (currentLetter - 1);
+        char next = currentLetter == 'Z' ? 'A' : (char) (currentLetter + 1);
+        PronunciationPlayer.shared().prefetch(PronunciationPlayer.LETTERS,
+            String.valueOf(currentLetter), String.valueOf(next), String.valueOf(previous));
+    }
+    
     private void updateButtonStates() {
         prevButton.setEnabled(currentLetter > 'A');
         nextButton.setEnabled(currentLetter < 'Z');
     }
     
     private String getExampleWord(char letter) {
-        // Example words for each letter
-        String[] words = {
-            "Apple", "Ball", "Cat", "Dog", "Elephant",
-            "Fish", "Giraffe", "Hat", "Ice cream", "Jelly",
-            "Kite", "Lion", "Monkey", "Nest", "Orange",
-            "Penguin", "Queen", "Rabbit", "Sun", "Tree",
-            "Umbrella", "Van", "Water", "X-ray", "Yoyo",
-            "Zebra"
-        };
-        return words[letter - 'A'];
+        return LessonContent.getExampleWord(letter);
     }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * AnimationClock - One fixed-rate clock for every animation in the app
+ * A single javax.swing.Timer runs while anything is animating and stops when
+ * nothing is. Animations advance in whole frames of a fixed length, so they
+ * play at the same speed on any machine; when the EDT falls behind, the
+ * frames that were missed are folded into the next step (up to
+ * MAX_FRAMES_PER_STEP) instead of being rendered one by one, and counted as
+ * skipped. Animations repaint only the region they changed. Use from the EDT.
+ */
+public final class AnimationClock {
+    public static final int FRAMES_PER_SECOND = 60;
+    public static final long FRAME_NANOS = 1_000_000_000L / FRAMES_PER_SECOND;
+    // Beyond this the animation jumps rather than replaying a long stall
+    private static final int MAX_FRAMES_PER_STEP = 4;
+
+    /** Something that moves. */
+    public interface Animation {
+        /**
+         * Advances by the given number of fixed frames (at least one) and
+         * repaints what changed. Returns false once finished, which removes it.
+         */
+        boolean advance(int frames);
+    }
+
+    private static AnimationClock shared;
+
+    private final LongSupplier clock;
+    private final javax.swing.Timer timer;
+    private final ArrayList<Animation> animations = new ArrayList<>();
+    private long nextFrameAt;
+    private boolean ticking;
+
+    // Time spent stepping every animation in one tick, always on the real clock
+    private final LatencyStats frameTime = new LatencyStats(1024);
+    private long framesRendered;
+    private long framesSkipped;
+
+    public AnimationClock() {
+        this(System::nanoTime);
+    }
+
+    public AnimationClock(LongSupplier nanoClock) {
+        this.clock = nanoClock;
+        this.timer = new javax.swing.Timer((int) (FRAME_NANOS / 1_000_000), e -> tick());
+        this.timer.setCoalesce(true);
+    }
+
+    public static AnimationClock shared() {
+        if (shared == null) {
+            shared = new AnimationClock();
+        }
+        return shared;
+    }
+
+    /** Starts an animation on the next frame; starting one that is already running does nothing. */
+    public void start(Animation animation) {
+        if (animations.contains(animation)) {
+            return;
+        }
+        animations.add(animation);
+        if (!timer.isRunning()) {
+            nextFrameAt = clock.getAsLong() + FRAME_NANOS;
+            timer.start();
+        }
+    }
+
+    public void stop(Animation animation) {
+        int index = animations.indexOf(animation);
+        if (index < 0) {
+            return;
+        }
+        if (ticking) {
+            // Removed when the tick compacts the list
+            animations.set(index, null);
+            return;
+        }
+        animations.remove(index);
+        if (animations.isEmpty()) {
+            timer.stop();
+        }
+    }
+
+    public boolean isRunning(Animation animation) {
+        return animations.contains(animation);
+    }
+
+    /** Steps every animation by the frames that are due. Called by the timer; public for benchmarks. */
+    public void tick() {
+        long started = System.nanoTime();
+        long now = clock.getAsLong();
+        // The timer's millisecond delay lands a little either side of the frame grid
+        long late = now - nextFrameAt + FRAME_NANOS / 2;
+        if (late < 0) {
+            return;
+        }
+        long due = late / FRAME_NANOS + 1;
+        int frames = (int) Math.min(due, MAX_FRAMES_PER_STEP);
+        framesRendered++;
+        framesSkipped += due - 1;
+        // Stay on the frame grid; a long stall is dropped rather than caught up
+        nextFrameAt += due * FRAME_NANOS;
+
+        ticking = true;
+        try {
+            // Finished, failed and stopped animations become nulls, removed in one pass at the end;
+            // anything started during the tick is appended past n and first steps next tick
+            for (int i = 0, n = animations.size(); i < n; i++) {
+                Animation animation = animations.get(i);
+                if (animation == null) {
+                    continue;
+                }
+                boolean running;
+                try {
+                    running = animation.advance(frames);
+                } catch (RuntimeException e) {
+                    // One broken animation must not stop the others
+                    e.printStackTrace();
+                    running = false;
+                }
+                if (!running) {
+                    animations.set(i, null);
+                }
+            }
+        } finally {
+            ticking = false;
+            animations.removeIf(Objects::isNull);
+        }
+        if (animations.isEmpty()) {
+            timer.stop();
+        }
+        frameTime.record(System.nanoTime() - started);
+    }
+
+    public int getActiveCount() {
+        return animations.size();
+    }
+
+    public LatencyStats getFrameTime() {
+        return frameTime;
+    }
+
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+
+    /** Frames folded into a later step because the clock fell behind. */
+    public long getFramesSkipped() {
+        return framesSkipped;
+    }
+}
@@ -0,0 +1,503 @@
+import javax.sound.sampled.*;
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * AudioMixer - Sums every sound the app plays into one audio line
+ * A fixed set of voices is mixed block by block on one high-priority
+ * thread that owns the only SourceDataLine, so overlapping effects never
+ * open lines or contend with each other. Other threads talk to the mixer
+ * through a bounded lock-free command ring; the mixing thread owns all
+ * voice state and renders into buffers allocated once, so steady-state
+ * mixing allocates nothing. When every voice is busy the oldest sound is
+ * stolen; stop() fades a voice out over a few milliseconds to avoid clicks.
+ *
+ * A mixer that was never started renders offline instead: renderOffline()
+ * and writeWav() produce the same samples a device would get, so mixing
+ * speed and deadline misses can be measured without a sound card.
+ */
+public class AudioMixer implements AudioOutput {
+    /** Frames per mixed block; about 5.8 ms at 22.05 kHz. */
+    public static final int BLOCK_FRAMES = 128;
+    // Blocks queued in the device line; together with one block being mixed this is the output delay
+    private static final int LINE_BLOCKS = 4;
+    private static final int COMMAND_CAPACITY = 256;
+    private static final int FADE_FRAMES = 64;
+    // Gains are fixed point with 12 fractional bits
+    private static final int GAIN_SHIFT = 12;
+    private static final int GAIN_ONE = 1 << GAIN_SHIFT;
+
+    private static final byte PLAY = 1;
+    private static final byte STOP = 2;
+    private static final byte SET_GAIN = 3;
+
+    private final AudioFormat format;
+    private final int channels;
+    private final int blockSamples;
+    private final long blockNanos;
+
+    // Voice state; only the mixing thread (or the offline caller) touches these
+    private final PcmClip[] voiceClips;
+    private final Sound[] voiceSounds;
+    private final int[] voicePositions;
+    private final int[] voiceGains;
+    private final int[] voiceFades;
+    private final long[] voiceOrder;
+    private final Runnable[] startedCallbacks;
+    private int startedCount;
+    private long playCount;
+    private final int[] mix;
+    private final byte[] block;
+
+    // Multi-producer, single-consumer ring; each slot's sequence says whose turn it is
+    private final Command[] commands = new Command[COMMAND_CAPACITY];
+    private final AtomicLongArray sequences = new AtomicLongArray(COMMAND_CAPACITY);
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    private final LatencyStats renderLatency = new LatencyStats();
+    private final AtomicLong droppedCommands = new AtomicLong();
+    private volatile long blocksRendered;
+    private volatile long underruns;
+    private volatile long deadlineMisses;
+    private volatile long steals;
+    private volatile int activeVoices;
+
+    private volatile boolean running;
+    private SourceDataLine line;
+    private Thread thread;
+
+    /** Creates a mixer that renders offline until start() is called. */
+    public AudioMixer(AudioFormat format, int voices) {
+        if (format.getSampleSizeInBits() != 16 || format.isBigEndian()
+                || format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED) {
+            throw new IllegalArgumentException("Mixer needs 16-bit signed little-endian PCM: " + format);
+        }
+        this.format = format;
+        channels = format.getChannels();
+        blockSamples = BLOCK_FRAMES * channels;
+        blockNanos = (long) (BLOCK_FRAMES / (double) format.getFrameRate() * 1e9);
+        voices = Math.max(1, voices);
+        voiceClips = new PcmClip[voices];
+        voiceSounds = new Sound[voices];
+        voicePositions = new int[voices];
+        voiceGains = new int[voices];
+        voiceFades = new int[voices];
+        voiceOrder = new long[voices];
+        startedCallbacks = new Runnable[COMMAND_CAPACITY];
+        mix = new int[blockSamples];
+        block = new byte[blockSamples * 2];
+        for (int i = 0; i < COMMAND_CAPACITY; i++) {
+            commands[i] = new Command();
+            sequences.set(i, i);
+        }
+    }
+
+    /** Opens the default device line and starts mixing into it. */
+    public static AudioMixer open(AudioFormat format, int voices) throws LineUnavailableException {
+        AudioMixer mixer = new AudioMixer(format, voices);
+        SourceDataLine line = AudioSystem.getSourceDataLine(format);
+        try {
+            line.open(format, mixer.getBlockBytes() * LINE_BLOCKS);
+            mixer.start(line);
+        } catch (LineUnavailableException | RuntimeException e) {
+            line.close();
+            throw e;
+        }
+        return mixer;
+    }
+
+    /** Starts the mixing thread on an open line. */
+    public synchronized void start(SourceDataLine outputLine) {
+        if (thread != null) {
+            throw new IllegalStateException("Mixer already started");
+        }
+        line = outputLine;
+        running = true;
+        thread = new Thread(this::mixLoop, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        line.start();
+        thread.start();
+    }
+
+    @Override
+    public Sound play(PcmClip clip, Runnable onStarted) {
+        return play(clip, 1f, onStarted);
+    }
+
+    /**
+     * Queues a clip at the given gain (1 = as recorded). Returns at once;
+     * the sound starts with the next mixed block.
+     */
+    @Override
+    public Sound play(PcmClip clip, float gain, Runnable onStarted) {
+        if (!clip.getFormat().matches(format)) {
+            throw new IllegalArgumentException("Clip " + clip.getName() + " is not in the mixer format");
+        }
+        Sound sound = new Sound();
+        if (!offer(PLAY, sound, clip, toFixed(gain), onStarted)) {
+            sound.finished = true;
+        }
+        return sound;
+    }
+
+    @Override
+    public boolean isSilent() {
+        return false;
+    }
+
+    @Override
+    public long getOutputLatencyMicros() {
+        return (long) ((LINE_BLOCKS + 1) * BLOCK_FRAMES / (double) format.getFrameRate() * 1_000_000);
+    }
+
+    @Override
+    public void close() {
+        Thread mixing;
+        synchronized (this) {
+            running = false;
+            mixing = thread;
+        }
+        if (mixing == null) {
+            return;
+        }
+        try {
+            mixing.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        line.stop();
+        line.close();
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    public int getBlockBytes() {
+        return block.length;
+    }
+
+    /**
+     * Mixes the given number of frames without a device, as the mixing
+     * thread would. Only for mixers that were never started.
+     */
+    public byte[] renderOffline(int frames) {
+        checkOffline();
+        int blocks = (frames + BLOCK_FRAMES - 1) / BLOCK_FRAMES;
+        byte[] out = new byte[blocks * block.length];
+        for (int i = 0; i < blocks; i++) {
+            renderBlock();
+            System.arraycopy(block, 0, out, i * block.length, block.length);
+            runStartedCallbacks();
+        }
+        return out;
+    }
+
+    /** Mixes one block offline and copies it into out at the given offset. */
+    public void renderOffline(byte[] out, int offset) {
+        checkOffline();
+        renderBlock();
+        System.arraycopy(block, 0, out, offset, block.length);
+        runStartedCallbacks();
+    }
+
+    /** Mixes the given number of frames offline and writes them as a WAV file. */
+    public void writeWav(OutputStream out, int frames) throws IOException {
+        byte[] pcm = renderOffline(frames);
+        try (AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(pcm), format,
+                pcm.length / format.getFrameSize())) {
+            AudioSystem.write(stream, AudioFileFormat.Type.WAVE, out);
+        }
+    }
+
+    /** Time to mix one block. */
+    public LatencyStats getRenderLatency() {
+        return renderLatency;
+    }
+
+    public long getBlocksRendered() {
+        return blocksRendered;
+    }
+
+    /** Blocks that took longer to mix than they take to play. */
+    public long getDeadlineMisses() {
+        return deadlineMisses;
+    }
+
+    /** Times the device line ran dry before the next block arrived. */
+    public long getUnderruns() {
+        return underruns;
+    }
+
+    public long getSteals() {
+        return steals;
+    }
+
+    /** Commands lost because the ring was full. */
+    public long getDroppedCommands() {
+        return droppedCommands.get();
+    }
+
+    public int getActiveVoices() {
+        return activeVoices;
+    }
+
+    public int getVoiceCount() {
+        return voiceClips.length;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AudioMixer[voices=%d/%d, blocks=%d, render p99=%.3fms, underruns=%d, "
+                + "deadlineMisses=%d, steals=%d, dropped=%d]",
+            activeVoices, voiceClips.length, blocksRendered,
+            LatencyStats.toMillis(renderLatency.getPercentileNanos(99)),
+            underruns, deadlineMisses, steals, droppedCommands.get());
+    }
+
+    private void checkOffline() {
+        synchronized (this) {
+            if (thread != null) {
+                throw new IllegalStateException("Mixer is playing to a device");
+            }
+        }
+    }
+
+    private static int toFixed(float gain) {
+        return Math.round(Math.max(0f, gain) * GAIN_ONE);
+    }
+
+    private void mixLoop() {
+        boolean primed = false;
+        while (running) {
+            renderBlock();
+            // A full line's worth of free space means the device played everything we gave it
+            if (primed && line.available() >= line.getBufferSize()) {
+                underruns++;
+            }
+            line.write(block, 0, block.length);
+            primed = true;
+            runStartedCallbacks();
+        }
+    }
+
+    private void renderBlock() {
+        long start = System.nanoTime();
+        drainCommands();
+        Arrays.fill(mix, 0);
+        int active = 0;
+        for (int v = 0; v < voiceClips.length; v++) {
+            if (voiceClips[v] != null) {
+                mixVoice(v);
+                active++;
+            }
+        }
+        for (int i = 0, b = 0; i < blockSamples; i++, b += 2) {
+            int sample = mix[i];
+            if (sample > Short.MAX_VALUE) {
+                sample = Short.MAX_VALUE;
+            } else if (sample < Short.MIN_VALUE) {
+                sample = Short.MIN_VALUE;
+            }
+            block[b] = (byte) sample;
+            block[b + 1] = (byte) (sample >> 8);
+        }
+        activeVoices = active;
+        blocksRendered++;
+        long elapsed = System.nanoTime() - start;
+        renderLatency.record(elapsed);
+        if (elapsed > blockNanos) {
+            deadlineMisses++;
+        }
+    }
+
+    private void mixVoice(int v) {
+        byte[] data = voiceClips[v].getData();
+        int position = voicePositions[v];
+        int gain = voiceGains[v];
+        int fade = voiceFades[v];
+        int samples = Math.min(blockSamples, (data.length - position) >> 1);
+        if (fade >= 0) {
+            samples = Math.min(samples, fade * channels);
+        }
+
+        for (int i = 0; i < samples; i++, position += 2) {
+            int sample = (short) ((data[position] & 0xFF) | (data[position + 1] << 8));
+            int g = gain;
+            if (fade >= 0) {
+                // Linear ramp to silence, one step per frame
+                g = gain * (fade - i / channels) / FADE_FRAMES;
+            }
+            mix[i] += (sample * g) >> GAIN_SHIFT;
+        }
+
+        voicePositions[v] = position;
+        if (fade >= 0) {
+            voiceFades[v] = fade - samples / channels;
+        }
+        if (position >= data.length || voiceFades[v] == 0) {
+            release(v);
+        }
+    }
+
+    private void release(int v) {
+        voiceSounds[v].finished = true;
+        voiceClips[v] = null;
+        voiceSounds[v] = null;
+    }
+
+    private void drainCommands() {
+        while (true) {
+            int index = (int) (head & (COMMAND_CAPACITY - 1));
+            if (sequences.get(index) != head + 1) {
+                return;
+            }
+            Command command = commands[index];
+            switch (command.type) {
+                case PLAY:
+                    startVoice(command.sound, command.clip, command.gain, command.onStarted);
+                    break;
+                case STOP:
+                    stopVoice(command.sound);
+                    break;
+                case SET_GAIN:
+                    int v = voiceOf(command.sound);
+                    if (v >= 0) {
+                        voiceGains[v] = command.gain;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            command.sound = null;
+            command.clip = null;
+            command.onStarted = null;
+            sequences.set(index, head + COMMAND_CAPACITY);
+            head++;
+        }
+    }
+
+    private void startVoice(Sound sound, PcmClip clip, int gain, Runnable onStarted) {
+        if (sound.stopRequested) {
+            sound.finished = true;
+            return;
+        }
+        int chosen = -1;
+        for (int v = 0; v < voiceClips.length; v++) {
+            if (voiceClips[v] == null) {
+                chosen = v;
+                break;
+            }
+            if (chosen < 0 || voiceOrder[v] < voiceOrder[chosen]) {
+                chosen = v;
+            }
+        }
+        if (voiceClips[chosen] != null) {
+            release(chosen);
+            steals++;
+        }
+        voiceClips[chosen] = clip;
+        voiceSounds[chosen] = sound;
+        voicePositions[chosen] = 0;
+        voiceGains[chosen] = gain;
+        voiceFades[chosen] = -1;
+        voiceOrder[chosen] = ++playCount;
+        if (onStarted != null && startedCount < startedCallbacks.length) {
+            startedCallbacks[startedCount++] = onStarted;
+        }
+    }
+
+    private void stopVoice(Sound sound) {
+        int v = voiceOf(sound);
+        if (v >= 0 && voiceFades[v] < 0) {
+            voiceFades[v] = FADE_FRAMES;
+        }
+    }
+
+    private int voiceOf(Sound sound) {
+        for (int v = 0; v < voiceSounds.length; v++) {
+            if (voiceSounds[v] == sound) {
+                return v;
+            }
+        }
+        return -1;
+    }
+
+    // Called once the block containing the first samples has been handed over
+    private void runStartedCallbacks() {
+        for (int i = 0; i < startedCount; i++) {
+            try {
+                startedCallbacks[i].run();
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+            startedCallbacks[i] = null;
+        }
+        startedCount = 0;
+    }
+
+    private boolean offer(byte type, Sound sound, PcmClip clip, int gain, Runnable onStarted) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & (COMMAND_CAPACITY - 1));
+            long sequence = sequences.get(index);
+            if (sequence == position) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    Command command = commands[index];
+                    command.type = type;
+                    command.sound = sound;
+                    command.clip = clip;
+                    command.gain = gain;
+                    command.onStarted = onStarted;
+                    // Publishes the fields above to the mixing thread
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (sequence < position) {
+                droppedCommands.incrementAndGet();
+                return false;
+            }
+        }
+    }
+
+    /** A reusable slot in the command ring. */
+    private static final class Command {
+        byte type;
+        Sound sound;
+        PcmClip clip;
+        int gain;
+        Runnable onStarted;
+    }
+
+    /** A sound queued on or playing in the mixer. */
+    public final class Sound implements Playback {
+        private volatile boolean finished;
+        private volatile boolean stopRequested;
+
+        @Override
+        public void stop() {
+            if (!finished && !stopRequested) {
+                stopRequested = true;
+                if (!offer(STOP, this, null, 0, null)) {
+                    // Nothing else will stop it; let it play out
+                    stopRequested = false;
+                }
+            }
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return !finished;
+        }
+
+        /** Changes the volume of a playing sound; 1 = as recorded. */
+        public void setGain(float gain) {
+            if (!finished) {
+                offer(SET_GAIN, this, null, toFixed(gain), null);
+            }
+        }
+    }
+}
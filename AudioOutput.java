@@ -0,0 +1,76 @@
+import javax.sound.sampled.*;
+
+/**
+ * AudioOutput - Where the app's sounds are played
+ * Every clip is converted to FORMAT when it is loaded, so outputs never
+ * convert while playing. open() returns a real device output when one is
+ * available and a silent one otherwise (no sound card, headless CI, or
+ * -Dkids.audio=off), so the rest of the app never has to check.
+ */
+public interface AudioOutput {
+    /** 22.05 kHz, 16-bit signed little-endian mono: plenty for speech. */
+    AudioFormat FORMAT = new AudioFormat(22050f, 16, 1, true, false);
+
+    /** A sound that has been started. */
+    interface Playback {
+        /** Stops the sound at once if it is still playing. */
+        void stop();
+
+        boolean isPlaying();
+    }
+
+    /**
+     * Starts playing the clip and returns at once. onStarted runs (on an
+     * audio thread) when the first samples have been handed to the device.
+     */
+    Playback play(PcmClip clip, Runnable onStarted);
+
+    /** Like play(clip, onStarted) at a gain where 1 is as recorded; outputs without volume control ignore it. */
+    default Playback play(PcmClip clip, float gain, Runnable onStarted) {
+        return play(clip, onStarted);
+    }
+
+    /** True if nothing is audible, e.g. no audio device. */
+    boolean isSilent();
+
+    /** Delay added by the device buffer between handing over samples and hearing them. */
+    long getOutputLatencyMicros();
+
+    void close();
+
+    /** Opens the default device with the given number of simultaneous voices, or a silent output. */
+    static AudioOutput open(int voices) {
+        if ("off".equals(System.getProperty("kids.audio"))) {
+            return new SilentAudioOutput();
+        }
+        try {
+            return AudioMixer.open(FORMAT, voices);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("No audio device, sounds are disabled: " + e.getMessage());
+            return new SilentAudioOutput();
+        }
+    }
+
+    /** The app's output, shared by speech and sound effects; opened on first use. */
+    static AudioOutput shared() {
+        return Shared.OUTPUT;
+    }
+
+    /**
+     * Starts opening the shared output on a background thread, so the first
+     * sound effect played from the EDT does not wait for the device.
+     */
+    static void openSharedInBackground() {
+        Thread opener = new Thread(AudioOutput::shared, "audio-open");
+        opener.setDaemon(true);
+        opener.start();
+    }
+
+    /** Holder so the device is only opened when it is first needed. */
+    final class Shared {
+        private static final AudioOutput OUTPUT = open(8);
+
+        private Shared() {
+        }
+    }
+}
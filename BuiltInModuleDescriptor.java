@@ -0,0 +1,58 @@
+import javax.swing.*;
+import java.awt.*;
+import java.lang.reflect.*;
+
+/**
+ * BuiltInModuleDescriptor - Descriptor for modules shipped with the app
+ * Refers to the module by class name so the class is only loaded when the
+ * registry pre-warms or creates it.
+ */
+public class BuiltInModuleDescriptor implements ModuleDescriptor {
+    private final String name;
+    private final int order;
+    private final String className;
+    private volatile Constructor<? extends JPanel> constructor;
+
+    public BuiltInModuleDescriptor(String name, int order, String className) {
+        this.name = name;
+        this.order = order;
+        this.className = className;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    @Override
+    public void prewarm() throws Exception {
+        resolveConstructor();
+    }
+
+    @Override
+    public JPanel create(CardLayout cardLayout, JPanel mainPanel) throws Exception {
+        try {
+            return resolveConstructor().newInstance(cardLayout, mainPanel);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    private Constructor<? extends JPanel> resolveConstructor() throws ReflectiveOperationException {
+        Constructor<? extends JPanel> result = constructor;
+        if (result == null) {
+            // Loading with initialization runs static initializers off the EDT
+            Class<? extends JPanel> moduleClass = Class.forName(className, true, getClass().getClassLoader())
+                .asSubclass(JPanel.class);
+            result = moduleClass.getConstructor(CardLayout.class, JPanel.class);
+            constructor = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,378 @@
+/**
+ * ColorEngine - Perceptual color math and nearest named color search
+ * Converts between sRGB and CIELAB (D65) using lookup tables for the
+ * parts that are expensive per channel: sRGB decoding, the cube root in
+ * the Lab transfer function and sRGB encoding. Distances are CIE76 delta
+ * E, i.e. straight-line distance in Lab, which is close enough to how far
+ * apart two colors look for picking names.
+ *
+ * An engine holds a named palette in a k-d tree over Lab, so finding the
+ * nearest name visits a handful of entries instead of all of them, and a
+ * small direct-mapped cache of recent answers per RGB value. Engines are
+ * immutable apart from that cache and safe to share between threads.
+ */
+public final class ColorEngine {
+    // CSS named colors: the large palette used to put a name to any color
+    private static final String[] CSS_NAMES = {
+        "Alice Blue", "Antique White", "Aqua", "Aquamarine", "Azure", "Beige", "Bisque", "Black",
+        "Blanched Almond", "Blue", "Blue Violet", "Brown", "Burlywood", "Cadet Blue", "Chartreuse", "Chocolate",
+        "Coral", "Cornflower Blue", "Cornsilk", "Crimson", "Dark Blue", "Dark Cyan", "Dark Goldenrod", "Dark Gray",
+        "Dark Green", "Dark Khaki", "Dark Magenta", "Dark Olive Green", "Dark Orange", "Dark Orchid", "Dark Red",
+        "Dark Salmon", "Dark Sea Green", "Dark Slate Blue", "Dark Slate Gray", "Dark Turquoise", "Dark Violet",
+        "Deep Pink", "Deep Sky Blue", "Dim Gray", "Dodger Blue", "Firebrick", "Floral White", "Forest Green",
+        "Fuchsia", "Gainsboro", "Ghost White", "Gold", "Goldenrod", "Gray", "Green", "Green Yellow", "Honeydew",
+        "Hot Pink", "Indian Red", "Indigo", "Ivory", "Khaki", "Lavender", "Lavender Blush", "Lawn Green",
+        "Lemon Chiffon", "Light Blue", "Light Coral", "Light Cyan", "Light Goldenrod Yellow", "Light Gray",
+        "Light Green", "Light Pink", "Light Salmon", "Light Sea Green", "Light Sky Blue", "Light Slate Gray",
+        "Light Steel Blue", "Light Yellow", "Lime", "Lime Green", "Linen", "Maroon", "Medium Aquamarine",
+        "Medium Blue", "Medium Orchid", "Medium Purple", "Medium Sea Green", "Medium Slate Blue",
+        "Medium Spring Green", "Medium Turquoise", "Medium Violet Red", "Midnight Blue", "Mint Cream",
+        "Misty Rose", "Moccasin", "Navajo White", "Navy", "Old Lace", "Olive", "Olive Drab", "Orange",
+        "Orange Red", "Orchid", "Pale Goldenrod", "Pale Green", "Pale Turquoise", "Pale Violet Red",
+        "Papaya Whip", "Peach Puff", "Peru", "Pink", "Plum", "Powder Blue", "Purple", "Rebecca Purple", "Red",
+        "Rosy Brown", "Royal Blue", "Saddle Brown", "Salmon", "Sandy Brown", "Sea Green", "Seashell", "Sienna",
+        "Silver", "Sky Blue", "Slate Blue", "Slate Gray", "Snow", "Spring Green", "Steel Blue", "Tan", "Teal",
+        "Thistle", "Tomato", "Turquoise", "Violet", "Wheat", "White", "White Smoke", "Yellow", "Yellow Green"
+    };
+    private static final int[] CSS_RGB = {
+        0xF0F8FF, 0xFAEBD7, 0x00FFFF, 0x7FFFD4, 0xF0FFFF, 0xF5F5DC, 0xFFE4C4, 0x000000,
+        0xFFEBCD, 0x0000FF, 0x8A2BE2, 0xA52A2A, 0xDEB887, 0x5F9EA0, 0x7FFF00, 0xD2691E,
+        0xFF7F50, 0x6495ED, 0xFFF8DC, 0xDC143C, 0x00008B, 0x008B8B, 0xB8860B, 0xA9A9A9,
+        0x006400, 0xBDB76B, 0x8B008B, 0x556B2F, 0xFF8C00, 0x9932CC, 0x8B0000,
+        0xE9967A, 0x8FBC8F, 0x483D8B, 0x2F4F4F, 0x00CED1, 0x9400D3,
+        0xFF1493, 0x00BFFF, 0x696969, 0x1E90FF, 0xB22222, 0xFFFAF0, 0x228B22,
+        0xFF00FF, 0xDCDCDC, 0xF8F8FF, 0xFFD700, 0xDAA520, 0x808080, 0x008000, 0xADFF2F, 0xF0FFF0,
+        0xFF69B4, 0xCD5C5C, 0x4B0082, 0xFFFFF0, 0xF0E68C, 0xE6E6FA, 0xFFF0F5, 0x7CFC00,
+        0xFFFACD, 0xADD8E6, 0xF08080, 0xE0FFFF, 0xFAFAD2, 0xD3D3D3,
+        0x90EE90, 0xFFB6C1, 0xFFA07A, 0x20B2AA, 0x87CEFA, 0x778899,
+        0xB0C4DE, 0xFFFFE0, 0x00FF00, 0x32CD32, 0xFAF0E6, 0x800000, 0x66CDAA,
+        0x0000CD, 0xBA55D3, 0x9370DB, 0x3CB371, 0x7B68EE,
+        0x00FA9A, 0x48D1CC, 0xC71585, 0x191970, 0xF5FFFA,
+        0xFFE4E1, 0xFFE4B5, 0xFFDEAD, 0x000080, 0xFDF5E6, 0x808000, 0x6B8E23, 0xFFA500,
+        0xFF4500, 0xDA70D6, 0xEEE8AA, 0x98FB98, 0xAFEEEE, 0xDB7093,
+        0xFFEFD5, 0xFFDAB9, 0xCD853F, 0xFFC0CB, 0xDDA0DD, 0xB0E0E6, 0x800080, 0x663399, 0xFF0000,
+        0xBC8F8F, 0x4169E1, 0x8B4513, 0xFA8072, 0xF4A460, 0x2E8B57, 0xFFF5EE, 0xA0522D,
+        0xC0C0C0, 0x87CEEB, 0x6A5ACD, 0x708090, 0xFFFAFA, 0x00FF7F, 0x4682B4, 0xD2B48C, 0x008080,
+        0xD8BFD8, 0xFF6347, 0x40E0D0, 0xEE82EE, 0xF5DEB3, 0xFFFFFF, 0xF5F5F5, 0xFFFF00, 0x9ACD32
+    };
+
+    // D65 reference white
+    private static final double WHITE_X = 0.95047;
+    private static final double WHITE_Y = 1.0;
+    private static final double WHITE_Z = 1.08883;
+    private static final double EPSILON = 216.0 / 24389;
+    private static final double KAPPA = 24389.0 / 27;
+
+    private static final float[] SRGB_TO_LINEAR = new float[256];
+    // Lab transfer function f(t) sampled over [0, 1]; interpolated between samples
+    private static final int F_STEPS = 2048;
+    private static final float[] LAB_F = new float[F_STEPS + 2];
+    // sRGB encoding of linear light in [0, 1], in 1/4095 steps
+    private static final int ENCODE_STEPS = 4095;
+    private static final byte[] LINEAR_TO_SRGB = new byte[ENCODE_STEPS + 1];
+    private static final int CACHE_SIZE = 4096;
+    // Subtrees this small are scanned; below it the tree walk costs more than it saves
+    private static final int LEAF_SIZE = 8;
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            double c = i / 255.0;
+            SRGB_TO_LINEAR[i] = (float) (c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4));
+        }
+        for (int i = 0; i < LAB_F.length; i++) {
+            LAB_F[i] = (float) labF(i / (double) F_STEPS);
+        }
+        for (int i = 0; i <= ENCODE_STEPS; i++) {
+            double linear = i / (double) ENCODE_STEPS;
+            double c = linear <= 0.0031308 ? linear * 12.92 : 1.055 * Math.pow(linear, 1 / 2.4) - 0.055;
+            LINEAR_TO_SRGB[i] = (byte) Math.round(c * 255);
+        }
+    }
+
+    private static ColorEngine named;
+
+    private final String[] names;
+    private final int[] rgb;
+    // Palette entries in k-d tree order: the median of [lo, hi) sits at (lo + hi) / 2
+    private final float[] treeL;
+    private final float[] treeA;
+    private final float[] treeB;
+    private final int[] treeIndex;
+    // (rgb | 1 << 24) << 32 | palette index; 0 is empty
+    private final long[] cache = new long[CACHE_SIZE];
+
+    public ColorEngine(String[] names, int[] rgb) {
+        if (names.length != rgb.length || names.length == 0) {
+            throw new IllegalArgumentException("Need one color per name, got " + names.length + " names and "
+                + rgb.length + " colors");
+        }
+        this.names = names.clone();
+        this.rgb = rgb.clone();
+        int n = rgb.length;
+        treeL = new float[n];
+        treeA = new float[n];
+        treeB = new float[n];
+        treeIndex = new int[n];
+        float[] lab = new float[3];
+        for (int i = 0; i < n; i++) {
+            toLab(rgb[i], lab);
+            treeL[i] = lab[0];
+            treeA[i] = lab[1];
+            treeB[i] = lab[2];
+            treeIndex[i] = i;
+        }
+        build(0, n, 0);
+    }
+
+    /** The CSS named colors, about 140 of them. */
+    public static synchronized ColorEngine named() {
+        if (named == null) {
+            named = new ColorEngine(CSS_NAMES, CSS_RGB);
+        }
+        return named;
+    }
+
+    /** The lesson colors under their language-independent keys; entry i is lesson color i. */
+    public static ColorEngine lessonColors() {
+        int count = LessonContent.getColorCount();
+        String[] names = new String[count];
+        int[] rgb = new int[count];
+        for (int i = 0; i < count; i++) {
+            names[i] = LessonContent.getColorKey(i);
+            rgb[i] = LessonContent.getColorRgb(i);
+        }
+        return new ColorEngine(names, rgb);
+    }
+
+    public int size() {
+        return rgb.length;
+    }
+
+    public String getName(int index) {
+        return names[index];
+    }
+
+    public int getRgb(int index) {
+        return rgb[index];
+    }
+
+    /** Index of the palette color that looks closest to the given 0xRRGGBB. */
+    public int nearest(int color) {
+        color &= 0xFFFFFF;
+        int slot = (color * 0x9E3779B1) >>> 20;
+        long entry = cache[slot];
+        long tag = (long) (color | 1 << 24) << 32;
+        if ((entry & 0xFFFFFFFF00000000L) == tag) {
+            return (int) entry;
+        }
+        int index = nearestUncached(color);
+        cache[slot] = tag | index;
+        return index;
+    }
+
+    /** The k-d tree search without the cache, for benchmarks. */
+    public int nearestUncached(int color) {
+        float[] lab = new float[3];
+        toLab(color, lab);
+        long best = search(0, rgb.length, 0, lab[0], lab[1], lab[2], Long.MAX_VALUE);
+        return treeIndex[(int) best];
+    }
+
+    /** The same answer as nearestUncached by comparing against every entry; for benchmarks. */
+    public int nearestByScan(int color) {
+        float[] lab = new float[3];
+        toLab(color, lab);
+        int best = 0;
+        float bestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < treeL.length; i++) {
+            float distance = distanceSquared(i, lab[0], lab[1], lab[2]);
+            if (distance < bestDistance) {
+                bestDistance = distance;
+                best = i;
+            }
+        }
+        return treeIndex[best];
+    }
+
+    /**
+     * Finds the nearest entry in the subtree [lo, hi). best packs the squared
+     * distance (float bits, which order like the floats for non-negative
+     * values) above the tree position, so the search allocates nothing.
+     */
+    private long search(int lo, int hi, int depth, float l, float a, float b, long best) {
+        if (hi - lo <= LEAF_SIZE) {
+            for (int i = lo; i < hi; i++) {
+                float distance = distanceSquared(i, l, a, b);
+                if (Float.floatToRawIntBits(distance) < (int) (best >>> 32)) {
+                    best = (long) Float.floatToRawIntBits(distance) << 32 | i;
+                }
+            }
+            return best;
+        }
+        int mid = (lo + hi) >>> 1;
+        float distance = distanceSquared(mid, l, a, b);
+        if (Float.floatToRawIntBits(distance) < (int) (best >>> 32)) {
+            best = (long) Float.floatToRawIntBits(distance) << 32 | mid;
+        }
+        float diff = axis(mid, depth, l, a, b);
+        boolean left = diff < 0;
+        best = left ? search(lo, mid, depth + 1, l, a, b, best) : search(mid + 1, hi, depth + 1, l, a, b, best);
+        // The other side can only help if the splitting plane is closer than the best so far
+        if (diff * diff < Float.intBitsToFloat((int) (best >>> 32))) {
+            best = left ? search(mid + 1, hi, depth + 1, l, a, b, best) : search(lo, mid, depth + 1, l, a, b, best);
+        }
+        return best;
+    }
+
+    // Signed distance from the query to the node's splitting plane
+    private float axis(int node, int depth, float l, float a, float b) {
+        switch (depth % 3) {
+            case 0:
+                return l - treeL[node];
+            case 1:
+                return a - treeA[node];
+            default:
+                return b - treeB[node];
+        }
+    }
+
+    private float distanceSquared(int node, float l, float a, float b) {
+        float dl = l - treeL[node];
+        float da = a - treeA[node];
+        float db = b - treeB[node];
+        return dl * dl + da * da + db * db;
+    }
+
+    // Puts the median of [lo, hi) on the axis for this depth in the middle, then recurses
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= LEAF_SIZE) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 3);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect on one coordinate, moving all four parallel arrays together
+    private void select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            float pivot = coordinate((lo + hi) >>> 1, axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private float coordinate(int node, int axis) {
+        return axis == 0 ? treeL[node] : axis == 1 ? treeA[node] : treeB[node];
+    }
+
+    private void swap(int i, int j) {
+        float l = treeL[i];
+        treeL[i] = treeL[j];
+        treeL[j] = l;
+        float a = treeA[i];
+        treeA[i] = treeA[j];
+        treeA[j] = a;
+        float b = treeB[i];
+        treeB[i] = treeB[j];
+        treeB[j] = b;
+        int index = treeIndex[i];
+        treeIndex[i] = treeIndex[j];
+        treeIndex[j] = index;
+    }
+
+    /** Converts 0xRRGGBB to CIELAB, writing L, a, b into out. */
+    public static float[] toLab(int color, float[] out) {
+        float r = SRGB_TO_LINEAR[(color >> 16) & 0xFF];
+        float g = SRGB_TO_LINEAR[(color >> 8) & 0xFF];
+        float b = SRGB_TO_LINEAR[color & 0xFF];
+        float fx = f((float) ((0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / WHITE_X));
+        float fy = f((float) ((0.2126729 * r + 0.7151522 * g + 0.0721750 * b) / WHITE_Y));
+        float fz = f((float) ((0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / WHITE_Z));
+        out[0] = 116 * fy - 16;
+        out[1] = 500 * (fx - fy);
+        out[2] = 200 * (fy - fz);
+        return out;
+    }
+
+    /** Converts CIELAB to 0xRRGGBB, clipping colors outside sRGB to its gamut. */
+    public static int toRgb(float l, float a, float b) {
+        double fy = (l + 16) / 116.0;
+        double fx = fy + a / 500.0;
+        double fz = fy - b / 200.0;
+        double x = inverseF(fx) * WHITE_X;
+        double y = (l > KAPPA * EPSILON ? fy * fy * fy : l / KAPPA) * WHITE_Y;
+        double z = inverseF(fz) * WHITE_Z;
+        int red = encode(3.2404542 * x - 1.5371385 * y - 0.4985314 * z);
+        int green = encode(-0.9692660 * x + 1.8760108 * y + 0.0415560 * z);
+        int blue = encode(0.0556434 * x - 0.2040259 * y + 1.0572252 * z);
+        return red << 16 | green << 8 | blue;
+    }
+
+    /** CIE76 delta E between two 0xRRGGBB colors; about 2.3 is just noticeable. */
+    public static double deltaE(int first, int second) {
+        float[] p = toLab(first, new float[3]);
+        float[] q = toLab(second, new float[3]);
+        double dl = p[0] - q[0];
+        double da = p[1] - q[1];
+        double db = p[2] - q[2];
+        return Math.sqrt(dl * dl + da * da + db * db);
+    }
+
+    /** The same color made lighter (positive) or darker (negative) by a step in Lab lightness. */
+    public static int shade(int color, float lightness) {
+        float[] lab = toLab(color, new float[3]);
+        return toRgb(Math.max(0, Math.min(100, lab[0] + lightness)), lab[1], lab[2]);
+    }
+
+    private static float f(float t) {
+        if (t <= EPSILON) {
+            return (float) ((KAPPA * t + 16) / 116);
+        }
+        if (t >= 1) {
+            return (float) Math.cbrt(t);
+        }
+        float position = t * F_STEPS;
+        int i = (int) position;
+        float fraction = position - i;
+        return LAB_F[i] + (LAB_F[i + 1] - LAB_F[i]) * fraction;
+    }
+
+    private static double labF(double t) {
+        return t > EPSILON ? Math.cbrt(t) : (KAPPA * t + 16) / 116;
+    }
+
+    private static double inverseF(double f) {
+        double cube = f * f * f;
+        return cube > EPSILON ? cube : (116 * f - 16) / KAPPA;
+    }
+
+    private static int encode(double linear) {
+        if (linear <= 0) {
+            return 0;
+        }
+        if (linear >= 1) {
+            return 255;
+        }
+        return LINEAR_TO_SRGB[(int) (linear * ENCODE_STEPS + 0.5)] & 0xFF;
+    }
+}
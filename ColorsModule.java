@@ -0,0 +1,414 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+
+/**
+ * ColorsModule - Educational module for learning colors
+ * Three activities share the screen: learning each color with its lighter
+ * and darker shades, a mixing game (blue + yellow = ?) and a game where
+ * the child picks the lesson color closest to an in-between color, which
+ * is then named from the CSS palette. Swatches come from the SwatchCache
+ * and color names from ColorEngine lookups.
+ */
+public class ColorsModule extends JPanel implements LearningModule {
+    private final Font NAME_FONT = Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 36);
+    private final Font QUESTION_FONT = Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 24);
+    private final Font OPTION_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 16);
+    private final Font SHADE_FONT = Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 12);
+    private final Font FEEDBACK_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20);
+    // Lab lightness steps for the shades row, darkest first
+    private static final float[] SHADE_STEPS = {-30, -15, 0, 15, 30};
+    private static final int OPTIONS = 4;
+    private static final int NEXT_ROUND_MILLIS = 1500;
+    // The closest lesson color must beat every wrong option by this much delta E
+    private static final double CLOSEST_MARGIN = 15;
+    // How far a "closest" target strays from its lesson color, in Lab units
+    private static final float TARGET_SPREAD = 22;
+    // Random targets tried before asking for a lesson color itself
+    private static final int MAX_TARGET_TRIES = 50;
+
+    private final ColorEngine lessonColors = ColorEngine.lessonColors();
+    private final ColorEngine namedColors = ColorEngine.named();
+    private final Random random = new Random();
+    private final CardLayout activities = new CardLayout();
+    private final JPanel activityPanel = new JPanel(activities);
+    private int currentColorIndex = 0;
+
+    // Lesson card
+    private final SwatchCache.SwatchIcon bigSwatch = new SwatchCache.SwatchIcon(0, 240, 160);
+    private JLabel colorNameLabel;
+    private final JLabel[] shadeLabels = new JLabel[SHADE_STEPS.length];
+    private JButton prevButton;
+    private JButton nextButton;
+    private JButton mixButton;
+    private JButton closestButton;
+
+    // Game card, shared by the mixing and closest color games
+    private boolean mixing;
+    private final SwatchCache.SwatchIcon firstSwatch = new SwatchCache.SwatchIcon(0, 120, 90);
+    private final SwatchCache.SwatchIcon secondSwatch = new SwatchCache.SwatchIcon(0, 120, 90);
+    private JLabel firstLabel;
+    private JLabel plusLabel;
+    private JLabel secondLabel;
+    private JLabel questionLabel;
+    private JLabel feedbackLabel;
+    private final JButton[] optionButtons = new JButton[OPTIONS];
+    private final int[] optionColors = new int[OPTIONS];
+    private int[] mix;
+    private int target;
+    private int answer;
+    private boolean answered;
+    private final javax.swing.Timer nextRound = new javax.swing.Timer(NEXT_ROUND_MILLIS, e -> newRound());
+    // Content labels follow the language; Localization only holds this weakly
+    private final Runnable localeListener = () -> {
+        updateText();
+        updateGameButtons();
+    };
+
+    public ColorsModule(CardLayout cardLayout, JPanel mainPanel) {
+        setLayout(new BorderLayout(10, 10));
+        ThemeEngine.bindBackground(this, ThemeEngine.Token.BACKGROUND);
+
+        // Create header panel
+        JPanel headerPanel = new JPanel(new BorderLayout());
+        headerPanel.setOpaque(false);
+
+        JButton homeButton = Localization.bind(new JButton(), "nav.home");
+        homeButton.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 16));
+        KidButtonUI.apply(homeButton);
+        homeButton.addActionListener(e -> cardLayout.show(mainPanel, "MainMenu"));
+        headerPanel.add(homeButton, BorderLayout.WEST);
+
+        JLabel titleLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "colors.title");
+        titleLabel.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 28));
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.HEADING);
+        headerPanel.add(titleLabel, BorderLayout.CENTER);
+
+        add(headerPanel, BorderLayout.NORTH);
+
+        activityPanel.setOpaque(false);
+        activityPanel.add(createLessonCard(), "lesson");
+        activityPanel.add(createGameCard(), "game");
+        add(activityPanel, BorderLayout.CENTER);
+
+        // Create activity buttons
+        JPanel modePanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
+        modePanel.setOpaque(false);
+        JButton learnButton = Localization.bind(new JButton(), "colors.learn");
+        mixButton = Localization.bind(new JButton(), "colors.mix");
+        closestButton = Localization.bind(new JButton(), "colors.closest");
+        styleNavigationButton(learnButton);
+        styleNavigationButton(mixButton);
+        styleNavigationButton(closestButton);
+        learnButton.addActionListener(e -> showLesson());
+        mixButton.addActionListener(e -> startGame(true));
+        closestButton.addActionListener(e -> startGame(false));
+        modePanel.add(learnButton);
+        modePanel.add(mixButton);
+        modePanel.add(closestButton);
+        add(modePanel, BorderLayout.SOUTH);
+
+        nextRound.setRepeats(false);
+        updateDisplay();
+        updateGameButtons();
+        Localization.addListener(localeListener);
+        prefetchNeighbours();
+    }
+
+    private JPanel createLessonCard() {
+        JPanel lessonPanel = new JPanel(new BorderLayout(10, 10));
+        lessonPanel.setOpaque(false);
+
+        JLabel swatchLabel = new JLabel(bigSwatch, SwingConstants.CENTER);
+        swatchLabel.setCursor(Styles.HAND_CURSOR);
+        swatchLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                pronounce();
+            }
+        });
+
+        colorNameLabel = new JLabel("", SwingConstants.CENTER);
+        colorNameLabel.setFont(NAME_FONT);
+        ThemeEngine.bindForeground(colorNameLabel, ThemeEngine.Token.ACCENT);
+
+        JPanel swatchPanel = new JPanel(new BorderLayout(10, 10));
+        swatchPanel.setOpaque(false);
+        swatchPanel.add(swatchLabel, BorderLayout.CENTER);
+        swatchPanel.add(colorNameLabel, BorderLayout.SOUTH);
+        lessonPanel.add(swatchPanel, BorderLayout.CENTER);
+
+        // Shades of the color, each named after the closest CSS color
+        JPanel shadesPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 12, 0));
+        shadesPanel.setOpaque(false);
+        for (int i = 0; i < shadeLabels.length; i++) {
+            JLabel shadeLabel = new JLabel(new SwatchCache.SwatchIcon(0, 80, 56));
+            shadeLabel.setFont(SHADE_FONT);
+            shadeLabel.setHorizontalTextPosition(SwingConstants.CENTER);
+            shadeLabel.setVerticalTextPosition(SwingConstants.BOTTOM);
+            ThemeEngine.bindForeground(shadeLabel, ThemeEngine.Token.TEXT);
+            shadeLabels[i] = shadeLabel;
+            shadesPanel.add(shadeLabel);
+        }
+
+        prevButton = Localization.bind(new JButton(), "nav.previous");
+        nextButton = Localization.bind(new JButton(), "nav.next");
+        styleNavigationButton(prevButton);
+        styleNavigationButton(nextButton);
+        prevButton.addActionListener(e -> showPreviousColor());
+        nextButton.addActionListener(e -> showNextColor());
+        JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 10));
+        navigationPanel.setOpaque(false);
+        navigationPanel.add(prevButton);
+        navigationPanel.add(nextButton);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.setOpaque(false);
+        southPanel.add(shadesPanel, BorderLayout.CENTER);
+        southPanel.add(navigationPanel, BorderLayout.SOUTH);
+        lessonPanel.add(southPanel, BorderLayout.SOUTH);
+        return lessonPanel;
+    }
+
+    private JPanel createGameCard() {
+        JPanel gamePanel = new JPanel(new BorderLayout(10, 10));
+        gamePanel.setOpaque(false);
+
+        // The colors being mixed, or the single color to match
+        JPanel promptPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 16, 10));
+        promptPanel.setOpaque(false);
+        firstLabel = new JLabel(firstSwatch);
+        plusLabel = new JLabel("+");
+        plusLabel.setFont(NAME_FONT);
+        ThemeEngine.bindForeground(plusLabel, ThemeEngine.Token.HEADING);
+        secondLabel = new JLabel(secondSwatch);
+        promptPanel.add(firstLabel);
+        promptPanel.add(plusLabel);
+        promptPanel.add(secondLabel);
+
+        questionLabel = new JLabel("", SwingConstants.CENTER);
+        questionLabel.setFont(QUESTION_FONT);
+        ThemeEngine.bindForeground(questionLabel, ThemeEngine.Token.TEXT);
+
+        JPanel northPanel = new JPanel(new BorderLayout());
+        northPanel.setOpaque(false);
+        northPanel.add(promptPanel, BorderLayout.CENTER);
+        northPanel.add(questionLabel, BorderLayout.SOUTH);
+        gamePanel.add(northPanel, BorderLayout.NORTH);
+
+        JPanel optionsPanel = new JPanel(new GridLayout(2, 2, 15, 15));
+        optionsPanel.setOpaque(false);
+        optionsPanel.setBorder(Styles.emptyBorder(10, 60, 10, 60));
+        for (int i = 0; i < OPTIONS; i++) {
+            JButton optionButton = new JButton(new SwatchCache.SwatchIcon(0, 64, 40));
+            optionButton.setFont(OPTION_FONT);
+            optionButton.setHorizontalTextPosition(SwingConstants.RIGHT);
+            optionButton.setIconTextGap(12);
+            KidButtonUI.apply(optionButton);
+            int option = i;
+            optionButton.addActionListener(e -> checkAnswer(option));
+            optionButtons[i] = optionButton;
+            optionsPanel.add(optionButton);
+        }
+        gamePanel.add(optionsPanel, BorderLayout.CENTER);
+
+        feedbackLabel = new JLabel(" ", SwingConstants.CENTER);
+        feedbackLabel.setFont(FEEDBACK_FONT);
+        gamePanel.add(feedbackLabel, BorderLayout.SOUTH);
+        return gamePanel;
+    }
+
+    private void styleNavigationButton(JButton button) {
+        button.setFont(OPTION_FONT);
+        button.setPreferredSize(new Dimension(150, 40));
+        KidButtonUI.apply(button);
+    }
+
+    private void showLesson() {
+        nextRound.stop();
+        activities.show(activityPanel, "lesson");
+    }
+
+    private void startGame(boolean mixingGame) {
+        if (!canPlay(mixingGame)) {
+            return;
+        }
+        mixing = mixingGame;
+        activities.show(activityPanel, "game");
+        newRound();
+    }
+
+    // A game needs a full set of option colors, and the mixing game a mixing fact
+    private boolean canPlay(boolean mixingGame) {
+        return lessonColors.size() >= OPTIONS && (!mixingGame || LessonContent.getColorMixCount() > 0);
+    }
+
+    private void updateGameButtons() {
+        mixButton.setEnabled(canPlay(true));
+        closestButton.setEnabled(canPlay(false));
+    }
+
+    private void showPreviousColor() {
+        if (currentColorIndex > 0) {
+            currentColorIndex--;
+            updateDisplay();
+            pronounce();
+        }
+    }
+
+    private void showNextColor() {
+        if (currentColorIndex < lessonColors.size() - 1) {
+            currentColorIndex++;
+            updateDisplay();
+            pronounce();
+        }
+    }
+
+    private void updateDisplay() {
+        int rgb = lessonColors.getRgb(currentColorIndex);
+        bigSwatch.setColor(rgb);
+        colorNameLabel.setText(LessonContent.getColorName(currentColorIndex));
+        for (int i = 0; i < shadeLabels.length; i++) {
+            int shade = ColorEngine.shade(rgb, SHADE_STEPS[i]);
+            ((SwatchCache.SwatchIcon) shadeLabels[i].getIcon()).setColor(shade);
+            shadeLabels[i].setText(namedColors.getName(namedColors.nearest(shade)));
+        }
+        prevButton.setEnabled(currentColorIndex > 0);
+        nextButton.setEnabled(currentColorIndex < lessonColors.size() - 1);
+        repaint();
+    }
+
+    // Picks the next question for the current game and fills the option buttons
+    private void newRound() {
+        nextRound.stop();
+        answered = false;
+        feedbackLabel.setText(" ");
+        // The language may have changed to content the game cannot use
+        if (!canPlay(mixing)) {
+            showLesson();
+            return;
+        }
+        int[] options = mixing ? newMixRound() : newClosestRound();
+        for (int i = 0; i < OPTIONS; i++) {
+            optionColors[i] = options[i];
+            ((SwatchCache.SwatchIcon) optionButtons[i].getIcon()).setColor(lessonColors.getRgb(options[i]));
+        }
+        plusLabel.setVisible(mixing);
+        secondLabel.setVisible(mixing);
+        updateText();
+        repaint();
+    }
+
+    private int[] newMixRound() {
+        mix = LessonContent.getColorMix(random.nextInt(LessonContent.getColorMixCount()));
+        firstSwatch.setColor(lessonColors.getRgb(mix[0]));
+        secondSwatch.setColor(lessonColors.getRgb(mix[1]));
+        answer = mix[2];
+        return withDistractors(answer, -1);
+    }
+
+    /**
+     * A lesson color moved a random step in Lab, so it sits between names. Targets
+     * where a wrong option would be nearly as close are skipped, so there is one
+     * fair answer. If no fair target turns up, e.g. the lesson colors are all
+     * alike, the round asks for a lesson color itself.
+     */
+    private int[] newClosestRound() {
+        float[] lab = new float[3];
+        for (int tries = 0; tries < MAX_TARGET_TRIES; tries++) {
+            ColorEngine.toLab(lessonColors.getRgb(random.nextInt(lessonColors.size())), lab);
+            target = ColorEngine.toRgb(
+                Math.max(5, Math.min(95, lab[0] + (random.nextFloat() * 2 - 1) * TARGET_SPREAD)),
+                lab[1] + (random.nextFloat() * 2 - 1) * TARGET_SPREAD,
+                lab[2] + (random.nextFloat() * 2 - 1) * TARGET_SPREAD);
+            answer = lessonColors.nearest(target);
+            int[] options = withDistractors(answer, target);
+            if (options != null) {
+                firstSwatch.setColor(target);
+                return options;
+            }
+        }
+        answer = random.nextInt(lessonColors.size());
+        target = lessonColors.getRgb(answer);
+        firstSwatch.setColor(target);
+        return withDistractors(answer, -1);
+    }
+
+    // The answer and three other lesson colors in random order; with a target, only
+    // colors clearly further from it count, and null is returned if there are too few
+    private int[] withDistractors(int correct, int targetColor) {
+        java.util.List<Integer> candidates = new ArrayList<>();
+        double closest = targetColor < 0 ? 0 : ColorEngine.deltaE(targetColor, lessonColors.getRgb(correct));
+        for (int i = 0; i < lessonColors.size(); i++) {
+            if (i != correct && (targetColor < 0
+                    || ColorEngine.deltaE(targetColor, lessonColors.getRgb(i)) >= closest + CLOSEST_MARGIN)) {
+                candidates.add(i);
+            }
+        }
+        if (candidates.size() < OPTIONS - 1) {
+            return null;
+        }
+        Collections.shuffle(candidates, random);
+        java.util.List<Integer> options = new ArrayList<>(candidates.subList(0, OPTIONS - 1));
+        options.add(correct);
+        Collections.shuffle(options, random);
+        int[] result = new int[OPTIONS];
+        for (int i = 0; i < OPTIONS; i++) {
+            result[i] = options.get(i);
+        }
+        return result;
+    }
+
+    private void checkAnswer(int option) {
+        if (answered) {
+            return;
+        }
+        boolean correct = optionColors[option] == answer;
+        String feedback = Localization.text(correct ? "quiz.correct" : "quiz.tryAgain");
+        if (!mixing) {
+            feedback += "  " + Localization.format("colors.calledLike",
+                namedColors.getName(namedColors.nearest(target)));
+        }
+        feedbackLabel.setText(feedback);
+        ThemeEngine.bindForeground(feedbackLabel, correct
+            ? ThemeEngine.Token.CORRECT_TEXT : ThemeEngine.Token.INCORRECT_TEXT);
+        if (correct) {
+            answered = true;
+            SoundEffects.correct();
+            nextRound.restart();
+        } else {
+            SoundEffects.tryAgain();
+        }
+    }
+
+    // Texts that depend on the language: color names, the question and the option labels
+    private void updateText() {
+        colorNameLabel.setText(LessonContent.getColorName(currentColorIndex));
+        questionLabel.setText(mixing
+            ? Localization.format("colors.q.mix", LessonContent.getColorName(mix[0]),
+                LessonContent.getColorName(mix[1]))
+            : Localization.text("colors.q.closest"));
+        for (int i = 0; i < OPTIONS; i++) {
+            optionButtons[i].setText(LessonContent.getColorName(optionColors[i]));
+        }
+    }
+
+    private void pronounce() {
+        PronunciationPlayer.shared().play(PronunciationPlayer.COLORS, LessonContent.getColorKey(currentColorIndex));
+        prefetchNeighbours();
+    }
+
+    private void prefetchNeighbours() {
+        int count = lessonColors.size();
+        PronunciationPlayer.shared().prefetch(PronunciationPlayer.COLORS,
+            LessonContent.getColorKey(currentColorIndex),
+            LessonContent.getColorKey((currentColorIndex + 1) % count),
+            LessonContent.getColorKey((currentColorIndex + count - 1) % count));
+    }
+
+    @Override
+    public void moduleHidden() {
+        nextRound.stop();
+    }
+}
@@ -0,0 +1,196 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ContentPack - Read-only view of a binary lesson content pack
+ * A pack is a shared UTF-8 string table plus named sections. A section is
+ * a list of either strings (stored as string table indexes) or plain ints.
+ * Files are memory-mapped, so opening a pack costs one directory read no
+ * matter how large it is, and strings are decoded only when looked up.
+ * Opening checks that the header, directory, string offset table and every
+ * section's entries lie inside the file, so a truncated pack fails there
+ * with an IOException; entries and string offsets are checked as they are
+ * looked up, and a damaged one throws IndexOutOfBoundsException.
+ * Written by ContentPackWriter; all lookups are thread-safe.
+ *
+ * Layout (big-endian):
+ *   header:    magic "KLCP", u16 version, u16 section count,
+ *              u32 string count, u32 string offsets position, u32 string data position
+ *   sections:  per section u32 name string, u8 kind, u32 entry count, u32 entries position
+ *   offsets:   string count + 1 u32 offsets into the string data
+ *   entries:   u32 per entry (a string index or an int value)
+ *   data:      UTF-8 bytes of every string, back to back
+ */
+public class ContentPack implements Closeable {
+    static final int MAGIC = 0x4B4C4350; // "KLCP"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 20;
+    static final int SECTION_ENTRY_SIZE = 13;
+    static final byte KIND_STRINGS = 0;
+    static final byte KIND_INTS = 1;
+
+    private final ByteBuffer buffer;
+    private final FileChannel channel;
+    private final int stringCount;
+    private final int offsetsPosition;
+    private final int dataPosition;
+    private final Map<String, Section> sections = new HashMap<>();
+
+    private ContentPack(ByteBuffer buffer, FileChannel channel) throws IOException {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        this.channel = channel;
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a content pack");
+        }
+        if ((buffer.getShort(4) & 0xFFFF) != VERSION) {
+            throw new IOException("Unsupported content pack version " + (buffer.getShort(4) & 0xFFFF));
+        }
+        int sectionCount = buffer.getShort(6) & 0xFFFF;
+        stringCount = buffer.getInt(8);
+        offsetsPosition = buffer.getInt(12);
+        dataPosition = buffer.getInt(16);
+        int limit = buffer.limit();
+        checkRange("Section table", HEADER_SIZE, sectionCount, SECTION_ENTRY_SIZE, limit);
+        checkRange("String offsets", offsetsPosition, stringCount + 1L, 4, limit);
+        checkRange("String data", dataPosition, 0, 1, limit);
+
+        for (int i = 0; i < sectionCount; i++) {
+            int position = HEADER_SIZE + i * SECTION_ENTRY_SIZE;
+            int nameIndex = buffer.getInt(position);
+            if (nameIndex < 0 || nameIndex >= stringCount) {
+                throw new IOException("Section " + i + " names string " + nameIndex + " of " + stringCount);
+            }
+            String name;
+            try {
+                name = decode(nameIndex);
+            } catch (IndexOutOfBoundsException e) {
+                throw new IOException("Section " + i + " has a damaged name", e);
+            }
+            byte kind = buffer.get(position + 4);
+            if (kind != KIND_STRINGS && kind != KIND_INTS) {
+                throw new IOException("Section " + name + " has unknown kind " + kind);
+            }
+            int count = buffer.getInt(position + 5);
+            int entries = buffer.getInt(position + 9);
+            checkRange("Section " + name, entries, count, 4, limit);
+            sections.put(name, new Section(name, kind, count, entries));
+        }
+    }
+
+    // Throws unless count items of itemSize bytes starting at position lie inside the pack
+    private static void checkRange(String what, long position, long count, int itemSize, int limit)
+            throws IOException {
+        if (position < 0 || count < 0 || position + count * itemSize > limit) {
+            throw new IOException(what + " is out of range: " + count + " x " + itemSize
+                + " bytes at " + position + " in a " + limit + " byte pack");
+        }
+    }
+
+    /** Memory-maps a pack file. */
+    public static ContentPack open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new ContentPack(mapped, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Reads a pack held in memory, such as the built-in content. */
+    public static ContentPack wrap(ByteBuffer buffer) throws IOException {
+        return new ContentPack(buffer, null);
+    }
+
+    public boolean hasSection(String name) {
+        return sections.containsKey(name);
+    }
+
+    /** Returns the named section, or null if the pack does not have it. */
+    public Section getSection(String name) {
+        return sections.get(name);
+    }
+
+    public Set<String> getSectionNames() {
+        return Collections.unmodifiableSet(sections.keySet());
+    }
+
+    public int getStringCount() {
+        return stringCount;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private String decode(int stringIndex) {
+        if (stringIndex < 0 || stringIndex >= stringCount) {
+            throw new IndexOutOfBoundsException("String " + stringIndex + " of " + stringCount);
+        }
+        int start = buffer.getInt(offsetsPosition + stringIndex * 4);
+        int end = buffer.getInt(offsetsPosition + stringIndex * 4 + 4);
+        if (start < 0 || end < start || (long) dataPosition + end > buffer.limit()) {
+            throw new IndexOutOfBoundsException("String " + stringIndex + " spans " + start + ".." + end
+                + " outside the pack");
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(dataPosition + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** One named list of entries in the pack. */
+    public class Section {
+        private final String name;
+        private final byte kind;
+        private final int size;
+        private final int entriesPosition;
+
+        Section(String name, byte kind, int size, int entriesPosition) {
+            this.name = name;
+            this.kind = kind;
+            this.size = size;
+            this.entriesPosition = entriesPosition;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public boolean isStrings() {
+            return kind == KIND_STRINGS;
+        }
+
+        public String getString(int index) {
+            if (kind != KIND_STRINGS) {
+                throw new IllegalStateException("Section " + name + " does not hold strings");
+            }
+            return decode(entry(index));
+        }
+
+        public int getInt(int index) {
+            if (kind != KIND_INTS) {
+                throw new IllegalStateException("Section " + name + " does not hold ints");
+            }
+            return entry(index);
+        }
+
+        private int entry(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException(name + "[" + index + "] of " + size);
+            }
+            return buffer.getInt(entriesPosition + index * 4);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ContentPackWriter - Builds binary content packs read by ContentPack
+ * Also a command line packer that converts a text source into a pack:
+ *
+ *   java ContentPackWriter lessons.txt lessons.pack
+ *   java ContentPackWriter --builtin builtin.txt
+ *
+ * The text source lists one entry per line under [section] headers. Ints
+ * sections are marked with ":int", e.g. [shapes.sides:int]. Lines starting
+ * with '#' are comments; a backslash-n in a line stands for a newline and
+ * a line holding just "" is an empty entry.
+ * --builtin writes the content compiled into LessonContent as a text
+ * source, a convenient starting point for new curricula.
+ */
+public class ContentPackWriter {
+    private static final String EMPTY_ENTRY = "\"\"";
+
+    private final Map<String, Object> sections = new LinkedHashMap<>();
+
+    public ContentPackWriter addStrings(String section, List<String> values) {
+        sections.put(section, new ArrayList<>(values));
+        return this;
+    }
+
+    public ContentPackWriter addStrings(String section, String... values) {
+        return addStrings(section, Arrays.asList(values));
+    }
+
+    public ContentPackWriter addInts(String section, int... values) {
+        sections.put(section, values.clone());
+        return this;
+    }
+
+    /** Encodes the pack; identical strings are stored once. */
+    public ByteBuffer toByteBuffer() {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<byte[]> strings = new ArrayList<>();
+        int[] names = new int[sections.size()];
+        List<int[]> entries = new ArrayList<>();
+
+        int s = 0;
+        for (Map.Entry<String, Object> section : sections.entrySet()) {
+            names[s++] = intern(section.getKey(), stringIndex, strings);
+            if (section.getValue() instanceof int[]) {
+                entries.add((int[]) section.getValue());
+            } else {
+                @SuppressWarnings("unchecked")
+                List<String> values = (List<String>) section.getValue();
+                int[] indexes = new int[values.size()];
+                for (int i = 0; i < indexes.length; i++) {
+                    indexes[i] = intern(values.get(i), stringIndex, strings);
+                }
+                entries.add(indexes);
+            }
+        }
+
+        int dataSize = 0;
+        for (byte[] bytes : strings) {
+            dataSize += bytes.length;
+        }
+        int entryCount = 0;
+        for (int[] values : entries) {
+            entryCount += values.length;
+        }
+        int offsetsPosition = ContentPack.HEADER_SIZE + sections.size() * ContentPack.SECTION_ENTRY_SIZE;
+        int entriesPosition = offsetsPosition + (strings.size() + 1) * 4;
+        int dataPosition = entriesPosition + entryCount * 4;
+
+        ByteBuffer buffer = ByteBuffer.allocate(dataPosition + dataSize).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(ContentPack.MAGIC);
+        buffer.putShort((short) ContentPack.VERSION);
+        buffer.putShort((short) sections.size());
+        buffer.putInt(strings.size());
+        buffer.putInt(offsetsPosition);
+        buffer.putInt(dataPosition);
+
+        int position = entriesPosition;
+        s = 0;
+        for (Object values : sections.values()) {
+            int[] sectionEntries = entries.get(s);
+            buffer.putInt(names[s]);
+            buffer.put(values instanceof int[] ? ContentPack.KIND_INTS : ContentPack.KIND_STRINGS);
+            buffer.putInt(sectionEntries.length);
+            buffer.putInt(position);
+            position += sectionEntries.length * 4;
+            s++;
+        }
+
+        int offset = 0;
+        for (byte[] bytes : strings) {
+            buffer.putInt(offset);
+            offset += bytes.length;
+        }
+        buffer.putInt(offset);
+        for (int[] sectionEntries : entries) {
+            for (int value : sectionEntries) {
+                buffer.putInt(value);
+            }
+        }
+        for (byte[] bytes : strings) {
+            buffer.put(bytes);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = toByteBuffer();
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(temp, Arrays.copyOf(buffer.array(), buffer.limit()));
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Parses the text source format described in the class comment. */
+    public static ContentPackWriter parse(BufferedReader reader) throws IOException {
+        ContentPackWriter writer = new ContentPackWriter();
+        String section = null;
+        boolean ints = false;
+        List<String> values = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.startsWith("#") || (line.isBlank() && section == null)) {
+                continue;
+            }
+            if (line.startsWith("[") && line.endsWith("]")) {
+                writer.addSection(section, ints, values);
+                String header = line.substring(1, line.length() - 1).trim();
+                ints = header.endsWith(":int");
+                section = ints ? header.substring(0, header.length() - 4) : header;
+                values = new ArrayList<>();
+                continue;
+            }
+            if (section == null) {
+                throw new IOException("Line " + lineNumber + ": entry before the first [section]");
+            }
+            if (!line.isBlank()) {
+                values.add(ints ? line.trim() : EMPTY_ENTRY.equals(line.trim()) ? "" : line.replace("\\n", "\n"));
+            }
+        }
+        writer.addSection(section, ints, values);
+        return writer;
+    }
+
+    /** Writes every section as a text source that parse() reads back. */
+    public void writeText(Writer out) throws IOException {
+        for (Map.Entry<String, Object> section : sections.entrySet()) {
+            boolean ints = section.getValue() instanceof int[];
+            out.write("[" + section.getKey() + (ints ? ":int" : "") + "]\n");
+            if (ints) {
+                for (int value : (int[]) section.getValue()) {
+                    out.write(value + "\n");
+                }
+            } else {
+                @SuppressWarnings("unchecked")
+                List<String> values = (List<String>) section.getValue();
+                for (String value : values) {
+                    out.write((value.isEmpty() ? EMPTY_ENTRY : value.replace("\n", "\\n")) + "\n");
+                }
+            }
+            out.write("\n");
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 2 && "--builtin".equals(args[0])) {
+            try (Writer out = Files.newBufferedWriter(Paths.get(args[1]), StandardCharsets.UTF_8)) {
+                LessonContent.builtInContent().writeText(out);
+            }
+            return;
+        }
+        if (args.length != 2) {
+            System.err.println("Usage: java ContentPackWriter <source.txt> <output.pack>");
+            System.err.println("       java ContentPackWriter --builtin <source.txt>");
+            System.exit(2);
+        }
+        ContentPackWriter writer;
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            writer = parse(reader);
+        }
+        writer.write(Paths.get(args[1]));
+        try (ContentPack pack = ContentPack.open(Paths.get(args[1]))) {
+            System.out.println("Wrote " + args[1] + ": " + pack.getSectionNames().size() + " sections, "
+                + pack.getStringCount() + " distinct strings");
+        }
+    }
+
+    private void addSection(String section, boolean ints, List<String> values) throws IOException {
+        if (section == null) {
+            return;
+        }
+        if (!ints) {
+            addStrings(section, values);
+            return;
+        }
+        int[] parsed = new int[values.size()];
+        for (int i = 0; i < parsed.length; i++) {
+            try {
+                parsed[i] = Integer.parseInt(values.get(i));
+            } catch (NumberFormatException e) {
+                throw new IOException("Section " + section + ": not an int: " + values.get(i));
+            }
+        }
+        addInts(section, parsed);
+    }
+
+    private static int intern(String value, Map<String, Integer> index, List<byte[]> strings) {
+        Integer existing = index.get(value);
+        if (existing != null) {
+            return existing;
+        }
+        index.put(value, strings.size());
+        strings.add(value.getBytes(StandardCharsets.UTF_8));
+        return strings.size() - 1;
+    }
+}
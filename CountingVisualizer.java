@@ -0,0 +1,165 @@
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+
+/**
+ * CountingVisualizer - Draws a count as base-ten blocks
+ * Ones are dots in rows of five, tens are rods of ten dots and hundreds are
+ * ten-by-ten squares. The layout is worked out in grid cells, scaled to fit
+ * the panel, and only recomputed when the count or size changes. Rods and
+ * squares are blitted from tile images rendered once per cell size, and
+ * blocks outside the clip are skipped, so paint time stays flat up to 1,000.
+ */
+public class CountingVisualizer {
+    public static final int MAX_COUNT = 1000;
+    // Largest cell size, matching the original 30px dots with 10px gaps
+    private static final int MAX_CELL = 40;
+    private static final int BLOCKS_PER_ROW = 5;
+    private static final int GROUP_GAP = 2;
+
+    private final Color itemColor;
+    private final Color outlineColor;
+
+    // Cached layout: block positions in pixels and the batched outline of the ones
+    private int layoutCount = -1;
+    private int layoutWidth = -1;
+    private int layoutHeight = -1;
+    private int cell;
+    private int[] hundredX = new int[0];
+    private int[] hundredY = new int[0];
+    private int[] tenX = new int[0];
+    private int[] tenY = new int[0];
+    private Path2D.Float ones = new Path2D.Float();
+    private Rectangle onesBounds = new Rectangle();
+
+    // Tiles for the current cell size
+    private int tileCell = -1;
+    private BufferedImage hundredTile;
+    private BufferedImage tenTile;
+
+    public CountingVisualizer(Color itemColor) {
+        this.itemColor = itemColor;
+        this.outlineColor = new Color(itemColor.getRed(), itemColor.getGreen(), itemColor.getBlue());
+    }
+
+    public void paint(Graphics2D g2d, int count, int width, int height) {
+        count = Math.max(0, Math.min(MAX_COUNT, count));
+        if (count != layoutCount || width != layoutWidth || height != layoutHeight) {
+            layout(count, width, height);
+        }
+        if (cell != tileCell) {
+            createTiles();
+        }
+
+        Rectangle clip = g2d.getClipBounds();
+        int hundredSize = cell * 10;
+        for (int i = 0; i < hundredX.length; i++) {
+            if (clip == null || clip.intersects(hundredX[i], hundredY[i], hundredSize, hundredSize)) {
+                g2d.drawImage(hundredTile, hundredX[i], hundredY[i], null);
+            }
+        }
+        for (int i = 0; i < tenX.length; i++) {
+            if (clip == null || clip.intersects(tenX[i], tenY[i], cell, hundredSize)) {
+                g2d.drawImage(tenTile, tenX[i], tenY[i], null);
+            }
+        }
+        if (!onesBounds.isEmpty() && (clip == null || clip.intersects(onesBounds))) {
+            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2d.setColor(itemColor);
+            g2d.fill(ones);
+        }
+    }
+
+    private void layout(int count, int width, int height) {
+        int hundreds = count / 100;
+        int tens = (count % 100) / 10;
+        int units = count % 10;
+
+        // Measure everything in cells first
+        int hundredCols = Math.min(hundreds, BLOCKS_PER_ROW);
+        int hundredRows = (hundreds + BLOCKS_PER_ROW - 1) / BLOCKS_PER_ROW;
+        int hundredsWidth = hundreds > 0 ? hundredCols * 11 - 1 : 0;
+        int tensWidth = tens > 0 ? tens * 2 - 1 : 0;
+        int onesWidth = Math.min(units, 5);
+
+        int totalWidth = 0;
+        for (int groupWidth : new int[] {hundredsWidth, tensWidth, onesWidth}) {
+            if (groupWidth > 0) {
+                totalWidth += (totalWidth > 0 ? GROUP_GAP : 0) + groupWidth;
+            }
+        }
+        int totalHeight = Math.max(hundreds > 0 ? hundredRows * 11 - 1 : 0,
+            Math.max(tens > 0 ? 10 : 0, (units + 4) / 5));
+
+        cell = totalWidth == 0 ? MAX_CELL
+            : Math.max(1, Math.min(MAX_CELL, Math.min(width / totalWidth, height / Math.max(1, totalHeight))));
+        int originX = (width - totalWidth * cell) / 2;
+        int originY = (height - totalHeight * cell) / 2;
+
+        // Then place the blocks in pixels
+        int x = originX;
+        hundredX = new int[hundreds];
+        hundredY = new int[hundreds];
+        for (int i = 0; i < hundreds; i++) {
+            hundredX[i] = x + (i % BLOCKS_PER_ROW) * 11 * cell;
+            hundredY[i] = originY + (i / BLOCKS_PER_ROW) * 11 * cell;
+        }
+        if (hundreds > 0) {
+            x += (hundredsWidth + GROUP_GAP) * cell;
+        }
+
+        tenX = new int[tens];
+        tenY = new int[tens];
+        for (int i = 0; i < tens; i++) {
+            tenX[i] = x + i * 2 * cell;
+            tenY[i] = originY;
+        }
+        if (tens > 0) {
+            x += (tensWidth + GROUP_GAP) * cell;
+        }
+
+        ones = new Path2D.Float();
+        int dot = dotSize(cell);
+        int inset = (cell - dot) / 2;
+        for (int i = 0; i < units; i++) {
+            ones.append(new Ellipse2D.Float(x + (i % 5) * cell + inset, originY + (i / 5) * cell + inset, dot, dot), false);
+        }
+        onesBounds = ones.getBounds();
+
+        layoutCount = count;
+        layoutWidth = width;
+        layoutHeight = height;
+    }
+
+    private void createTiles() {
+        hundredTile = createTile(10);
+        tenTile = createTile(1);
+        tileCell = cell;
+    }
+
+    private BufferedImage createTile(int columns) {
+        int dot = dotSize(cell);
+        int inset = (cell - dot) / 2;
+        BufferedImage tile = new BufferedImage(columns * cell, 10 * cell, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = tile.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        Path2D.Float dots = new Path2D.Float();
+        for (int row = 0; row < 10; row++) {
+            for (int col = 0; col < columns; col++) {
+                dots.append(new Ellipse2D.Float(col * cell + inset, row * cell + inset, dot, dot), false);
+            }
+        }
+        g.setColor(itemColor);
+        g.fill(dots);
+        if (cell >= 4) {
+            g.setColor(outlineColor);
+            g.draw(new RoundRectangle2D.Float(0.5f, 0.5f, columns * cell - 1, 10 * cell - 1, cell / 2f, cell / 2f));
+        }
+        g.dispose();
+        return tile;
+    }
+
+    private static int dotSize(int cell) {
+        return Math.max(1, cell * 3 / 4);
+    }
+}
@@ -0,0 +1,399 @@
+import java.awt.*;
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import javax.management.*;
+
+/**
+ * EdtWatchdog - Finds the handler behind a frozen screen
+ * An EventQueue pushed in front of the system queue times every event
+ * dispatch; that costs two clock reads and a few field writes, and nothing
+ * else unless a dispatch runs long. A daemon thread checks the dispatch in
+ * progress a few times per threshold and, once it has run past the
+ * threshold, captures the EDT's stack while the stall is still happening.
+ * When the dispatch ends, the stall is charged to the innermost app frame
+ * on that stack (e.g. QuizModule.checkAnswer), aggregated per handler, and
+ * queued for the watchdog thread to append to a rotating log; the
+ * aggregates are also published as an MBean.
+ *
+ * Pushing a second EventQueue would starve this one, so other code that
+ * needs to run around every dispatch (the performance overlay) adds a
+ * DispatchHook to the same queue instead.
+ *
+ * -Dkids.watchdog=off disables it, -Dkids.watchdog.thresholdMs sets the
+ * stall threshold (default 200), -Dkids.watchdog.dir the log directory
+ * (default "logs", empty for no log) and -Dkids.watchdog.logBytes the size
+ * at which the log rotates (default 1 MB, two old files kept).
+ */
+public class EdtWatchdog implements EdtWatchdogMBean {
+    public static final String OBJECT_NAME = "KidsLearningApp:type=EdtWatchdog";
+    private static final boolean PRINT = Boolean.getBoolean("kids.metrics");
+    private static final String LOG_NAME = "edt-stalls.log";
+    private static final int OLD_LOGS = 2;
+    // Frames written per stall; the app frames are near the top
+    private static final int LOGGED_FRAMES = 40;
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private static EdtWatchdog installed;
+    private static final CopyOnWriteArrayList<DispatchHook> hooks = new CopyOnWriteArrayList<>();
+    // The queue running the hooks: the watchdog's, or a plain one when the watchdog is off
+    private static HookedQueue pushed;
+
+    private final WatchedQueue queue = new WatchedQueue();
+    private final Path logDirectory;
+    private final long logBytes;
+    private final Thread monitor;
+    private volatile long thresholdNanos;
+
+    // Written by the EDT around each dispatch; read by the monitor
+    private volatile Thread edt;
+    private volatile long dispatchSequence;
+    private volatile long dispatchStart;
+    // Written by the monitor when it catches a dispatch over the threshold
+    private volatile long capturedSequence = -1;
+    private volatile StackTraceElement[] capturedStack;
+
+    private final LatencyStats dispatchLatency = new LatencyStats(4096);
+    private final ConcurrentHashMap<String, HandlerStalls> stalls = new ConcurrentHashMap<>();
+    private final LinkedBlockingQueue<String> pendingLog = new LinkedBlockingQueue<>();
+    private volatile String lastStallStack = "";
+    private volatile long stallCount;
+
+    public EdtWatchdog(long thresholdMillis, Path logDirectory, long logBytes) {
+        this.thresholdNanos = thresholdMillis * NANOS_PER_MILLI;
+        this.logDirectory = logDirectory;
+        this.logBytes = logBytes;
+        this.monitor = new Thread(this::monitorLoop, "edt-watchdog");
+        this.monitor.setDaemon(true);
+        this.monitor.start();
+    }
+
+    /**
+     * Puts the watchdog in front of the system event queue and registers its
+     * MBean. Returns null when disabled; calling it again returns the same one.
+     */
+    public static synchronized EdtWatchdog install() {
+        if (installed != null || "off".equals(System.getProperty("kids.watchdog"))) {
+            return installed;
+        }
+        String directory = System.getProperty("kids.watchdog.dir", "logs");
+        installed = new EdtWatchdog(Long.getLong("kids.watchdog.thresholdMs", 200),
+            directory.isEmpty() ? null : Paths.get(directory), Long.getLong("kids.watchdog.logBytes", 1 << 20));
+        // Pushed on top of any hook-only queue; the hooks are shared, so they keep running
+        Toolkit.getDefaultToolkit().getSystemEventQueue().push(installed.queue);
+        pushed = installed.queue;
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(installed, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            // Stalls are still logged without JMX
+            e.printStackTrace();
+        }
+        return installed;
+    }
+
+    public static synchronized EdtWatchdog getInstalled() {
+        return installed;
+    }
+
+    /** Code run around event dispatches, in the app's one pushed EventQueue. */
+    public interface DispatchHook {
+        /** Called on the EDT for every event; must call dispatch.run() exactly once. */
+        void dispatch(AWTEvent event, Runnable dispatch);
+    }
+
+    /**
+     * Runs the hook around every event dispatch from now on, in the
+     * watchdog's queue when it is installed and otherwise in a plain queue
+     * pushed the first time a hook is added.
+     */
+    public static synchronized void addDispatchHook(DispatchHook hook) {
+        hooks.add(hook);
+        if (pushed == null) {
+            pushed = new HookedQueue();
+            Toolkit.getDefaultToolkit().getSystemEventQueue().push(pushed);
+        }
+    }
+
+    /** Runs the dispatch hooks, outermost first, around each dispatch. */
+    static class HookedQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            dispatch(event, 0);
+        }
+
+        private void dispatch(AWTEvent event, int hook) {
+            if (hook == hooks.size()) {
+                super.dispatchEvent(event);
+            } else {
+                hooks.get(hook).dispatch(event, () -> dispatch(event, hook + 1));
+            }
+        }
+    }
+
+    /** The queue doing the timing; pushed by install, or dispatched into directly by benchmarks. */
+    WatchedQueue getQueue() {
+        return queue;
+    }
+
+    /**
+     * Times dispatches and reports the ones over the threshold. A dispatch
+     * that runs a nested event loop (a modal dialog) is timed in two parts:
+     * up to its first nested dispatch, and from its last nested dispatch to
+     * its end. Waiting on the dialog is not a stall, but blocking before it
+     * opens or after it closes is.
+     */
+    final class WatchedQueue extends HookedQueue {
+        // The innermost dispatch running and the part of it being timed
+        private AWTEvent current;
+        private long segmentSequence;
+        private long segmentStart;
+        // True until a nested loop runs inside the current dispatch
+        private boolean firstSegment;
+        private long nextSequence;
+
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            long start = System.nanoTime();
+            AWTEvent outer = current;
+            if (outer == null) {
+                edt = Thread.currentThread();
+            } else if (firstSegment) {
+                // The enclosing dispatch was working until it started this nested loop
+                finished(outer, start - segmentStart);
+            }
+            current = event;
+            firstSegment = true;
+            begin(start);
+            try {
+                super.dispatchEvent(event);
+            } finally {
+                finished(event, System.nanoTime() - segmentStart);
+                current = outer;
+                if (outer != null) {
+                    // Back in the enclosing dispatch; time the rest of it under a new sequence
+                    firstSegment = false;
+                    begin(System.nanoTime());
+                } else {
+                    dispatchStart = 0;
+                }
+            }
+        }
+
+        private void begin(long start) {
+            segmentSequence = ++nextSequence;
+            segmentStart = start;
+            dispatchSequence = segmentSequence;
+            dispatchStart = start;
+        }
+
+        private void finished(AWTEvent event, long elapsed) {
+            dispatchLatency.record(elapsed);
+            if (elapsed >= thresholdNanos) {
+                stalled(event, segmentSequence, elapsed);
+            }
+        }
+    }
+
+    // On the EDT, only for dispatches over the threshold
+    private void stalled(AWTEvent event, long sequence, long elapsed) {
+        StackTraceElement[] stack = capturedSequence == sequence ? capturedStack : null;
+        String handler = stack != null ? handlerOf(stack)
+            : event.getClass().getSimpleName() + " on " + event.getSource().getClass().getName() + " (no stack)";
+        stalls.computeIfAbsent(handler, k -> new HandlerStalls()).record(elapsed);
+        stallCount++;
+
+        StringBuilder entry = new StringBuilder(512);
+        entry.append(Instant.now()).append(" stall ").append(elapsed / NANOS_PER_MILLI).append("ms in ")
+            .append(handler).append(" handling ").append(event.getClass().getSimpleName()).append('\n');
+        if (stack != null) {
+            for (int i = 0; i < Math.min(stack.length, LOGGED_FRAMES); i++) {
+                entry.append("    at ").append(stack[i]).append('\n');
+            }
+            lastStallStack = entry.toString();
+        }
+        pendingLog.offer(entry.toString());
+        if (PRINT) {
+            System.out.printf("EDT stall: %dms in %s%n", elapsed / NANOS_PER_MILLI, handler);
+        }
+    }
+
+    // The innermost frame outside the JDK and the watchdog: the app code that was running
+    static String handlerOf(StackTraceElement[] stack) {
+        for (StackTraceElement frame : stack) {
+            String className = frame.getClassName();
+            if (className.startsWith("java.") || className.startsWith("javax.") || className.startsWith("sun.")
+                || className.startsWith("jdk.") || className.startsWith("com.sun.")
+                || className.startsWith(EdtWatchdog.class.getName())) {
+                continue;
+            }
+            // Lambdas report as Outer$$Lambda; the enclosing class is the useful part
+            int lambda = className.indexOf("$$");
+            return (lambda > 0 ? className.substring(0, lambda) : className) + "." + frame.getMethodName();
+        }
+        return stack.length > 0 ? stack[0].getClassName() + "." + stack[0].getMethodName() : "unknown";
+    }
+
+    private void monitorLoop() {
+        while (true) {
+            try {
+                // Several looks per threshold, so a stall is caught soon after it crosses it
+                Thread.sleep(Math.max(5, thresholdNanos / NANOS_PER_MILLI / 4));
+                long sequence = dispatchSequence;
+                long start = dispatchStart;
+                Thread thread = edt;
+                if (start != 0 && thread != null && capturedSequence != sequence
+                    && System.nanoTime() - start >= thresholdNanos) {
+                    StackTraceElement[] stack = thread.getStackTrace();
+                    // Only keep it if the same dispatch is still running
+                    if (dispatchSequence == sequence && dispatchStart == start) {
+                        capturedStack = stack;
+                        capturedSequence = sequence;
+                    }
+                }
+                writePendingLog();
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void writePendingLog() {
+        if (pendingLog.isEmpty()) {
+            return;
+        }
+        java.util.List<String> entries = new ArrayList<>();
+        pendingLog.drainTo(entries);
+        if (logDirectory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(logDirectory);
+            Path log = logDirectory.resolve(LOG_NAME);
+            try (Writer writer = Files.newBufferedWriter(log, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String entry : entries) {
+                    writer.write(entry);
+                }
+            }
+            if (Files.size(log) >= logBytes) {
+                rotate(log);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // edt-stalls.log becomes .1, .1 becomes .2, and the oldest is dropped
+    private void rotate(Path log) throws IOException {
+        for (int i = OLD_LOGS; i > 1; i--) {
+            Path older = logDirectory.resolve(LOG_NAME + "." + (i - 1));
+            if (Files.exists(older)) {
+                Files.move(older, logDirectory.resolve(LOG_NAME + "." + i), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        Files.move(log, logDirectory.resolve(LOG_NAME + ".1"), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /** Stall totals for one handler. */
+    private static final class HandlerStalls {
+        private long count;
+        private long totalNanos;
+        private long maxNanos;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        synchronized long getTotalNanos() {
+            return totalNanos;
+        }
+
+        synchronized String describe(String handler) {
+            return String.format("%s: %d stalls, %.0fms total, %.0fms max", handler, count,
+                LatencyStats.toMillis(totalNanos), LatencyStats.toMillis(maxNanos));
+        }
+    }
+
+    @Override
+    public long getStallThresholdMillis() {
+        return thresholdNanos / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public void setStallThresholdMillis(long millis) {
+        if (millis <= 0) {
+            throw new IllegalArgumentException("Threshold must be positive: " + millis);
+        }
+        thresholdNanos = millis * NANOS_PER_MILLI;
+    }
+
+    @Override
+    public long getDispatchCount() {
+        return dispatchLatency.getCount();
+    }
+
+    @Override
+    public long getStallCount() {
+        return stallCount;
+    }
+
+    @Override
+    public double getMeanDispatchMillis() {
+        return LatencyStats.toMillis(dispatchLatency.getMeanNanos());
+    }
+
+    @Override
+    public double getP99DispatchMillis() {
+        return LatencyStats.toMillis(dispatchLatency.getPercentileNanos(99));
+    }
+
+    @Override
+    public double getMaxDispatchMillis() {
+        return LatencyStats.toMillis(dispatchLatency.getMaxNanos());
+    }
+
+    @Override
+    public String[] getStallsByHandler() {
+        java.util.List<Map.Entry<String, HandlerStalls>> entries = new ArrayList<>(stalls.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue().getTotalNanos(), a.getValue().getTotalNanos()));
+        String[] lines = new String[entries.size()];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = entries.get(i).getValue().describe(entries.get(i).getKey());
+        }
+        return lines;
+    }
+
+    @Override
+    public String getLastStallStack() {
+        return lastStallStack;
+    }
+
+    @Override
+    public void reset() {
+        dispatchLatency.reset();
+        stalls.clear();
+        stallCount = 0;
+        lastStallStack = "";
+    }
+
+    public LatencyStats getDispatchLatency() {
+        return dispatchLatency;
+    }
+
+    /** Stops the monitor thread and writes what is still queued; for watchdogs that were not installed. */
+    public void close() {
+        monitor.interrupt();
+        try {
+            monitor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writePendingLog();
+    }
+}
@@ -0,0 +1,28 @@
+/**
+ * EdtWatchdogMBean - The EDT watchdog as seen from JMX (jconsole, VisualVM)
+ * Registered as KidsLearningApp:type=EdtWatchdog.
+ */
+public interface EdtWatchdogMBean {
+    long getStallThresholdMillis();
+
+    void setStallThresholdMillis(long millis);
+
+    long getDispatchCount();
+
+    long getStallCount();
+
+    double getMeanDispatchMillis();
+
+    double getP99DispatchMillis();
+
+    double getMaxDispatchMillis();
+
+    /** One line per handler, worst total stall time first. */
+    String[] getStallsByHandler();
+
+    /** The EDT stack captured during the most recent stall, or an empty string. */
+    String getLastStallStack();
+
+    /** Clears dispatch statistics and stall aggregates. */
+    void reset();
+}
@@ -0,0 +1,183 @@
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * GlyphCache - Pre-rasterized images of large text such as the giant letters
+ * Each (text, font, color, device scale) combination is drawn once into a
+ * translucent image compatible with the screen; later paints are a plain
+ * image blit. Compatible images are "managed" by Java2D, so they are copied
+ * to video memory automatically where the pipeline supports it without the
+ * content-loss handling a VolatileImage would need. The cache is bounded in
+ * bytes and evicts the least recently used sprite.
+ */
+public class GlyphCache {
+    private static final GlyphCache SHARED =
+        new GlyphCache(Long.getLong("kids.glyphCache.bytes", 16L * 1024 * 1024));
+
+    private final LinkedHashMap<Key, Sprite> sprites = new LinkedHashMap<>(64, 0.75f, true);
+    private final long budgetBytes;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public GlyphCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    /** Cache shared by every module. */
+    public static GlyphCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the sprite for the text, rasterizing it on a miss.
+     * The scale factors are those of the destination Graphics transform.
+     */
+    public synchronized Sprite get(String text, Font font, Color color, double scaleX, double scaleY,
+                                   GraphicsConfiguration config) {
+        Key key = new Key(text, font, color.getRGB(), scaleX, scaleY);
+        Sprite sprite = sprites.get(key);
+        if (sprite != null) {
+            hits++;
+            return sprite;
+        }
+
+        misses++;
+        sprite = rasterize(text, font, color, scaleX, scaleY, config);
+        sprites.put(key, sprite);
+        usedBytes += sprite.bytes;
+        Iterator<Sprite> it = sprites.values().iterator();
+        while (usedBytes > budgetBytes && sprites.size() > 1 && it.hasNext()) {
+            Sprite eldest = it.next();
+            if (eldest == sprite) {
+                continue;
+            }
+            it.remove();
+            usedBytes -= eldest.bytes;
+            evictions++;
+        }
+        return sprite;
+    }
+
+    public synchronized void clear() {
+        sprites.clear();
+        usedBytes = 0;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("GlyphCache[sprites=%d, used=%dKB/%dKB, hits=%d, misses=%d, evictions=%d]",
+            sprites.size(), usedBytes / 1024, budgetBytes / 1024, hits, misses, evictions);
+    }
+
+    private static Sprite rasterize(String text, Font font, Color color, double scaleX, double scaleY,
+                                    GraphicsConfiguration config) {
+        FontMetrics metrics = Styles.metrics(font);
+        int logicalWidth = Math.max(1, metrics.stringWidth(text));
+        int logicalHeight = Math.max(1, metrics.getAscent() + metrics.getDescent());
+        int pixelWidth = (int) Math.ceil(logicalWidth * scaleX);
+        int pixelHeight = (int) Math.ceil(logicalHeight * scaleY);
+
+        BufferedImage image = config != null
+            ? config.createCompatibleImage(pixelWidth, pixelHeight, Transparency.TRANSLUCENT)
+            : new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_FRACTIONALMETRICS, RenderingHints.VALUE_FRACTIONALMETRICS_ON);
+        g.scale(scaleX, scaleY);
+        g.setFont(font);
+        g.setColor(color);
+        g.drawString(text, 0, metrics.getAscent());
+        g.dispose();
+
+        return new Sprite(image, logicalWidth, logicalHeight);
+    }
+
+    /** A rasterized piece of text and the logical size it covers. */
+    public static class Sprite {
+        private final BufferedImage image;
+        private final int logicalWidth;
+        private final int logicalHeight;
+        private final long bytes;
+
+        Sprite(BufferedImage image, int logicalWidth, int logicalHeight) {
+            this.image = image;
+            this.logicalWidth = logicalWidth;
+            this.logicalHeight = logicalHeight;
+            this.bytes = 4L * image.getWidth() * image.getHeight();
+        }
+
+        public int getWidth() {
+            return logicalWidth;
+        }
+
+        public int getHeight() {
+            return logicalHeight;
+        }
+
+        /** Draws the sprite with its top-left corner at (x, y) in logical coordinates. */
+        public void paint(Graphics2D g, int x, int y) {
+            g.drawImage(image, x, y, logicalWidth, logicalHeight, null);
+        }
+    }
+
+    private static class Key {
+        private final String text;
+        private final Font font;
+        private final int rgb;
+        private final double scaleX;
+        private final double scaleY;
+        private final int hash;
+
+        Key(String text, Font font, int rgb, double scaleX, double scaleY) {
+            this.text = text;
+            this.font = font;
+            this.rgb = rgb;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+            int h = text.hashCode();
+            h = 31 * h + font.hashCode();
+            h = 31 * h + rgb;
+            h = 31 * h + Double.hashCode(scaleX);
+            this.hash = 31 * h + Double.hashCode(scaleY);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return rgb == other.rgb && scaleX == other.scaleX && scaleY == other.scaleY
+                && text.equals(other.text) && font.equals(other.font);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
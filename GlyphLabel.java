@@ -0,0 +1,111 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.*;
+
+/**
+ * GlyphLabel - Centered single-line label painted from the GlyphCache
+ * Used for the giant letters and numbers, which are too expensive to lay
+ * out and antialias on every repaint. slideTo moves the old text out and
+ * the new text in, stepped by the AnimationClock.
+ */
+public class GlyphLabel extends JComponent {
+    // A quarter of a second at the clock's frame rate
+    private static final int SLIDE_FRAMES = AnimationClock.FRAMES_PER_SECOND / 4;
+
+    private String text;
+    private String previousText;
+    private int slideDirection;
+    private int slideFrame;
+    private final AnimationClock.Animation slide = this::advanceSlide;
+
+    public GlyphLabel(String text) {
+        this.text = text;
+        setOpaque(false);
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        if (text.equals(this.text)) {
+            return;
+        }
+        FontMetrics metrics = getFontMetrics(getFont());
+        boolean resized = metrics.stringWidth(text) != metrics.stringWidth(this.text);
+        this.text = text;
+        if (resized) {
+            revalidate();
+        }
+        repaint();
+    }
+
+    /**
+     * Changes the text with a slide: direction 1 moves the old text out to the
+     * left and brings the new one in from the right, -1 the other way.
+     */
+    public void slideTo(String text, int direction) {
+        if (text.equals(this.text)) {
+            return;
+        }
+        previousText = this.text;
+        slideDirection = direction;
+        slideFrame = 0;
+        setText(text);
+        AnimationClock.shared().start(slide);
+    }
+
+    private boolean advanceSlide(int frames) {
+        slideFrame = Math.min(SLIDE_FRAMES, slideFrame + frames);
+        // Both texts sit inside the label, so its bounds are the dirty region
+        repaint();
+        if (slideFrame == SLIDE_FRAMES) {
+            previousText = null;
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        if (isPreferredSizeSet()) {
+            return super.getPreferredSize();
+        }
+        FontMetrics metrics = getFontMetrics(getFont());
+        Insets insets = getInsets();
+        return new Dimension(metrics.stringWidth(text) + insets.left + insets.right,
+            metrics.getHeight() + insets.top + insets.bottom);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2d = (Graphics2D) g;
+        if (previousText == null) {
+            paintText(g2d, text, 0);
+            return;
+        }
+        // Ease out: fast at first, settling gently into place
+        double t = 1 - slideFrame / (double) SLIDE_FRAMES;
+        int travel = (int) (getWidth() * t * t * t);
+        paintText(g2d, previousText, (travel - getWidth()) * slideDirection);
+        paintText(g2d, text, travel * slideDirection);
+    }
+
+    private void paintText(Graphics2D g2d, String text, int offsetX) {
+        AffineTransform transform = g2d.getTransform();
+
+        // Sprites only cover scale and translation; anything else falls back to plain text
+        if (transform.getShearX() != 0 || transform.getShearY() != 0) {
+            FontMetrics metrics = g2d.getFontMetrics(getFont());
+            g2d.setFont(getFont());
+            g2d.setColor(getForeground());
+            g2d.drawString(text, offsetX + (getWidth() - metrics.stringWidth(text)) / 2,
+                (getHeight() - metrics.getHeight()) / 2 + metrics.getAscent());
+            return;
+        }
+
+        GlyphCache.Sprite sprite = GlyphCache.shared().get(text, getFont(), getForeground(),
+            transform.getScaleX(), transform.getScaleY(), g2d.getDeviceConfiguration());
+        sprite.paint(g2d, offsetX + (getWidth() - sprite.getWidth()) / 2, (getHeight() - sprite.getHeight()) / 2);
+    }
+}
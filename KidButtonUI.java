@@ -0,0 +1,182 @@
+import javax.swing.*;
+import javax.swing.plaf.*;
+import javax.swing.plaf.basic.*;
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+
+/**
+ * KidButtonUI - The app's rounded button look, shared by every button
+ * One stateless delegate paints all buttons. Hover and press come from the
+ * button model's rollover and pressed flags, which Swing's own button
+ * listener already maintains, so buttons need no mouse listeners and no
+ * setBackground calls; a state change repaints only that button. The
+ * body of a button is a plain opaque fill; only the antialiased corners are
+ * images, rendered once per color and screen scale and then blitted, so
+ * painting blends a few hundred pixels rather than the whole button.
+ */
+public class KidButtonUI extends BasicButtonUI {
+    private static final KidButtonUI SHARED = new KidButtonUI();
+    private static final Color DISABLED_BACKGROUND = Styles.color(176, 184, 196);
+    private static final Color DISABLED_TEXT = Styles.color(236, 236, 242);
+    private static final int ARC = 18;
+    // One entry per color and screen scale; past this many the cache starts over
+    private static final int MAX_CACHED_CORNERS = 64;
+
+    private final CornerCache corners = new CornerCache();
+
+    /** Swing's factory hook; every button shares one delegate. */
+    public static ComponentUI createUI(JComponent component) {
+        return SHARED;
+    }
+
+    /** Gives a button the kid-friendly look in the primary color with white text. */
+    public static <T extends AbstractButton> T apply(T button) {
+        button.setUI(SHARED);
+        button.setBackground(Styles.PRIMARY);
+        button.setForeground(Color.WHITE);
+        button.setCursor(Styles.HAND_CURSOR);
+        return button;
+    }
+
+    @Override
+    protected void installDefaults(AbstractButton button) {
+        super.installDefaults(button);
+        button.setOpaque(false);
+        button.setContentAreaFilled(false);
+        button.setBorderPainted(false);
+        button.setFocusPainted(false);
+        button.setRolloverEnabled(true);
+        button.setBorder(Styles.emptyBorder(6, 14, 6, 14));
+    }
+
+    @Override
+    public void paint(Graphics g, JComponent component) {
+        AbstractButton button = (AbstractButton) component;
+        int width = button.getWidth();
+        int height = button.getHeight();
+        if (width > 0 && height > 0) {
+            paintBackground((Graphics2D) g, width, height, fillFor(button.getModel(), button.getBackground()));
+        }
+        super.paint(g, component);
+    }
+
+    // Solid fills for the body and cached antialiased corners; only the corners need blending
+    private void paintBackground(Graphics2D g, int width, int height, Color color) {
+        int r = ARC / 2;
+        if (width < ARC || height < ARC) {
+            Object antialias = g.getRenderingHint(RenderingHints.KEY_ANTIALIASING);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setColor(color);
+            g.fillRoundRect(0, 0, width, height, ARC, ARC);
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, antialias);
+            return;
+        }
+        g.setColor(color);
+        g.fillRect(r, 0, width - ARC, height);
+        g.fillRect(0, r, r, height - ARC);
+        g.fillRect(width - r, r, r, height - ARC);
+
+        AffineTransform transform = g.getTransform();
+        BufferedImage corners = this.corners.get(color, transform.getScaleX(), transform.getScaleY());
+        int cw = corners.getWidth() / 2;
+        int ch = corners.getHeight() / 2;
+        g.drawImage(corners, 0, 0, r, r, 0, 0, cw, ch, null);
+        g.drawImage(corners, width - r, 0, width, r, cw, 0, 2 * cw, ch, null);
+        g.drawImage(corners, 0, height - r, r, height, 0, ch, cw, 2 * ch, null);
+        g.drawImage(corners, width - r, height - r, width, height, cw, ch, 2 * cw, 2 * ch, null);
+    }
+
+    @Override
+    protected void paintText(Graphics g, AbstractButton button, Rectangle textRect, String text) {
+        if (button.getModel().isEnabled()) {
+            super.paintText(g, button, textRect, text);
+            return;
+        }
+        // Basic's etched disabled text does not read on a colored button
+        FontMetrics metrics = button.getFontMetrics(button.getFont());
+        g.setColor(DISABLED_TEXT);
+        g.setFont(button.getFont());
+        ((Graphics2D) g).setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.drawString(text, textRect.x, textRect.y + metrics.getAscent());
+    }
+
+    @Override
+    protected void paintButtonPressed(Graphics g, AbstractButton button) {
+        // The pressed background is part of the cached image
+    }
+
+    @Override
+    protected void paintFocus(Graphics g, AbstractButton button, Rectangle viewRect, Rectangle textRect,
+                              Rectangle iconRect) {
+    }
+
+    /** Number of corner images rendered so far. */
+    public static long getCornersRendered() {
+        return SHARED.corners.rendered;
+    }
+
+    private static Color fillFor(ButtonModel model, Color base) {
+        if (!model.isEnabled()) {
+            return DISABLED_BACKGROUND;
+        }
+        if (model.isPressed() && model.isArmed()) {
+            return Styles.color(base.getRed() * 4 / 5, base.getGreen() * 4 / 5, base.getBlue() * 4 / 5);
+        }
+        if (model.isRollover()) {
+            // The palette's own hover color where it has one
+            return base.equals(Styles.PRIMARY) ? Styles.PRIMARY_HOVER
+                : Styles.color(lighten(base.getRed()), lighten(base.getGreen()), lighten(base.getBlue()));
+        }
+        return base;
+    }
+
+    private static int lighten(int component) {
+        return component + (255 - component) / 4;
+    }
+
+    /**
+     * One antialiased rounded square per color and device scale, whose four
+     * quadrants are the button corners. Kept in an open-addressed table on
+     * packed long keys so a cache hit allocates nothing.
+     */
+    private static final class CornerCache {
+        private final long[] keys = new long[MAX_CACHED_CORNERS * 2];
+        private final BufferedImage[] images = new BufferedImage[MAX_CACHED_CORNERS * 2];
+        private int size;
+        private long rendered;
+
+        BufferedImage get(Color color, double scaleX, double scaleY) {
+            int pixelWidth = (int) Math.ceil(ARC * scaleX);
+            int pixelHeight = (int) Math.ceil(ARC * scaleY);
+            long key = ((long) (pixelWidth & 0xFFFF) << 48) | ((long) (pixelHeight & 0xFFFF) << 32)
+                | (color.getRGB() & 0xFFFFFFFFL);
+            int mask = keys.length - 1;
+            int index = (int) (key ^ (key >>> 29)) * 0x9E3779B9 >>> 16 & mask;
+            while (images[index] != null) {
+                if (keys[index] == key) {
+                    return images[index];
+                }
+                index = (index + 1) & mask;
+            }
+            if (size >= MAX_CACHED_CORNERS) {
+                java.util.Arrays.fill(images, null);
+                size = 0;
+                return get(color, scaleX, scaleY);
+            }
+            BufferedImage image = new BufferedImage(pixelWidth, pixelHeight, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = image.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.scale(pixelWidth / (double) ARC, pixelHeight / (double) ARC);
+            g.setColor(color);
+            g.fill(new RoundRectangle2D.Double(0, 0, ARC, ARC, ARC, ARC));
+            g.dispose();
+            keys[index] = key;
+            images[index] = image;
+            size++;
+            rendered++;
+            return image;
+        }
+    }
+}
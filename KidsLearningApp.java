@@ -12,16 +12,29 @@ public class KidsLearningApp extends JFrame {
     private JPanel mainPanel;
     private CardLayout cardLayout;
     private JMenuBar menuBar;
-    private String currentTheme = "Light";
-    private final Color LIGHT_BG = new Color(245, 245, 255);
-    private final Color DARK_BG = new Color(50, 50, 70);
-    private final Font TITLE_FONT = new Font("Segoe UI", Font.BOLD, 32);
-    private final Font BUTTON_FONT = new Font("Segoe UI", Font.BOLD, 20);
+    private final Font TITLE_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 32);
+    private final Font BUTTON_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20);
+    // Estimated bytes of module panels kept alive between visits
+    private static final long MODULE_CACHE_BUDGET = Long.getLong("kids.moduleCache.budget", 4L * 1024 * 1024);
+    private ModuleCache moduleCache;
+    private final ModuleRegistry moduleRegistry = ModuleRegistry.withBuiltIns();
+    private final StartupMetrics startupMetrics = new StartupMetrics();
+    private boolean firstFramePainted;
+    // Kept in a field because Localization only holds listeners weakly
+    private final Runnable titleUpdater = () -> setTitle(Localization.text("app.title"));
     
     public KidsLearningApp() {
         try {
-            setTitle("Kids Learning App - Educational Platform");
+            setTitle(Localization.text("app.title"));
+            Localization.addListener(titleUpdater);
             setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent e) {
+                    // Taken here on the EDT; the shutdown hook waits for it to be written
+                    SpacedRepetitionScheduler.saveAll();
+                }
+            });
             setSize(1024, 768);
             setLocationRelativeTo(null);
             setMinimumSize(new Dimension(800, 600));
@@ -30,12 +43,13 @@ public class KidsLearningApp extends JFrame {
             cardLayout = new CardLayout();
             mainPanel = new JPanel(cardLayout);
             mainPanel.setName("mainPanel");
+            moduleCache = new ModuleCache(MODULE_CACHE_BUDGET, this::createModule, mainPanel::remove);
             
             // Create menu bar
             createMenuBar();
             
-            // Set initial theme
-            applyTheme();
+            // Every screen follows the theme through its ThemeEngine bindings
+            ThemeEngine.bindBackground(mainPanel, ThemeEngine.Token.BACKGROUND);
             
             // Create and add the main menu
             createMainMenu();
@@ -55,20 +69,23 @@ public class KidsLearningApp extends JFrame {
         menuBar = new JMenuBar();
         
         // File menu
-        JMenu fileMenu = new JMenu("File");
-        JMenuItem exitItem = new JMenuItem("Exit");
-        exitItem.addActionListener(e -> System.exit(0));
+        JMenu fileMenu = Localization.bind(new JMenu(), "menu.file");
+        JMenuItem exitItem = Localization.bind(new JMenuItem(), "menu.exit");
+        // Closes the window the same way as its close button, saving on the way out
+        exitItem.addActionListener(e -> dispatchEvent(new WindowEvent(this, WindowEvent.WINDOW_CLOSING)));
         fileMenu.add(exitItem);
         
         // View menu
-        JMenu viewMenu = new JMenu("View");
-        JMenuItem themeItem = new JMenuItem("Toggle Theme");
+        JMenu viewMenu = Localization.bind(new JMenu(), "menu.view");
+        JMenuItem themeItem = Localization.bind(new JMenuItem(), "menu.theme");
         themeItem.addActionListener(e -> toggleTheme());
         viewMenu.add(themeItem);
+        viewMenu.add(createLanguageMenu());
+        viewMenu.add(createPerformanceItem());
         
         // Help menu
-        JMenu helpMenu = new JMenu("Help");
-        JMenuItem aboutItem = new JMenuItem("About");
+        JMenu helpMenu = Localization.bind(new JMenu(), "menu.help");
+        JMenuItem aboutItem = Localization.bind(new JMenuItem(), "menu.about");
         aboutItem.addActionListener(e -> showAboutDialog());
         helpMenu.add(aboutItem);
         
@@ -79,42 +96,65 @@ public class KidsLearningApp extends JFrame {
         setJMenuBar(menuBar);
     }
     
-    private void toggleTheme() {
-        currentTheme = currentTheme.equals("Light") ? "Dark" : "Light";
-        applyTheme();
+    private JMenu createLanguageMenu() {
+        JMenu languageMenu = Localization.bind(new JMenu(), "menu.language");
+        ButtonGroup group = new ButtonGroup();
+        for (String tag : Localization.getAvailableLocales()) {
+            // Each language is named in its own language, so it never needs rebinding
+            JRadioButtonMenuItem item = new JRadioButtonMenuItem(Localization.getDisplayName(tag));
+            item.setSelected(tag.equals(Localization.getLocale()));
+            item.addActionListener(e -> {
+                if (!Localization.setLocale(tag)) {
+                    item.setEnabled(false);
+                }
+            });
+            group.add(item);
+            languageMenu.add(item);
+        }
+        return languageMenu;
     }
     
-    private void applyTheme() {
-        Color bgColor = currentTheme.equals("Light") ? LIGHT_BG : DARK_BG;
-        Color fgColor = currentTheme.equals("Light") ? Color.BLACK : Color.WHITE;
-        
-        mainPanel.setBackground(bgColor);
-        for (Component comp : mainPanel.getComponents()) {
-            if (comp instanceof JPanel) {
-                comp.setBackground(bgColor);
-                comp.setForeground(fgColor);
+    // Kept out of sight until Ctrl+Shift+F12 reveals it and shows the overlay
+    private JMenuItem createPerformanceItem() {
+        PerformanceHud hud = new PerformanceHud();
+        setGlassPane(hud);
+        JCheckBoxMenuItem item = Localization.bind(new JCheckBoxMenuItem(), "menu.performance");
+        item.setVisible(false);
+        item.addActionListener(e -> hud.setVisible(item.isSelected()));
+        KeyStroke shortcut = KeyStroke.getKeyStroke(KeyEvent.VK_F12, InputEvent.CTRL_DOWN_MASK | InputEvent.SHIFT_DOWN_MASK);
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW).put(shortcut, "togglePerformanceHud");
+        getRootPane().getActionMap().put("togglePerformanceHud", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                item.setVisible(true);
+                item.doClick(0);
             }
-        }
+        });
+        return item;
+    }
+    
+    private void toggleTheme() {
+        ThemeEngine.setTheme(ThemeEngine.getTheme() == ThemeEngine.LIGHT ? ThemeEngine.DARK : ThemeEngine.LIGHT);
     }
     
     private void showAboutDialog() {
-        JDialog aboutDialog = new JDialog(this, "About Kids Learning App", true);
+        JDialog aboutDialog = new JDialog(this, Localization.text("about.title"), true);
         aboutDialog.setLayout(new BorderLayout(10, 10));
         
         JPanel contentPanel = new JPanel();
         contentPanel.setLayout(new BoxLayout(contentPanel, BoxLayout.Y_AXIS));
-        contentPanel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        contentPanel.setBorder(Styles.emptyBorder(20, 20, 20, 20));
         
-        JLabel titleLabel = new JLabel("Kids Learning App");
-        titleLabel.setFont(new Font("Segoe UI", Font.BOLD, 24));
+        JLabel titleLabel = new JLabel(Localization.text("app.name"));
+        titleLabel.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 24));
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        JLabel versionLabel = new JLabel("Version 1.0");
-        versionLabel.setFont(new Font("Segoe UI", Font.PLAIN, 16));
+        JLabel versionLabel = new JLabel(Localization.text("app.version"));
+        versionLabel.setFont(Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 16));
         versionLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        JLabel descLabel = new JLabel("<html><center>An educational platform for children<br>to learn basic concepts interactively.</center></html>");
-        descLabel.setFont(new Font("Segoe UI", Font.PLAIN, 14));
+        JLabel descLabel = new JLabel(Localization.text("app.description"));
+        descLabel.setFont(Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 14));
         descLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         contentPanel.add(titleLabel);
@@ -132,18 +172,17 @@ public class KidsLearningApp extends JFrame {
     private void createMainMenu() {
         JPanel menuPanel = new JPanel();
         menuPanel.setLayout(new BoxLayout(menuPanel, BoxLayout.Y_AXIS));
-        menuPanel.setBackground(currentTheme.equals("Light") ? LIGHT_BG : DARK_BG);
+        ThemeEngine.bindBackground(menuPanel, ThemeEngine.Token.BACKGROUND);
         
-        JLabel titleLabel = new JLabel("Welcome to Kids Learning!");
+        JLabel titleLabel = Localization.bind(new JLabel(), "main.welcome");
         titleLabel.setFont(TITLE_FONT);
-        titleLabel.setForeground(currentTheme.equals("Light") ? Color.BLACK : Color.WHITE);
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.HEADING);
         titleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         menuPanel.add(titleLabel);
         menuPanel.add(Box.createRigidArea(new Dimension(0, 40)));
         
         // Create menu buttons
-        String[] modules = {"Alphabet", "Numbers", "Colors", "Shapes", "Quiz"};
-        for (String module : modules) {
+        for (String module : moduleRegistry.getModuleNames()) {
             JButton button = createMenuButton(module);
             button.addActionListener(e -> switchToModule(module));
             menuPanel.add(Box.createRigidArea(new Dimension(0, 20)));
@@ -154,78 +193,99 @@ public class KidsLearningApp extends JFrame {
         mainPanel.add(menuPanel, "MainMenu");
     }
     
-    private JButton createMenuButton(String text) {
-        JButton button = new JButton(text);
+    private JButton createMenuButton(String module) {
+        JButton button = Localization.bindWithFallback(new JButton(), "module." + module, module);
         button.setFont(BUTTON_FONT);
         button.setAlignmentX(Component.CENTER_ALIGNMENT);
         button.setMaximumSize(new Dimension(350, 60));
-        button.setBackground(new Color(70, 130, 180));
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        // Add hover effect
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(new Color(100, 149, 237));
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(new Color(70, 130, 180));
-            }
-        });
+        // Hover and press are painted by the shared button UI
+        KidButtonUI.apply(button);
         
         return button;
     }
     
-    private void switchToModule(String moduleName) {
-        // Remove existing module if it exists
-        try {
-            for (Component comp : mainPanel.getComponents()) {
-                if (comp.getName() != null && comp.getName().equals(moduleName)) {
-                    mainPanel.remove(comp);
-                    break;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        // Add new module
-        JPanel newModule = null;
-        switch (moduleName) {
-            case "Alphabet":
-                newModule = new AlphabetModule(cardLayout, mainPanel);
-                break;
-            case "Numbers":
-                newModule = new NumbersModule(cardLayout, mainPanel);
-                break;
-            case "Colors":
-                newModule = new ColorsModule(cardLayout, mainPanel);
-                break;
-            case "Shapes":
-                newModule = new ShapesModule(cardLayout, mainPanel);
-                break;
-            case "Quiz":
-                newModule = new QuizModule(cardLayout, mainPanel);
-                break;
+    @Override
+    public void paint(Graphics g) {
+        super.paint(g);
+        if (!firstFramePainted) {
+            firstFramePainted = true;
+            startupMetrics.firstFramePainted();
+            // Main menu is on screen; prepare the modules while the child decides
+            moduleRegistry.prewarmInBackground(this::prefetchModule);
         }
+    }
+    
+    private void switchToModule(String moduleName) {
+        long start = System.nanoTime();
+        boolean cold = !moduleCache.contains(moduleName);
+        
+        // Reuse the cached module if it is still alive, otherwise build it once
+        JPanel module = moduleCache.get(moduleName);
 
-        if (newModule != null) {
-            newModule.setName(moduleName);
-            mainPanel.add(newModule, moduleName);
+        if (module != null) {
+            attachModule(moduleName, module);
             cardLayout.show(mainPanel, moduleName);
             mainPanel.revalidate();
             mainPanel.repaint();
+            
+            // Runs after the repaint queued above has been processed
+            SwingUtilities.invokeLater(() ->
+                startupMetrics.moduleInteractive(moduleName, cold, System.nanoTime() - start));
         }
     }
     
+    private void prefetchModule(String moduleName) {
+        JPanel module = moduleCache.prefetch(moduleName);
+        if (module != null) {
+            // Adding the hidden card lets layout happen before the first visit
+            attachModule(moduleName, module);
+            mainPanel.revalidate();
+        }
+    }
+    
+    private void attachModule(String moduleName, JPanel module) {
+        if (module.getParent() != mainPanel) {
+            module.setName(moduleName);
+            mainPanel.add(module, moduleName);
+        }
+    }
+    
+    private JPanel createModule(String moduleName) {
+        return moduleRegistry.create(moduleName, cardLayout, mainPanel);
+    }
+    
+    public ModuleCache getModuleCache() {
+        return moduleCache;
+    }
+    
+    public StartupMetrics getStartupMetrics() {
+        return startupMetrics;
+    }
+    
     public static void main(String[] args) {
+        // Time every event from the first one, so a frozen screen can be traced to its handler
+        EdtWatchdog.install();
+        // Opening the sound device can take a while; do it before the first quiz answer needs it
+        AudioOutput.openSharedInBackground();
+        // Commit progress still queued when the window closes
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ProgressStore.shared().close();
+            try {
+                // The last schedules the EDT saved; the EDT itself may be blocked in System.exit
+                SpacedRepetitionScheduler.awaitSaved(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "progress-close"));
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
                 KidsLearningApp app = new KidsLearningApp();
                 app.setVisible(true);
+                // Go straight back to a quiz that was interrupted
+                if (ProgressStore.shared().getActiveQuiz() != null) {
+                    app.switchToModule("Quiz");
+                }
             } catch (Exception e) {
                 e.printStackTrace();
             }
@@ -0,0 +1,78 @@
+import java.util.*;
+
+/**
+ * LatencyStats - Rolling latency recorder
+ * Keeps lifetime count/mean/max plus a fixed window of recent samples for
+ * percentiles. All values are in nanoseconds; methods are thread-safe.
+ */
+public class LatencyStats {
+    private final long[] window;
+    private int next;
+    private int filled;
+    private long count;
+    private long sum;
+    private long max;
+
+    public LatencyStats() {
+        this(1024);
+    }
+
+    public LatencyStats(int windowSize) {
+        window = new long[windowSize];
+    }
+
+    public synchronized void record(long nanos) {
+        window[next] = nanos;
+        next = (next + 1) % window.length;
+        if (filled < window.length) {
+            filled++;
+        }
+        count++;
+        sum += nanos;
+        if (nanos > max) {
+            max = nanos;
+        }
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getMeanNanos() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    public synchronized long getMaxNanos() {
+        return max;
+    }
+
+    /** Percentile (0-100) over the recent window, or 0 when empty. */
+    public synchronized long getPercentileNanos(double percentile) {
+        if (filled == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(window, filled);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * filled) - 1;
+        return sorted[Math.max(0, Math.min(filled - 1, index))];
+    }
+
+    public synchronized void reset() {
+        next = 0;
+        filled = 0;
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("n=%d mean=%.2fms p50=%.2fms p95=%.2fms p99=%.2fms max=%.2fms",
+            count, toMillis(getMeanNanos()), toMillis(getPercentileNanos(50)),
+            toMillis(getPercentileNanos(95)), toMillis(getPercentileNanos(99)), toMillis(max));
+    }
+
+    public static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
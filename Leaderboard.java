@@ -0,0 +1,211 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Leaderboard - Class-wide points and live top-K rankings
+ * Every finished quiz adds its score to the learner's total and to the
+ * learner's total for that quiz type. Totals are LongAdders, so sessions
+ * finishing at the same moment add to different cells instead of fighting
+ * over one counter, and learners are found in a ConcurrentHashMap.
+ *
+ * The rankings (overall and per quiz type) are immutable snapshots behind
+ * AtomicReferences. A writer whose new total would place in the top K
+ * copies the K entries with itself merged in and publishes the copy with a
+ * compare-and-set, retrying if another writer got there first; everyone
+ * else only reads the K-th score and moves on. Readers take the current
+ * snapshot and never wait, and no operation holds a lock.
+ */
+public class Leaderboard {
+    public static final int DEFAULT_TOP = 10;
+    private static final QuizType[] TYPES = QuizType.values();
+    private static final Leaderboard SHARED = new Leaderboard(DEFAULT_TOP);
+
+    private final int top;
+    private final ConcurrentHashMap<String, Learner> learners = new ConcurrentHashMap<>();
+    private final AtomicReference<Ranking> overall;
+    private final AtomicReferenceArray<Ranking> byType = new AtomicReferenceArray<>(TYPES.length);
+    private final LongAdder quizzes = new LongAdder();
+    private final LongAdder points = new LongAdder();
+    private final LongAdder publishRetries = new LongAdder();
+
+    /** Totals of one learner. */
+    private static final class Learner {
+        private final LongAdder total = new LongAdder();
+        private final LongAdder[] byType = new LongAdder[TYPES.length];
+
+        Learner() {
+            for (int i = 0; i < byType.length; i++) {
+                byType[i] = new LongAdder();
+            }
+        }
+    }
+
+    /** An immutable ranking: the best learners and their points, best first. */
+    public static final class Ranking {
+        private static final Ranking EMPTY = new Ranking(new String[0], new long[0]);
+
+        private final String[] names;
+        private final long[] points;
+
+        private Ranking(String[] names, long[] points) {
+            this.names = names;
+            this.points = points;
+        }
+
+        public int size() {
+            return names.length;
+        }
+
+        public String getName(int rank) {
+            return names[rank];
+        }
+
+        public long getPoints(int rank) {
+            return points[rank];
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                text.append(i + 1).append(". ").append(names[i]).append(' ').append(points[i]).append('\n');
+            }
+            return text.toString();
+        }
+    }
+
+    public Leaderboard(int top) {
+        if (top < 1) {
+            throw new IllegalArgumentException("Need at least one place, got " + top);
+        }
+        this.top = top;
+        overall = new AtomicReference<>(Ranking.EMPTY);
+        for (int i = 0; i < TYPES.length; i++) {
+            byType.set(i, Ranking.EMPTY);
+        }
+    }
+
+    /** The app-wide board, fed by the quiz screen and the classroom server. */
+    public static Leaderboard shared() {
+        return SHARED;
+    }
+
+    /** Adds a finished quiz's score to the learner's totals. Safe from any number of threads. */
+    public void record(String learner, QuizType type, int score) {
+        quizzes.increment();
+        if (score <= 0) {
+            return;
+        }
+        points.add(score);
+        Learner totals = learners.computeIfAbsent(learner, name -> new Learner());
+        totals.total.add(score);
+        totals.byType[type.ordinal()].add(score);
+        // Read after adding, so the last writer for a learner publishes the full total
+        offer(overall, learner, totals.total.sum());
+        offer(byType, type.ordinal(), learner, totals.byType[type.ordinal()].sum());
+    }
+
+    /** The overall top learners; never blocks, even while scores pour in. */
+    public Ranking getTop() {
+        return overall.get();
+    }
+
+    public Ranking getTop(QuizType type) {
+        return byType.get(type.ordinal());
+    }
+
+    /** A learner's total points, 0 if they have not scored yet. */
+    public long getPoints(String learner) {
+        Learner totals = learners.get(learner);
+        return totals == null ? 0 : totals.total.sum();
+    }
+
+    public int getLearnerCount() {
+        return learners.size();
+    }
+
+    public long getQuizCount() {
+        return quizzes.sum();
+    }
+
+    public long getTotalPoints() {
+        return points.sum();
+    }
+
+    /** Times a ranking update lost a race and was redone; a measure of contention. */
+    public long getPublishRetries() {
+        return publishRetries.sum();
+    }
+
+    /** Starts a new board, e.g. for the next class; updates racing with it may land on either board. */
+    public void clear() {
+        learners.clear();
+        overall.set(Ranking.EMPTY);
+        for (int i = 0; i < TYPES.length; i++) {
+            byType.set(i, Ranking.EMPTY);
+        }
+    }
+
+    private void offer(AtomicReference<Ranking> ranking, String learner, long total) {
+        while (true) {
+            Ranking current = ranking.get();
+            Ranking updated = merged(current, learner, total);
+            if (updated == current || ranking.compareAndSet(current, updated)) {
+                return;
+            }
+            publishRetries.increment();
+        }
+    }
+
+    private void offer(AtomicReferenceArray<Ranking> rankings, int index, String learner, long total) {
+        while (true) {
+            Ranking current = rankings.get(index);
+            Ranking updated = merged(current, learner, total);
+            if (updated == current || rankings.compareAndSet(index, current, updated)) {
+                return;
+            }
+            publishRetries.increment();
+        }
+    }
+
+    // The ranking with the learner at the given total, or the same ranking if nothing changes
+    private Ranking merged(Ranking current, String learner, long total) {
+        int size = current.names.length;
+        if (size == top && total <= current.points[size - 1]) {
+            // The common case: not good enough to place
+            return current;
+        }
+        int existing = -1;
+        for (int i = 0; i < size; i++) {
+            if (current.names[i].equals(learner)) {
+                existing = i;
+                break;
+            }
+        }
+        if (existing >= 0 && current.points[existing] >= total) {
+            // A concurrent writer already published this learner's newer total
+            return current;
+        }
+        int newSize = existing >= 0 ? size : Math.min(top, size + 1);
+        String[] names = new String[newSize];
+        long[] points = new long[newSize];
+        int from = 0;
+        boolean placed = false;
+        for (int to = 0; to < newSize; to++) {
+            if (from == existing) {
+                from++;
+            }
+            if (!placed && (from >= size || total > current.points[from])) {
+                names[to] = learner;
+                points[to] = total;
+                placed = true;
+            } else {
+                names[to] = current.names[from];
+                points[to] = current.points[from];
+                from++;
+            }
+        }
+        return new Ranking(names, points);
+    }
+}
@@ -0,0 +1,29 @@
+/**
+ * LearningModule - Lifecycle callbacks for cached module panels
+ * Modules are created once and kept by the ModuleCache, so anything that runs
+ * in the background (timers, caches) should stop while the module is hidden
+ * and resume when it is shown again
+ */
+public interface LearningModule {
+
+    /** Called when the module becomes the visible card. */
+    default void moduleShown() {
+    }
+
+    /** Called when another card replaces the module; stop timers here. */
+    default void moduleHidden() {
+    }
+
+    /** Called once when the module is evicted from the cache and will not be shown again. */
+    default void moduleDisposed() {
+        moduleHidden();
+    }
+
+    /**
+     * Extra bytes held by the module beyond its Swing components (images,
+     * buffers). Used by the ModuleCache to keep within its memory budget.
+     */
+    default long extraFootprint() {
+        return 0;
+    }
+}
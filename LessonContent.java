@@ -0,0 +1,312 @@
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * LessonContent - Words, names and facts used by the lessons and quizzes
+ * Shared by the modules and the QuestionEngine so that lesson screens and
+ * quiz questions always agree. Lookups go through a ContentPack: the pack
+ * named by -Dkids.content (or content.pack in the working directory) when
+ * present, otherwise the built-in English content below. Sections missing
+ * from an external pack fall back to the built-in ones. A pack whose shape,
+ * color or color fact sections differ in length, or whose facts name colors
+ * it does not have, is not used at all; only as many shapes as ShapeGeometry
+ * can draw are shown.
+ */
+public final class LessonContent {
+    private static final String[] EXAMPLE_WORDS = {
+        "Apple", "Ball", "Cat", "Dog", "Elephant",
+        "Fish", "Giraffe", "Hat", "Ice cream", "Jelly",
+        "Kite", "Lion", "Monkey", "Nest", "Orange",
+        "Penguin", "Queen", "Rabbit", "Sun", "Tree",
+        "Umbrella", "Van", "Water", "X-ray", "Yoyo",
+        "Zebra"
+    };
+
+    private static final String[] NUMBER_WORDS = {
+        "One", "Two", "Three", "Four", "Five",
+        "Six", "Seven", "Eight", "Nine", "Ten",
+        "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen",
+        "Sixteen", "Seventeen", "Eighteen", "Nineteen", "Twenty"
+    };
+
+    private static final String[] TENS_WORDS = {
+        "", "", "Twenty", "Thirty", "Forty", "Fifty", "Sixty", "Seventy", "Eighty", "Ninety"
+    };
+
+    private static final String[] SHAPE_NAMES = {
+        "Circle", "Square", "Triangle", "Rectangle",
+        "Oval", "Star", "Heart", "Diamond"
+    };
+
+    private static final String[] SHAPE_DESCRIPTIONS = {
+        "Round like a ball",
+        "Four equal sides",
+        "Three sides and corners",
+        "Four sides, like a door",
+        "Like a stretched circle",
+        "Points in the sky",
+        "Symbol of love",
+        "Like a kite shape"
+    };
+
+    // Number of straight sides; 0 for curved shapes
+    private static final int[] SHAPE_SIDES = {0, 4, 3, 4, 0, 10, 0, 4};
+
+    private static final String[] COLOR_NAMES = {
+        "Red", "Orange", "Yellow", "Green", "Blue", "Purple", "Pink", "Brown", "Black", "White", "Gray"
+    };
+
+    // What each color in COLOR_NAMES looks like, as 0xRRGGBB
+    private static final int[] COLOR_RGB = {
+        0xE53935, 0xFB8C00, 0xFDD835, 0x43A047, 0x1E88E5, 0x8E24AA, 0xF48FB1, 0x795548, 0x000000, 0xFFFFFF, 0x9E9E9E
+    };
+
+    // Things a child knows the color of, paired with an index into COLOR_NAMES
+    private static final String[] COLOR_FACT_THINGS = {
+        "the sky", "a banana", "grass", "an apple", "a carrot", "snow", "coal", "a strawberry",
+        "a lemon", "a frog", "the ocean", "a grape", "a pig", "chocolate", "a cloud on a rainy day",
+        "a fire truck", "a pumpkin", "a leaf", "milk", "the night sky", "an elephant", "a tomato",
+        "a blueberry", "a flamingo", "a bear", "the sun"
+    };
+    private static final int[] COLOR_FACT_ANSWERS = {
+        4, 2, 3, 0, 1, 9, 8, 0,
+        2, 3, 4, 5, 6, 7, 10,
+        0, 1, 3, 9, 8, 10, 0,
+        4, 6, 7, 2
+    };
+
+    // Paint mixing as {first, second, result} triples of indexes into COLOR_NAMES
+    private static final int[] COLOR_MIXES = {
+        0, 2, 1,  4, 2, 3,  0, 4, 5,  0, 9, 6,  8, 9, 10
+    };
+
+    // Words used to build numbers past the word list: hundred, thousand, joining
+    // word after hundreds, and the separator between tens and ones
+    private static final String[] NUMBER_SCALE_WORDS = {"Hundred", "One Thousand", "and", "-"};
+
+    private static final Content BUILT_IN = load(builtInContent());
+    private static final Content DEFAULT = loadDefault();
+    private static volatile Content current = DEFAULT;
+
+    private LessonContent() {
+    }
+
+    /** The compiled-in content as a pack writer, used for the fallback and by the packer. */
+    public static ContentPackWriter builtInContent() {
+        return new ContentPackWriter()
+            .addStrings("alphabet.words", EXAMPLE_WORDS)
+            .addStrings("numbers.words", NUMBER_WORDS)
+            .addStrings("numbers.tens", TENS_WORDS)
+            .addStrings("numbers.scale", NUMBER_SCALE_WORDS)
+            .addStrings("shapes.names", SHAPE_NAMES)
+            .addStrings("shapes.descriptions", SHAPE_DESCRIPTIONS)
+            .addInts("shapes.sides", SHAPE_SIDES)
+            .addStrings("colors.names", COLOR_NAMES)
+            .addInts("colors.rgb", COLOR_RGB)
+            .addStrings("colors.facts.things", COLOR_FACT_THINGS)
+            .addInts("colors.facts.answers", COLOR_FACT_ANSWERS)
+            .addInts("colors.mixes", COLOR_MIXES);
+    }
+
+    /** Switches every lookup to the given pack; pass null to return to the startup content. */
+    public static void use(ContentPack pack) {
+        if (pack == null) {
+            current = DEFAULT;
+            return;
+        }
+        try {
+            current = new Content(pack, BUILT_IN);
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            current = BUILT_IN;
+        }
+    }
+
+    public static int getLetterCount() {
+        return current.exampleWords.size();
+    }
+
+    /** Example word for a letter between 'A' and 'Z'. */
+    public static String getExampleWord(char letter) {
+        return current.exampleWords.getString(letter - 'A');
+    }
+
+    /** Word for a number between 1 and 1,000. */
+    public static String getNumberWord(int number) {
+        Content content = current;
+        if (number <= content.numberWords.size()) {
+            return content.numberWords.getString(number - 1);
+        }
+        // Compose larger numbers from the word lists, English word order
+        if (number >= 100) {
+            String hundreds = number >= 1000 ? content.numberScale.getString(1)
+                : content.numberWords.getString(number / 100 - 1) + " " + content.numberScale.getString(0);
+            int rest = number % 100;
+            return rest == 0 ? hundreds
+                : hundreds + " " + content.numberScale.getString(2) + " " + getNumberWord(rest).toLowerCase();
+        }
+        int ones = number % 10;
+        String tens = content.tensWords.getString(number / 10);
+        // Older packs have no separator entry
+        String separator = content.numberScale.size() > 3 ? content.numberScale.getString(3) : "-";
+        return ones == 0 ? tens : tens + separator + content.numberWords.getString(ones - 1).toLowerCase();
+    }
+
+    public static int getShapeCount() {
+        return current.shapeCount;
+    }
+
+    public static String getShapeName(int index) {
+        return current.shapeNames.getString(index);
+    }
+
+    /** Language-independent name of a shape, e.g. "circle", for file names. */
+    public static String getShapeKey(int index) {
+        return index < BUILT_IN.shapeNames.size()
+            ? BUILT_IN.shapeNames.getString(index).toLowerCase() : String.valueOf(index);
+    }
+
+    public static String getShapeDescription(int index) {
+        return current.shapeDescriptions.getString(index);
+    }
+
+    public static int getShapeSides(int index) {
+        return current.shapeSides.getInt(index);
+    }
+
+    public static int getColorCount() {
+        return current.colorNames.size();
+    }
+
+    public static String getColorName(int index) {
+        return current.colorNames.getString(index);
+    }
+
+    /** Language-independent name of a color, e.g. "red", for file names. */
+    public static String getColorKey(int index) {
+        return index < BUILT_IN.colorNames.size()
+            ? BUILT_IN.colorNames.getString(index).toLowerCase() : String.valueOf(index);
+    }
+
+    /** The color itself as 0xRRGGBB. */
+    public static int getColorRgb(int index) {
+        return current.colorRgb.getInt(index);
+    }
+
+    public static int getColorFactCount() {
+        return current.colorFactThings.size();
+    }
+
+    public static String getColorFactThing(int index) {
+        return current.colorFactThings.getString(index);
+    }
+
+    public static int getColorFactAnswer(int index) {
+        return current.colorFactAnswers.getInt(index);
+    }
+
+    public static int getColorMixCount() {
+        return current.colorMixes.size() / 3;
+    }
+
+    /** Returns {first, second, result} color indexes for a mixing fact. */
+    public static int[] getColorMix(int index) {
+        ContentPack.Section mixes = current.colorMixes;
+        return new int[] {mixes.getInt(index * 3), mixes.getInt(index * 3 + 1), mixes.getInt(index * 3 + 2)};
+    }
+
+    private static Content load(ContentPackWriter writer) {
+        try {
+            return new Content(ContentPack.wrap(writer.toByteBuffer()), null);
+        } catch (IOException e) {
+            throw new IllegalStateException("Built-in content is invalid", e);
+        }
+    }
+
+    private static Content loadDefault() {
+        String configured = System.getProperty("kids.content");
+        Path file = Paths.get(configured != null ? configured : "content.pack");
+        if (!Files.isRegularFile(file)) {
+            return BUILT_IN;
+        }
+        try {
+            // The mapping stays open for the life of the app
+            return new Content(ContentPack.open(file), BUILT_IN);
+        } catch (IOException | RuntimeException e) {
+            // A damaged pack must not keep the app from starting
+            e.printStackTrace();
+            return BUILT_IN;
+        }
+    }
+
+    /** Resolved sections of one pack. */
+    private static final class Content {
+        private final ContentPack.Section exampleWords;
+        private final ContentPack.Section numberWords;
+        private final ContentPack.Section tensWords;
+        private final ContentPack.Section numberScale;
+        private final ContentPack.Section shapeNames;
+        private final ContentPack.Section shapeDescriptions;
+        private final ContentPack.Section shapeSides;
+        private final ContentPack.Section colorNames;
+        private final ContentPack.Section colorRgb;
+        private final ContentPack.Section colorFactThings;
+        private final ContentPack.Section colorFactAnswers;
+        private final ContentPack.Section colorMixes;
+        private final int shapeCount;
+
+        Content(ContentPack pack, Content fallback) {
+            exampleWords = section(pack, "alphabet.words", fallback == null ? null : fallback.exampleWords);
+            numberWords = section(pack, "numbers.words", fallback == null ? null : fallback.numberWords);
+            tensWords = section(pack, "numbers.tens", fallback == null ? null : fallback.tensWords);
+            numberScale = section(pack, "numbers.scale", fallback == null ? null : fallback.numberScale);
+            shapeNames = section(pack, "shapes.names", fallback == null ? null : fallback.shapeNames);
+            shapeDescriptions = section(pack, "shapes.descriptions", fallback == null ? null : fallback.shapeDescriptions);
+            shapeSides = section(pack, "shapes.sides", fallback == null ? null : fallback.shapeSides);
+            colorNames = section(pack, "colors.names", fallback == null ? null : fallback.colorNames);
+            colorRgb = section(pack, "colors.rgb", fallback == null ? null : fallback.colorRgb);
+            colorFactThings = section(pack, "colors.facts.things", fallback == null ? null : fallback.colorFactThings);
+            colorFactAnswers = section(pack, "colors.facts.answers", fallback == null ? null : fallback.colorFactAnswers);
+            colorMixes = section(pack, "colors.mixes", fallback == null ? null : fallback.colorMixes);
+            checkParallel(shapeNames, shapeDescriptions, "shapes.descriptions");
+            checkParallel(shapeNames, shapeSides, "shapes.sides");
+            checkParallel(colorNames, colorRgb, "colors.rgb");
+            checkParallel(colorFactThings, colorFactAnswers, "colors.facts.answers");
+            if (colorMixes.size() % 3 != 0) {
+                throw new IllegalStateException("Content section colors.mixes is not made of triples");
+            }
+            checkColorIndexes(colorFactAnswers, colorNames.size());
+            checkColorIndexes(colorMixes, colorNames.size());
+            // Extra shapes in a pack have no outline to draw
+            shapeCount = Math.min(shapeNames.size(), ShapeGeometry.SHAPE_COUNT);
+        }
+
+        private static void checkParallel(ContentPack.Section first, ContentPack.Section second, String name) {
+            if (first.size() != second.size()) {
+                throw new IllegalStateException("Content section " + name + " has " + second.size()
+                    + " entries, expected " + first.size());
+            }
+        }
+
+        private static void checkColorIndexes(ContentPack.Section indexes, int colorCount) {
+            for (int i = 0; i < indexes.size(); i++) {
+                int color = indexes.getInt(i);
+                if (color < 0 || color >= colorCount) {
+                    throw new IllegalStateException("Content section " + indexes.getName() + " names color "
+                        + color + ", but there are " + colorCount);
+                }
+            }
+        }
+
+        private static ContentPack.Section section(ContentPack pack, String name, ContentPack.Section fallback) {
+            ContentPack.Section section = pack.getSection(name);
+            if (section == null && fallback == null) {
+                throw new IllegalStateException("Content pack has no section " + name);
+            }
+            if (section != null && fallback != null && section.isStrings() != fallback.isStrings()) {
+                throw new IllegalStateException("Content section " + name + " has the wrong kind");
+            }
+            return section != null ? section : fallback;
+        }
+    }
+}
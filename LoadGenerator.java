@@ -0,0 +1,356 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * LoadGenerator - Thousands of simulated learners taking quizzes at once
+ * Each virtual learner runs on its own thread (virtual on Java 21+, see
+ * VirtualThreads) and takes quizzes back to back through QuizSession,
+ * exactly as the quiz screen does but with no display. A learner has its
+ * own accuracy, drawn around the configured mean, and thinks for a
+ * log-normally distributed time before each answer. Thinking is simulated
+ * on the learner's own clock, which also drives the session's time limit,
+ * and only timeScale of it is actually slept, so a classroom's worth of
+ * quizzes runs in seconds while threads still block and interleave.
+ *
+ * The report gives quizzes and answers per second, percentiles of the time
+ * the engine took to start a quiz and to take an answer, and the score
+ * distribution. Run it against a content pack (-Dkids.content) before
+ * rolling the pack out:
+ *
+ *   java -cp out LoadGenerator --learners 5000 --quizzes 3 --accuracy 0.7
+ */
+public class LoadGenerator {
+    private int learners = 1000;
+    private int quizzesPerLearner = 3;
+    private int questionsPerQuiz = 5;
+    private int quizSeconds = 30;
+    // Null picks a random quiz type for every quiz
+    private QuizType type;
+    private double accuracy = 0.8;
+    private double accuracySpread = 0.15;
+    private double reactionMillis = 2500;
+    private double reactionSigma = 0.5;
+    private double timeScale = 0.01;
+    private long seed = 1;
+
+    public LoadGenerator learners(int count) {
+        learners = count;
+        return this;
+    }
+
+    public LoadGenerator quizzesPerLearner(int count) {
+        quizzesPerLearner = count;
+        return this;
+    }
+
+    public LoadGenerator questionsPerQuiz(int count) {
+        questionsPerQuiz = count;
+        return this;
+    }
+
+    public LoadGenerator quizSeconds(int seconds) {
+        quizSeconds = seconds;
+        return this;
+    }
+
+    /** The quiz type every learner takes; null for a random type per quiz. */
+    public LoadGenerator type(QuizType quizType) {
+        type = quizType;
+        return this;
+    }
+
+    /** Mean chance of a right answer, and the standard deviation of it between learners. */
+    public LoadGenerator accuracy(double mean, double spread) {
+        accuracy = mean;
+        accuracySpread = spread;
+        return this;
+    }
+
+    /** Median thinking time before an answer, and the log-normal sigma around it. */
+    public LoadGenerator reactionTime(double medianMillis, double sigma) {
+        reactionMillis = medianMillis;
+        reactionSigma = sigma;
+        return this;
+    }
+
+    /** Fraction of the simulated thinking time that is really slept; 0 never sleeps. */
+    public LoadGenerator timeScale(double scale) {
+        timeScale = scale;
+        return this;
+    }
+
+    public LoadGenerator seed(long value) {
+        seed = value;
+        return this;
+    }
+
+    /** Starts every learner at once and waits for all of them to finish. */
+    public Report run() throws InterruptedException {
+        Report report = new Report(questionsPerQuiz);
+        // Load the content and question templates first, so the first learners do not queue on it
+        for (QuizType quizType : QuizType.values()) {
+            new QuizSession(quizType, seed, new int[0], questionsPerQuiz, 0, 0, quizSeconds, System::nanoTime);
+        }
+        CountDownLatch done = new CountDownLatch(learners);
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("learner");
+        long start = System.nanoTime();
+        for (int i = 0; i < learners; i++) {
+            long learnerSeed = seed * 1_000_003L + i;
+            executor.execute(() -> {
+                try {
+                    learn(new SplittableRandom(learnerSeed), report);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    report.failed(e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        report.elapsedNanos = System.nanoTime() - start;
+        executor.shutdown();
+        return report;
+    }
+
+    // One learner's quizzes, on its own thread
+    private void learn(SplittableRandom random, Report report) throws InterruptedException {
+        double learnerAccuracy = Math.max(0, Math.min(1, accuracy + accuracySpread * gaussian(random)));
+        // The learner's clock: simulated nanoseconds, moved on by thinking
+        long[] now = {0};
+        QuizType[] types = QuizType.values();
+        for (int quiz = 0; quiz < quizzesPerLearner; quiz++) {
+            QuizType quizType = type != null ? type : types[random.nextInt(types.length)];
+            long quizStart = System.nanoTime();
+            QuizSession session = new QuizSession(quizType, random.nextLong(),
+                pickItems(random, QuestionEngine.getItemCount(quizType)), questionsPerQuiz, 0, 0, quizSeconds,
+                () -> now[0]);
+            report.startLatency.record(System.nanoTime() - quizStart);
+
+            Question question = session.getQuestion();
+            while (question != null) {
+                long thinking = (long) (reactionMillis * 1e6 * Math.exp(reactionSigma * gaussian(random)));
+                if (timeScale > 0) {
+                    TimeUnit.NANOSECONDS.sleep((long) (thinking * timeScale));
+                }
+                now[0] += thinking;
+                int option = choose(random, question, learnerAccuracy);
+
+                long answerStart = System.nanoTime();
+                boolean correct = session.answer(option);
+                // Not taken when the learner thought past the time limit
+                boolean taken = session.isAnswered();
+                session.advance();
+                question = session.getQuestion();
+                report.answerLatency.record(System.nanoTime() - answerStart);
+                if (taken) {
+                    report.answers.increment();
+                }
+                if (correct) {
+                    report.correct.increment();
+                }
+            }
+            if (session.getQuestionIndex() < session.getQuestionCount()) {
+                report.timedOut.increment();
+            }
+            report.scores.incrementAndGet(Math.min(session.getScore(), questionsPerQuiz));
+            report.quizzes.increment();
+        }
+    }
+
+    // Distinct items, as the spaced repetition scheduler would pick them
+    private int[] pickItems(SplittableRandom random, int itemCount) {
+        int[] all = new int[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            all[i] = i;
+        }
+        int count = Math.min(questionsPerQuiz, itemCount);
+        for (int i = 0; i < count; i++) {
+            int j = i + random.nextInt(itemCount - i);
+            int swap = all[i];
+            all[i] = all[j];
+            all[j] = swap;
+        }
+        return Arrays.copyOf(all, count);
+    }
+
+    private static int choose(SplittableRandom random, Question question, double learnerAccuracy) {
+        int options = question.getOptions().length;
+        if (random.nextDouble() < learnerAccuracy || options < 2) {
+            return question.getCorrectAnswer();
+        }
+        // A wrong option, each equally likely
+        int wrong = random.nextInt(options - 1);
+        return wrong >= question.getCorrectAnswer() ? wrong + 1 : wrong;
+    }
+
+    // Standard normal, by Box-Muller
+    private static double gaussian(SplittableRandom random) {
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    /** What a run measured; filled in concurrently by the learners. */
+    public static final class Report {
+        private final LatencyHistogram startLatency = new LatencyHistogram();
+        private final LatencyHistogram answerLatency = new LatencyHistogram();
+        private final LongAdder quizzes = new LongAdder();
+        private final LongAdder answers = new LongAdder();
+        private final LongAdder correct = new LongAdder();
+        private final LongAdder timedOut = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        // Quizzes finished with each score from 0 to the question count
+        private final AtomicLongArray scores;
+        private long elapsedNanos;
+
+        private Report(int questionsPerQuiz) {
+            scores = new AtomicLongArray(questionsPerQuiz + 1);
+        }
+
+        private void failed(Throwable failure) {
+            failures.increment();
+            firstFailure.compareAndSet(null, failure);
+        }
+
+        public LatencyHistogram getStartLatency() {
+            return startLatency;
+        }
+
+        public LatencyHistogram getAnswerLatency() {
+            return answerLatency;
+        }
+
+        public long getQuizzes() {
+            return quizzes.sum();
+        }
+
+        public long getAnswers() {
+            return answers.sum();
+        }
+
+        public long getTimedOut() {
+            return timedOut.sum();
+        }
+
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        public Throwable getFirstFailure() {
+            return firstFailure.get();
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public double getQuizzesPerSecond() {
+            return quizzes.sum() * 1e9 / elapsedNanos;
+        }
+
+        public double getAnswersPerSecond() {
+            return answers.sum() * 1e9 / elapsedNanos;
+        }
+
+        public double getAccuracy() {
+            long n = answers.sum();
+            return n == 0 ? 0 : (double) correct.sum() / n;
+        }
+
+        /** Number of quizzes that ended with each score, indexed by score. */
+        public long[] getScoreCounts() {
+            long[] counts = new long[scores.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = scores.get(i);
+            }
+            return counts;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("%d quizzes, %d answers in %.1fs on %s threads: %.0f quizzes/s, %.0f answers/s%n",
+                getQuizzes(), getAnswers(), elapsedNanos / 1e9, VirtualThreads.isAvailable() ? "virtual" : "platform",
+                getQuizzesPerSecond(), getAnswersPerSecond()));
+            text.append(describe("start quiz", startLatency));
+            text.append(describe("answer", answerLatency));
+            text.append(String.format("accuracy %.1f%%, %d quizzes ran out of time, %d learners failed%n",
+                100 * getAccuracy(), getTimedOut(), getFailures()));
+            long[] counts = getScoreCounts();
+            long total = Math.max(1, getQuizzes());
+            for (int score = 0; score < counts.length; score++) {
+                int bar = (int) Math.round(40.0 * counts[score] / total);
+                text.append(String.format("score %2d: %7d %s%n", score, counts[score], "#".repeat(bar)));
+            }
+            return text.toString();
+        }
+
+        private static String describe(String name, LatencyHistogram latency) {
+            return String.format("%-10s p50 %8.1f  p95 %8.1f  p99 %8.1f  max %8.1f us%n", name,
+                latency.getPercentileNanos(50) / 1e3, latency.getPercentileNanos(95) / 1e3,
+                latency.getPercentileNanos(99) / 1e3, latency.getMaxNanos() / 1e3);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        try {
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--learners":
+                        generator.learners(Integer.parseInt(value));
+                        break;
+                    case "--quizzes":
+                        generator.quizzesPerLearner(Integer.parseInt(value));
+                        break;
+                    case "--questions":
+                        generator.questionsPerQuiz(Integer.parseInt(value));
+                        break;
+                    case "--seconds":
+                        generator.quizSeconds(Integer.parseInt(value));
+                        break;
+                    case "--type":
+                        generator.type("mixed".equals(value) ? null : QuizType.valueOf(value.toUpperCase()));
+                        break;
+                    case "--accuracy":
+                        generator.accuracy(Double.parseDouble(value), generator.accuracySpread);
+                        break;
+                    case "--accuracySpread":
+                        generator.accuracy(generator.accuracy, Double.parseDouble(value));
+                        break;
+                    case "--reactionMs":
+                        generator.reactionTime(Double.parseDouble(value), generator.reactionSigma);
+                        break;
+                    case "--reactionSigma":
+                        generator.reactionTime(generator.reactionMillis, Double.parseDouble(value));
+                        break;
+                    case "--timeScale":
+                        generator.timeScale(Double.parseDouble(value));
+                        break;
+                    case "--seed":
+                        generator.seed(Long.parseLong(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option " + args[i]);
+                }
+            }
+            if (args.length % 2 != 0) {
+                throw new IllegalArgumentException("Missing value for " + args[args.length - 1]);
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: java LoadGenerator [--learners N] [--quizzes N] [--questions N] [--seconds N]");
+            System.err.println("       [--type alphabet|numbers|colors|shapes|mixed] [--accuracy P] [--accuracySpread SD]");
+            System.err.println("       [--reactionMs MEDIAN] [--reactionSigma S] [--timeScale F] [--seed N]");
+            System.exit(2);
+        }
+        Report report = generator.run();
+        System.out.print(report);
+        if (report.getFirstFailure() != null) {
+            report.getFirstFailure().printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,344 @@
+import javax.swing.*;
+import java.awt.*;
+import java.io.*;
+import java.lang.ref.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Localization - User-facing text and lesson content per language
+ * Each language other than the built-in English is a content pack in the
+ * lang directory (-Dkids.lang.dir, default "lang"), either binary
+ * (xx.pack) or as a packer text source (xx.txt). Lesson sections replace
+ * LessonContent's; the "ui" section holds key=value interface strings.
+ * A language is loaded the first time it is selected and kept in a small
+ * LRU cache (-Dkids.locale.cacheSize, default 4).
+ *
+ * Components show localized text through bind(), which remembers the key,
+ * so switching language only resets the text of bound components and
+ * notifies listeners; no module panel is rebuilt. Components and listeners
+ * are held weakly, so panels evicted from the ModuleCache are not kept alive. Switch time is recorded
+ * separately for cached and newly loaded languages.
+ */
+public final class Localization {
+    public static final String DEFAULT_LOCALE = "en";
+    private static final Path LANG_DIR = Paths.get(System.getProperty("kids.lang.dir", "lang"));
+    private static final int CACHE_SIZE = Math.max(1, Integer.getInteger("kids.locale.cacheSize", 4));
+    private static final boolean PRINT = Boolean.getBoolean("kids.metrics");
+
+    private static final String[][] ENGLISH = {
+        {"app.title", "Kids Learning App - Educational Platform"},
+        {"app.name", "Kids Learning App"},
+        {"app.version", "Version 1.0"},
+        {"app.description", "<html><center>An educational platform for children<br>to learn basic concepts interactively.</center></html>"},
+        {"menu.file", "File"},
+        {"menu.exit", "Exit"},
+        {"menu.view", "View"},
+        {"menu.theme", "Toggle Theme"},
+        {"menu.performance", "Performance Overlay"},
+        {"menu.language", "Language"},
+        {"menu.help", "Help"},
+        {"menu.about", "About"},
+        {"about.title", "About Kids Learning App"},
+        {"main.welcome", "Welcome to Kids Learning!"},
+        {"module.Alphabet", "Alphabet"},
+        {"module.Numbers", "Numbers"},
+        {"module.Colors", "Colors"},
+        {"module.Shapes", "Shapes"},
+        {"module.Quiz", "Quiz"},
+        {"nav.home", "Home"},
+        {"nav.previous", "Previous"},
+        {"nav.next", "Next"},
+        {"nav.review", "Review"},
+        {"alphabet.title", "Learn the Alphabet"},
+        {"numbers.title", "Learn Numbers"},
+        {"shapes.title", "Learn Shapes"},
+        {"colors.title", "Learn Colors"},
+        {"colors.learn", "Colors"},
+        {"colors.mix", "Mix"},
+        {"colors.closest", "Closest"},
+        {"colors.q.mix", "{0} + {1} = ?"},
+        {"colors.q.closest", "Which color is closest?"},
+        {"colors.calledLike", "This one is called {0}"},
+        {"quiz.title", "Quiz Time!"},
+        {"quiz.choose", "Choose Quiz Type"},
+        {"quiz.type.ALPHABET", "Alphabet"},
+        {"quiz.type.NUMBERS", "Numbers"},
+        {"quiz.type.COLORS", "Colors"},
+        {"quiz.type.SHAPES", "Shapes"},
+        {"quiz.time", "Time: {0}s"},
+        {"quiz.score", "Score: {0}"},
+        {"quiz.correct", "Correct! 🎉"},
+        {"quiz.tryAgain", "Try again! 💪"},
+        {"quiz.complete", "Quiz Complete!"},
+        {"quiz.finalScore", "Your score: {0} out of {1}"},
+        {"quiz.another", "Try Another Quiz"},
+        {"quiz.q.letterAfter", "What comes after '{0}'?"},
+        {"quiz.q.letterBefore", "What comes before '{0}'?"},
+        {"quiz.q.wordStartsWith", "What letter does '{0}' start with?"},
+        {"quiz.q.whichWordStarts", "Which word starts with '{0}'?"},
+        {"quiz.q.numberAfter", "What comes after {0}?"},
+        {"quiz.q.numberBefore", "What comes before {0}?"},
+        {"quiz.q.plus", "What is {0} plus {1}?"},
+        {"quiz.q.minus", "What is {0} minus {1}?"},
+        {"quiz.q.numberWord", "Which number is '{0}'?"},
+        {"quiz.q.colorMix", "What do you get when you mix {0} and {1}?"},
+        {"quiz.q.colorOf", "What color is {0}?"},
+        {"quiz.q.shapeDescribed", "Which shape is '{0}'?"},
+        {"quiz.q.shapeSides", "How many sides does a {0} have?"},
+        {"quiz.q.shapeWithSides", "Which shape has {0} sides?"}
+    };
+
+    private static final Bundle ENGLISH_BUNDLE = new Bundle(DEFAULT_LOCALE, null, englishText());
+
+    private static final LinkedHashMap<String, Bundle> cache = new LinkedHashMap<>(8, 0.75f, true);
+    private static final WeakHashMap<Component, Binding> bindings = new WeakHashMap<>();
+    private static final List<WeakReference<Runnable>> listeners = new CopyOnWriteArrayList<>();
+    private static final LatencyStats cachedSwitches = new LatencyStats(256);
+    private static final LatencyStats loadingSwitches = new LatencyStats(256);
+    private static volatile Bundle current = ENGLISH_BUNDLE;
+
+    private Localization() {
+    }
+
+    /** Localized text for a key, falling back to English and then to the key itself. */
+    public static String text(String key) {
+        return text(key, key);
+    }
+
+    public static String text(String key, String fallback) {
+        String value = current.text.get(key);
+        if (value == null) {
+            value = ENGLISH_BUNDLE.text.get(key);
+        }
+        return value != null ? value : fallback;
+    }
+
+    /** Localized text with {0}, {1}... replaced by the arguments. */
+    public static String format(String key, Object... args) {
+        return substitute(text(key), args);
+    }
+
+    /** Sets the label's text now and again whenever the language changes. */
+    public static <T extends JLabel> T bind(T label, String key, Object... args) {
+        return bindComponent(label, key, key, args);
+    }
+
+    public static <T extends AbstractButton> T bind(T button, String key, Object... args) {
+        return bindComponent(button, key, key, args);
+    }
+
+    /** Binds a button whose key may be missing, e.g. a module contributed by a plugin. */
+    public static <T extends AbstractButton> T bindWithFallback(T button, String key, String fallback) {
+        return bindComponent(button, key, fallback, new Object[0]);
+    }
+
+    /** Stops updating a component, e.g. before giving it text that is not localized. */
+    public static void unbind(Component component) {
+        bindings.remove(component);
+    }
+
+    /**
+     * Runs the listener after every language switch, on the thread that
+     * switched. Only a weak reference is kept, so the owner must hold on to
+     * the listener (e.g. in a field) for as long as it wants updates.
+     */
+    public static void addListener(Runnable listener) {
+        listeners.add(new WeakReference<>(listener));
+    }
+
+    public static void removeListener(Runnable listener) {
+        listeners.removeIf(ref -> ref.get() == null || ref.get() == listener);
+    }
+
+    public static String getLocale() {
+        return current.tag;
+    }
+
+    /** English plus every pack or text source found in the lang directory. */
+    public static List<String> getAvailableLocales() {
+        TreeSet<String> tags = new TreeSet<>();
+        if (Files.isDirectory(LANG_DIR)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(LANG_DIR, "*.{pack,txt}")) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    tags.add(name.substring(0, name.lastIndexOf('.')));
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        tags.remove(DEFAULT_LOCALE);
+        List<String> result = new ArrayList<>();
+        result.add(DEFAULT_LOCALE);
+        result.addAll(tags);
+        return result;
+    }
+
+    /** Name of a language in that language, e.g. "español" for "es". */
+    public static String getDisplayName(String tag) {
+        Locale locale = Locale.forLanguageTag(tag);
+        String name = locale.getDisplayLanguage(locale);
+        return name.isEmpty() ? tag : name;
+    }
+
+    /**
+     * Switches language. Must be called on the EDT when components are
+     * bound. Returns false, keeping the current language, if it cannot be loaded.
+     */
+    public static boolean setLocale(String tag) {
+        long start = System.nanoTime();
+        Bundle bundle;
+        boolean loaded = false;
+        synchronized (cache) {
+            bundle = DEFAULT_LOCALE.equals(tag) ? ENGLISH_BUNDLE : cache.get(tag);
+        }
+        if (bundle == null) {
+            try {
+                bundle = load(tag);
+                loaded = true;
+            } catch (IOException e) {
+                e.printStackTrace();
+                return false;
+            }
+            cacheBundle(bundle);
+        }
+
+        current = bundle;
+        LessonContent.use(bundle.pack);
+        for (Map.Entry<Component, Binding> entry : bindings.entrySet()) {
+            entry.getValue().apply(entry.getKey());
+        }
+        for (WeakReference<Runnable> ref : listeners) {
+            Runnable listener = ref.get();
+            if (listener != null) {
+                listener.run();
+            } else {
+                listeners.remove(ref);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        (loaded ? loadingSwitches : cachedSwitches).record(elapsed);
+        if (PRINT) {
+            System.out.printf("Switched to %s (%s) in %.2fms%n", tag, loaded ? "loaded" : "cached",
+                LatencyStats.toMillis(elapsed));
+        }
+        return true;
+    }
+
+    public static LatencyStats getCachedSwitchStats() {
+        return cachedSwitches;
+    }
+
+    public static LatencyStats getLoadingSwitchStats() {
+        return loadingSwitches;
+    }
+
+    public static int getCachedLocaleCount() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private static <T extends Component> T bindComponent(T component, String key, String fallback, Object[] args) {
+        Binding binding = new Binding(key, fallback, args);
+        bindings.put(component, binding);
+        binding.apply(component);
+        return component;
+    }
+
+    private static void cacheBundle(Bundle bundle) {
+        synchronized (cache) {
+            cache.put(bundle.tag, bundle);
+            Iterator<Bundle> it = cache.values().iterator();
+            while (cache.size() > CACHE_SIZE && it.hasNext()) {
+                Bundle eldest = it.next();
+                if (eldest == bundle || eldest == current) {
+                    continue;
+                }
+                it.remove();
+                try {
+                    eldest.pack.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private static Bundle load(String tag) throws IOException {
+        Path binary = LANG_DIR.resolve(tag + ".pack");
+        ContentPack pack;
+        if (Files.isRegularFile(binary)) {
+            pack = ContentPack.open(binary);
+        } else {
+            try (BufferedReader reader = Files.newBufferedReader(LANG_DIR.resolve(tag + ".txt"), StandardCharsets.UTF_8)) {
+                pack = ContentPack.wrap(ContentPackWriter.parse(reader).toByteBuffer());
+            }
+        }
+
+        Map<String, String> text = new HashMap<>();
+        ContentPack.Section ui = pack.getSection("ui");
+        for (int i = 0; ui != null && i < ui.size(); i++) {
+            String entry = ui.getString(i);
+            int split = entry.indexOf('=');
+            if (split > 0) {
+                text.put(entry.substring(0, split).trim(), entry.substring(split + 1).trim());
+            }
+        }
+        return new Bundle(tag, pack, text);
+    }
+
+    private static Map<String, String> englishText() {
+        Map<String, String> text = new HashMap<>();
+        for (String[] entry : ENGLISH) {
+            text.put(entry[0], entry[1]);
+        }
+        return text;
+    }
+
+    private static String substitute(String pattern, Object[] args) {
+        for (int i = 0; i < args.length; i++) {
+            pattern = pattern.replace("{" + i + "}", String.valueOf(args[i]));
+        }
+        return pattern;
+    }
+
+    private static final class Bundle {
+        private final String tag;
+        // Null for English, which uses LessonContent's default content
+        private final ContentPack pack;
+        private final Map<String, String> text;
+
+        Bundle(String tag, ContentPack pack, Map<String, String> text) {
+            this.tag = tag;
+            this.pack = pack;
+            this.text = text;
+        }
+    }
+
+    private static final class Binding {
+        private final String key;
+        private final String fallback;
+        private final Object[] args;
+
+        Binding(String key, String fallback, Object[] args) {
+            this.key = key;
+            this.fallback = fallback;
+            this.args = args;
+        }
+
+        void apply(Component component) {
+            String value = substitute(text(key, fallback), args);
+            if (component instanceof JLabel) {
+                ((JLabel) component).setText(value);
+            } else if (component instanceof AbstractButton) {
+                ((AbstractButton) component).setText(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * ModuleCache - Keeps constructed module panels alive between visits
+ * Modules are built on first use and reused afterwards. The cache tracks an
+ * estimated footprint per module and evicts the least recently used hidden
+ * modules once the memory budget is exceeded.
+ */
+public class ModuleCache {
+    // Rough cost of a Swing component with its UI delegate, listeners and layout state
+    private static final long BYTES_PER_COMPONENT = 2 * 1024;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final long budgetBytes;
+    private final Function<String, JPanel> factory;
+    private final Consumer<JPanel> evictionListener;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long prefetches;
+
+    public ModuleCache(long budgetBytes, Function<String, JPanel> factory, Consumer<JPanel> evictionListener) {
+        this.budgetBytes = budgetBytes;
+        this.factory = factory;
+        this.evictionListener = evictionListener;
+    }
+
+    /**
+     * Returns the cached module for the given name, creating it on a miss.
+     * Returns null if the factory does not know the module.
+     */
+    public JPanel get(String name) {
+        Entry entry = entries.get(name);
+        if (entry != null) {
+            hits++;
+            return entry.panel;
+        }
+
+        misses++;
+        JPanel panel = factory.apply(name);
+        if (panel == null) {
+            return null;
+        }
+
+        entry = new Entry(panel, estimateFootprint(panel));
+        panel.addComponentListener(LIFECYCLE_LISTENER);
+        entries.put(name, entry);
+        usedBytes += entry.footprint;
+        evictIfNeeded(name);
+        return panel;
+    }
+
+    /**
+     * Builds a module ahead of its first visit without counting a miss.
+     * The module is dropped again if it does not fit in the remaining budget,
+     * so prefetching never evicts modules the user has already visited.
+     */
+    public JPanel prefetch(String name) {
+        if (entries.containsKey(name) || usedBytes >= budgetBytes) {
+            return null;
+        }
+        JPanel panel = factory.apply(name);
+        if (panel == null) {
+            return null;
+        }
+
+        Entry entry = new Entry(panel, estimateFootprint(panel));
+        if (usedBytes + entry.footprint > budgetBytes) {
+            if (panel instanceof LearningModule) {
+                ((LearningModule) panel).moduleDisposed();
+            }
+            return null;
+        }
+        panel.addComponentListener(LIFECYCLE_LISTENER);
+        entries.put(name, entry);
+        usedBytes += entry.footprint;
+        prefetches++;
+        return panel;
+    }
+
+    /** Drops a single module, disposing it if it was cached. */
+    public void invalidate(String name) {
+        Entry entry = entries.remove(name);
+        if (entry != null) {
+            discard(entry);
+        }
+    }
+
+    /** Drops every cached module. */
+    public void clear() {
+        for (Entry entry : new ArrayList<>(entries.values())) {
+            discard(entry);
+        }
+        entries.clear();
+    }
+
+    public boolean contains(String name) {
+        return entries.containsKey(name);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getPrefetches() {
+        return prefetches;
+    }
+
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ModuleCache[size=%d, used=%dKB/%dKB, hits=%d, misses=%d, evictions=%d, prefetches=%d]",
+            entries.size(), usedBytes / 1024, budgetBytes / 1024, hits, misses, evictions, prefetches);
+    }
+
+    private void evictIfNeeded(String justAdded) {
+        Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+        while (usedBytes > budgetBytes && it.hasNext()) {
+            Map.Entry<String, Entry> candidate = it.next();
+            // Never evict the module being entered or the one currently on screen
+            if (candidate.getKey().equals(justAdded) || candidate.getValue().panel.isVisible()) {
+                continue;
+            }
+            it.remove();
+            discard(candidate.getValue());
+            evictions++;
+        }
+    }
+
+    private void discard(Entry entry) {
+        usedBytes -= entry.footprint;
+        entry.panel.removeComponentListener(LIFECYCLE_LISTENER);
+        evictionListener.accept(entry.panel);
+        if (entry.panel instanceof LearningModule) {
+            ((LearningModule) entry.panel).moduleDisposed();
+        }
+    }
+
+    private static long estimateFootprint(JPanel panel) {
+        long bytes = countComponents(panel) * BYTES_PER_COMPONENT;
+        if (panel instanceof LearningModule) {
+            bytes += ((LearningModule) panel).extraFootprint();
+        }
+        return bytes;
+    }
+
+    private static int countComponents(Container container) {
+        int count = 1;
+        for (Component child : container.getComponents()) {
+            count += child instanceof Container ? countComponents((Container) child) : 1;
+        }
+        return count;
+    }
+
+    // CardLayout toggles card visibility, so visibility events drive the module lifecycle
+    private static final ComponentListener LIFECYCLE_LISTENER = new ComponentAdapter() {
+        @Override
+        public void componentShown(ComponentEvent e) {
+            if (e.getComponent() instanceof LearningModule) {
+                ((LearningModule) e.getComponent()).moduleShown();
+            }
+        }
+
+        @Override
+        public void componentHidden(ComponentEvent e) {
+            if (e.getComponent() instanceof LearningModule) {
+                ((LearningModule) e.getComponent()).moduleHidden();
+            }
+        }
+    };
+
+    private static class Entry {
+        private final JPanel panel;
+        private final long footprint;
+
+        Entry(JPanel panel, long footprint) {
+            this.panel = panel;
+            this.footprint = footprint;
+        }
+    }
+}
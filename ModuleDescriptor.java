@@ -0,0 +1,30 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * ModuleDescriptor - Lightweight description of a learning module
+ * Descriptors are cheap to load and only touch the module class when asked
+ * to pre-warm or create it. Extra modules can be contributed through
+ * ServiceLoader by listing implementations in
+ * META-INF/services/ModuleDescriptor.
+ */
+public interface ModuleDescriptor {
+
+    /** Name shown on the main menu and used as the card name. */
+    String getName();
+
+    /** Position on the main menu; lower values come first. */
+    default int getOrder() {
+        return 100;
+    }
+
+    /**
+     * Loads classes and shared data the module needs. Called on a
+     * background thread, so it must not create or touch Swing components.
+     */
+    default void prewarm() throws Exception {
+    }
+
+    /** Builds the module panel. Called on the event dispatch thread. */
+    JPanel create(CardLayout cardLayout, JPanel mainPanel) throws Exception;
+}
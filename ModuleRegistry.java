@@ -0,0 +1,113 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.font.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * ModuleRegistry - Catalogue of the learning modules offered on the main menu
+ * Holds the built-in descriptors plus any discovered through ServiceLoader,
+ * and pre-warms them on a background thread once the main menu is visible.
+ */
+public class ModuleRegistry {
+    // Fonts used by the module screens; realizing them early loads font files and glyph tables
+    private static final Font[] WARMUP_FONTS = {
+        Styles.font(Styles.BODY_FAMILY, Font.BOLD, 150),
+        Styles.font(Styles.BODY_FAMILY, Font.BOLD, 72),
+        Styles.font(Styles.BODY_FAMILY, Font.BOLD, 36),
+        Styles.font(Styles.BODY_FAMILY, Font.BOLD, 24),
+        Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20),
+        Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 20),
+        Styles.font(Styles.BODY_FAMILY, Font.ITALIC, 20),
+        Styles.font(Styles.BODY_FAMILY, Font.ITALIC, 24),
+        Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 16),
+        Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 28)
+    };
+    private static final String WARMUP_TEXT = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!?'";
+
+    private final Map<String, ModuleDescriptor> descriptors = new LinkedHashMap<>();
+    private final Set<String> unavailable = Collections.synchronizedSet(new HashSet<>());
+
+    /** Registry with the built-in modules and any ServiceLoader contributions. */
+    public static ModuleRegistry withBuiltIns() {
+        ModuleRegistry registry = new ModuleRegistry();
+        registry.register(new BuiltInModuleDescriptor("Alphabet", 10, "AlphabetModule"));
+        registry.register(new BuiltInModuleDescriptor("Numbers", 20, "NumbersModule"));
+        registry.register(new BuiltInModuleDescriptor("Colors", 30, "ColorsModule"));
+        registry.register(new BuiltInModuleDescriptor("Shapes", 40, "ShapesModule"));
+        registry.register(new BuiltInModuleDescriptor("Quiz", 50, "QuizModule"));
+
+        try {
+            for (ModuleDescriptor descriptor : ServiceLoader.load(ModuleDescriptor.class)) {
+                registry.register(descriptor);
+            }
+        } catch (ServiceConfigurationError e) {
+            e.printStackTrace();
+        }
+        return registry;
+    }
+
+    public synchronized void register(ModuleDescriptor descriptor) {
+        descriptors.put(descriptor.getName(), descriptor);
+    }
+
+    public synchronized ModuleDescriptor get(String name) {
+        return descriptors.get(name);
+    }
+
+    /** Module names in menu order. */
+    public synchronized java.util.List<String> getModuleNames() {
+        java.util.List<ModuleDescriptor> sorted = new ArrayList<>(descriptors.values());
+        sorted.sort(Comparator.comparingInt(ModuleDescriptor::getOrder));
+        java.util.List<String> names = new ArrayList<>();
+        for (ModuleDescriptor descriptor : sorted) {
+            names.add(descriptor.getName());
+        }
+        return names;
+    }
+
+    /** Builds a module on the EDT, or returns null if it cannot be created. */
+    public JPanel create(String name, CardLayout cardLayout, JPanel mainPanel) {
+        ModuleDescriptor descriptor = get(name);
+        if (descriptor == null || unavailable.contains(name)) {
+            return null;
+        }
+        try {
+            return descriptor.create(cardLayout, mainPanel);
+        } catch (Exception | LinkageError e) {
+            unavailable.add(name);
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Pre-warms fonts and every module on a low-priority daemon thread.
+     * After each module is warmed, onWarmed is invoked on the EDT with its name.
+     */
+    public void prewarmInBackground(Consumer<String> onWarmed) {
+        java.util.List<String> names = getModuleNames();
+        Thread worker = new Thread(() -> {
+            prewarmFonts();
+            for (String name : names) {
+                try {
+                    get(name).prewarm();
+                    SwingUtilities.invokeLater(() -> onWarmed.accept(name));
+                } catch (Exception | LinkageError e) {
+                    unavailable.add(name);
+                    e.printStackTrace();
+                }
+            }
+        }, "module-prewarm");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    private static void prewarmFonts() {
+        FontRenderContext frc = new FontRenderContext(null, true, true);
+        for (Font font : WARMUP_FONTS) {
+            font.createGlyphVector(frc, WARMUP_TEXT).getVisualBounds();
+        }
+    }
+}
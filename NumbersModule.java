@@ -4,38 +4,45 @@ import java.awt.event.*;
 
 /**
  * NumbersModule - Educational module for learning numbers
- * Displays numbers from 1 to 20 with visual representations
+ * Displays numbers from 1 to 20 (or up to 1,000 with -Dkids.numbers.max)
+ * with base-ten visual representations
  */
 public class NumbersModule extends JPanel {
-    private final Font NUMBER_FONT = new Font("Segoe UI", Font.BOLD, 72);
-    private final Font WORD_FONT = new Font("Segoe UI", Font.ITALIC, 24);
-    private final Color BUTTON_COLOR = new Color(70, 130, 180);
-    private final Color HOVER_COLOR = new Color(100, 149, 237);
-    private final Color CIRCLE_COLOR = new Color(100, 149, 237, 180);
+    private final Font NUMBER_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 72);
+    private final Font WORD_FONT = Styles.font(Styles.BODY_FAMILY, Font.ITALIC, 24);
+    private final Color CIRCLE_COLOR = Styles.COUNTER;
+    private static final PerformanceHud.Probe PAINT_PROBE = PerformanceHud.probe("Numbers visual");
     private int currentNumber = 1;
-    private final int MAX_NUMBER = 20;
-    private JLabel numberLabel;
+    private final int MAX_NUMBER = Math.max(1, Math.min(CountingVisualizer.MAX_COUNT,
+        Integer.getInteger("kids.numbers.max", 20)));
+    private final CountingVisualizer visualizer = new CountingVisualizer(CIRCLE_COLOR);
+    private GlyphLabel numberLabel;
+    private JLabel wordLabel;
     private JPanel visualPanel;
     private JButton prevButton;
     private JButton nextButton;
+    private JButton reviewButton;
+    // Content labels follow the language; Localization only holds this weakly
+    private final Runnable localeListener = this::updateDisplay;
     
     public NumbersModule(CardLayout cardLayout, JPanel mainPanel) {
         setLayout(new BorderLayout(10, 10));
-        setBackground(new Color(245, 245, 255));
+        ThemeEngine.bindBackground(this, ThemeEngine.Token.BACKGROUND);
         
         // Create header panel
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setOpaque(false);
         
         // Create home button
-        JButton homeButton = new JButton("Home");
-        homeButton.setFont(new Font("Comic Sans MS", Font.BOLD, 16));
+        JButton homeButton = Localization.bind(new JButton(), "nav.home");
+        homeButton.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 16));
         homeButton.addActionListener(e -> cardLayout.show(mainPanel, "MainMenu"));
         headerPanel.add(homeButton, BorderLayout.WEST);
         
         // Create title
-        JLabel titleLabel = new JLabel("Learn Numbers", SwingConstants.CENTER);
-        titleLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 28));
+        JLabel titleLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "numbers.title");
+        titleLabel.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 28));
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.HEADING);
         headerPanel.add(titleLabel, BorderLayout.CENTER);
         
         add(headerPanel, BorderLayout.NORTH);
@@ -45,17 +52,18 @@ public class NumbersModule extends JPanel {
         contentPanel.setOpaque(false);
         
         // Create number display
-        numberLabel = new JLabel(String.valueOf(currentNumber));
+        numberLabel = new GlyphLabel(String.valueOf(currentNumber));
         numberLabel.setFont(NUMBER_FONT);
-        numberLabel.setHorizontalAlignment(SwingConstants.CENTER);
-        numberLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(numberLabel, ThemeEngine.Token.ACCENT);
         
         // Create visual representation panel
         visualPanel = new JPanel() {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                PAINT_PROBE.begin();
                 drawVisualRepresentation(g);
+                PAINT_PROBE.end();
             }
         };
         visualPanel.setPreferredSize(new Dimension(400, 200));
@@ -65,9 +73,9 @@ public class NumbersModule extends JPanel {
         contentPanel.add(visualPanel, BorderLayout.CENTER);
         
         // Create number word label
-        JLabel wordLabel = new JLabel(getNumberWord(currentNumber), SwingConstants.CENTER);
+        wordLabel = new JLabel(getNumberWord(currentNumber), SwingConstants.CENTER);
         wordLabel.setFont(WORD_FONT);
-        wordLabel.setForeground(new Color(60, 60, 60));
+        ThemeEngine.bindForeground(wordLabel, ThemeEngine.Token.TEXT);
         contentPanel.add(wordLabel, BorderLayout.SOUTH);
         
         add(contentPanel, BorderLayout.CENTER);
@@ -76,96 +84,98 @@ public class NumbersModule extends JPanel {
         JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         navigationPanel.setOpaque(false);
         
-        prevButton = new JButton("Previous");
-        nextButton = new JButton("Next");
+        prevButton = Localization.bind(new JButton(), "nav.previous");
+        nextButton = Localization.bind(new JButton(), "nav.next");
+        reviewButton = Localization.bind(new JButton(), "nav.review");
         
         styleNavigationButton(prevButton);
         styleNavigationButton(nextButton);
+        styleNavigationButton(reviewButton);
         
         prevButton.addActionListener(e -> showPreviousNumber());
         nextButton.addActionListener(e -> showNextNumber());
+        reviewButton.addActionListener(e -> showReviewNumber());
         
         navigationPanel.add(prevButton);
         navigationPanel.add(nextButton);
+        navigationPanel.add(reviewButton);
         
         add(navigationPanel, BorderLayout.SOUTH);
         
+        numberLabel.setCursor(Styles.HAND_CURSOR);
+        numberLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                pronounce();
+            }
+        });
+        
         updateButtonStates();
+        Localization.addListener(localeListener);
+        prefetchNeighbours();
     }
     
     private void styleNavigationButton(JButton button) {
-        button.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        button.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 16));
         button.setPreferredSize(new Dimension(120, 40));
-        button.setBackground(BUTTON_COLOR);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(HOVER_COLOR);
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(BUTTON_COLOR);
-            }
-        });
+        KidButtonUI.apply(button);
     }
     
-    private void drawVisualRepresentation(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        int size = 30;
-        int gap = 10;
-        int itemsPerRow = 5;
-        int startX = (visualPanel.getWidth() - (Math.min(currentNumber, itemsPerRow) * (size + gap))) / 2;
-        int startY = 50;
-        
-        g2d.setColor(CIRCLE_COLOR);
-        
-        for (int i = 0; i < currentNumber; i++) {
-            int row = i / itemsPerRow;
-            int col = i % itemsPerRow;
-            int x = startX + col * (size + gap);
-            int y = startY + row * (size + gap);
-            
-            g2d.fillOval(x, y, size, size);
-        }
+    void drawVisualRepresentation(Graphics g) {
+        visualizer.paint((Graphics2D) g, currentNumber, visualPanel.getWidth(), visualPanel.getHeight());
     }
     
-    private void showPreviousNumber() {
+    void showPreviousNumber() {
         if (currentNumber > 1) {
             currentNumber--;
             updateDisplay();
+            pronounce();
         }
     }
     
-    private void showNextNumber() {
+    void showNextNumber() {
         if (currentNumber < MAX_NUMBER) {
             currentNumber++;
             updateDisplay();
+            pronounce();
         }
     }
     
+    void showReviewNumber() {
+        SpacedRepetitionScheduler scheduler = SpacedRepetitionScheduler.forSubject(QuizType.NUMBERS);
+        int item = scheduler.next();
+        scheduler.markSeen(item, System.currentTimeMillis());
+        // Items are the numbers 1 to 20 the quiz asks about
+        currentNumber = Math.min(item + 1, MAX_NUMBER);
+        updateDisplay();
+        pronounce();
+    }
+    
     private void updateDisplay() {
         numberLabel.setText(String.valueOf(currentNumber));
+        wordLabel.setText(getNumberWord(currentNumber));
         visualPanel.repaint();
         updateButtonStates();
     }
     
+    private void pronounce() {
+        PronunciationPlayer.shared().play(PronunciationPlayer.NUMBERS, String.valueOf(currentNumber));
+        prefetchNeighbours();
+    }
+    
+    private void prefetchNeighbours() {
+        int previous = currentNumber == 1 ? MAX_NUMBER : currentNumber - 1;
+        int next = currentNumber == MAX_NUMBER ? 1 : currentNumber + 1;
+        PronunciationPlayer.shared().prefetch(PronunciationPlayer.NUMBERS,
+            String.valueOf(currentNumber), String.valueOf(next), String.valueOf(previous));
+    }
+    
     private void updateButtonStates() {
         prevButton.setEnabled(currentNumber > 1);
         nextButton.setEnabled(currentNumber < MAX_NUMBER);
     }
     
     private String getNumberWord(int number) {
-        String[] words = {
-            "One", "Two", "Three", "Four", "Five",
-            "Six", "Seven", "Eight", "Nine", "Ten",
-            "Eleven", "Twelve", "Thirteen", "Fourteen", "Fifteen",
-            "Sixteen", "Seventeen", "Eighteen", "Nineteen", "Twenty"
-        };
-        return words[number - 1];
+        return LessonContent.getNumberWord(number);
     }
 }
\ No newline at end of file
@@ -0,0 +1,269 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+
+/**
+ * ParticleLayer - Confetti and star bursts drawn over a screen
+ * A transparent component laid over other components. Particles live in
+ * parallel primitive arrays of fixed capacity, so a burst allocates nothing
+ * and a frame is a tight loop over floats; dead particles are swapped out
+ * from the end. Painting blits small sprites pre-rendered at a few rotation
+ * steps. Each frame repaints only the rectangle covering where the
+ * particles were and where they are now. Driven by the AnimationClock.
+ */
+public class ParticleLayer extends JComponent implements AnimationClock.Animation {
+    public static final int CAPACITY = 512;
+    private static final int KIND_CONFETTI = 0;
+    private static final int KIND_STAR = 1;
+    // Pixels per frame squared, and the fraction of speed kept each frame
+    private static final float GRAVITY = 0.35f;
+    private static final float DRAG = 0.985f;
+    private static final int LIFE_FRAMES = 90;
+    private static final int FADE_FRAMES = 20;
+    private static final int CONFETTI_SIZE = 8;
+    private static final int STAR_SIZE = 14;
+    // Largest distance from a particle's position that it paints
+    private static final int REACH = STAR_SIZE;
+    private static final Color[] PALETTE = {
+        Styles.color(244, 67, 54), Styles.color(255, 193, 7), Styles.color(76, 175, 80),
+        Styles.color(33, 150, 243), Styles.color(156, 39, 176), Styles.color(255, 152, 0)
+    };
+    private static final AlphaComposite[] FADE = fadeSteps();
+    private static final int ANGLE_STEPS = 16;
+    private static final int SPRITE_SIZE = STAR_SIZE + 2;
+    private static final Path2D.Float STAR = starShape();
+    // Every kind, color and rotation step; filled in as particles first need them
+    private static final BufferedImage[] SPRITES = new BufferedImage[2 * PALETTE.length * ANGLE_STEPS];
+
+    private final float[] x = new float[CAPACITY];
+    private final float[] y = new float[CAPACITY];
+    private final float[] vx = new float[CAPACITY];
+    private final float[] vy = new float[CAPACITY];
+    private final float[] angle = new float[CAPACITY];
+    private final float[] spin = new float[CAPACITY];
+    private final int[] life = new int[CAPACITY];
+    private final byte[] kind = new byte[CAPACITY];
+    private final byte[] color = new byte[CAPACITY];
+    private int count;
+
+    private final AnimationClock clock;
+    // Region painted last frame, in this component's coordinates
+    private int dirtyX1, dirtyY1, dirtyX2, dirtyY2;
+    // Cheap deterministic randomness; no Random object per burst
+    private int seed = 0x2545F491;
+
+    public ParticleLayer() {
+        this(AnimationClock.shared());
+    }
+
+    public ParticleLayer(AnimationClock clock) {
+        this.clock = clock;
+        setOpaque(false);
+    }
+
+    /** Confetti thrown upwards from a point, spreading out and falling. */
+    public void confetti(int originX, int originY, int particles) {
+        for (int i = 0; i < particles; i++) {
+            float speed = 4 + 7 * random();
+            double direction = -Math.PI / 2 + (random() - 0.5) * 1.6;
+            emit(KIND_CONFETTI, originX, originY, (float) (Math.cos(direction) * speed),
+                (float) (Math.sin(direction) * speed));
+        }
+    }
+
+    /** Stars flying out evenly in every direction from a point. */
+    public void stars(int originX, int originY, int particles) {
+        for (int i = 0; i < particles; i++) {
+            double direction = 2 * Math.PI * i / particles;
+            float speed = 3 + 2 * random();
+            emit(KIND_STAR, originX, originY, (float) (Math.cos(direction) * speed),
+                (float) (Math.sin(direction) * speed) - 2);
+        }
+    }
+
+    private void emit(int particleKind, float originX, float originY, float speedX, float speedY) {
+        // When full, the oldest particles make way
+        int i = count < CAPACITY ? count++ : oldest();
+        x[i] = originX;
+        y[i] = originY;
+        vx[i] = speedX;
+        vy[i] = speedY;
+        angle[i] = (float) (random() * Math.PI * 2);
+        spin[i] = (random() - 0.5f) * 0.4f;
+        life[i] = LIFE_FRAMES - (int) (random() * FADE_FRAMES);
+        kind[i] = (byte) particleKind;
+        color[i] = (byte) (random() * PALETTE.length);
+        if (!clock.isRunning(this)) {
+            dirtyX1 = dirtyX2 = (int) originX;
+            dirtyY1 = dirtyY2 = (int) originY;
+            clock.start(this);
+        }
+    }
+
+    private int oldest() {
+        int oldest = 0;
+        for (int i = 1; i < count; i++) {
+            if (life[i] < life[oldest]) {
+                oldest = i;
+            }
+        }
+        return oldest;
+    }
+
+    @Override
+    public boolean advance(int frames) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        int height = getHeight();
+        int i = 0;
+        while (i < count) {
+            float px = x[i], py = y[i], pvx = vx[i], pvy = vy[i];
+            for (int f = 0; f < frames; f++) {
+                pvy += GRAVITY;
+                pvx *= DRAG;
+                pvy *= DRAG;
+                px += pvx;
+                py += pvy;
+            }
+            life[i] -= frames;
+            if (life[i] <= 0 || py - REACH > height) {
+                removeAt(i);
+                continue;
+            }
+            x[i] = px;
+            y[i] = py;
+            vx[i] = pvx;
+            vy[i] = pvy;
+            angle[i] += spin[i] * frames;
+            minX = Math.min(minX, (int) px);
+            minY = Math.min(minY, (int) py);
+            maxX = Math.max(maxX, (int) px);
+            maxY = Math.max(maxY, (int) py);
+            i++;
+        }
+
+        // Clear where the particles were and draw where they are, in one rectangle
+        int x1 = Math.min(dirtyX1, minX) - REACH;
+        int y1 = Math.min(dirtyY1, minY) - REACH;
+        int x2 = Math.max(dirtyX2, maxX) + REACH;
+        int y2 = Math.max(dirtyY2, maxY) + REACH;
+        repaint(x1, y1, x2 - x1 + 1, y2 - y1 + 1);
+        dirtyX1 = minX;
+        dirtyY1 = minY;
+        dirtyX2 = maxX;
+        dirtyY2 = maxY;
+        return count > 0;
+    }
+
+    private void removeAt(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        angle[i] = angle[last];
+        spin[i] = spin[last];
+        life[i] = life[last];
+        kind[i] = kind[last];
+        color[i] = color[last];
+    }
+
+    /** Removes every particle at once, for when the screen is left. */
+    public void clear() {
+        if (count > 0) {
+            count = 0;
+            clock.stop(this);
+            repaint();
+        }
+    }
+
+    public int getParticleCount() {
+        return count;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (count == 0) {
+            return;
+        }
+        Graphics2D g2d = (Graphics2D) g;
+        Composite composite = g2d.getComposite();
+        Rectangle clip = g2d.getClipBounds();
+        int half = SPRITE_SIZE / 2;
+        for (int i = 0; i < count; i++) {
+            int px = (int) x[i];
+            int py = (int) y[i];
+            if (clip != null && (px + REACH < clip.x || px - REACH > clip.x + clip.width
+                || py + REACH < clip.y || py - REACH > clip.y + clip.height)) {
+                continue;
+            }
+            if (life[i] < FADE_FRAMES) {
+                g2d.setComposite(FADE[life[i]]);
+            } else {
+                g2d.setComposite(composite);
+            }
+            g2d.drawImage(sprite(kind[i], color[i], angle[i]), px - half, py - half, null);
+        }
+        g2d.setComposite(composite);
+    }
+
+    // Pre-rendered rotations, so a particle is a small blit rather than an antialiased shape fill
+    private static BufferedImage sprite(int particleKind, int particleColor, float particleAngle) {
+        int step = (int) Math.floor(particleAngle / (2 * Math.PI) * ANGLE_STEPS) % ANGLE_STEPS;
+        if (step < 0) {
+            step += ANGLE_STEPS;
+        }
+        int index = (particleKind * PALETTE.length + particleColor) * ANGLE_STEPS + step;
+        BufferedImage sprite = SPRITES[index];
+        if (sprite == null) {
+            sprite = new BufferedImage(SPRITE_SIZE, SPRITE_SIZE, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = sprite.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.translate(SPRITE_SIZE / 2.0, SPRITE_SIZE / 2.0);
+            g.rotate(step * 2 * Math.PI / ANGLE_STEPS);
+            g.setColor(PALETTE[particleColor]);
+            if (particleKind == KIND_STAR) {
+                g.fill(STAR);
+            } else {
+                g.fill(new Rectangle2D.Float(-CONFETTI_SIZE / 2f, -CONFETTI_SIZE / 4f, CONFETTI_SIZE, CONFETTI_SIZE / 2f));
+            }
+            g.dispose();
+            SPRITES[index] = sprite;
+        }
+        return sprite;
+    }
+
+    private float random() {
+        // xorshift32
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        return (seed >>> 8) / (float) (1 << 24);
+    }
+
+    private static AlphaComposite[] fadeSteps() {
+        AlphaComposite[] steps = new AlphaComposite[FADE_FRAMES];
+        for (int i = 0; i < FADE_FRAMES; i++) {
+            steps[i] = AlphaComposite.SrcOver.derive(i / (float) FADE_FRAMES);
+        }
+        return steps;
+    }
+
+    private static Path2D.Float starShape() {
+        Path2D.Float path = new Path2D.Float();
+        for (int point = 0; point < 10; point++) {
+            double radius = point % 2 == 0 ? STAR_SIZE / 2.0 : STAR_SIZE / 5.0;
+            double theta = -Math.PI / 2 + point * Math.PI / 5;
+            float px = (float) (Math.cos(theta) * radius);
+            float py = (float) (Math.sin(theta) * radius);
+            if (point == 0) {
+                path.moveTo(px, py);
+            } else {
+                path.lineTo(px, py);
+            }
+        }
+        path.closePath();
+        return path;
+    }
+}
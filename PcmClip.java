@@ -0,0 +1,66 @@
+import javax.sound.sampled.*;
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * PcmClip - A decoded sound held in memory, ready to write to an audio line
+ * Decoding and format conversion happen once, when the clip is loaded, so
+ * playing it is only a copy into the output.
+ */
+public final class PcmClip {
+    private final String name;
+    private final byte[] data;
+    private final AudioFormat format;
+
+    public PcmClip(String name, byte[] data, AudioFormat format) {
+        this.name = name;
+        this.data = data;
+        this.format = format;
+    }
+
+    /** Decodes an audio file (WAV, AIFF, AU) and converts it to the given format. */
+    public static PcmClip decode(String name, Path file, AudioFormat format) throws IOException {
+        try (AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(Files.newInputStream(file)));
+             AudioInputStream converted = convert(source, format)) {
+            return new PcmClip(name, converted.readAllBytes(), format);
+        } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+            throw new IOException("Cannot decode " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** The samples; shared, so callers must not modify them. */
+    public byte[] getData() {
+        return data;
+    }
+
+    public AudioFormat getFormat() {
+        return format;
+    }
+
+    public int getByteCount() {
+        return data.length;
+    }
+
+    public long getDurationMicros() {
+        return (long) (data.length / (double) format.getFrameSize() / format.getFrameRate() * 1_000_000);
+    }
+
+    private static AudioInputStream convert(AudioInputStream source, AudioFormat target) {
+        if (source.getFormat().matches(target)) {
+            return source;
+        }
+        // Go through PCM first; compressed or 8-bit sources often cannot convert in one step
+        AudioFormat sourceFormat = source.getFormat();
+        AudioFormat pcm = new AudioFormat(sourceFormat.getSampleRate(), 16, sourceFormat.getChannels(), true, false);
+        AudioInputStream stream = sourceFormat.matches(pcm) ? source : AudioSystem.getAudioInputStream(pcm, source);
+        if (pcm.getChannels() != target.getChannels()) {
+            stream = AudioSystem.getAudioInputStream(new AudioFormat(pcm.getSampleRate(), 16,
+                target.getChannels(), true, false), stream);
+        }
+        return AudioSystem.getAudioInputStream(target, stream);
+    }
+}
@@ -0,0 +1,213 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * PerformanceHud - On-screen paint, frame and allocation metrics
+ * Installed as the window's glass pane and shown from the hidden
+ * View > Performance Overlay item (Ctrl+Shift+F12). While it is showing:
+ * - a RepaintManager times every paint pass, giving the frame rate and
+ *   frame paint percentiles (the overlay's own twice-a-second refresh
+ *   counts as frames too);
+ * - a dispatch hook in EdtWatchdog's EventQueue times each mouse and key
+ *   event and counts the bytes the EDT allocated handling it, via
+ *   ThreadMXBean;
+ * - probes placed around expensive paints and layouts record time and
+ *   allocation per call.
+ * The manager and hook are put in place the first time the overlay is
+ * shown and stay; while it is hidden every probe and hook is a single
+ * boolean check. Use from the EDT.
+ */
+public class PerformanceHud extends JComponent {
+    private static final int REFRESH_MILLIS = 500;
+    private static final int MARGIN = 12;
+    private static final int PADDING = 8;
+    private static final Font FONT = Styles.font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color PANEL = Styles.color(20, 20, 30, 200);
+    private static final Color PANEL_TEXT = Styles.color(230, 240, 230);
+
+    private static boolean enabled;
+    private static boolean hooksInstalled;
+    private static final Map<String, Probe> probes = new LinkedHashMap<>();
+    private static final ActionMetrics frames = new ActionMetrics("Frame paint");
+    private static final ActionMetrics input = new ActionMetrics("Input event");
+
+    private final javax.swing.Timer refresh = new javax.swing.Timer(REFRESH_MILLIS, e -> refresh());
+    private final java.util.List<String> lines = new ArrayList<>();
+    private final Rectangle box = new Rectangle();
+    // The box rendered at refresh time, so frames in between only blit it
+    private BufferedImage rendered;
+    private long lastRefreshAt;
+    private long framesAtLastRefresh;
+    private double framesPerSecond;
+
+    /** Time and allocation of one kind of call, recorded only while the overlay is showing. */
+    public static final class Probe {
+        private final ActionMetrics metrics;
+        private long start;
+        private long startBytes;
+
+        private Probe(String name) {
+            metrics = new ActionMetrics(name);
+        }
+
+        public void begin() {
+            if (enabled) {
+                startBytes = AllocationProbe.currentThreadAllocatedBytes();
+                start = System.nanoTime();
+            }
+        }
+
+        public void end() {
+            if (start != 0) {
+                long elapsed = System.nanoTime() - start;
+                start = 0;
+                metrics.record(elapsed, AllocationProbe.currentThreadAllocatedBytes() - startBytes);
+            }
+        }
+
+        public ActionMetrics getMetrics() {
+            return metrics;
+        }
+    }
+
+    public PerformanceHud() {
+        setOpaque(false);
+        setVisible(false);
+    }
+
+    /** The probe for a name, created on first use; the overlay lists probes in that order. */
+    public static synchronized Probe probe(String name) {
+        return probes.computeIfAbsent(name, Probe::new);
+    }
+
+    @Override
+    public void setVisible(boolean visible) {
+        super.setVisible(visible);
+        enabled = visible;
+        if (visible) {
+            installHooks();
+            lastRefreshAt = System.nanoTime();
+            framesAtLastRefresh = frames.getCount();
+            refresh.start();
+        } else {
+            refresh.stop();
+        }
+    }
+
+    private static void installHooks() {
+        if (hooksInstalled) {
+            return;
+        }
+        hooksInstalled = true;
+        RepaintManager.setCurrentManager(new TimedRepaintManager());
+        EdtWatchdog.addDispatchHook(PerformanceHud::timeInput);
+    }
+
+    // Recomputes the lines; the timer calls it twice a second
+    void refresh() {
+        long now = System.nanoTime();
+        long frameCount = frames.getCount();
+        framesPerSecond = (frameCount - framesAtLastRefresh) * 1e9 / (now - lastRefreshAt);
+        lastRefreshAt = now;
+        framesAtLastRefresh = frameCount;
+
+        lines.clear();
+        LatencyStats frameTime = frames.getTime();
+        lines.add(String.format("FPS %5.1f   frame p50 %5.2f  p95 %5.2f  p99 %5.2f ms", framesPerSecond,
+            LatencyStats.toMillis(frameTime.getPercentileNanos(50)),
+            LatencyStats.toMillis(frameTime.getPercentileNanos(95)),
+            LatencyStats.toMillis(frameTime.getPercentileNanos(99))));
+        synchronized (PerformanceHud.class) {
+            for (Probe probe : probes.values()) {
+                lines.add(describe(probe.metrics));
+            }
+        }
+        lines.add(describe(input));
+        if (!AllocationProbe.isSupported()) {
+            lines.add("(allocation counters unavailable on this JVM)");
+        }
+
+        // Only the overlay's own box is repainted
+        repaint(box);
+        FontMetrics metrics = getFontMetrics(FONT);
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, metrics.stringWidth(line));
+        }
+        box.setBounds(getWidth() - width - 2 * PADDING - MARGIN, MARGIN, width + 2 * PADDING,
+            lines.size() * metrics.getHeight() + 2 * PADDING);
+        render(metrics);
+        repaint(box);
+    }
+
+    private void render(FontMetrics metrics) {
+        if (rendered == null || rendered.getWidth() != box.width || rendered.getHeight() != box.height) {
+            rendered = new BufferedImage(box.width, box.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        }
+        Graphics2D g = rendered.createGraphics();
+        g.setComposite(AlphaComposite.Src);
+        g.setColor(PANEL);
+        g.fillRoundRect(0, 0, box.width, box.height, 10, 10);
+        g.setComposite(AlphaComposite.SrcOver);
+        g.setFont(FONT);
+        g.setColor(PANEL_TEXT);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        int y = PADDING + metrics.getAscent();
+        for (String line : lines) {
+            g.drawString(line, PADDING, y);
+            y += metrics.getHeight();
+        }
+        g.dispose();
+    }
+
+    private static String describe(ActionMetrics metrics) {
+        LatencyStats time = metrics.getTime();
+        return String.format("%-18s n=%-6d p50 %5.2f  p95 %5.2f  p99 %5.2f ms  alloc %6.1f KB",
+            metrics.getName(), metrics.getCount(),
+            LatencyStats.toMillis(time.getPercentileNanos(50)), LatencyStats.toMillis(time.getPercentileNanos(95)),
+            LatencyStats.toMillis(time.getPercentileNanos(99)), metrics.getMeanBytes() / 1024.0);
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (rendered != null && g.hitClip(box.x, box.y, box.width, box.height)) {
+            g.drawImage(rendered, box.x, box.y, null);
+        }
+    }
+
+    /** Times each paint pass; a pass is one frame on screen. */
+    private static final class TimedRepaintManager extends RepaintManager {
+        @Override
+        public void paintDirtyRegions() {
+            if (!enabled) {
+                super.paintDirtyRegions();
+                return;
+            }
+            long startBytes = AllocationProbe.currentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            super.paintDirtyRegions();
+            frames.record(System.nanoTime() - start, AllocationProbe.currentThreadAllocatedBytes() - startBytes);
+        }
+    }
+
+    // Times mouse button and key events, which is where a child's interactions start
+    private static void timeInput(AWTEvent event, Runnable dispatch) {
+        if (!enabled || !isInteraction(event.getID())) {
+            dispatch.run();
+            return;
+        }
+        long startBytes = AllocationProbe.currentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        dispatch.run();
+        input.record(System.nanoTime() - start, AllocationProbe.currentThreadAllocatedBytes() - startBytes);
+    }
+
+    private static boolean isInteraction(int id) {
+        return id == MouseEvent.MOUSE_PRESSED || id == MouseEvent.MOUSE_RELEASED
+            || id == MouseEvent.MOUSE_CLICKED || id == KeyEvent.KEY_PRESSED
+            || id == KeyEvent.KEY_RELEASED || id == KeyEvent.KEY_TYPED;
+    }
+}
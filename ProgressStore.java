@@ -0,0 +1,685 @@
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+/**
+ * ProgressStore - Crash-safe record of quiz progress and results
+ * Every quiz event is appended to a binary log as a length-prefixed,
+ * CRC32-checked record. Appends return at once; a writer thread commits
+ * whatever has queued up with a single write and fsync (group commit), so
+ * thousands of events per second cost only as many fsyncs as the disk can do.
+ * When the log grows past a threshold it is compacted: the in-memory state is
+ * written to a snapshot file (temp file, fsync, atomic rename) and the log is
+ * truncated. On open the snapshot is loaded and the log replayed, stopping at
+ * the first torn or corrupt record, so an interrupted quiz resumes with its
+ * question, score and time left.
+ *
+ * Files live in -Dkids.progress.dir (default "progress"); an empty value
+ * keeps progress in memory only.
+ *
+ * Log record (big-endian): u32 payload length, u32 CRC32 of the payload,
+ * payload = u64 sequence, u8 event type, u64 wall clock millis, event fields.
+ * Records whose sequence is already covered by the snapshot are skipped.
+ */
+public class ProgressStore implements Closeable {
+    static final int SNAPSHOT_MAGIC = 0x4B4C5053; // "KLPS"
+    static final int SNAPSHOT_VERSION = 2;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int MAX_PAYLOAD_SIZE = 256;
+    // Scheduled items stored with a quiz start; bounded by the payload size
+    static final int MAX_QUIZ_ITEMS = 48;
+    private static final int DEFAULT_MAX_BATCH = 4096;
+    private static final long MAX_RETRY_MILLIS = 5000;
+    private static final long DEFAULT_COMPACT_BYTES = Long.getLong("kids.progress.compactBytes", 1L << 20);
+    private static final boolean PRINT = Boolean.getBoolean("kids.metrics");
+
+    private static final byte QUIZ_STARTED = 1;
+    private static final byte QUESTION_ANSWERED = 2;
+    private static final byte TIME_REMAINING = 3;
+    private static final byte QUIZ_FINISHED = 4;
+
+    private static ProgressStore shared;
+
+    // Null when progress is kept in memory only
+    private final Path logFile;
+    private final Path snapshotFile;
+    private final FileChannel log;
+    private final Thread writer;
+    private final int maxBatch;
+    private final long compactBytes;
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private volatile boolean closed;
+
+    // Guarded by this
+    private long sequence;
+    private final TypeStats[] stats = new TypeStats[QuizType.values().length];
+    private ActiveQuiz activeQuiz;
+
+    private final Object durableLock = new Object();
+    private long durableSequence;
+    // Why the last commit failed, null once one succeeds again; both guarded by durableLock
+    private IOException writeFailure;
+    private long failedCommits;
+
+    // Written by the writer thread only
+    private long logBytes;
+    private long commits;
+    private long compactions;
+
+    // Time from append to the record being on disk
+    private final LatencyStats appendLatency = new LatencyStats(4096);
+    // Time of each batched write plus fsync
+    private final LatencyStats commitLatency = new LatencyStats(1024);
+    private long recoveryNanos;
+    private long recoveredRecords;
+    private long discardedBytes;
+
+    public ProgressStore(Path directory) throws IOException {
+        this(directory, DEFAULT_MAX_BATCH, DEFAULT_COMPACT_BYTES);
+    }
+
+    /**
+     * Opens or creates the store in the directory, or keeps progress in
+     * memory when the directory is null. maxBatch limits how many records
+     * share one fsync; 1 syncs every record.
+     */
+    public ProgressStore(Path directory, int maxBatch, long compactBytes) throws IOException {
+        this.maxBatch = Math.max(1, maxBatch);
+        this.compactBytes = compactBytes;
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new TypeStats();
+        }
+        if (directory == null) {
+            logFile = null;
+            snapshotFile = null;
+            log = null;
+            writer = null;
+            return;
+        }
+
+        Files.createDirectories(directory);
+        logFile = directory.resolve("progress.log");
+        snapshotFile = directory.resolve("progress.snapshot");
+        log = FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException | RuntimeException e) {
+            log.close();
+            throw e;
+        }
+        writer = new Thread(this::writeLoop, "progress-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Store shared by the app, opened on first use. */
+    public static synchronized ProgressStore shared() {
+        if (shared == null) {
+            String configured = System.getProperty("kids.progress.dir", "progress");
+            try {
+                shared = new ProgressStore(configured.isEmpty() ? null : Paths.get(configured));
+            } catch (IOException e) {
+                // Progress is not worth failing the app for; keep it for this session only
+                e.printStackTrace();
+                try {
+                    shared = new ProgressStore(null);
+                } catch (IOException impossible) {
+                    throw new IllegalStateException(impossible);
+                }
+            }
+            if (PRINT) {
+                System.out.println(shared);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Records a new quiz. items are the scheduler's items the questions are
+     * about, in order; empty when the questions came from the seed alone.
+     */
+    public synchronized void quizStarted(QuizType type, long seed, int questionCount, int seconds, int... items) {
+        if (items.length > MAX_QUIZ_ITEMS) {
+            throw new IllegalArgumentException("At most " + MAX_QUIZ_ITEMS + " quiz items, got " + items.length);
+        }
+        ByteBuffer record = begin(QUIZ_STARTED);
+        record.putInt(type.ordinal()).putLong(seed).putInt(questionCount).putInt(seconds);
+        record.put((byte) items.length);
+        for (int item : items) {
+            record.putInt(item);
+        }
+        commit(record);
+    }
+
+    public synchronized void questionAnswered(int questionIndex, boolean correct, int score) {
+        ByteBuffer record = begin(QUESTION_ANSWERED);
+        record.putInt(questionIndex).put((byte) (correct ? 1 : 0)).putInt(score);
+        commit(record);
+    }
+
+    public synchronized void timeRemaining(int seconds) {
+        ByteBuffer record = begin(TIME_REMAINING);
+        record.putInt(seconds);
+        commit(record);
+    }
+
+    public synchronized void quizFinished(int score, int questionCount) {
+        ByteBuffer record = begin(QUIZ_FINISHED);
+        record.putInt(score).putInt(questionCount);
+        commit(record);
+    }
+
+    /** The quiz that was started but not finished, or null. */
+    public synchronized ActiveQuiz getActiveQuiz() {
+        return activeQuiz;
+    }
+
+    /** Lifetime results for one quiz type. */
+    public synchronized TypeStats getStats(QuizType type) {
+        return stats[type.ordinal()].copy();
+    }
+
+    /**
+     * Blocks until every event appended so far is on disk. Throws if a
+     * commit fails meanwhile; the writer keeps retrying the unsaved events.
+     */
+    public void flush() throws IOException, InterruptedException {
+        long target;
+        synchronized (this) {
+            target = sequence;
+        }
+        synchronized (durableLock) {
+            long failures = failedCommits;
+            while (durableSequence < target && writer != null && writer.isAlive()) {
+                if (failedCommits != failures) {
+                    throw new IOException("Progress log could not be written", writeFailure);
+                }
+                durableLock.wait(100);
+            }
+            if (durableSequence < target && writer != null) {
+                throw new IOException("Progress log closed before events up to " + target + " were saved",
+                    writeFailure);
+            }
+        }
+    }
+
+    /** Commits everything still queued and closes the log. */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.join();
+            log.close();
+            synchronized (durableLock) {
+                if (writeFailure != null) {
+                    throw new IOException("Progress events after " + durableSequence + " were not saved",
+                        writeFailure);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public LatencyStats getAppendLatency() {
+        return appendLatency;
+    }
+
+    public LatencyStats getCommitLatency() {
+        return commitLatency;
+    }
+
+    public long getRecoveryNanos() {
+        return recoveryNanos;
+    }
+
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    /** Bytes of torn or corrupt records dropped from the end of the log on open. */
+    public long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    public long getCommits() {
+        return commits;
+    }
+
+    public long getCompactions() {
+        return compactions;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ProgressStore[%s, recovered %d records in %.2fms, %d bytes discarded; append %s; commit %s]",
+            logFile == null ? "memory" : logFile.getParent(), recoveredRecords, LatencyStats.toMillis(recoveryNanos),
+            discardedBytes, appendLatency, commitLatency);
+    }
+
+    private ByteBuffer begin(byte type) {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + MAX_PAYLOAD_SIZE);
+        record.position(RECORD_HEADER_SIZE);
+        record.putLong(++sequence).put(type).putLong(System.currentTimeMillis());
+        return record;
+    }
+
+    private void commit(ByteBuffer record) {
+        int length = record.position() - RECORD_HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), RECORD_HEADER_SIZE, length);
+        record.putInt(0, length).putInt(4, (int) crc.getValue());
+        record.flip();
+        apply(record.duplicate().position(RECORD_HEADER_SIZE).slice());
+
+        // After close() events only update the in-memory state
+        if (writer == null || closed) {
+            return;
+        }
+        // Still holding the store lock, so the queue is in sequence order
+        queue.add(new Pending(record, sequence, System.nanoTime()));
+    }
+
+    /** Applies one record payload to the in-memory state; shared by appends and replay. */
+    private void apply(ByteBuffer payload) {
+        byte type = payload.get(8);
+        ByteBuffer fields = payload.position(17).slice();
+        switch (type) {
+            case QUIZ_STARTED: {
+                QuizType quizType = QuizType.values()[fields.getInt()];
+                long seed = fields.getLong();
+                int questionCount = fields.getInt();
+                int seconds = fields.getInt();
+                // Records from before items were stored end here
+                int[] items = new int[fields.hasRemaining() ? fields.get() : 0];
+                for (int i = 0; i < items.length; i++) {
+                    items[i] = fields.getInt();
+                }
+                activeQuiz = new ActiveQuiz(quizType, seed, questionCount, items, 0, 0, seconds);
+                break;
+            }
+            case QUESTION_ANSWERED: {
+                int questionIndex = fields.getInt();
+                boolean correct = fields.get() != 0;
+                int score = fields.getInt();
+                if (activeQuiz != null) {
+                    TypeStats typeStats = stats[activeQuiz.type.ordinal()];
+                    typeStats.questionsAnswered++;
+                    typeStats.correctAnswers += correct ? 1 : 0;
+                    activeQuiz = new ActiveQuiz(activeQuiz.type, activeQuiz.seed, activeQuiz.questionCount,
+                        activeQuiz.items, questionIndex + 1, score, activeQuiz.secondsRemaining);
+                }
+                break;
+            }
+            case TIME_REMAINING: {
+                int seconds = fields.getInt();
+                if (activeQuiz != null) {
+                    activeQuiz = new ActiveQuiz(activeQuiz.type, activeQuiz.seed, activeQuiz.questionCount,
+                        activeQuiz.items, activeQuiz.questionIndex, activeQuiz.score, seconds);
+                }
+                break;
+            }
+            case QUIZ_FINISHED: {
+                int score = fields.getInt();
+                if (activeQuiz != null) {
+                    TypeStats typeStats = stats[activeQuiz.type.ordinal()];
+                    typeStats.quizzesCompleted++;
+                    typeStats.bestScore = Math.max(typeStats.bestScore, score);
+                }
+                activeQuiz = null;
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown progress event " + type);
+        }
+    }
+
+    private void writeLoop() {
+        java.util.List<Pending> batch = new ArrayList<>();
+        ByteBuffer[] buffers = new ByteBuffer[0];
+        long retryMillis = 0;
+        while (true) {
+            // A failed batch is kept and retried before anything newer
+            if (batch.isEmpty()) {
+                Pending first;
+                try {
+                    first = queue.poll(100, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    continue;
+                }
+                if (first == null) {
+                    if (closed) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+            }
+
+            if (buffers.length < batch.size()) {
+                buffers = new ByteBuffer[Math.max(batch.size(), buffers.length * 2)];
+            }
+            long bytes = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                buffers[i] = batch.get(i).record.rewind();
+                bytes += buffers[i].remaining();
+            }
+
+            long start = System.nanoTime();
+            try {
+                if (retryMillis > 0) {
+                    // Cut off whatever part of the failed attempt reached the file, so replay does not stop at it
+                    log.truncate(logBytes);
+                    log.position(logBytes);
+                }
+                long written = 0;
+                while (written < bytes) {
+                    written += log.write(buffers, 0, batch.size());
+                }
+                log.force(false);
+            } catch (IOException e) {
+                synchronized (durableLock) {
+                    if (writeFailure == null) {
+                        e.printStackTrace();
+                    }
+                    writeFailure = e;
+                    failedCommits++;
+                    durableLock.notifyAll();
+                }
+                if (closed) {
+                    // Give up; close() reports the failure
+                    return;
+                }
+                retryMillis = Math.min(MAX_RETRY_MILLIS, Math.max(100, retryMillis * 2));
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException ignored) {
+                    // retry now
+                }
+                continue;
+            }
+            logBytes += bytes;
+            commits++;
+            retryMillis = 0;
+            long now = System.nanoTime();
+            commitLatency.record(now - start);
+            for (Pending pending : batch) {
+                appendLatency.record(now - pending.enqueuedAt);
+            }
+            markDurable(batch.get(batch.size() - 1).sequence);
+            Arrays.fill(buffers, 0, batch.size(), null);
+            batch.clear();
+
+            if (logBytes > compactBytes) {
+                try {
+                    compact();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    private void markDurable(long committed) {
+        synchronized (durableLock) {
+            durableSequence = committed;
+            writeFailure = null;
+            durableLock.notifyAll();
+        }
+    }
+
+    /**
+     * Writes the current state as the snapshot and empties the log. Records
+     * still queued may be older than the snapshot; replay skips them.
+     */
+    private void compact() throws IOException {
+        ByteBuffer snapshot;
+        synchronized (this) {
+            snapshot = encodeSnapshot();
+        }
+        Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (snapshot.hasRemaining()) {
+                out.write(snapshot);
+            }
+            out.force(true);
+        }
+        Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.truncate(0);
+        log.position(0);
+        log.force(true);
+        logBytes = 0;
+        compactions++;
+    }
+
+    private ByteBuffer encodeSnapshot() {
+        ByteBuffer buffer = ByteBuffer.allocate(64 + stats.length * 16 + MAX_QUIZ_ITEMS * 4);
+        buffer.putInt(SNAPSHOT_MAGIC).putShort((short) SNAPSHOT_VERSION).putLong(sequence);
+        buffer.put((byte) stats.length);
+        for (TypeStats typeStats : stats) {
+            buffer.putInt(typeStats.quizzesCompleted).putInt(typeStats.bestScore)
+                .putInt(typeStats.questionsAnswered).putInt(typeStats.correctAnswers);
+        }
+        buffer.put((byte) (activeQuiz != null ? 1 : 0));
+        if (activeQuiz != null) {
+            buffer.putInt(activeQuiz.type.ordinal()).putLong(activeQuiz.seed).putInt(activeQuiz.questionCount)
+                .putInt(activeQuiz.questionIndex).putInt(activeQuiz.score).putInt(activeQuiz.secondsRemaining);
+            buffer.put((byte) activeQuiz.items.length);
+            for (int item : activeQuiz.items) {
+                buffer.putInt(item);
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        if (Files.isRegularFile(snapshotFile)) {
+            readSnapshot(ByteBuffer.wrap(Files.readAllBytes(snapshotFile)));
+        }
+
+        long size = log.size();
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Progress log too large: " + size);
+        }
+        ByteBuffer data = ByteBuffer.allocate((int) size);
+        while (data.hasRemaining() && log.read(data, data.position()) >= 0) {
+            // read until full
+        }
+        data.flip();
+
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (position + RECORD_HEADER_SIZE <= data.limit()) {
+            int length = data.getInt(position);
+            int expected = data.getInt(position + 4);
+            if (length < 17 || length > MAX_PAYLOAD_SIZE || position + RECORD_HEADER_SIZE + length > data.limit()) {
+                break;
+            }
+            crc.reset();
+            crc.update(data.array(), position + RECORD_HEADER_SIZE, length);
+            if ((int) crc.getValue() != expected) {
+                break;
+            }
+            ByteBuffer payload = data.duplicate().position(position + RECORD_HEADER_SIZE)
+                .limit(position + RECORD_HEADER_SIZE + length).slice();
+            long recordSequence = payload.getLong(0);
+            if (recordSequence > sequence) {
+                apply(payload);
+                sequence = recordSequence;
+                recoveredRecords++;
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        // Whatever follows the last good record was being written when the app stopped
+        discardedBytes = data.limit() - position;
+        if (discardedBytes > 0) {
+            log.truncate(position);
+            log.force(true);
+        }
+        log.position(position);
+        logBytes = position;
+        durableSequence = sequence;
+        recoveryNanos = System.nanoTime() - start;
+    }
+
+    private void readSnapshot(ByteBuffer buffer) {
+        if (buffer.limit() < 4) {
+            return;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.limit() - 4);
+        int version = buffer.getShort(4);
+        if (buffer.getInt(0) != SNAPSHOT_MAGIC || (int) crc.getValue() != buffer.getInt(buffer.limit() - 4)
+                || version < 1 || version > SNAPSHOT_VERSION) {
+            // Renamed into place atomically, so this is damage rather than a torn write
+            System.err.println("Ignoring unreadable progress snapshot " + snapshotFile);
+            return;
+        }
+        buffer.position(6);
+        sequence = buffer.getLong();
+        int types = buffer.get();
+        for (int i = 0; i < types; i++) {
+            TypeStats typeStats = i < stats.length ? stats[i] : new TypeStats();
+            typeStats.quizzesCompleted = buffer.getInt();
+            typeStats.bestScore = buffer.getInt();
+            typeStats.questionsAnswered = buffer.getInt();
+            typeStats.correctAnswers = buffer.getInt();
+        }
+        if (buffer.get() != 0) {
+            QuizType type = QuizType.values()[buffer.getInt()];
+            long seed = buffer.getLong();
+            int questionCount = buffer.getInt();
+            int questionIndex = buffer.getInt();
+            int score = buffer.getInt();
+            int seconds = buffer.getInt();
+            // Version 1 snapshots were written before quizzes stored their items
+            int[] items = new int[version >= 2 ? buffer.get() : 0];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = buffer.getInt();
+            }
+            activeQuiz = new ActiveQuiz(type, seed, questionCount, items, questionIndex, score, seconds);
+        }
+    }
+
+    private static final class Pending {
+        private final ByteBuffer record;
+        private final long sequence;
+        private final long enqueuedAt;
+
+        Pending(ByteBuffer record, long sequence, long enqueuedAt) {
+            this.record = record;
+            this.sequence = sequence;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+
+    /** A quiz that was interrupted before its final score. */
+    public static final class ActiveQuiz {
+        private final QuizType type;
+        private final long seed;
+        private final int questionCount;
+        private final int[] items;
+        private final int questionIndex;
+        private final int score;
+        private final int secondsRemaining;
+
+        ActiveQuiz(QuizType type, long seed, int questionCount, int[] items, int questionIndex, int score,
+                   int secondsRemaining) {
+            this.type = type;
+            this.seed = seed;
+            this.questionCount = questionCount;
+            this.items = items;
+            this.questionIndex = questionIndex;
+            this.score = score;
+            this.secondsRemaining = secondsRemaining;
+        }
+
+        public QuizType getType() {
+            return type;
+        }
+
+        /** Seed for the QuestionEngine, which regenerates the same questions. */
+        public long getSeed() {
+            return seed;
+        }
+
+        public int getQuestionCount() {
+            return questionCount;
+        }
+
+        /** Scheduled items the questions are about; empty if none were recorded. */
+        public int[] getItems() {
+            return items.clone();
+        }
+
+        /** Index of the next unanswered question. */
+        public int getQuestionIndex() {
+            return questionIndex;
+        }
+
+        public int getScore() {
+            return score;
+        }
+
+        public int getSecondsRemaining() {
+            return secondsRemaining;
+        }
+    }
+
+    /** Lifetime results for one quiz type. */
+    public static final class TypeStats {
+        private int quizzesCompleted;
+        private int bestScore;
+        private int questionsAnswered;
+        private int correctAnswers;
+
+        public int getQuizzesCompleted() {
+            return quizzesCompleted;
+        }
+
+        public int getBestScore() {
+            return bestScore;
+        }
+
+        public int getQuestionsAnswered() {
+            return questionsAnswered;
+        }
+
+        public int getCorrectAnswers() {
+            return correctAnswers;
+        }
+
+        private TypeStats copy() {
+            TypeStats copy = new TypeStats();
+            copy.quizzesCompleted = quizzesCompleted;
+            copy.bestScore = bestScore;
+            copy.questionsAnswered = questionsAnswered;
+            copy.correctAnswers = correctAnswers;
+            return copy;
+        }
+    }
+}
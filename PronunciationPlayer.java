@@ -0,0 +1,299 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * PronunciationPlayer - Says letters, numbers, shape and color names out loud
+ * Recordings are read from <dir>/<locale>/<kind>/<key>.wav, falling back to
+ * the English recording, e.g. audio/es/letters/a.wav or audio/en/shapes/circle.wav.
+ * Clips are decoded once into PCM and kept in a byte-bounded LRU cache, so a
+ * tap on a cached item only hands the samples to the running mixer. Cold
+ * loads and prefetches of the neighbouring items run on a single loader
+ * thread; a cold tap jumps ahead of queued prefetches. Items without a
+ * recording are remembered and stay silent.
+ */
+public class PronunciationPlayer {
+    public static final String LETTERS = "letters";
+    public static final String NUMBERS = "numbers";
+    public static final String SHAPES = "shapes";
+    public static final String COLORS = "colors";
+
+    // Stands in for recordings that do not exist; never played
+    private static final PcmClip MISSING = new PcmClip("missing", new byte[0], AudioOutput.FORMAT);
+    private static final long MISSING_ENTRY_BYTES = 64;
+    private static final boolean PRINT = Boolean.getBoolean("kids.metrics");
+
+    private static PronunciationPlayer shared;
+
+    private final Path directory;
+    private final AudioOutput output;
+    private final long budgetBytes;
+    private final boolean enabled;
+    private final LinkedHashMap<String, PcmClip> clips = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<String> queued = new HashSet<>();
+    private final LinkedBlockingDeque<String> loads = new LinkedBlockingDeque<>();
+    private final LatencyStats warmLatency = new LatencyStats();
+    private final LatencyStats coldLatency = new LatencyStats();
+    private final LatencyStats decodeLatency = new LatencyStats();
+    // Only the latest tap may start a sound; older cold loads just fill the cache
+    private long request;
+    private String waitingFor;
+    private long waitingSince;
+    private AudioOutput.Playback current;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+    private long missing;
+    private long evictions;
+
+    public PronunciationPlayer(Path directory, AudioOutput output, long budgetBytes) {
+        this.directory = directory;
+        this.output = output;
+        this.budgetBytes = budgetBytes;
+        this.enabled = directory != null && Files.isDirectory(directory);
+        if (enabled) {
+            Thread loader = new Thread(this::loadLoop, "pronunciation-loader");
+            loader.setDaemon(true);
+            loader.start();
+        }
+    }
+
+    /** The app's player: recordings from -Dkids.audio.dir (default "audio") on the shared output. */
+    public static synchronized PronunciationPlayer shared() {
+        if (shared == null) {
+            Path directory = Paths.get(System.getProperty("kids.audio.dir", "audio"));
+            // Without recordings there is nothing to say, so leave the audio device closed
+            AudioOutput output = Files.isDirectory(directory) ? AudioOutput.shared() : new SilentAudioOutput();
+            shared = new PronunciationPlayer(directory, output, Long.getLong("kids.audio.cacheBytes", 8L * 1024 * 1024));
+        }
+        return shared;
+    }
+
+    /** True if there is a recordings directory to play from. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Stops whatever is being said and says the item. Returns at once; a
+     * clip that is not cached yet plays as soon as it is decoded, unless
+     * another item was tapped in the meantime.
+     */
+    public void play(String kind, String key) {
+        if (!enabled) {
+            return;
+        }
+        long requested = System.nanoTime();
+        String id = clipId(Localization.getLocale(), kind, key);
+        PcmClip clip;
+        long serial;
+        synchronized (this) {
+            serial = ++request;
+            stopCurrent();
+            waitingFor = null;
+            clip = clips.get(id);
+            if (clip != null) {
+                hits++;
+            } else {
+                misses++;
+                waitingFor = id;
+                waitingSince = requested;
+                if (queued.add(id)) {
+                    loads.offerFirst(id);
+                } else if (loads.remove(id)) {
+                    // Already queued as a prefetch; move it to the front
+                    loads.offerFirst(id);
+                }
+            }
+        }
+        if (clip != null) {
+            start(clip, serial, requested, warmLatency);
+        }
+    }
+
+    /** Decodes the items in the background so that tapping them later is instant. */
+    public void prefetch(String kind, String... keys) {
+        if (!enabled) {
+            return;
+        }
+        String locale = Localization.getLocale();
+        synchronized (this) {
+            for (String key : keys) {
+                String id = clipId(locale, kind, key);
+                if (!clips.containsKey(id) && queued.add(id)) {
+                    loads.offerLast(id);
+                }
+            }
+        }
+    }
+
+    /** Stops the current sound, if any. */
+    public synchronized void stop() {
+        stopCurrent();
+        waitingFor = null;
+    }
+
+    /** Tap-to-sound latency of taps that found their clip cached. */
+    public LatencyStats getWarmLatency() {
+        return warmLatency;
+    }
+
+    /** Tap-to-sound latency of taps that had to wait for a decode. */
+    public LatencyStats getColdLatency() {
+        return coldLatency;
+    }
+
+    /** Time to read and decode one recording. */
+    public LatencyStats getDecodeLatency() {
+        return decodeLatency;
+    }
+
+    public AudioOutput getOutput() {
+        return output;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getMissing() {
+        return missing;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public synchronized int size() {
+        return clips.size();
+    }
+
+    public synchronized boolean isCached(String kind, String key) {
+        return clips.containsKey(clipId(Localization.getLocale(), kind, key));
+    }
+
+    public synchronized void clear() {
+        clips.clear();
+        usedBytes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("PronunciationPlayer[clips=%d, used=%dKB/%dKB, hits=%d, misses=%d, missing=%d, "
+                + "warm p95=%.2fms, cold p95=%.2fms]",
+            clips.size(), usedBytes / 1024, budgetBytes / 1024, hits, misses, missing,
+            LatencyStats.toMillis(warmLatency.getPercentileNanos(95)),
+            LatencyStats.toMillis(coldLatency.getPercentileNanos(95)));
+    }
+
+    private static String clipId(String locale, String kind, String key) {
+        return locale + "/" + kind + "/" + key.toLowerCase(Locale.ROOT);
+    }
+
+    private void start(PcmClip clip, long serial, long requested, LatencyStats latency) {
+        if (clip == MISSING) {
+            return;
+        }
+        AudioOutput.Playback playback = output.play(clip, () -> latency.record(System.nanoTime() - requested));
+        synchronized (this) {
+            if (serial == request) {
+                current = playback;
+                return;
+            }
+        }
+        // Another item was tapped while this one was starting
+        playback.stop();
+    }
+
+    private void stopCurrent() {
+        if (current != null) {
+            current.stop();
+            current = null;
+        }
+    }
+
+    private void loadLoop() {
+        while (true) {
+            String id;
+            try {
+                id = loads.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            long started = System.nanoTime();
+            PcmClip clip = load(id);
+            if (clip != MISSING) {
+                decodeLatency.record(System.nanoTime() - started);
+            }
+
+            long serial;
+            long requested;
+            boolean wanted;
+            synchronized (this) {
+                queued.remove(id);
+                cache(id, clip);
+                wanted = id.equals(waitingFor);
+                if (wanted) {
+                    waitingFor = null;
+                }
+                serial = request;
+                requested = waitingSince;
+            }
+            if (wanted) {
+                start(clip, serial, requested, coldLatency);
+                if (PRINT) {
+                    System.out.println(this);
+                }
+            }
+        }
+    }
+
+    private PcmClip load(String id) {
+        int slash = id.indexOf('/');
+        String relative = id.substring(slash + 1) + ".wav";
+        Path file = directory.resolve(id.substring(0, slash)).resolve(relative);
+        if (!Files.isRegularFile(file)) {
+            file = directory.resolve(Localization.DEFAULT_LOCALE).resolve(relative);
+        }
+        if (!Files.isRegularFile(file)) {
+            return MISSING;
+        }
+        try {
+            return PcmClip.decode(id, file, AudioOutput.FORMAT);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return MISSING;
+        }
+    }
+
+    private void cache(String id, PcmClip clip) {
+        long bytes = clip == MISSING ? MISSING_ENTRY_BYTES : clip.getByteCount();
+        if (clip == MISSING) {
+            missing++;
+        }
+        PcmClip previous = clips.put(id, clip);
+        if (previous != null) {
+            usedBytes -= previous == MISSING ? MISSING_ENTRY_BYTES : previous.getByteCount();
+        }
+        usedBytes += bytes;
+        Iterator<Map.Entry<String, PcmClip>> it = clips.entrySet().iterator();
+        while (usedBytes > budgetBytes && clips.size() > 1 && it.hasNext()) {
+            Map.Entry<String, PcmClip> eldest = it.next();
+            if (eldest.getValue() == clip) {
+                continue;
+            }
+            it.remove();
+            usedBytes -= eldest.getValue() == MISSING ? MISSING_ENTRY_BYTES : eldest.getValue().getByteCount();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Question - A multiple choice quiz question
+ * Immutable; the options array is shared and must not be modified.
+ */
+public class Question {
+    private final String question;
+    private final String[] options;
+    private final int correctAnswer;
+
+    public Question(String question, String[] options, int correctAnswer) {
+        this.question = question;
+        this.options = options;
+        this.correctAnswer = correctAnswer;
+    }
+
+    public String getQuestion() { return question; }
+    public String[] getOptions() { return options; }
+    public int getCorrectAnswer() { return correctAnswer; }
+    public String getCorrectOption() { return options[correctAnswer]; }
+
+    @Override
+    public String toString() {
+        return question + " " + String.join(" / ", options) + " -> " + getCorrectOption();
+    }
+}
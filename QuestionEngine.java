@@ -0,0 +1,286 @@
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * QuestionEngine - Procedural generator for quiz questions
+ * Builds questions from LessonContent and the Localization question
+ * templates using a seeded random source, so the same seed always yields
+ * the same quiz in a given language. Every question is about one item of
+ * its subject (a letter, number, color fact or shape), so a scheduler can
+ * choose the items and about() builds questions for them. Options are shuffled and the
+ * correct index is remapped accordingly. The engine does not touch Swing
+ * and can be used from batch jobs or a server; a single instance is not
+ * thread-safe, so use one engine per thread or session.
+ */
+public class QuestionEngine {
+    public static final int OPTION_COUNT = 4;
+    // Largest number used in number and arithmetic questions
+    private static final int NUMBER_RANGE = 20;
+    // Questions remembered by stream() to avoid near repeats
+    private static final int STREAM_WINDOW = 32;
+
+    private final SplittableRandom random;
+
+    public QuestionEngine(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /** Generates one question about a random item; repeats are possible. */
+    public Question next(QuizType type) {
+        return about(type, random.nextInt(getItemCount(type)));
+    }
+
+    /**
+     * Number of items a quiz type asks about: letters, the numbers 1 to 20,
+     * color facts followed by mixing facts, and shapes.
+     */
+    public static int getItemCount(QuizType type) {
+        switch (type) {
+            case ALPHABET:
+                return LessonContent.getLetterCount();
+            case NUMBERS:
+                return NUMBER_RANGE;
+            case COLORS:
+                return LessonContent.getColorFactCount() + LessonContent.getColorMixCount();
+            case SHAPES:
+                return LessonContent.getShapeCount();
+            default:
+                throw new IllegalArgumentException("Unknown quiz type " + type);
+        }
+    }
+
+    /** Generates a question whose answer is the given item, in a randomly chosen form. */
+    public Question about(QuizType type, int item) {
+        switch (type) {
+            case ALPHABET:
+                return alphabetQuestion(item);
+            case NUMBERS:
+                return numberQuestion(item + 1);
+            case COLORS:
+                return colorQuestion(item);
+            case SHAPES:
+                return shapeQuestion(item);
+            default:
+                throw new IllegalArgumentException("Unknown quiz type " + type);
+        }
+    }
+
+    /**
+     * Generates up to count questions with no repeated question text.
+     * Returns fewer when the subject has fewer distinct questions.
+     */
+    public List<Question> generate(QuizType type, int count) {
+        List<Question> result = new ArrayList<>(count);
+        Set<String> seen = new HashSet<>();
+        // Give up after a run of duplicates, meaning the question space is used up
+        int misses = 0;
+        while (result.size() < count && misses < 50 + count) {
+            Question question = next(type);
+            if (seen.add(question.getQuestion())) {
+                result.add(question);
+                misses = 0;
+            } else {
+                misses++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Endless stream of questions in which no question text repeats within
+     * the last few questions.
+     */
+    public Stream<Question> stream(QuizType type) {
+        ArrayDeque<String> recent = new ArrayDeque<>(STREAM_WINDOW);
+        Set<String> recentSet = new HashSet<>();
+        return Stream.generate(() -> {
+            for (int attempt = 0; ; attempt++) {
+                Question question = next(type);
+                if (!recentSet.contains(question.getQuestion()) || attempt > STREAM_WINDOW) {
+                    if (recent.size() == STREAM_WINDOW) {
+                        recentSet.remove(recent.removeFirst());
+                    }
+                    recent.addLast(question.getQuestion());
+                    recentSet.add(question.getQuestion());
+                    return question;
+                }
+            }
+        });
+    }
+
+    private Question alphabetQuestion(int letter) {
+        int letters = LessonContent.getLetterCount();
+        char answer = (char) ('A' + letter);
+        int form = random.nextInt(4);
+        if (form == 0 && letter > 0) {
+            return letterQuestion(Localization.format("quiz.q.letterAfter", (char) (answer - 1)), answer);
+        }
+        if (form == 1 && letter < letters - 1) {
+            return letterQuestion(Localization.format("quiz.q.letterBefore", (char) (answer + 1)), answer);
+        }
+        if (form == 3) {
+            int[] picks = pickDistinct(letters, letter);
+            String[] options = new String[OPTION_COUNT];
+            for (int i = 0; i < OPTION_COUNT; i++) {
+                options[i] = LessonContent.getExampleWord((char) ('A' + picks[i]));
+            }
+            return shuffled(Localization.format("quiz.q.whichWordStarts", answer), options);
+        }
+        return letterQuestion(Localization.format("quiz.q.wordStartsWith", LessonContent.getExampleWord(answer)), answer);
+    }
+
+    private Question letterQuestion(String text, int answerLetter) {
+        int[] picks = pickDistinct(LessonContent.getLetterCount(), answerLetter - 'A');
+        String[] options = new String[OPTION_COUNT];
+        for (int i = 0; i < OPTION_COUNT; i++) {
+            options[i] = String.valueOf((char) ('A' + picks[i]));
+        }
+        return shuffled(text, options);
+    }
+
+    private Question numberQuestion(int n) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return numberQuestion(Localization.format("quiz.q.numberAfter", n - 1), n);
+            case 1:
+                if (n < NUMBER_RANGE) {
+                    return numberQuestion(Localization.format("quiz.q.numberBefore", n + 1), n);
+                }
+                return numberQuestion(Localization.format("quiz.q.numberWord", LessonContent.getNumberWord(n)), n);
+            case 2: {
+                int a = random.nextInt(Math.min(n, 10) + 1);
+                return numberQuestion(Localization.format("quiz.q.plus", a, n - a), n);
+            }
+            case 3: {
+                int a = n + random.nextInt(NUMBER_RANGE - n + 1);
+                return numberQuestion(Localization.format("quiz.q.minus", a, a - n), n);
+            }
+            default:
+                return numberQuestion(Localization.format("quiz.q.numberWord", LessonContent.getNumberWord(n)), n);
+        }
+    }
+
+    private Question numberQuestion(String text, int answer) {
+        // Distractors close to the answer are more instructive than random ones
+        int low = Math.max(0, Math.min(answer - 3, NUMBER_RANGE - 6));
+        int[] picks = pickDistinct(7, answer - low);
+        String[] options = new String[OPTION_COUNT];
+        for (int i = 0; i < OPTION_COUNT; i++) {
+            options[i] = String.valueOf(low + picks[i]);
+        }
+        return shuffled(text, options);
+    }
+
+    private Question colorQuestion(int item) {
+        int facts = LessonContent.getColorFactCount();
+        if (item >= facts) {
+            int[] mix = LessonContent.getColorMix(item - facts);
+            // Distractors must not be either of the colors being mixed
+            String[] options = colorOptions(mix[2], mix[0], mix[1]);
+            return shuffled(Localization.format("quiz.q.colorMix", LessonContent.getColorName(mix[0]).toLowerCase(),
+                LessonContent.getColorName(mix[1]).toLowerCase()), options);
+        }
+        String[] options = colorOptions(LessonContent.getColorFactAnswer(item), -1, -1);
+        return shuffled(Localization.format("quiz.q.colorOf", LessonContent.getColorFactThing(item)), options);
+    }
+
+    private String[] colorOptions(int answer, int excludeA, int excludeB) {
+        String[] options = new String[OPTION_COUNT];
+        options[0] = LessonContent.getColorName(answer);
+        int filled = 1;
+        while (filled < OPTION_COUNT) {
+            int candidate = random.nextInt(LessonContent.getColorCount());
+            if (candidate == answer || candidate == excludeA || candidate == excludeB
+                    || contains(options, filled, LessonContent.getColorName(candidate))) {
+                continue;
+            }
+            options[filled++] = LessonContent.getColorName(candidate);
+        }
+        return options;
+    }
+
+    private Question shapeQuestion(int shape) {
+        int sides = LessonContent.getShapeSides(shape);
+        // Only shapes with a small, countable number of sides get the side questions
+        int form = sides >= 3 && sides <= 8 ? random.nextInt(3) : 0;
+        if (form == 0) {
+            return shapeNameQuestion(Localization.format("quiz.q.shapeDescribed", LessonContent.getShapeDescription(shape).toLowerCase()), shape);
+        }
+        if (form == 1) {
+            int[] picks = pickDistinct(7, sides - 2);
+            String[] options = new String[OPTION_COUNT];
+            for (int i = 0; i < OPTION_COUNT; i++) {
+                options[i] = String.valueOf(picks[i] + 2);
+            }
+            return shuffled(Localization.format("quiz.q.shapeSides", LessonContent.getShapeName(shape).toLowerCase()), options);
+        }
+        // Other options must have a different number of sides
+        String[] options = new String[OPTION_COUNT];
+        options[0] = LessonContent.getShapeName(shape);
+        int filled = 1;
+        while (filled < OPTION_COUNT) {
+            int candidate = random.nextInt(LessonContent.getShapeCount());
+            if (LessonContent.getShapeSides(candidate) == sides
+                    || contains(options, filled, LessonContent.getShapeName(candidate))) {
+                continue;
+            }
+            options[filled++] = LessonContent.getShapeName(candidate);
+        }
+        return shuffled(Localization.format("quiz.q.shapeWithSides", sides), options);
+    }
+
+    private Question shapeNameQuestion(String text, int shape) {
+        int[] picks = pickDistinct(LessonContent.getShapeCount(), shape);
+        String[] options = new String[OPTION_COUNT];
+        for (int i = 0; i < OPTION_COUNT; i++) {
+            options[i] = LessonContent.getShapeName(picks[i]);
+        }
+        return shuffled(text, options);
+    }
+
+    /**
+     * Picks OPTION_COUNT distinct values in [0, range) with the answer first.
+     */
+    private int[] pickDistinct(int range, int answer) {
+        int[] picks = new int[OPTION_COUNT];
+        picks[0] = answer;
+        int filled = 1;
+        while (filled < OPTION_COUNT) {
+            int candidate = random.nextInt(range);
+            boolean duplicate = false;
+            for (int i = 0; i < filled; i++) {
+                duplicate |= picks[i] == candidate;
+            }
+            if (!duplicate) {
+                picks[filled++] = candidate;
+            }
+        }
+        return picks;
+    }
+
+    /** Shuffles options whose first entry is the correct answer. */
+    private Question shuffled(String text, String[] options) {
+        int correct = 0;
+        for (int i = options.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            String swap = options[i];
+            options[i] = options[j];
+            options[j] = swap;
+            if (correct == i) {
+                correct = j;
+            } else if (correct == j) {
+                correct = i;
+            }
+        }
+        return new Question(text, options, correct);
+    }
+
+    private static boolean contains(String[] values, int length, String value) {
+        for (int i = 0; i < length; i++) {
+            if (values[i].equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,72 +7,102 @@ import java.util.*;
  * QuizModule - Interactive quiz module to test knowledge
  * Includes multiple choice questions about letters, numbers, colors, and shapes
  */
-public class QuizModule extends JPanel {
-    private final Font QUESTION_FONT = new Font("Segoe UI", Font.BOLD, 24);
-    private final Font OPTION_FONT = new Font("Segoe UI", Font.PLAIN, 20);
-    private final Font SCORE_FONT = new Font("Segoe UI", Font.BOLD, 36);
-    private final Font TIMER_FONT = new Font("Segoe UI", Font.BOLD, 20);
-    private final Color BUTTON_COLOR = new Color(70, 130, 180);
-    private final Color HOVER_COLOR = new Color(100, 149, 237);
-    private final Color CORRECT_COLOR = new Color(46, 204, 113);
-    private final Color INCORRECT_COLOR = new Color(231, 76, 60);
-    private final Color PANEL_BG = new Color(245, 245, 255);
+public class QuizModule extends JPanel implements LearningModule {
+    private final Font QUESTION_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 24);
+    private final Font OPTION_FONT = Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 20);
+    private final Font SCORE_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 36);
+    private final Font TIMER_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20);
+    private final Color CORRECT_COLOR = Styles.CORRECT;
+    private final Color INCORRECT_COLOR = Styles.INCORRECT;
     
-    private enum QuizType { ALPHABET, NUMBERS, COLORS, SHAPES }
+    private static final int QUESTIONS_PER_QUIZ = 5;
+    // Whose points this app's quizzes count towards on the leaderboard
+    private static final String LEARNER = System.getProperty("kids.learner", System.getProperty("user.name", "Learner"));
+    private static final PerformanceHud.Probe SHOW_PROBE = PerformanceHud.probe("Quiz showQuestion");
+    private static final PerformanceHud.Probe LAYOUT_PROBE = PerformanceHud.probe("Quiz options layout");
     
-    private ArrayList<Question> questions;
-    private int currentQuestionIndex = 0;
-    private int score = 0;
+    // The quiz being shown: questions, position, score and time limit
+    private QuizSession session;
     
     private JLabel questionLabel;
     private JPanel optionsPanel;
+    private JButton[] optionButtons = new JButton[QuestionEngine.OPTION_COUNT];
+    private int visibleOptionCount;
+    private final ActionMetrics questionRenderMetrics = new ActionMetrics("QuizModule.showQuestion");
+    private final ActionListener optionActionListener = e -> {
+        int index = indexOfOption(e.getSource());
+        if (index >= 0) {
+            checkAnswer(index);
+        }
+    };
     private JLabel scoreLabel;
     private JLabel feedbackLabel;
     private JLabel timerLabel;
     private QuizType currentQuizType;
-    private javax.swing.Timer quizTimer;
-    private int timeRemaining;
+    private static final int QUIZ_SECONDS = 30;
+    private static final int FEEDBACK_DELAY_MS = 1000;
+    // The countdown ticks out loud for the last few seconds
+    private static final int COUNTDOWN_TICK_SECONDS = 5;
+    private static final int CONFETTI_PER_ANSWER = 40;
+    private static final int STARS_PER_ANSWER = 10;
+    private static final int CONFETTI_PER_PERFECT_QUIZ = 200;
+    // Reward bursts drawn over the question and final screens
+    private final ParticleLayer particles = new ParticleLayer();
+    private final ProgressStore progressStore = ProgressStore.shared();
+    private final QuizScheduler quizScheduler = new QuizScheduler(new QuizScheduler.Listener() {
+        @Override
+        public void secondsRemaining(int seconds) {
+            Localization.bind(timerLabel, "quiz.time", seconds);
+            progressStore.timeRemaining(seconds);
+            if (seconds > 0 && seconds <= COUNTDOWN_TICK_SECONDS) {
+                SoundEffects.tick();
+            }
+        }
+        
+        @Override
+        public void timeUp() {
+            showFinalScore();
+        }
+    });
     
     public QuizModule(CardLayout cardLayout, JPanel mainPanel) {
         setLayout(new BorderLayout(10, 10));
-        setBackground(PANEL_BG);
+        ThemeEngine.bindBackground(this, ThemeEngine.Token.BACKGROUND);
         
         // Create header panel
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setOpaque(false);
         
         // Create home button
-        JButton homeButton = new JButton("Home");
-        homeButton.setFont(new Font("Segoe UI", Font.BOLD, 16));
-        homeButton.setBackground(BUTTON_COLOR);
-        homeButton.setForeground(Color.WHITE);
-        homeButton.setFocusPainted(false);
-        homeButton.setBorderPainted(false);
-        homeButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        homeButton.addActionListener(e -> {
-            if (quizTimer != null && quizTimer.isRunning()) {
-                quizTimer.stop();
-            }
-            cardLayout.show(mainPanel, "MainMenu");
-        });
+        JButton homeButton = Localization.bind(new JButton(), "nav.home");
+        homeButton.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 16));
+        KidButtonUI.apply(homeButton);
+        // Timers are paused by moduleHidden when the card is swapped out
+        homeButton.addActionListener(e -> cardLayout.show(mainPanel, "MainMenu"));
         headerPanel.add(homeButton, BorderLayout.WEST);
         
         // Create title
-        JLabel titleLabel = new JLabel("Quiz Time!", SwingConstants.CENTER);
+        JLabel titleLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "quiz.title");
         titleLabel.setFont(QUESTION_FONT);
-        titleLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.ACCENT);
         headerPanel.add(titleLabel, BorderLayout.CENTER);
         
         add(headerPanel, BorderLayout.NORTH);
         
         // Initialize timer
-        timerLabel = new JLabel("Time: 30s");
+        timerLabel = Localization.bind(new JLabel(), "quiz.time", QUIZ_SECONDS);
         timerLabel.setFont(TIMER_FONT);
-        timerLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(timerLabel, ThemeEngine.Token.ACCENT);
         timerLabel.setHorizontalAlignment(SwingConstants.CENTER);
         
         // Create quiz type selection panel
         createQuizTypeSelection();
+        
+        // Pick up a quiz interrupted by closing the app or a crash
+        ProgressStore.ActiveQuiz interrupted = progressStore.getActiveQuiz();
+        if (interrupted != null) {
+            resumeQuiz(interrupted);
+        }
     }
     
     private void createQuizTypeSelection() {
@@ -85,33 +115,19 @@ public class QuizModule extends JPanel {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.insets = new Insets(10, 10, 10, 10);
         
-        JLabel titleLabel = new JLabel("Choose Quiz Type", SwingConstants.CENTER);
+        JLabel titleLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "quiz.choose");
         titleLabel.setFont(QUESTION_FONT);
-        titleLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.ACCENT);
         selectionPanel.add(titleLabel, gbc);
         
-        String[] quizTypes = {"Alphabet", "Numbers", "Colors", "Shapes"};
-        for (String type : quizTypes) {
-            JButton button = new JButton(type);
+        for (QuizType type : QuizType.values()) {
+            JButton button = Localization.bind(new JButton(), "quiz.type." + type.name());
             button.setFont(OPTION_FONT);
             button.setPreferredSize(new Dimension(250, 60));
-            button.setBackground(BUTTON_COLOR);
-            button.setForeground(Color.WHITE);
-            button.setFocusPainted(false);
-            button.setBorderPainted(false);
-            button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-            
-            button.addMouseListener(new java.awt.event.MouseAdapter() {
-                public void mouseEntered(java.awt.event.MouseEvent evt) {
-                    button.setBackground(HOVER_COLOR);
-                }
-                public void mouseExited(java.awt.event.MouseEvent evt) {
-                    button.setBackground(BUTTON_COLOR);
-                }
-            });
+            KidButtonUI.apply(button);
             
             button.addActionListener(e -> {
-                currentQuizType = QuizType.valueOf(type.toUpperCase());
+                currentQuizType = type;
                 startQuiz();
             });
             
@@ -124,15 +140,33 @@ public class QuizModule extends JPanel {
     }
     
     private void startQuiz() {
-        questions = generateQuestions();
-        currentQuestionIndex = 0;
-        score = 0;
+        // A fresh seed per quiz so question forms and answer positions change every time
+        long seed = System.nanoTime();
+        // Ask about the items the child is due to practise: recent mistakes first, then new ones
+        int[] items = SpacedRepetitionScheduler.forSubject(currentQuizType).next(QUESTIONS_PER_QUIZ);
+        session = new QuizSession(currentQuizType, seed, items, QUIZ_SECONDS);
+        progressStore.quizStarted(currentQuizType, seed, session.getQuestionCount(), QUIZ_SECONDS, items);
+        
+        createQuizInterface(QUIZ_SECONDS);
+        showQuestion();
+    }
+    
+    private void resumeQuiz(ProgressStore.ActiveQuiz quiz) {
+        currentQuizType = quiz.getType();
+        // The same seed and items regenerate the same questions
+        session = new QuizSession(currentQuizType, quiz.getSeed(), quiz.getItems(), quiz.getQuestionCount(),
+            quiz.getQuestionIndex(), quiz.getScore(), quiz.getSecondsRemaining(), System::nanoTime);
         
-        createQuizInterface();
+        createQuizInterface(quiz.getSecondsRemaining());
         showQuestion();
+        if (!isShowing()) {
+            // Built ahead of time or off screen; the clock starts when the child sees it
+            quizScheduler.pause();
+            session.pause();
+        }
     }
     
-    private void createQuizInterface() {
+    private void createQuizInterface(int seconds) {
         removeAll();
         setLayout(new BorderLayout(10, 10));
         
@@ -142,24 +176,39 @@ public class QuizModule extends JPanel {
         
         questionLabel = new JLabel();
         questionLabel.setFont(QUESTION_FONT);
-        questionLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(questionLabel, ThemeEngine.Token.ACCENT);
         questionLabel.setHorizontalAlignment(SwingConstants.CENTER);
         questionPanel.add(questionLabel, BorderLayout.NORTH);
         
         // Options panel
-        optionsPanel = new JPanel(new GridLayout(2, 2, 10, 10));
+        // The grid fills whatever space it gets, so text changes on the pooled
+        // buttons only need to lay out this panel, not the whole module
+        optionsPanel = new JPanel(new GridLayout(2, 2, 10, 10)) {
+            @Override
+            public boolean isValidateRoot() {
+                return true;
+            }
+            
+            @Override
+            public void doLayout() {
+                LAYOUT_PROBE.begin();
+                super.doLayout();
+                LAYOUT_PROBE.end();
+            }
+        };
         optionsPanel.setOpaque(false);
+        visibleOptionCount = 0;
         questionPanel.add(optionsPanel, BorderLayout.CENTER);
         
-        add(questionPanel, BorderLayout.CENTER);
+        add(withParticles(questionPanel), BorderLayout.CENTER);
         
         // Footer panel
         JPanel footerPanel = new JPanel(new BorderLayout(10, 10));
         footerPanel.setOpaque(false);
         
-        scoreLabel = new JLabel("Score: 0");
+        scoreLabel = Localization.bind(new JLabel(), "quiz.score", session.getScore());
         scoreLabel.setFont(SCORE_FONT);
-        scoreLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(scoreLabel, ThemeEngine.Token.ACCENT);
         footerPanel.add(scoreLabel, BorderLayout.WEST);
         
         feedbackLabel = new JLabel(" ");
@@ -171,124 +220,179 @@ public class QuizModule extends JPanel {
         add(footerPanel, BorderLayout.SOUTH);
         
         // Start timer
-        timeRemaining = 30;
-        quizTimer = new javax.swing.Timer(1000, e -> updateTimer());
-        quizTimer.start();
+        quizScheduler.startCountdown(seconds);
         
         revalidate();
         repaint();
     }
     
-    private ArrayList<Question> generateQuestions() {
-        ArrayList<Question> quizQuestions = new ArrayList<>();
-        
-        switch (currentQuizType) {
-            case ALPHABET:
-                quizQuestions.add(new Question("What comes after 'A'?", new String[]{"B", "C", "D", "E"}, 0));
-                quizQuestions.add(new Question("Which letter makes the 'Meow' sound?", new String[]{"M", "N", "P", "R"}, 0));
-                quizQuestions.add(new Question("What letter does 'Dog' start with?", new String[]{"B", "C", "D", "E"}, 2));
-                break;
-                
-            case NUMBERS:
-                quizQuestions.add(new Question("What comes after 5?", new String[]{"4", "6", "7", "8"}, 1));
-                quizQuestions.add(new Question("How many fingers do you have on one hand?", new String[]{"3", "4", "5", "6"}, 2));
-                quizQuestions.add(new Question("What is two plus two?", new String[]{"2", "3", "4", "5"}, 2));
-                break;
-                
-            case COLORS:
-                quizQuestions.add(new Question("What color is the sky?", new String[]{"Red", "Green", "Yellow", "Blue"}, 3));
-                quizQuestions.add(new Question("What color is a banana?", new String[]{"Red", "Yellow", "Green", "Blue"}, 1));
-                quizQuestions.add(new Question("What color is grass?", new String[]{"Blue", "Red", "Green", "Yellow"}, 2));
-                break;
-                
-            case SHAPES:
-                quizQuestions.add(new Question("Which shape is round?", new String[]{"Square", "Triangle", "Circle", "Rectangle"}, 2));
-                quizQuestions.add(new Question("Which shape has three sides?", new String[]{"Circle", "Triangle", "Square", "Rectangle"}, 1));
-                quizQuestions.add(new Question("Which shape has four equal sides?", new String[]{"Rectangle", "Circle", "Triangle", "Square"}, 3));
-                break;
+    void showQuestion() {
+        SHOW_PROBE.begin();
+        if (!session.isFinished() && quizScheduler.getSecondsRemaining() > 0) {
+            renderQuestion(session.getQuestion());
+        } else {
+            showFinalScore();
         }
-        
-        return quizQuestions;
+        SHOW_PROBE.end();
     }
     
-    private void updateTimer() {
-        timeRemaining--;
-        timerLabel.setText("Time: " + timeRemaining + "s");
+    void renderQuestion(Question question) {
+        long start = System.nanoTime();
+        long startBytes = AllocationProbe.currentThreadAllocatedBytes();
         
-        if (timeRemaining <= 0) {
-            quizTimer.stop();
-            showFinalScore();
-        }
+        questionLabel.setText(question.getQuestion());
+        bindOptions(question.getOptions());
+        Localization.unbind(feedbackLabel);
+        feedbackLabel.setText(" ");
+        
+        questionRenderMetrics.record(System.nanoTime() - start,
+            AllocationProbe.currentThreadAllocatedBytes() - startBytes);
     }
     
-    private void showQuestion() {
-        if (currentQuestionIndex < questions.size() && timeRemaining > 0) {
-            Question currentQuestion = questions.get(currentQuestionIndex);
-            questionLabel.setText(currentQuestion.getQuestion());
-            
+    /**
+     * Rebinds the pooled option buttons to new option texts. The grid is only
+     * rebuilt when the number of options differs from the previous question.
+     */
+    private void bindOptions(String[] options) {
+        if (options.length != visibleOptionCount) {
             optionsPanel.removeAll();
-            String[] options = currentQuestion.getOptions();
-            
+            ((GridLayout) optionsPanel.getLayout()).setRows((options.length + 1) / 2);
             for (int i = 0; i < options.length; i++) {
-                JButton optionButton = new JButton(options[i]);
-                optionButton.setFont(OPTION_FONT);
-                optionButton.setBackground(BUTTON_COLOR);
-                optionButton.setForeground(Color.WHITE);
-                optionButton.setFocusPainted(false);
-                optionButton.setBorderPainted(false);
-                optionButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
-                
-                optionButton.addMouseListener(new java.awt.event.MouseAdapter() {
-                    public void mouseEntered(java.awt.event.MouseEvent evt) {
-                        optionButton.setBackground(HOVER_COLOR);
-                    }
-                    public void mouseExited(java.awt.event.MouseEvent evt) {
-                        optionButton.setBackground(BUTTON_COLOR);
-                    }
-                });
-                
-                final int answerIndex = i;
-                optionButton.addActionListener(e -> checkAnswer(answerIndex));
-                
-                optionsPanel.add(optionButton);
+                optionsPanel.add(getOptionButton(i));
             }
-            
-            feedbackLabel.setText(" ");
+            visibleOptionCount = options.length;
             optionsPanel.revalidate();
             optionsPanel.repaint();
-        } else {
-            showFinalScore();
+        }
+        
+        for (int i = 0; i < options.length; i++) {
+            optionButtons[i].setText(options[i]);
         }
     }
     
+    private JButton getOptionButton(int index) {
+        if (index >= optionButtons.length) {
+            optionButtons = java.util.Arrays.copyOf(optionButtons, index + 1);
+        }
+        if (optionButtons[index] == null) {
+            JButton optionButton = new JButton();
+            optionButton.setFont(OPTION_FONT);
+            KidButtonUI.apply(optionButton);
+            optionButton.addActionListener(optionActionListener);
+            optionButtons[index] = optionButton;
+        }
+        return optionButtons[index];
+    }
+    
+    private int indexOfOption(Object source) {
+        for (int i = 0; i < visibleOptionCount; i++) {
+            if (optionButtons[i] == source) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    ActionMetrics getQuestionRenderMetrics() {
+        return questionRenderMetrics;
+    }
+    
     private void checkAnswer(int selectedAnswer) {
-        Question currentQuestion = questions.get(currentQuestionIndex);
-        boolean correct = selectedAnswer == currentQuestion.getCorrectAnswer();
+        // Ignore further taps while the feedback for this question is showing
+        if (quizScheduler.isAdvancePending() || quizScheduler.getSecondsRemaining() == 0 || session.isAnswered()) {
+            return;
+        }
+        
+        int item = session.getItem();
+        boolean correct = session.answer(selectedAnswer);
+        if (session.isFinished()) {
+            showFinalScore();
+            return;
+        }
         
         if (correct) {
-            score++;
-            feedbackLabel.setText("Correct! 🎉");
-            feedbackLabel.setForeground(new Color(46, 139, 87));
+            SoundEffects.correct();
+            celebrate(optionButtons[selectedAnswer]);
+            Localization.bind(feedbackLabel, "quiz.correct");
+            ThemeEngine.bindForeground(feedbackLabel, ThemeEngine.Token.CORRECT_TEXT);
         } else {
-            feedbackLabel.setText("Try again! 💪");
-            feedbackLabel.setForeground(new Color(220, 20, 60));
+            SoundEffects.tryAgain();
+            Localization.bind(feedbackLabel, "quiz.tryAgain");
+            ThemeEngine.bindForeground(feedbackLabel, ThemeEngine.Token.INCORRECT_TEXT);
         }
         
-        scoreLabel.setText("Score: " + score);
+        Localization.bind(scoreLabel, "quiz.score", session.getScore());
+        progressStore.questionAnswered(session.getQuestionIndex(), correct, session.getScore());
+        if (item >= 0) {
+            SpacedRepetitionScheduler.forSubject(currentQuizType).review(item, correct ? 5 : 1,
+                System.currentTimeMillis());
+        }
         
         // Wait a moment before showing next question
-        javax.swing.Timer timer = new javax.swing.Timer(1000, e -> {
-            currentQuestionIndex++;
+        quizScheduler.scheduleAdvance(FEEDBACK_DELAY_MS, () -> {
+            session.advance();
             showQuestion();
         });
-        timer.setRepeats(false);
-        timer.start();
     }
     
-    private void showFinalScore() {
-        if (quizTimer != null && quizTimer.isRunning()) {
-            quizTimer.stop();
+    @Override
+    public void moduleShown() {
+        // Resume a quiz that was interrupted by leaving the module
+        quizScheduler.resume();
+        if (session != null) {
+            session.resume();
+        }
+    }
+    
+    // Confetti and stars burst from the middle of the right answer
+    private void celebrate(JButton answer) {
+        Point origin = SwingUtilities.convertPoint(answer, answer.getWidth() / 2, answer.getHeight() / 2, particles);
+        particles.confetti(origin.x, origin.y, CONFETTI_PER_ANSWER);
+        particles.stars(origin.x, origin.y, STARS_PER_ANSWER);
+    }
+    
+    // Lays the particle layer over a screen; the layer paints on top and takes no input
+    private JPanel withParticles(JComponent screen) {
+        particles.clear();
+        JPanel stage = new JPanel() {
+            @Override
+            public boolean isOptimizedDrawingEnabled() {
+                // Children overlap, so Swing must paint all of them in a dirty region
+                return false;
+            }
+        };
+        stage.setLayout(new OverlayLayout(stage));
+        stage.setOpaque(false);
+        stage.add(particles);
+        stage.add(screen);
+        return stage;
+    }
+    
+    ParticleLayer getParticles() {
+        return particles;
+    }
+    
+    @Override
+    public void moduleHidden() {
+        particles.clear();
+        quizScheduler.pause();
+        if (session != null) {
+            session.pause();
         }
+        SpacedRepetitionScheduler.saveAll();
+    }
+    
+    QuizScheduler getQuizScheduler() {
+        return quizScheduler;
+    }
+    
+    private void showFinalScore() {
+        quizScheduler.cancel();
+        session.finish();
+        int score = session.getScore();
+        int questionCount = session.getQuestionCount();
+        progressStore.quizFinished(score, questionCount);
+        Leaderboard.shared().record(LEARNER, currentQuizType, score);
         removeAll();
         setLayout(new BorderLayout(10, 10));
         
@@ -299,53 +403,29 @@ public class QuizModule extends JPanel {
         gbc.fill = GridBagConstraints.HORIZONTAL;
         gbc.insets = new Insets(10, 10, 10, 10);
         
-        JLabel congratsLabel = new JLabel("Quiz Complete!", SwingConstants.CENTER);
+        JLabel congratsLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "quiz.complete");
         congratsLabel.setFont(QUESTION_FONT);
-        congratsLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(congratsLabel, ThemeEngine.Token.ACCENT);
         finalPanel.add(congratsLabel, gbc);
         
-        JLabel finalScoreLabel = new JLabel("Your score: " + score + " out of " + questions.size(), SwingConstants.CENTER);
+        JLabel finalScoreLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "quiz.finalScore", score, questionCount);
         finalScoreLabel.setFont(SCORE_FONT);
-        finalScoreLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(finalScoreLabel, ThemeEngine.Token.ACCENT);
         finalPanel.add(finalScoreLabel, gbc);
         
-        JButton tryAgainButton = new JButton("Try Another Quiz");
+        JButton tryAgainButton = Localization.bind(new JButton(), "quiz.another");
         tryAgainButton.setFont(OPTION_FONT);
-        tryAgainButton.setBackground(BUTTON_COLOR);
-        tryAgainButton.setForeground(Color.WHITE);
-        tryAgainButton.setFocusPainted(false);
-        tryAgainButton.setBorderPainted(false);
-        tryAgainButton.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        tryAgainButton.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                tryAgainButton.setBackground(HOVER_COLOR);
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                tryAgainButton.setBackground(BUTTON_COLOR);
-            }
-        });
+        KidButtonUI.apply(tryAgainButton);
         tryAgainButton.addActionListener(e -> createQuizTypeSelection());
         finalPanel.add(tryAgainButton, gbc);
         
-        add(finalPanel, BorderLayout.CENTER);
+        add(withParticles(finalPanel), BorderLayout.CENTER);
         revalidate();
         repaint();
-    }
-    
-    private class Question {
-        private String question;
-        private String[] options;
-        private int correctAnswer;
-        
-        public Question(String question, String[] options, int correctAnswer) {
-            this.question = question;
-            this.options = options;
-            this.correctAnswer = correctAnswer;
+        if (score == questionCount && score > 0) {
+            // Every answer right: a big burst once the screen has been laid out
+            SwingUtilities.invokeLater(() -> particles.confetti(particles.getWidth() / 2, particles.getHeight() / 3,
+                CONFETTI_PER_PERFECT_QUIZ));
         }
-        
-        public String getQuestion() { return question; }
-        public String[] getOptions() { return options; }
-        public int getCorrectAnswer() { return correctAnswer; }
     }
 }
\ No newline at end of file
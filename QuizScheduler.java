@@ -0,0 +1,202 @@
+import java.util.function.*;
+
+/**
+ * QuizScheduler - The one timer behind a quiz
+ * Drives the countdown and the delayed advance to the next question from a
+ * single reusable javax.swing.Timer. Deadlines are absolute times on the
+ * monotonic clock, so late ticks never accumulate into drift, and only one
+ * advance can be pending at a time, so repeated taps cannot skip questions.
+ * Callbacks run on the event dispatch thread.
+ */
+public class QuizScheduler {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    public interface Listener {
+        /** The whole number of seconds left changed. */
+        void secondsRemaining(int seconds);
+
+        /** The countdown reached zero. */
+        void timeUp();
+    }
+
+    private final Listener listener;
+    private final LongSupplier clock;
+    private final javax.swing.Timer timer;
+
+    private boolean countdownRunning;
+    private long countdownDeadline;
+    private int lastSecondsReported;
+
+    private Runnable advanceAction;
+    private long advanceDeadline;
+
+    private boolean paused;
+    private long pausedAt;
+    private long scheduledFor;
+
+    // Timer firings measured against the deadline they were set for
+    private final LatencyStats tickLateness = new LatencyStats(1024);
+    // How far past its deadline each countdown actually ended
+    private final LatencyStats expiryError = new LatencyStats(256);
+
+    public QuizScheduler(Listener listener) {
+        this(listener, System::nanoTime);
+    }
+
+    public QuizScheduler(Listener listener, LongSupplier nanoClock) {
+        this.listener = listener;
+        this.clock = nanoClock;
+        this.timer = new javax.swing.Timer(0, e -> onTimer());
+        this.timer.setRepeats(false);
+        this.timer.setCoalesce(true);
+    }
+
+    /** Starts a new countdown, cancelling anything still scheduled. */
+    public void startCountdown(int seconds) {
+        cancel();
+        countdownRunning = true;
+        countdownDeadline = clock.getAsLong() + seconds * NANOS_PER_SECOND;
+        lastSecondsReported = seconds;
+        listener.secondsRemaining(seconds);
+        reschedule();
+    }
+
+    /** Whole seconds left on the countdown, rounded up; 0 when not running. */
+    public int getSecondsRemaining() {
+        if (!countdownRunning) {
+            return 0;
+        }
+        long now = paused ? pausedAt : clock.getAsLong();
+        return secondsLeft(countdownDeadline - now);
+    }
+
+    /**
+     * Runs the action once after the delay. Returns false, and schedules
+     * nothing, if an advance is already pending.
+     */
+    public boolean scheduleAdvance(long delayMillis, Runnable action) {
+        if (advanceAction != null) {
+            return false;
+        }
+        advanceAction = action;
+        advanceDeadline = (paused ? pausedAt : clock.getAsLong()) + delayMillis * 1_000_000L;
+        reschedule();
+        return true;
+    }
+
+    public boolean isAdvancePending() {
+        return advanceAction != null;
+    }
+
+    public boolean isActive() {
+        return countdownRunning || advanceAction != null;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    /** Freezes the countdown and any pending advance, e.g. while the module is hidden. */
+    public void pause() {
+        if (paused || !isActive()) {
+            return;
+        }
+        paused = true;
+        pausedAt = clock.getAsLong();
+        timer.stop();
+    }
+
+    /** Continues where pause() left off, shifting every deadline by the time spent paused. */
+    public void resume() {
+        if (!paused) {
+            return;
+        }
+        long pausedFor = clock.getAsLong() - pausedAt;
+        countdownDeadline += pausedFor;
+        advanceDeadline += pausedFor;
+        paused = false;
+        reschedule();
+    }
+
+    /** Stops the countdown and drops any pending advance. */
+    public void cancel() {
+        timer.stop();
+        countdownRunning = false;
+        advanceAction = null;
+        paused = false;
+    }
+
+    public LatencyStats getTickLateness() {
+        return tickLateness;
+    }
+
+    public LatencyStats getExpiryError() {
+        return expiryError;
+    }
+
+    @Override
+    public String toString() {
+        return "QuizScheduler[tick lateness " + tickLateness + "; expiry error " + expiryError + "]";
+    }
+
+    private void onTimer() {
+        if (paused) {
+            return;
+        }
+        long now = clock.getAsLong();
+        tickLateness.record(Math.max(0, now - scheduledFor));
+
+        if (countdownRunning) {
+            long remaining = countdownDeadline - now;
+            if (remaining <= 0) {
+                expiryError.record(-remaining);
+                countdownRunning = false;
+                advanceAction = null;
+                listener.secondsRemaining(0);
+                listener.timeUp();
+            } else if (secondsLeft(remaining) != lastSecondsReported) {
+                lastSecondsReported = secondsLeft(remaining);
+                listener.secondsRemaining(lastSecondsReported);
+            }
+        }
+
+        if (advanceAction != null && now >= advanceDeadline) {
+            // Clear before running so the action can schedule the next advance
+            Runnable action = advanceAction;
+            advanceAction = null;
+            action.run();
+        }
+
+        reschedule();
+    }
+
+    private void reschedule() {
+        if (paused) {
+            return;
+        }
+        long next = Long.MAX_VALUE;
+        if (countdownRunning) {
+            long now = clock.getAsLong();
+            int shown = secondsLeft(countdownDeadline - now);
+            // Wake when the displayed second changes, or at the deadline itself
+            next = countdownDeadline - Math.max(0, shown - 1) * NANOS_PER_SECOND;
+        }
+        if (advanceAction != null) {
+            next = Math.min(next, advanceDeadline);
+        }
+        if (next == Long.MAX_VALUE) {
+            timer.stop();
+            return;
+        }
+
+        long delayNanos = Math.max(0, next - clock.getAsLong());
+        scheduledFor = next;
+        // Round up so the timer never fires before the deadline
+        timer.setInitialDelay((int) Math.min(Integer.MAX_VALUE, (delayNanos + 999_999) / 1_000_000));
+        timer.restart();
+    }
+
+    private static int secondsLeft(long remainingNanos) {
+        return remainingNanos <= 0 ? 0 : (int) ((remainingNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,455 @@
+import com.sun.net.httpserver.*;
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * QuizServer - Classroom quiz server for tablets on the same network
+ * Serves quizzes over HTTP from the JDK's built-in server, one thread per
+ * request (virtual where available, see VirtualThreads). Each learner's quiz
+ * is a QuizSession kept in a concurrent map under a random id and locked
+ * only while one of its own requests runs, so hundreds of sessions proceed
+ * in parallel. Binds to loopback unless told otherwise.
+ *
+ *   POST   /sessions?type=NUMBERS&learner=Ana&questions=5&seconds=30
+ *       start a quiz
+ *   GET    /sessions/{id}
+ *       the current question and score
+ *   DELETE /sessions/{id}
+ *       end and forget a quiz
+ *   POST   /answers
+ *       answers, one per line: {id} {question} {option}
+ *   GET    /leaderboard?type=COLORS
+ *       top learners, overall or for one quiz type
+ *   GET    /metrics
+ *       request counts, latency and throughput
+ *
+ * Answers are batched: a tablet sends whatever it has buffered (e.g. after
+ * a Wi-Fi drop) in one request, and a line for a question that was already
+ * answered is skipped, so retrying a batch is safe. Each line gets a line
+ * back: "{id} ok {correct} {score}" or "{id} error {reason}". Finished and
+ * idle sessions are dropped after -Dkids.server.idleMinutes (default 30).
+ * A quiz's score goes on the class leaderboard when it ends, however it ends;
+ * by default that is Leaderboard.shared(), which quizzes played in the app
+ * itself also feed.
+ */
+public class QuizServer {
+    public static final int DEFAULT_PORT = 8765;
+    private static final int BACKLOG = 256;
+    private static final int MAX_QUESTIONS = 20;
+    private static final int DEFAULT_QUESTIONS = 5;
+    private static final int DEFAULT_SECONDS = 30;
+    private static final int MAX_BODY_BYTES = 64 * 1024;
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    static {
+        // The built-in server writes headers and body separately; with Nagle's algorithm
+        // the body then waits for the client's delayed ACK, about 40ms on every reply
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("quiz-http");
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "quiz-session-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ConcurrentHashMap<String, ServerSession> sessions = new ConcurrentHashMap<>();
+    private final Leaderboard leaderboard;
+    private final long idleNanos = Long.getLong("kids.server.idleMinutes", 30) * NANOS_PER_MINUTE;
+    private final long startedAt = System.nanoTime();
+
+    // Per endpoint, in the order the metrics list them
+    private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+    private final LongAdder answersReceived = new LongAdder();
+    private final LongAdder answerBatches = new LongAdder();
+    private final LongAdder quizzesStarted = new LongAdder();
+    private final LongAdder quizzesFinished = new LongAdder();
+
+    /** Server-side state of one learner's quiz; every use holds its lock. */
+    private static final class ServerSession {
+        private final QuizSession quiz;
+        private final String learner;
+        private long lastUsed = System.nanoTime();
+        private boolean counted;
+
+        ServerSession(QuizSession quiz, String learner) {
+            this.quiz = quiz;
+            this.learner = learner;
+        }
+    }
+
+    /** Counts and latency of one endpoint. */
+    private static final class Endpoint {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+    }
+
+    /** A server whose scores go on the app's shared leaderboard. */
+    public QuizServer(InetSocketAddress address) throws IOException {
+        this(address, Leaderboard.shared());
+    }
+
+    public QuizServer(InetSocketAddress address, Leaderboard leaderboard) throws IOException {
+        this.leaderboard = leaderboard;
+        server = HttpServer.create(address, BACKLOG);
+        server.setExecutor(executor);
+        handle("/sessions", this::sessions);
+        handle("/answers", this::answers);
+        handle("/leaderboard", this::leaderboard);
+        handle("/metrics", this::metrics);
+        sweeper.scheduleWithFixedDelay(this::dropIdleSessions, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /** A server on the loopback interface; port 0 picks a free port. */
+    public static QuizServer onLoopback(int port) throws IOException {
+        return new QuizServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    /** Stops accepting requests, waits up to a second for those in progress and drops every session. */
+    public void stop() {
+        server.stop(1);
+        executor.shutdown();
+        sweeper.shutdownNow();
+        sessions.clear();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getAnswersReceived() {
+        return answersReceived.sum();
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    private interface Handler {
+        void handle(HttpExchange exchange) throws IOException;
+    }
+
+    private void handle(String path, Handler handler) {
+        Endpoint endpoint = new Endpoint();
+        endpoints.put(path, endpoint);
+        server.createContext(path, exchange -> {
+            long start = System.nanoTime();
+            try {
+                handler.handle(exchange);
+            } catch (IllegalArgumentException e) {
+                endpoint.errors.increment();
+                send(exchange, 400, "text/plain", e.getMessage() + "\n");
+            } catch (IOException | RuntimeException e) {
+                endpoint.errors.increment();
+                e.printStackTrace();
+                send(exchange, 500, "text/plain", "Internal error\n");
+            } finally {
+                exchange.close();
+                endpoint.latency.record(System.nanoTime() - start);
+            }
+        });
+    }
+
+    private void sessions(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        if (path.equals("/sessions") || path.equals("/sessions/")) {
+            if (!"POST".equals(method)) {
+                send(exchange, 405, "text/plain", "Use POST to start a quiz\n");
+                return;
+            }
+            startQuiz(exchange);
+            return;
+        }
+        String id = path.substring("/sessions/".length());
+        ServerSession session = sessions.get(id);
+        if (session == null) {
+            send(exchange, 404, "text/plain", "No session " + id + "\n");
+        } else if ("GET".equals(method)) {
+            String json;
+            synchronized (session) {
+                session.lastUsed = System.nanoTime();
+                if (session.quiz.isFinished()) {
+                    finished(session);
+                }
+                json = describe(id, session);
+            }
+            send(exchange, 200, "application/json", json);
+        } else if ("DELETE".equals(method)) {
+            if (sessions.remove(id, session)) {
+                ended(session);
+            }
+            send(exchange, 204, null, null);
+        } else {
+            send(exchange, 405, "text/plain", "Use GET or DELETE\n");
+        }
+    }
+
+    private void startQuiz(HttpExchange exchange) throws IOException {
+        Map<String, String> query = query(exchange.getRequestURI());
+        QuizType type;
+        try {
+            type = QuizType.valueOf(query.getOrDefault("type", "NUMBERS").toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown quiz type " + query.get("type"));
+        }
+        int questions = Math.max(1, Math.min(MAX_QUESTIONS, intParam(query, "questions", DEFAULT_QUESTIONS)));
+        int seconds = Math.max(1, intParam(query, "seconds", DEFAULT_SECONDS));
+        long seed = ThreadLocalRandom.current().nextLong();
+        QuizSession quiz = new QuizSession(type, seed, new int[0], questions, 0, 0, seconds, System::nanoTime);
+        String learner = query.getOrDefault("learner", "").trim();
+        ServerSession session = new ServerSession(quiz, learner.isEmpty() ? "Learner" : learner);
+        String id;
+        do {
+            id = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+        } while (sessions.putIfAbsent(id, session) != null);
+        quizzesStarted.increment();
+        String json;
+        synchronized (session) {
+            json = describe(id, session);
+        }
+        send(exchange, 201, "application/json", json);
+    }
+
+    private void answers(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            send(exchange, 405, "text/plain", "Use POST\n");
+            return;
+        }
+        byte[] body = exchange.getRequestBody().readNBytes(MAX_BODY_BYTES + 1);
+        if (body.length > MAX_BODY_BYTES) {
+            throw new IllegalArgumentException("Batch larger than " + MAX_BODY_BYTES + " bytes");
+        }
+        answerBatches.increment();
+        StringBuilder reply = new StringBuilder();
+        for (String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+            line = line.trim();
+            if (!line.isEmpty()) {
+                answer(line, reply);
+            }
+        }
+        send(exchange, 200, "text/plain", reply.toString());
+    }
+
+    // One "{id} {question} {option}" line of a batch
+    private void answer(String line, StringBuilder reply) {
+        String[] parts = line.split("\\s+");
+        ServerSession session = parts.length == 3 ? sessions.get(parts[0]) : null;
+        if (session == null) {
+            reply.append(parts[0]).append(parts.length == 3 ? " error unknown-session\n" : " error malformed\n");
+            return;
+        }
+        int question;
+        int option;
+        try {
+            question = Integer.parseInt(parts[1]);
+            option = Integer.parseInt(parts[2]);
+        } catch (NumberFormatException e) {
+            reply.append(parts[0]).append(" error malformed\n");
+            return;
+        }
+        answersReceived.increment();
+        synchronized (session) {
+            QuizSession quiz = session.quiz;
+            session.lastUsed = System.nanoTime();
+            if (quiz.isFinished()) {
+                finished(session);
+                reply.append(parts[0]).append(" error finished\n");
+            } else if (question != quiz.getQuestionIndex()) {
+                // Already answered, e.g. a retried batch
+                reply.append(parts[0]).append(" error stale-question\n");
+            } else {
+                boolean correct = quiz.answer(option);
+                quiz.advance();
+                if (quiz.isFinished()) {
+                    finished(session);
+                }
+                reply.append(parts[0]).append(" ok ").append(correct).append(' ').append(quiz.getScore()).append('\n');
+            }
+        }
+    }
+
+    // Called with the session locked, once the quiz is over
+    private void finished(ServerSession session) {
+        if (!session.counted) {
+            session.counted = true;
+            quizzesFinished.increment();
+            leaderboard.record(session.learner, session.quiz.getType(), session.quiz.getScore());
+        }
+    }
+
+    // A session leaving the map, finished or not: what was scored still counts
+    private void ended(ServerSession session) {
+        synchronized (session) {
+            session.quiz.finish();
+            finished(session);
+        }
+    }
+
+    private void leaderboard(HttpExchange exchange) throws IOException {
+        String type = query(exchange.getRequestURI()).get("type");
+        Leaderboard.Ranking ranking;
+        try {
+            ranking = type == null ? leaderboard.getTop()
+                : leaderboard.getTop(QuizType.valueOf(type.toUpperCase(Locale.ROOT)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown quiz type " + type);
+        }
+        StringBuilder json = new StringBuilder("{\"type\": \"").append(type == null ? "ALL" : type.toUpperCase(Locale.ROOT))
+            .append("\", \"learners\": ").append(leaderboard.getLearnerCount()).append(", \"top\": [");
+        for (int i = 0; i < ranking.size(); i++) {
+            json.append(i > 0 ? ", " : "").append("{\"name\": \"").append(escape(ranking.getName(i)))
+                .append("\", \"points\": ").append(ranking.getPoints(i)).append('}');
+        }
+        send(exchange, 200, "application/json", json.append("]}\n").toString());
+    }
+
+    private void metrics(HttpExchange exchange) throws IOException {
+        double seconds = (System.nanoTime() - startedAt) / 1e9;
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("sessions %d, quizzes started %d, finished %d%n", sessions.size(),
+            quizzesStarted.sum(), quizzesFinished.sum()));
+        long batches = answerBatches.sum();
+        text.append(String.format("answers %d in %d batches (%.1f per batch), %.1f answers/s%n",
+            answersReceived.sum(), batches, batches == 0 ? 0.0 : (double) answersReceived.sum() / batches,
+            answersReceived.sum() / seconds));
+        for (Map.Entry<String, Endpoint> entry : endpoints.entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            text.append(String.format("%-10s n=%-8d %8.1f req/s  p50 %7.3f  p99 %7.3f  max %7.3f ms  errors %d%n",
+                entry.getKey(), latency.getCount(), latency.getCount() / seconds,
+                LatencyStats.toMillis(latency.getPercentileNanos(50)),
+                LatencyStats.toMillis(latency.getPercentileNanos(99)),
+                LatencyStats.toMillis(latency.getMaxNanos()), entry.getValue().errors.sum()));
+        }
+        send(exchange, 200, "text/plain", text.toString());
+    }
+
+    /** Latency of the requests to one path, e.g. "/answers"; for benchmarks. */
+    LatencyHistogram getLatency(String path) {
+        return endpoints.get(path).latency;
+    }
+
+    private void dropIdleSessions() {
+        long now = System.nanoTime();
+        sessions.entrySet().removeIf(entry -> {
+            ServerSession session = entry.getValue();
+            synchronized (session) {
+                if (now - session.lastUsed <= idleNanos) {
+                    return false;
+                }
+            }
+            ended(session);
+            return true;
+        });
+    }
+
+    // Called with the session locked
+    private static String describe(String id, ServerSession session) {
+        QuizSession quiz = session.quiz;
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"session\": \"").append(id).append("\", \"type\": \"").append(quiz.getType())
+            .append("\", \"questionIndex\": ").append(quiz.getQuestionIndex())
+            .append(", \"questionCount\": ").append(quiz.getQuestionCount())
+            .append(", \"score\": ").append(quiz.getScore())
+            .append(", \"secondsRemaining\": ").append(quiz.getSecondsRemaining())
+            .append(", \"finished\": ").append(quiz.isFinished());
+        Question question = quiz.getQuestion();
+        if (question != null) {
+            json.append(", \"question\": \"").append(escape(question.getQuestion())).append("\", \"options\": [");
+            String[] options = question.getOptions();
+            for (int i = 0; i < options.length; i++) {
+                json.append(i > 0 ? ", \"" : "\"").append(escape(options[i])).append('"');
+            }
+            json.append(']');
+        }
+        return json.append("}\n").toString();
+    }
+
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 8);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    private static Map<String, String> query(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String raw = uri.getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int equals = pair.indexOf('=');
+                if (equals > 0) {
+                    params.put(URLDecoder.decode(pair.substring(0, equals), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(equals + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int fallback) {
+        String value = query.get(name);
+        try {
+            return value == null ? fallback : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + name + "=" + value);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT;
+        InetAddress bind = InetAddress.getLoopbackAddress();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if ("--port".equals(args[i])) {
+                port = Integer.parseInt(args[i + 1]);
+            } else if ("--bind".equals(args[i])) {
+                // e.g. the teacher PC's classroom address, so the tablets can reach it
+                bind = InetAddress.getByName(args[i + 1]);
+            } else {
+                System.err.println("Usage: java QuizServer [--port N] [--bind ADDRESS]");
+                System.exit(2);
+            }
+        }
+        QuizServer server = new QuizServer(new InetSocketAddress(bind, port));
+        server.start();
+        System.out.println("Quiz server on http://" + server.getAddress().getHostString() + ":"
+            + server.getAddress().getPort() + "/ (" + (VirtualThreads.isAvailable() ? "virtual" : "platform")
+            + " threads)");
+    }
+}
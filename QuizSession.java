@@ -0,0 +1,181 @@
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * QuizSession - One learner's quiz, without any user interface
+ * Holds the questions, the position in them, the score and the time limit,
+ * and judges answers. The QuizModule shows a session on screen; the load
+ * generator and the quiz server drive sessions directly. Questions come
+ * from a QuestionEngine seeded with the session's seed, so a session can be
+ * rebuilt from its seed, items and position after a restart.
+ *
+ * Answering and moving on are separate steps (answer, then advance) so a
+ * screen can show feedback in between; a second answer to the same question
+ * is ignored. The time limit runs on the given nanosecond clock and can be
+ * paused. Not thread-safe: one thread at a time per session.
+ */
+public class QuizSession {
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final QuizType type;
+    private final long seed;
+    private final int[] items;
+    private final List<Question> questions;
+    private final LongSupplier clock;
+
+    private int questionIndex;
+    private int score;
+    private boolean answered;
+    private boolean finished;
+    private long deadline;
+    private long pausedAt = -1;
+    private long questionShownAt;
+    private long lastResponseNanos;
+
+    /** A new quiz about the given items, with the time limit counting from now. */
+    public QuizSession(QuizType type, long seed, int[] items, int seconds) {
+        this(type, seed, items, items.length, 0, 0, seconds, System::nanoTime);
+    }
+
+    /**
+     * A quiz at any point: questionIndex questions already answered with the
+     * given score and seconds left. Without items, questionCount questions are
+     * generated from the seed instead.
+     */
+    public QuizSession(QuizType type, long seed, int[] items, int questionCount, int questionIndex, int score,
+            int seconds, LongSupplier nanoClock) {
+        this.type = type;
+        this.seed = seed;
+        this.items = items.clone();
+        this.clock = nanoClock;
+        QuestionEngine engine = new QuestionEngine(seed);
+        if (items.length > 0) {
+            questions = new ArrayList<>(items.length);
+            for (int item : items) {
+                questions.add(engine.about(type, item));
+            }
+        } else {
+            questions = engine.generate(type, questionCount);
+        }
+        this.questionIndex = Math.max(0, Math.min(questionIndex, questions.size()));
+        // Resumed after the last answer was saved, e.g. the app closed during the feedback delay
+        this.finished = this.questionIndex >= questions.size();
+        this.score = score;
+        long now = clock.getAsLong();
+        this.deadline = now + seconds * NANOS_PER_SECOND;
+        this.questionShownAt = now;
+    }
+
+    public QuizType getType() {
+        return type;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /** The items the questions are about, in order; empty when they were generated from the seed. */
+    public int[] getItems() {
+        return items.clone();
+    }
+
+    public int getQuestionCount() {
+        return questions.size();
+    }
+
+    public int getQuestionIndex() {
+        return questionIndex;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /** The question being asked, or null once the quiz is over. */
+    public Question getQuestion() {
+        return isFinished() ? null : questions.get(questionIndex);
+    }
+
+    /** The item the current question is about, or -1 if the questions were generated from the seed. */
+    public int getItem() {
+        return questionIndex < items.length ? items[questionIndex] : -1;
+    }
+
+    /** True between answering the current question and advancing past it. */
+    public boolean isAnswered() {
+        return answered;
+    }
+
+    /**
+     * Judges an answer to the current question and returns whether it was
+     * right. Ignored (returning false) once the question has been answered or
+     * the quiz is over; an answer after the time limit ends the quiz.
+     */
+    public boolean answer(int option) {
+        if (answered || isFinished()) {
+            return false;
+        }
+        answered = true;
+        long now = clock.getAsLong();
+        lastResponseNanos = now - questionShownAt;
+        boolean correct = option == questions.get(questionIndex).getCorrectAnswer();
+        if (correct) {
+            score++;
+        }
+        return correct;
+    }
+
+    /** Moves on to the next question; the quiz is over after the last one. */
+    public void advance() {
+        if (finished) {
+            return;
+        }
+        answered = false;
+        questionIndex++;
+        questionShownAt = clock.getAsLong();
+        if (questionIndex >= questions.size()) {
+            finished = true;
+        }
+    }
+
+    /** Time from showing the last answered question to its answer, on the session's clock. */
+    public long getLastResponseNanos() {
+        return lastResponseNanos;
+    }
+
+    /** Whole seconds left, rounded up; stops counting while paused. */
+    public int getSecondsRemaining() {
+        long now = pausedAt >= 0 ? pausedAt : clock.getAsLong();
+        long left = deadline - now;
+        return left <= 0 ? 0 : (int) ((left + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND);
+    }
+
+    /** True once every question has been answered, time has run out or the quiz was ended. */
+    public boolean isFinished() {
+        if (!finished && pausedAt < 0 && clock.getAsLong() >= deadline) {
+            finished = true;
+        }
+        return finished;
+    }
+
+    /** Ends the quiz now, e.g. when the screen's own countdown reaches zero. */
+    public void finish() {
+        finished = true;
+    }
+
+    /** Stops the time limit, e.g. while the quiz is off screen. */
+    public void pause() {
+        if (pausedAt < 0 && !finished) {
+            pausedAt = clock.getAsLong();
+        }
+    }
+
+    public void resume() {
+        if (pausedAt >= 0) {
+            long pausedFor = clock.getAsLong() - pausedAt;
+            deadline += pausedFor;
+            questionShownAt += pausedFor;
+            pausedAt = -1;
+        }
+    }
+}
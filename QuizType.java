@@ -0,0 +1,4 @@
+/**
+ * QuizType - The subjects a quiz can cover
+ */
+public enum QuizType { ALPHABET, NUMBERS, COLORS, SHAPES }
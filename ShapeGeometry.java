@@ -0,0 +1,115 @@
+import java.awt.*;
+import java.awt.geom.*;
+
+/**
+ * ShapeGeometry - Precomputed outlines for the shapes shown in ShapesModule
+ * Every shape is built once in a unit square (trig and curves included) and
+ * scaled to the current panel size on first use. Scaled shapes are reused
+ * until the panel size changes, so a repaint is just a fill of a cached path.
+ */
+public class ShapeGeometry {
+    public static final int SHAPE_COUNT = 8;
+    // Space left around the shape inside the display panel
+    private static final int MARGIN = 40;
+
+    private static final Shape[] UNIT_SHAPES = createUnitShapes();
+
+    private final Shape[] scaled = new Shape[SHAPE_COUNT];
+    private int cachedWidth = -1;
+    private int cachedHeight = -1;
+    private long builds;
+
+    /** Returns the shape outline for a panel of the given size. */
+    public Shape get(int shapeIndex, int width, int height) {
+        if (width != cachedWidth || height != cachedHeight) {
+            invalidate();
+            cachedWidth = width;
+            cachedHeight = height;
+        }
+        Shape shape = scaled[shapeIndex];
+        if (shape == null) {
+            int size = Math.max(0, Math.min(width, height) - MARGIN);
+            shape = scale(UNIT_SHAPES[shapeIndex], (width - size) / 2, (height - size) / 2, size);
+            scaled[shapeIndex] = shape;
+            builds++;
+        }
+        return shape;
+    }
+
+    /** Drops the scaled shapes, e.g. when the panel is resized. */
+    public void invalidate() {
+        java.util.Arrays.fill(scaled, null);
+        cachedWidth = -1;
+        cachedHeight = -1;
+    }
+
+    /** Number of scaled shapes built so far; stays flat while the size is stable. */
+    public long getBuilds() {
+        return builds;
+    }
+
+    private static Shape scale(Shape unit, double x, double y, double size) {
+        // Keep rectangles and ellipses as primitives so Java2D can use its fast paths
+        if (unit instanceof RectangularShape) {
+            RectangularShape source = (RectangularShape) unit;
+            RectangularShape result = (RectangularShape) source.clone();
+            result.setFrame(x + source.getX() * size, y + source.getY() * size,
+                source.getWidth() * size, source.getHeight() * size);
+            return result;
+        }
+        AffineTransform transform = new AffineTransform(size, 0, 0, size, x, y);
+        return new Path2D.Float(unit, transform);
+    }
+
+    private static Shape[] createUnitShapes() {
+        Shape[] shapes = new Shape[SHAPE_COUNT];
+        shapes[0] = new Ellipse2D.Double(0, 0, 1, 1);
+        shapes[1] = new Rectangle2D.Double(0, 0, 1, 1);
+        shapes[2] = polygon(0.5, 0, 0, 1, 1, 1);
+        shapes[3] = new Rectangle2D.Double(0, 0.25, 1, 0.5);
+        shapes[4] = new Ellipse2D.Double(0, 0.25, 1, 0.5);
+        shapes[5] = createStar();
+        shapes[6] = createHeart();
+        shapes[7] = polygon(0.5, 0, 1, 0.5, 0.5, 1, 0, 0.5);
+        return shapes;
+    }
+
+    private static Shape createStar() {
+        Path2D.Double star = new Path2D.Double();
+        for (int i = 0; i < 10; i++) {
+            double angle = i * Math.PI / 5 - Math.PI / 2;
+            double r = (i % 2 == 0) ? 0.5 : 0.25;
+            double px = 0.5 + r * Math.cos(angle);
+            double py = 0.5 + r * Math.sin(angle);
+            if (i == 0) {
+                star.moveTo(px, py);
+            } else {
+                star.lineTo(px, py);
+            }
+        }
+        star.closePath();
+        return star;
+    }
+
+    private static Shape createHeart() {
+        // Two lobes meeting in a point, drawn with cubic curves inside [0.1, 0.9]
+        Path2D.Double heart = new Path2D.Double();
+        heart.moveTo(0.5, 0.3);
+        heart.curveTo(0.5, 0.12, 0.1, 0.08, 0.1, 0.36);
+        heart.curveTo(0.1, 0.58, 0.32, 0.72, 0.5, 0.88);
+        heart.curveTo(0.68, 0.72, 0.9, 0.58, 0.9, 0.36);
+        heart.curveTo(0.9, 0.08, 0.5, 0.12, 0.5, 0.3);
+        heart.closePath();
+        return heart;
+    }
+
+    private static Shape polygon(double... points) {
+        Path2D.Double path = new Path2D.Double();
+        path.moveTo(points[0], points[1]);
+        for (int i = 2; i < points.length; i += 2) {
+            path.lineTo(points[i], points[i + 1]);
+        }
+        path.closePath();
+        return path;
+    }
+}
@@ -7,53 +7,39 @@ import java.awt.event.*;
  * Displays different shapes with their names and interactive elements
  */
 public class ShapesModule extends JPanel {
-    private final Font SHAPE_FONT = new Font("Segoe UI", Font.BOLD, 36);
-    private final Font DESC_FONT = new Font("Segoe UI", Font.ITALIC, 20);
-    private final Color BUTTON_COLOR = new Color(70, 130, 180);
-    private final Color HOVER_COLOR = new Color(100, 149, 237);
-    private final Color SHAPE_COLOR = new Color(100, 149, 237);
-    private final Color PANEL_BG = new Color(245, 245, 255);
+    private final Font SHAPE_FONT = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 36);
+    private final Font DESC_FONT = Styles.font(Styles.BODY_FAMILY, Font.ITALIC, 20);
+    private static final PerformanceHud.Probe PAINT_PROBE = PerformanceHud.probe("Shapes drawShape");
     private int currentShapeIndex = 0;
     
-    private final String[] SHAPE_NAMES = {
-        "Circle", "Square", "Triangle", "Rectangle",
-        "Oval", "Star", "Heart", "Diamond"
-    };
-    
-    private final String[] SHAPE_DESCRIPTIONS = {
-        "Round like a ball",
-        "Four equal sides",
-        "Three sides and corners",
-        "Four sides, like a door",
-        "Like a stretched circle",
-        "Points in the sky",
-        "Symbol of love",
-        "Like a kite shape"
-    };
-    
+    private final ShapeGeometry geometry = new ShapeGeometry();
     private JPanel shapeDisplayPanel;
     private JLabel shapeNameLabel;
     private JLabel descriptionLabel;
     private JButton prevButton;
     private JButton nextButton;
+    private JButton reviewButton;
+    // Content labels follow the language; Localization only holds this weakly
+    private final Runnable localeListener = this::updateDisplay;
     
     public ShapesModule(CardLayout cardLayout, JPanel mainPanel) {
         setLayout(new BorderLayout(10, 10));
-        setBackground(PANEL_BG);
+        ThemeEngine.bindBackground(this, ThemeEngine.Token.BACKGROUND);
         
         // Create header panel
         JPanel headerPanel = new JPanel(new BorderLayout());
         headerPanel.setOpaque(false);
         
         // Create home button
-        JButton homeButton = new JButton("Home");
-        homeButton.setFont(new Font("Comic Sans MS", Font.BOLD, 16));
+        JButton homeButton = Localization.bind(new JButton(), "nav.home");
+        homeButton.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 16));
         homeButton.addActionListener(e -> cardLayout.show(mainPanel, "MainMenu"));
         headerPanel.add(homeButton, BorderLayout.WEST);
         
         // Create title
-        JLabel titleLabel = new JLabel("Learn Shapes", SwingConstants.CENTER);
-        titleLabel.setFont(new Font("Comic Sans MS", Font.BOLD, 28));
+        JLabel titleLabel = Localization.bind(new JLabel("", SwingConstants.CENTER), "shapes.title");
+        titleLabel.setFont(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 28));
+        ThemeEngine.bindForeground(titleLabel, ThemeEngine.Token.HEADING);
         headerPanel.add(titleLabel, BorderLayout.CENTER);
         
         add(headerPanel, BorderLayout.NORTH);
@@ -67,24 +53,33 @@ public class ShapesModule extends JPanel {
             @Override
             protected void paintComponent(Graphics g) {
                 super.paintComponent(g);
+                PAINT_PROBE.begin();
                 drawShape(g, currentShapeIndex);
+                PAINT_PROBE.end();
             }
         };
         shapeDisplayPanel.setPreferredSize(new Dimension(300, 300));
         shapeDisplayPanel.setOpaque(false);
+        ThemeEngine.bindPainter(shapeDisplayPanel, ThemeEngine.Token.SHAPE);
+        shapeDisplayPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                geometry.invalidate();
+            }
+        });
         
         // Create labels panel
         JPanel labelsPanel = new JPanel(new GridLayout(2, 1, 10, 10));
         labelsPanel.setOpaque(false);
         
-        shapeNameLabel = new JLabel(SHAPE_NAMES[currentShapeIndex]);
+        shapeNameLabel = new JLabel(LessonContent.getShapeName(currentShapeIndex));
         shapeNameLabel.setFont(SHAPE_FONT);
-        shapeNameLabel.setForeground(new Color(70, 130, 180));
+        ThemeEngine.bindForeground(shapeNameLabel, ThemeEngine.Token.ACCENT);
         shapeNameLabel.setHorizontalAlignment(SwingConstants.CENTER);
         
-        descriptionLabel = new JLabel(SHAPE_DESCRIPTIONS[currentShapeIndex]);
+        descriptionLabel = new JLabel(LessonContent.getShapeDescription(currentShapeIndex));
         descriptionLabel.setFont(DESC_FONT);
-        descriptionLabel.setForeground(new Color(60, 60, 60));
+        ThemeEngine.bindForeground(descriptionLabel, ThemeEngine.Token.TEXT);
         descriptionLabel.setHorizontalAlignment(SwingConstants.CENTER);
         
         labelsPanel.add(shapeNameLabel);
@@ -99,141 +94,99 @@ public class ShapesModule extends JPanel {
         JPanel navigationPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 20, 20));
         navigationPanel.setOpaque(false);
         
-        prevButton = new JButton("Previous");
-        nextButton = new JButton("Next");
+        prevButton = Localization.bind(new JButton(), "nav.previous");
+        nextButton = Localization.bind(new JButton(), "nav.next");
+        reviewButton = Localization.bind(new JButton(), "nav.review");
         
         styleNavigationButton(prevButton);
         styleNavigationButton(nextButton);
+        styleNavigationButton(reviewButton);
         
         prevButton.addActionListener(e -> showPreviousShape());
         nextButton.addActionListener(e -> showNextShape());
+        reviewButton.addActionListener(e -> showReviewShape());
         
         navigationPanel.add(prevButton);
         navigationPanel.add(nextButton);
+        navigationPanel.add(reviewButton);
         
         add(navigationPanel, BorderLayout.SOUTH);
         
+        shapeDisplayPanel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                pronounce();
+            }
+        });
+        
         updateButtonStates();
+        Localization.addListener(localeListener);
+        prefetchNeighbours();
     }
     
     private void styleNavigationButton(JButton button) {
-        button.setFont(new Font("Segoe UI", Font.BOLD, 16));
+        button.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 16));
         button.setPreferredSize(new Dimension(120, 40));
-        button.setBackground(BUTTON_COLOR);
-        button.setForeground(Color.WHITE);
-        button.setFocusPainted(false);
-        button.setBorderPainted(false);
-        button.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        
-        button.addMouseListener(new java.awt.event.MouseAdapter() {
-            public void mouseEntered(java.awt.event.MouseEvent evt) {
-                button.setBackground(HOVER_COLOR);
-            }
-            public void mouseExited(java.awt.event.MouseEvent evt) {
-                button.setBackground(BUTTON_COLOR);
-            }
-        });
+        KidButtonUI.apply(button);
     }
     
-    private void drawShape(Graphics g, int shapeIndex) {
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-        g2d.setColor(SHAPE_COLOR);
-        g2d.setStroke(new BasicStroke(3));
-        
-        int width = shapeDisplayPanel.getWidth();
-        int height = shapeDisplayPanel.getHeight();
-        int size = Math.min(width, height) - 40;
-        int x = (width - size) / 2;
-        int y = (height - size) / 2;
-        
-        switch (shapeIndex) {
-            case 0: // Circle
-                g2d.fillOval(x, y, size, size);
-                break;
-            case 1: // Square
-                g2d.fillRect(x, y, size, size);
-                break;
-            case 2: // Triangle
-                int[] xPoints = {x + size/2, x, x + size};
-                int[] yPoints = {y, y + size, y + size};
-                g2d.fillPolygon(xPoints, yPoints, 3);
-                break;
-            case 3: // Rectangle
-                g2d.fillRect(x, y + size/4, size, size/2);
-                break;
-            case 4: // Oval
-                g2d.fillOval(x, y + size/4, size, size/2);
-                break;
-            case 5: // Star
-                drawStar(g2d, x + size/2, y + size/2, size/2);
-                break;
-            case 6: // Heart
-                drawHeart(g2d, x + size/2, y + size/2, size/2);
-                break;
-            case 7: // Diamond
-                int[] diamondX = {x + size/2, x + size, x + size/2, x};
-                int[] diamondY = {y, y + size/2, y + size, y + size/2};
-                g2d.fillPolygon(diamondX, diamondY, 4);
-                break;
-        }
+    void drawShape(Graphics g, int shapeIndex) {
+        paintShape((Graphics2D) g, shapeIndex, shapeDisplayPanel.getWidth(), shapeDisplayPanel.getHeight());
     }
     
-    private void drawStar(Graphics2D g2d, int centerX, int centerY, int radius) {
-        int[] xPoints = new int[10];
-        int[] yPoints = new int[10];
-        
-        for (int i = 0; i < 10; i++) {
-            double angle = i * Math.PI / 5 - Math.PI / 2;
-            int r = (i % 2 == 0) ? radius : radius / 2;
-            xPoints[i] = centerX + (int)(r * Math.cos(angle));
-            yPoints[i] = centerY + (int)(r * Math.sin(angle));
-        }
-        
-        g2d.fillPolygon(xPoints, yPoints, 10);
-    }
-    
-    private void drawHeart(Graphics2D g2d, int centerX, int centerY, int size) {
-        int[] xPoints = new int[20];
-        int[] yPoints = new int[20];
-        
-        for (int i = 0; i < 20; i++) {
-            double angle = i * 2 * Math.PI / 20;
-            double t = angle;
-            
-            double x = 16 * Math.pow(Math.sin(t), 3);
-            double y = 13 * Math.cos(t) - 5 * Math.cos(2*t) - 2 * Math.cos(3*t) - Math.cos(4*t);
-            
-            xPoints[i] = centerX + (int)(x * size/20);
-            yPoints[i] = centerY - (int)(y * size/20);
-        }
-        
-        g2d.fillPolygon(xPoints, yPoints, 20);
+    void paintShape(Graphics2D g2d, int shapeIndex, int width, int height) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(ThemeEngine.color(ThemeEngine.Token.SHAPE));
+        g2d.fill(geometry.get(shapeIndex, width, height));
     }
     
     private void showPreviousShape() {
         if (currentShapeIndex > 0) {
             currentShapeIndex--;
             updateDisplay();
+            pronounce();
         }
     }
     
     private void showNextShape() {
-        if (currentShapeIndex < SHAPE_NAMES.length - 1) {
+        if (currentShapeIndex < LessonContent.getShapeCount() - 1) {
             currentShapeIndex++;
             updateDisplay();
+            pronounce();
         }
     }
     
+    private void showReviewShape() {
+        SpacedRepetitionScheduler scheduler = SpacedRepetitionScheduler.forSubject(QuizType.SHAPES);
+        int item = scheduler.next();
+        scheduler.markSeen(item, System.currentTimeMillis());
+        currentShapeIndex = item;
+        updateDisplay();
+        pronounce();
+    }
+    
     private void updateDisplay() {
-        shapeNameLabel.setText(SHAPE_NAMES[currentShapeIndex]);
-        descriptionLabel.setText(SHAPE_DESCRIPTIONS[currentShapeIndex]);
+        shapeNameLabel.setText(LessonContent.getShapeName(currentShapeIndex));
+        descriptionLabel.setText(LessonContent.getShapeDescription(currentShapeIndex));
         shapeDisplayPanel.repaint();
         updateButtonStates();
     }
     
+    private void pronounce() {
+        PronunciationPlayer.shared().play(PronunciationPlayer.SHAPES, LessonContent.getShapeKey(currentShapeIndex));
+        prefetchNeighbours();
+    }
+    
+    private void prefetchNeighbours() {
+        int count = LessonContent.getShapeCount();
+        PronunciationPlayer.shared().prefetch(PronunciationPlayer.SHAPES,
+            LessonContent.getShapeKey(currentShapeIndex),
+            LessonContent.getShapeKey((currentShapeIndex + 1) % count),
+            LessonContent.getShapeKey((currentShapeIndex + count - 1) % count));
+    }
+    
     private void updateButtonStates() {
         prevButton.setEnabled(currentShapeIndex > 0);
-        nextButton.setEnabled(currentShapeIndex < SHAPE_NAMES.length - 1);
+        nextButton.setEnabled(currentShapeIndex < LessonContent.getShapeCount() - 1);
     }
 }
\ No newline at end of file
@@ -0,0 +1,52 @@
+/**
+ * SilentAudioOutput - AudioOutput for machines without an audio device
+ * Accepts every clip and reports it started immediately, so playback logic
+ * and its metrics work the same on a headless build server.
+ */
+public class SilentAudioOutput implements AudioOutput {
+    private static final Playback STOPPED = new Playback() {
+        @Override
+        public void stop() {
+        }
+
+        @Override
+        public boolean isPlaying() {
+            return false;
+        }
+    };
+
+    private long played;
+    private long playedBytes;
+
+    @Override
+    public synchronized Playback play(PcmClip clip, Runnable onStarted) {
+        played++;
+        playedBytes += clip.getByteCount();
+        if (onStarted != null) {
+            onStarted.run();
+        }
+        return STOPPED;
+    }
+
+    @Override
+    public boolean isSilent() {
+        return true;
+    }
+
+    @Override
+    public long getOutputLatencyMicros() {
+        return 0;
+    }
+
+    @Override
+    public void close() {
+    }
+
+    public synchronized long getPlayed() {
+        return played;
+    }
+
+    public synchronized long getPlayedBytes() {
+        return playedBytes;
+    }
+}
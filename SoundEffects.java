@@ -0,0 +1,47 @@
+/**
+ * SoundEffects - Short quiz sounds: a chime for a right answer, a low
+ * two-note "try again" and a countdown tick
+ * The sounds are synthesized once into PCM clips, so there are no files to
+ * ship, and played through the shared output where the mixer can overlap
+ * them with speech and with each other.
+ */
+public final class SoundEffects {
+    private static final PcmClip CORRECT = notes("correct", 0.35, 70, 660, 880, 1320);
+    private static final PcmClip TRY_AGAIN = notes("tryAgain", 0.35, 150, 330, 247);
+    private static final PcmClip TICK = notes("tick", 0.25, 25, 1500);
+
+    private SoundEffects() {
+    }
+
+    public static void correct() {
+        AudioOutput.shared().play(CORRECT, 1f, null);
+    }
+
+    public static void tryAgain() {
+        AudioOutput.shared().play(TRY_AGAIN, 1f, null);
+    }
+
+    /** One countdown tick; quieter than the answer sounds. */
+    public static void tick() {
+        AudioOutput.shared().play(TICK, 0.6f, null);
+    }
+
+    // Sine notes in sequence, each with a short attack and an exponential decay so nothing clicks
+    private static PcmClip notes(String name, double amplitude, int millisEach, double... hertz) {
+        float rate = AudioOutput.FORMAT.getSampleRate();
+        int noteFrames = (int) (rate * millisEach / 1000);
+        int attackFrames = Math.max(1, (int) (rate / 500));
+        byte[] data = new byte[noteFrames * hertz.length * 2];
+        int b = 0;
+        for (double frequency : hertz) {
+            for (int i = 0; i < noteFrames; i++) {
+                double envelope = Math.min(1.0, i / (double) attackFrames) * Math.exp(-4.0 * i / noteFrames);
+                double value = Math.sin(2 * Math.PI * frequency * i / rate) * envelope * amplitude;
+                short sample = (short) Math.round(value * Short.MAX_VALUE);
+                data[b++] = (byte) sample;
+                data[b++] = (byte) (sample >> 8);
+            }
+        }
+        return new PcmClip(name, data, AudioOutput.FORMAT);
+    }
+}
@@ -0,0 +1,335 @@
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * SpacedRepetitionScheduler - Decides which item of a subject to practise next
+ * Items are numbered 0..size-1 (letters, numbers, shapes, quiz facts). Each
+ * one carries SM-2 state: repetitions, ease factor and interval. A wrong
+ * answer brings the item back within a minute; right answers push it out
+ * further each time. State lives in parallel primitive arrays and the next
+ * due item comes from an indexed binary min-heap ordered by due time, so
+ * selecting and rescheduling are O(log n) even for banks of 100k+ items.
+ * Items never seen are due at time 0 and come out in item order, so a new
+ * learner still meets the content from the beginning.
+ *
+ * One scheduler per learner and subject; forSubject() gives the app's shared
+ * ones, saved to the progress directory. Not thread-safe; use it from the EDT.
+ * saveAll() copies the shared ones there and writes the copies on a
+ * background thread, so switching screens never waits for the disk.
+ */
+public class SpacedRepetitionScheduler {
+    static final int FILE_MAGIC = 0x4B4C5352; // "KLSR"
+    static final int FILE_VERSION = 1;
+    // Ease factors are kept in thousandths; SM-2 starts at 2.5 and never goes below 1.3
+    private static final int INITIAL_EASE = 2500;
+    private static final int MIN_EASE = 1300;
+    private static final int FIRST_INTERVAL_SECONDS = 60;
+    private static final int SECOND_INTERVAL_SECONDS = 10 * 60;
+    private static final int MAX_INTERVAL_SECONDS = 365 * 24 * 60 * 60;
+    /** Lowest answer quality that counts as remembered. */
+    public static final int PASSING_QUALITY = 3;
+
+    private static final Map<QuizType, SpacedRepetitionScheduler> subjects = new EnumMap<>(QuizType.class);
+    // Writes saved copies one at a time, in the order they were taken
+    private static final ExecutorService saver = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "review-saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int size;
+    private final long[] dueAt;
+    private final int[] intervalSeconds;
+    private final int[] ease;
+    private final short[] repetitions;
+    private final short[] lapses;
+    // heap[i] is an item; heapIndex[item] is where it sits in heap
+    private final int[] heap;
+    private final int[] heapIndex;
+
+    public SpacedRepetitionScheduler(int size) {
+        this.size = size;
+        dueAt = new long[size];
+        intervalSeconds = new int[size];
+        ease = new int[size];
+        repetitions = new short[size];
+        lapses = new short[size];
+        heap = new int[size];
+        heapIndex = new int[size];
+        Arrays.fill(ease, INITIAL_EASE);
+        // All due at 0, so item order is already a valid heap
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            heapIndex[i] = i;
+        }
+    }
+
+    /**
+     * The app's scheduler for a subject, sized by the quiz item bank and
+     * loaded from the progress directory on first use.
+     */
+    public static synchronized SpacedRepetitionScheduler forSubject(QuizType type) {
+        SpacedRepetitionScheduler scheduler = subjects.get(type);
+        if (scheduler == null) {
+            int size = QuestionEngine.getItemCount(type);
+            Path file = fileFor(type);
+            scheduler = new SpacedRepetitionScheduler(size);
+            if (file != null && Files.isRegularFile(file)) {
+                try {
+                    scheduler = load(file, size);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            subjects.put(type, scheduler);
+        }
+        return scheduler;
+    }
+
+    /**
+     * Saves every shared scheduler that has been used. Call it on the EDT:
+     * the state is copied at once and written in the background.
+     */
+    public static synchronized void saveAll() {
+        Map<Path, SpacedRepetitionScheduler> copies = new LinkedHashMap<>();
+        for (Map.Entry<QuizType, SpacedRepetitionScheduler> entry : subjects.entrySet()) {
+            Path file = fileFor(entry.getKey());
+            if (file != null) {
+                copies.put(file, entry.getValue().copy());
+            }
+        }
+        if (copies.isEmpty()) {
+            return;
+        }
+        saver.execute(() -> {
+            for (Map.Entry<Path, SpacedRepetitionScheduler> copy : copies.entrySet()) {
+                try {
+                    copy.getValue().save(copy.getKey());
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        });
+    }
+
+    /** Waits up to timeoutMillis for every saveAll() so far to reach the disk; for shutdown. */
+    public static void awaitSaved(long timeoutMillis) throws InterruptedException {
+        try {
+            saver.submit(() -> { }).get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private SpacedRepetitionScheduler copy() {
+        SpacedRepetitionScheduler copy = new SpacedRepetitionScheduler(size);
+        System.arraycopy(dueAt, 0, copy.dueAt, 0, size);
+        System.arraycopy(intervalSeconds, 0, copy.intervalSeconds, 0, size);
+        System.arraycopy(ease, 0, copy.ease, 0, size);
+        System.arraycopy(repetitions, 0, copy.repetitions, 0, size);
+        System.arraycopy(lapses, 0, copy.lapses, 0, size);
+        System.arraycopy(heap, 0, copy.heap, 0, size);
+        System.arraycopy(heapIndex, 0, copy.heapIndex, 0, size);
+        return copy;
+    }
+
+    /** The item due soonest (or most overdue); O(1). */
+    public int next() {
+        return heap[0];
+    }
+
+    /**
+     * The count items due soonest, in order, without changing any of them.
+     * O(count log n).
+     */
+    public int[] next(int count) {
+        count = Math.min(count, size);
+        int[] items = new int[count];
+        long[] due = new long[count];
+        // Push the picked items to the back temporarily so the next pick differs
+        for (int i = 0; i < count; i++) {
+            items[i] = heap[0];
+            due[i] = dueAt[items[i]];
+            update(items[i], Long.MAX_VALUE);
+        }
+        for (int i = 0; i < count; i++) {
+            update(items[i], due[i]);
+        }
+        return items;
+    }
+
+    public boolean isDue(int item, long nowMillis) {
+        return dueAt[item] <= nowMillis;
+    }
+
+    public long getDueAt(int item) {
+        return dueAt[item];
+    }
+
+    /**
+     * Records an answer of quality 0 (no idea) to 5 (perfect) and reschedules
+     * the item using SM-2.
+     */
+    public void review(int item, int quality, long nowMillis) {
+        quality = Math.max(0, Math.min(5, quality));
+        if (quality < PASSING_QUALITY) {
+            repetitions[item] = 0;
+            intervalSeconds[item] = FIRST_INTERVAL_SECONDS;
+            if (lapses[item] < Short.MAX_VALUE) {
+                lapses[item]++;
+            }
+        } else {
+            if (repetitions[item] < Short.MAX_VALUE) {
+                repetitions[item]++;
+            }
+            if (repetitions[item] == 1) {
+                intervalSeconds[item] = FIRST_INTERVAL_SECONDS;
+            } else if (repetitions[item] == 2) {
+                intervalSeconds[item] = SECOND_INTERVAL_SECONDS;
+            } else {
+                intervalSeconds[item] = (int) Math.min(MAX_INTERVAL_SECONDS, (long) intervalSeconds[item] * ease[item] / 1000);
+            }
+        }
+        // EF' = EF + (0.1 - (5 - q) * (0.08 + (5 - q) * 0.02)), in thousandths
+        int miss = 5 - quality;
+        ease[item] = Math.max(MIN_EASE, ease[item] + 100 - miss * (80 + miss * 20));
+        update(item, nowMillis + intervalSeconds[item] * 1000L);
+    }
+
+    /**
+     * The item was shown without being tested, e.g. while browsing: it moves
+     * back by its current interval but its learning state is unchanged.
+     */
+    public void markSeen(int item, long nowMillis) {
+        update(item, nowMillis + Math.max(FIRST_INTERVAL_SECONDS, intervalSeconds[item]) * 1000L);
+    }
+
+    public int getRepetitions(int item) {
+        return repetitions[item];
+    }
+
+    public int getLapses(int item) {
+        return lapses[item];
+    }
+
+    /** Ease factor, e.g. 2.5 for a new item. */
+    public double getEase(int item) {
+        return ease[item] / 1000.0;
+    }
+
+    public void save(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeShort(FILE_VERSION);
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeLong(dueAt[i]);
+                out.writeInt(intervalSeconds[i]);
+                out.writeInt(ease[i]);
+                out.writeShort(repetitions[i]);
+                out.writeShort(lapses[i]);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads saved state into a scheduler of the given size. Items beyond the
+     * saved ones (the content grew) start as new; saved items beyond the size
+     * are dropped.
+     */
+    public static SpacedRepetitionScheduler load(Path file, int size) throws IOException {
+        SpacedRepetitionScheduler scheduler = new SpacedRepetitionScheduler(size);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC || in.readShort() != FILE_VERSION) {
+                throw new IOException("Not a review schedule: " + file);
+            }
+            int saved = in.readInt();
+            for (int i = 0; i < saved; i++) {
+                long due = in.readLong();
+                int interval = in.readInt();
+                int itemEase = in.readInt();
+                short itemRepetitions = in.readShort();
+                short itemLapses = in.readShort();
+                if (i < size) {
+                    scheduler.dueAt[i] = due;
+                    scheduler.intervalSeconds[i] = interval;
+                    scheduler.ease[i] = itemEase;
+                    scheduler.repetitions[i] = itemRepetitions;
+                    scheduler.lapses[i] = itemLapses;
+                }
+            }
+        }
+        scheduler.heapify();
+        return scheduler;
+    }
+
+    private static Path fileFor(QuizType type) {
+        String directory = System.getProperty("kids.progress.dir", "progress");
+        return directory.isEmpty() ? null : Paths.get(directory, "review-" + type.name().toLowerCase() + ".srs");
+    }
+
+    private void update(int item, long due) {
+        long previous = dueAt[item];
+        dueAt[item] = due;
+        int index = heapIndex[item];
+        if (due < previous) {
+            siftUp(index);
+        } else {
+            siftDown(index);
+        }
+    }
+
+    private void heapify() {
+        for (int i = size / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    // Ties go to the lower item so new items come out in order
+    private boolean before(int a, int b) {
+        return dueAt[a] < dueAt[b] || (dueAt[a] == dueAt[b] && a < b);
+    }
+
+    private void siftUp(int index) {
+        int item = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!before(item, heap[parent])) {
+                break;
+            }
+            place(heap[parent], index);
+            index = parent;
+        }
+        place(item, index);
+    }
+
+    private void siftDown(int index) {
+        int item = heap[index];
+        int half = size >>> 1;
+        while (index < half) {
+            int child = 2 * index + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!before(heap[child], item)) {
+                break;
+            }
+            place(heap[child], index);
+            index = child;
+        }
+        place(item, index);
+    }
+
+    private void place(int item, int index) {
+        heap[index] = item;
+        heapIndex[item] = index;
+    }
+}
@@ -0,0 +1,65 @@
+import java.lang.management.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * StartupMetrics - Time-to-first-frame and per-module time-to-interactive
+ * Time-to-first-frame is measured from JVM start to the first paint of the
+ * main window. Time-to-interactive is measured from a menu click to the end
+ * of the first paint pass after the module card is shown, and is kept
+ * separately for cold (newly built) and warm (cached) entries.
+ * Set -Dkids.metrics=true to print each measurement.
+ */
+public class StartupMetrics {
+    private static final boolean PRINT = Boolean.getBoolean("kids.metrics");
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private volatile long timeToFirstFrameMillis = -1;
+    private final Map<String, LatencyStats> coldEntries = new ConcurrentHashMap<>();
+    private final Map<String, LatencyStats> warmEntries = new ConcurrentHashMap<>();
+
+    /** Records the first frame; later calls are ignored. */
+    public void firstFramePainted() {
+        if (timeToFirstFrameMillis < 0) {
+            timeToFirstFrameMillis = System.currentTimeMillis() - jvmStartMillis;
+            if (PRINT) {
+                System.out.println("Time to first frame: " + timeToFirstFrameMillis + "ms");
+            }
+        }
+    }
+
+    public void moduleInteractive(String moduleName, boolean cold, long elapsedNanos) {
+        Map<String, LatencyStats> target = cold ? coldEntries : warmEntries;
+        target.computeIfAbsent(moduleName, k -> new LatencyStats(256)).record(elapsedNanos);
+        if (PRINT) {
+            System.out.printf("Time to interactive %s (%s): %.2fms%n",
+                moduleName, cold ? "cold" : "warm", LatencyStats.toMillis(elapsedNanos));
+        }
+    }
+
+    /** Milliseconds from JVM start to the first frame, or -1 if not painted yet. */
+    public long getTimeToFirstFrameMillis() {
+        return timeToFirstFrameMillis;
+    }
+
+    public LatencyStats getColdEntryStats(String moduleName) {
+        return coldEntries.get(moduleName);
+    }
+
+    public LatencyStats getWarmEntryStats(String moduleName) {
+        return warmEntries.get(moduleName);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Time to first frame: ").append(timeToFirstFrameMillis).append("ms\n");
+        for (String name : new TreeSet<>(coldEntries.keySet())) {
+            sb.append(name).append(" cold: ").append(coldEntries.get(name)).append('\n');
+        }
+        for (String name : new TreeSet<>(warmEntries.keySet())) {
+            sb.append(name).append(" warm: ").append(warmEntries.get(name)).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,200 @@
+import javax.swing.*;
+import javax.swing.border.*;
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * Styles - The app's fonts, colors, borders and cursors in one place
+ * Every style is a flyweight: each distinct font, color or border is created
+ * once and the same instance is handed to every component that asks, so
+ * building a module or moving the mouse over a button allocates no style
+ * objects. Lookups index small arrays and open-addressed tables instead of
+ * building keys. Font metrics are measured when a font is first created.
+ * Everything here is immutable and safe to share; lookups are thread-safe.
+ */
+public final class Styles {
+    public static final String BODY_FAMILY = "Segoe UI";
+    public static final String PLAYFUL_FAMILY = "Comic Sans MS";
+
+    public static final Color PRIMARY = new Color(70, 130, 180);
+    public static final Color PRIMARY_HOVER = new Color(100, 149, 237);
+    public static final Color LIGHT_BACKGROUND = new Color(245, 245, 255);
+    public static final Color DARK_BACKGROUND = new Color(50, 50, 70);
+    public static final Color TEXT = new Color(60, 60, 60);
+    public static final Color CORRECT = new Color(46, 204, 113);
+    public static final Color INCORRECT = new Color(231, 76, 60);
+    public static final Color CORRECT_TEXT = new Color(46, 139, 87);
+    public static final Color INCORRECT_TEXT = new Color(220, 20, 60);
+    public static final Color COUNTER = new Color(100, 149, 237, 180);
+
+    public static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+
+    // Font sizes above this are rare one-offs and are not cached
+    private static final int MAX_CACHED_SIZE = 200;
+    private static final int STYLES = Font.BOLD | Font.ITALIC;
+
+    private static final Map<String, Font[]> fonts = new HashMap<>();
+    private static final Map<Font, FontMetrics> metrics = new HashMap<>();
+    private static final IntTable<Color> colors = new IntTable<>();
+    private static final IntTable<Border> emptyBorders = new IntTable<>();
+    private static long fontsCreated;
+
+    static {
+        for (Color color : new Color[] {PRIMARY, PRIMARY_HOVER, LIGHT_BACKGROUND, DARK_BACKGROUND, TEXT,
+                CORRECT, INCORRECT, CORRECT_TEXT, INCORRECT_TEXT, COUNTER, Color.WHITE, Color.BLACK}) {
+            colors.put(color.getRGB(), color);
+        }
+    }
+
+    private Styles() {
+    }
+
+    /** The shared font for a family, style (Font.PLAIN, BOLD, ITALIC) and point size. */
+    public static synchronized Font font(String family, int style, int size) {
+        if (size < 1 || size > MAX_CACHED_SIZE || (style & ~STYLES) != 0) {
+            return new Font(family, style, size);
+        }
+        Font[] sizes = fonts.get(family);
+        if (sizes == null) {
+            sizes = new Font[(STYLES + 1) * (MAX_CACHED_SIZE + 1)];
+            fonts.put(family, sizes);
+        }
+        int index = style * (MAX_CACHED_SIZE + 1) + size;
+        Font font = sizes[index];
+        if (font == null) {
+            font = new Font(family, style, size);
+            sizes[index] = font;
+            metrics.put(font, measure(font));
+            fontsCreated++;
+        }
+        return font;
+    }
+
+    /** The shared font like the given one but with another style and size. */
+    public static Font derive(Font font, int style, int size) {
+        // getName is the requested family; getFamily may be a substitute
+        return font(font.getName(), style, size);
+    }
+
+    /** The shared font like the given one but with another size. */
+    public static Font derive(Font font, int size) {
+        return font(font.getName(), font.getStyle(), size);
+    }
+
+    /** Metrics of a font, measured once without a screen. */
+    public static synchronized FontMetrics metrics(Font font) {
+        FontMetrics fontMetrics = metrics.get(font);
+        if (fontMetrics == null) {
+            fontMetrics = measure(font);
+            metrics.put(font, fontMetrics);
+        }
+        return fontMetrics;
+    }
+
+    /** The shared opaque color for the given components. */
+    public static Color color(int red, int green, int blue) {
+        return color(red, green, blue, 255);
+    }
+
+    /** The shared color for the given components, with alpha. */
+    public static synchronized Color color(int red, int green, int blue, int alpha) {
+        int rgba = ((alpha & 0xFF) << 24) | ((red & 0xFF) << 16) | ((green & 0xFF) << 8) | (blue & 0xFF);
+        Color color = colors.get(rgba);
+        if (color == null) {
+            color = new Color(red, green, blue, alpha);
+            colors.put(rgba, color);
+        }
+        return color;
+    }
+
+    /** A shared empty border; insets up to 255 are cached. */
+    public static synchronized Border emptyBorder(int top, int left, int bottom, int right) {
+        if ((top | left | bottom | right) >>> 8 != 0) {
+            return BorderFactory.createEmptyBorder(top, left, bottom, right);
+        }
+        int key = top << 24 | left << 16 | bottom << 8 | right;
+        Border border = emptyBorders.get(key);
+        if (border == null) {
+            border = BorderFactory.createEmptyBorder(top, left, bottom, right);
+            emptyBorders.put(key, border);
+        }
+        return border;
+    }
+
+    /** Number of distinct fonts created so far. */
+    public static synchronized long getFontsCreated() {
+        return fontsCreated;
+    }
+
+    public static synchronized int getColorCount() {
+        return colors.size();
+    }
+
+    private static FontMetrics measure(Font font) {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scratch.createGraphics();
+        try {
+            return g.getFontMetrics(font);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /** Open-addressed int-keyed table, so lookups do not box their keys. */
+    private static final class IntTable<T> {
+        private int[] keys = new int[64];
+        private Object[] values = new Object[64];
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        T get(int key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return (T) values[i];
+                }
+            }
+            return null;
+        }
+
+        void put(int key, T value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            while (values[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == null) {
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void grow() {
+            int[] oldKeys = keys;
+            Object[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new Object[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    put(oldKeys[i], (T) oldValues[i]);
+                }
+            }
+        }
+
+        private static int mix(int key) {
+            int h = key * 0x9E3779B9;
+            return h ^ (h >>> 16);
+        }
+    }
+}
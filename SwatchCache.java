@@ -0,0 +1,139 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.*;
+import java.awt.image.*;
+import java.util.*;
+
+/**
+ * SwatchCache - Pre-rendered color swatches for the Colors lesson and games
+ * A swatch is a rounded tile shaded from a little lighter at the top to a
+ * little darker at the bottom. The shades are computed in CIELAB, so every
+ * color gets the same visible depth, which costs a color conversion per
+ * row; each (color, pixel size) is therefore rendered once and blitted
+ * after that. Bounded in bytes (-Dkids.swatchCache.bytes, default 4 MB)
+ * with least recently used eviction, like the GlyphCache.
+ */
+public class SwatchCache {
+    private static final SwatchCache SHARED =
+        new SwatchCache(Long.getLong("kids.swatchCache.bytes", 4L * 1024 * 1024));
+    // Lab lightness added at the top edge and taken away at the bottom
+    private static final float SHADING = 12;
+    private static final double ARC_FRACTION = 0.18;
+
+    private final LinkedHashMap<Long, BufferedImage> swatches = new LinkedHashMap<>(64, 0.75f, true);
+    private final long budgetBytes;
+    private long usedBytes;
+    private long hits;
+    private long misses;
+
+    public SwatchCache(long budgetBytes) {
+        this.budgetBytes = budgetBytes;
+    }
+
+    public static SwatchCache shared() {
+        return SHARED;
+    }
+
+    /** The swatch for a 0xRRGGBB color at a size in device pixels, rendering it on a miss. */
+    public synchronized BufferedImage get(int color, int pixelWidth, int pixelHeight) {
+        Long key = (long) (color & 0xFFFFFF) << 32 | (long) (pixelWidth & 0xFFFF) << 16 | (pixelHeight & 0xFFFF);
+        BufferedImage swatch = swatches.get(key);
+        if (swatch != null) {
+            hits++;
+            return swatch;
+        }
+        misses++;
+        swatch = render(color, pixelWidth, pixelHeight);
+        swatches.put(key, swatch);
+        usedBytes += bytes(swatch);
+        Iterator<BufferedImage> it = swatches.values().iterator();
+        while (usedBytes > budgetBytes && swatches.size() > 1 && it.hasNext()) {
+            BufferedImage eldest = it.next();
+            if (eldest == swatch) {
+                continue;
+            }
+            it.remove();
+            usedBytes -= bytes(eldest);
+        }
+        return swatch;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    private static long bytes(BufferedImage image) {
+        return 4L * image.getWidth() * image.getHeight();
+    }
+
+    private static BufferedImage render(int color, int width, int height) {
+        BufferedImage image = new BufferedImage(Math.max(1, width), Math.max(1, height), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        // An antialiased rounded mask first, then the rows painted only where the mask is
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        double arc = Math.min(width, height) * ARC_FRACTION * 2;
+        g.setColor(Color.WHITE);
+        g.fill(new RoundRectangle2D.Double(0, 0, width, height, arc, arc));
+        g.setComposite(AlphaComposite.SrcIn);
+        float[] lab = ColorEngine.toLab(color, new float[3]);
+        int previous = -1;
+        for (int y = 0; y < height; y++) {
+            float lightness = lab[0] + SHADING * (1 - 2 * (y + 0.5f) / height);
+            int row = ColorEngine.toRgb(Math.max(0, Math.min(100, lightness)), lab[1], lab[2]);
+            if (row != previous) {
+                g.setColor(new Color(row));
+                previous = row;
+            }
+            g.fillRect(0, y, width, 1);
+        }
+        g.dispose();
+        return image;
+    }
+
+    /** Paints a cached swatch at a fixed logical size, sharp at any screen scale. */
+    public static class SwatchIcon implements Icon {
+        private int color;
+        private final int width;
+        private final int height;
+
+        public SwatchIcon(int color, int width, int height) {
+            this.color = color;
+            this.width = width;
+            this.height = height;
+        }
+
+        public int getColor() {
+            return color;
+        }
+
+        public void setColor(int color) {
+            this.color = color;
+        }
+
+        @Override
+        public void paintIcon(Component component, Graphics g, int x, int y) {
+            AffineTransform transform = ((Graphics2D) g).getTransform();
+            BufferedImage swatch = shared().get(color, (int) Math.ceil(width * transform.getScaleX()),
+                (int) Math.ceil(height * transform.getScaleY()));
+            g.drawImage(swatch, x, y, width, height, null);
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
@@ -0,0 +1,256 @@
+import javax.swing.*;
+import java.awt.*;
+import java.lang.ref.*;
+import java.util.*;
+
+/**
+ * ThemeEngine - Light and Dark palettes applied to every screen
+ * Components subscribe to palette tokens rather than holding colors:
+ * bindBackground/bindForeground set the color now and again on every
+ * switch, and bindPainter marks a custom-painted component for repaint.
+ * Subscriptions are kept per token, so a switch visits only components
+ * bound to tokens whose color actually changes, sets just those
+ * properties, and leaves repainting to Swing's dirty regions for them;
+ * nothing walks the component tree. Components are held weakly, like
+ * Localization's bindings, so cached modules that get evicted are not kept
+ * alive. Use from the EDT.
+ */
+public final class ThemeEngine {
+    /** A role a color plays on screen. */
+    public enum Token {
+        BACKGROUND,
+        HEADING,
+        TEXT,
+        ACCENT,
+        SHAPE,
+        CORRECT_TEXT,
+        INCORRECT_TEXT
+    }
+
+    /** A named color for every token. */
+    public static final class Theme {
+        private final String name;
+        private final Color[] colors;
+
+        public Theme(String name, Map<Token, Color> colors) {
+            this.name = name;
+            this.colors = new Color[Token.values().length];
+            for (Token token : Token.values()) {
+                this.colors[token.ordinal()] = Objects.requireNonNull(colors.get(token), token.name());
+            }
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Color get(Token token) {
+            return colors[token.ordinal()];
+        }
+    }
+
+    public static final Theme LIGHT = new Theme("Light", palette(
+        Styles.LIGHT_BACKGROUND, Color.BLACK, Styles.TEXT, Styles.PRIMARY, Styles.PRIMARY_HOVER,
+        Styles.CORRECT_TEXT, Styles.INCORRECT_TEXT));
+    public static final Theme DARK = new Theme("Dark", palette(
+        Styles.DARK_BACKGROUND, Color.WHITE, Styles.color(220, 220, 232), Styles.color(135, 180, 235),
+        Styles.color(135, 180, 235), Styles.color(120, 220, 150), Styles.color(255, 120, 120)));
+
+    private static final String BINDING_KEY = "ThemeEngine.binding";
+    private static final Token[] TOKENS = Token.values();
+    private static final int TOKEN_COUNT = TOKENS.length;
+
+    // Indexed by token ordinal
+    private static final java.util.List<ArrayList<Binding>> subscribers = new ArrayList<>(TOKEN_COUNT);
+    // Size at which each token's list is next swept for collected components
+    private static final int[] sweepAt = new int[TOKEN_COUNT];
+    private static final LatencyStats switchLatency = new LatencyStats();
+    private static final boolean PRINT = Boolean.getBoolean("kids.metrics");
+    private static Theme theme = LIGHT;
+    private static int lastUpdated;
+
+    static {
+        for (int i = 0; i < TOKEN_COUNT; i++) {
+            subscribers.add(new ArrayList<>());
+            sweepAt[i] = 64;
+        }
+    }
+
+    private ThemeEngine() {
+    }
+
+    public static Theme getTheme() {
+        return theme;
+    }
+
+    /** The current color for a token, for code that paints by hand. */
+    public static Color color(Token token) {
+        return theme.get(token);
+    }
+
+    /** Sets the component's background from the token, now and after every switch. */
+    public static <T extends JComponent> T bindBackground(T component, Token token) {
+        Binding binding = bindingFor(component);
+        binding.background = token;
+        subscribe(binding, token);
+        component.setBackground(theme.get(token));
+        return component;
+    }
+
+    /** Sets the component's foreground from the token, now and after every switch. */
+    public static <T extends JComponent> T bindForeground(T component, Token token) {
+        Binding binding = bindingFor(component);
+        binding.foreground = token;
+        subscribe(binding, token);
+        component.setForeground(theme.get(token));
+        return component;
+    }
+
+    /** Repaints a component that paints with color(token) whenever those tokens change. */
+    public static <T extends JComponent> T bindPainter(T component, Token... tokens) {
+        Binding binding = bindingFor(component);
+        for (Token token : tokens) {
+            binding.painted |= 1 << token.ordinal();
+            subscribe(binding, token);
+        }
+        return component;
+    }
+
+    /**
+     * Switches every bound component to the theme. Only tokens whose color
+     * differs are visited. Returns the number of components updated.
+     */
+    public static int setTheme(Theme next) {
+        long start = System.nanoTime();
+        Theme previous = theme;
+        theme = next;
+        int updated = 0;
+        for (Token token : TOKENS) {
+            Color color = next.get(token);
+            if (color.equals(previous.get(token))) {
+                continue;
+            }
+            ArrayList<Binding> bindings = subscribers.get(token.ordinal());
+            int live = 0;
+            for (int i = 0, n = bindings.size(); i < n; i++) {
+                Binding binding = bindings.get(i);
+                JComponent component = binding.component.get();
+                if (component == null) {
+                    continue;
+                }
+                bindings.set(live++, binding);
+                if (binding.background == token) {
+                    component.setBackground(color);
+                    updated++;
+                }
+                if (binding.foreground == token) {
+                    component.setForeground(color);
+                    updated++;
+                }
+                if ((binding.painted & (1 << token.ordinal())) != 0) {
+                    component.repaint();
+                    updated++;
+                }
+            }
+            trim(bindings, live);
+        }
+        lastUpdated = updated;
+        long elapsed = System.nanoTime() - start;
+        switchLatency.record(elapsed);
+        if (PRINT) {
+            System.out.printf("Theme %s: %d updates in %.2fms%n", next.getName(), updated, LatencyStats.toMillis(elapsed));
+        }
+        return updated;
+    }
+
+    /** Time spent applying each switch, before Swing repaints. */
+    public static LatencyStats getSwitchStats() {
+        return switchLatency;
+    }
+
+    /** Component properties set or repainted by the last switch. */
+    public static int getLastUpdated() {
+        return lastUpdated;
+    }
+
+    /** Live subscriptions across all tokens; a component bound to two tokens counts twice. */
+    public static int getSubscriptionCount() {
+        int count = 0;
+        for (ArrayList<Binding> bindings : subscribers) {
+            for (Binding binding : bindings) {
+                if (binding.component.get() != null) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static Map<Token, Color> palette(Color background, Color heading, Color text, Color accent,
+                                             Color shape, Color correctText, Color incorrectText) {
+        Map<Token, Color> colors = new EnumMap<>(Token.class);
+        colors.put(Token.BACKGROUND, background);
+        colors.put(Token.HEADING, heading);
+        colors.put(Token.TEXT, text);
+        colors.put(Token.ACCENT, accent);
+        colors.put(Token.SHAPE, shape);
+        colors.put(Token.CORRECT_TEXT, correctText);
+        colors.put(Token.INCORRECT_TEXT, incorrectText);
+        return colors;
+    }
+
+    // One binding per component, kept on the component itself so rebinding does not add entries
+    private static Binding bindingFor(JComponent component) {
+        Object existing = component.getClientProperty(BINDING_KEY);
+        if (existing instanceof Binding) {
+            return (Binding) existing;
+        }
+        Binding binding = new Binding(component);
+        component.putClientProperty(BINDING_KEY, binding);
+        return binding;
+    }
+
+    private static void subscribe(Binding binding, Token token) {
+        int bit = 1 << token.ordinal();
+        if ((binding.subscribed & bit) != 0) {
+            return;
+        }
+        binding.subscribed |= bit;
+        ArrayList<Binding> bindings = subscribers.get(token.ordinal());
+        bindings.add(binding);
+        if (bindings.size() >= sweepAt[token.ordinal()]) {
+            sweep(token);
+        }
+    }
+
+    // Drops collected components; amortized by doubling the next sweep size
+    private static void sweep(Token token) {
+        ArrayList<Binding> bindings = subscribers.get(token.ordinal());
+        int live = 0;
+        for (int i = 0, n = bindings.size(); i < n; i++) {
+            Binding binding = bindings.get(i);
+            if (binding.component.get() != null) {
+                bindings.set(live++, binding);
+            }
+        }
+        trim(bindings, live);
+        sweepAt[token.ordinal()] = Math.max(64, live * 2);
+    }
+
+    private static void trim(ArrayList<Binding> bindings, int size) {
+        bindings.subList(size, bindings.size()).clear();
+    }
+
+    /** The tokens one component follows. */
+    private static final class Binding {
+        final WeakReference<JComponent> component;
+        Token background;
+        Token foreground;
+        int painted;
+        int subscribed;
+
+        Binding(JComponent component) {
+            this.component = new WeakReference<>(component);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+import java.lang.reflect.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * VirtualThreads - A thread per task, virtual where the JVM has them
+ * On Java 21 and later tasks run on virtual threads, so thousands of them
+ * can sit blocked (sleeping learners, slow sockets) without thousands of OS
+ * threads. The app still builds and runs on Java 17, so the virtual thread
+ * factory is looked up by reflection; without it, tasks run on a cached
+ * pool of daemon platform threads, which behaves the same but costs a
+ * native thread per blocked task.
+ */
+public final class VirtualThreads {
+    private static final Method NEW_EXECUTOR = lookUp();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /** An executor starting a new thread per task; platform threads are named prefix-N. */
+    public static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        if (NEW_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                e.printStackTrace();
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Method lookUp() {
+        if ("off".equals(System.getProperty("kids.virtualThreads"))) {
+            return null;
+        }
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
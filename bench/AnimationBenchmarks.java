@@ -0,0 +1,102 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * AnimationBenchmarks - Particle stepping and painting, the slide transition, and frame skipping
+ * step advances a ParticleLayer holding 64 to 512 particles by one frame
+ * (allocation per step should be zero); paint draws them into an image.
+ * slidePaint draws the Alphabet letter mid-slide next to a still one. The
+ * clock is then driven by a simulated timer that is jittery and stalls
+ * every so often, to report frame work p99 against the 16.7 ms frame and
+ * how many frames were skipped to keep animations on time.
+ */
+public class AnimationBenchmarks {
+    private static final int[] PARTICLES = {64, 256, 512};
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int SIMULATED_TICKS = 20_000;
+    // Every STALL_EVERY ticks the simulated EDT is busy for STALL_MILLIS
+    private static final int STALL_EVERY = 50;
+    private static final int STALL_MILLIS = 60;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("animation", args);
+        ModuleBenchmarks.onEdt(() -> {
+            benchParticles(bench);
+            benchSlide(bench);
+            benchFrameSkipping(bench);
+        });
+        bench.finish();
+    }
+
+    private static void benchParticles(Bench bench) throws Exception {
+        for (int particles : PARTICLES) {
+            ParticleLayer layer = new ParticleLayer(new AnimationClock());
+            layer.setSize(WIDTH, HEIGHT);
+            String params = "particles=" + particles;
+            bench.run("step", params, () -> {
+                topUp(layer, particles);
+                layer.advance(1);
+            });
+
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = image.createGraphics();
+            topUp(layer, particles);
+            bench.run("paint", params, () -> layer.paint(g));
+            g.dispose();
+            layer.clear();
+        }
+    }
+
+    private static void benchSlide(Bench bench) throws Exception {
+        GlyphLabel label = new GlyphLabel("A");
+        label.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 150));
+        label.setForeground(Styles.PRIMARY);
+        label.setSize(400, 250);
+        BufferedImage image = new BufferedImage(400, 250, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        bench.run("slidePaint", "state=still", () -> label.paint(g));
+        label.slideTo("B", 1);
+        bench.run("slidePaint", "state=sliding", () -> label.paint(g));
+        g.dispose();
+        label.setText("A");
+    }
+
+    private static void benchFrameSkipping(Bench bench) throws Exception {
+        long[] now = {0};
+        AnimationClock clock = new AnimationClock(() -> now[0]);
+        ParticleLayer layer = new ParticleLayer(clock);
+        layer.setSize(WIDTH, HEIGHT);
+        int particles = 256;
+        topUp(layer, particles);
+        for (int tick = 1; tick <= SIMULATED_TICKS; tick++) {
+            // The millisecond timer fires 15 to 18 ms apart, and sometimes much later
+            long interval = tick % STALL_EVERY == 0 ? STALL_MILLIS * 1_000_000L
+                : 15_000_000L + (tick * 7919L % 3_000_000L);
+            now[0] += interval;
+            topUp(layer, particles);
+            clock.tick();
+        }
+        clock.stop(layer);
+        LatencyStats frameTime = clock.getFrameTime();
+        String params = "particles=" + particles;
+        bench.record("frameTimeP99", params, "ms", LatencyStats.toMillis(frameTime.getPercentileNanos(99)));
+        bench.record("frameBudgetUsed", params, "%",
+            100.0 * frameTime.getPercentileNanos(99) / AnimationClock.FRAME_NANOS);
+        long rendered = clock.getFramesRendered();
+        long skipped = clock.getFramesSkipped();
+        bench.record("framesRendered", params, "count", rendered);
+        bench.record("framesSkipped", params, "count", skipped);
+        bench.record("framesSkippedShare", params, "%", 100.0 * skipped / (rendered + skipped));
+    }
+
+    // Keeps the layer near a particle count as old ones fall away
+    private static void topUp(ParticleLayer layer, int particles) {
+        int missing = particles - layer.getParticleCount();
+        if (missing > 0) {
+            layer.confetti(WIDTH / 2, HEIGHT / 2, missing);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+import javax.sound.sampled.*;
+import java.io.*;
+import java.nio.file.*;
+
+/**
+ * AudioBenchmarks - Decode cost and tap-to-sound latency of pronunciations
+ * Writes a synthesized recording per letter (44.1 kHz stereo, so loading
+ * has to convert it) into a temporary directory, then measures decoding,
+ * a tap on a cached clip and a tap that has to wait for the loader. The
+ * output is silent so the numbers do not depend on a sound card; when a
+ * device is available the warm tap is also timed through real lines,
+ * which adds the device buffer.
+ */
+public class AudioBenchmarks {
+    private static final AudioFormat SOURCE_FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final double CLIP_SECONDS = 0.6;
+    private static final int COLD_TAPS = 200;
+    private static final int DEVICE_TAPS = 50;
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("audio", args);
+        Path root = Files.createTempDirectory(Paths.get("."), "audio-bench");
+        try {
+            Path letters = Files.createDirectories(root.resolve("en").resolve(PronunciationPlayer.LETTERS));
+            for (char letter = 'a'; letter <= 'z'; letter++) {
+                writeTone(letters.resolve(letter + ".wav"), 220 + 20 * (letter - 'a'));
+            }
+
+            Path sample = letters.resolve("a.wav");
+            bench.run("decode", "seconds=" + CLIP_SECONDS,
+                () -> Bench.consume(PcmClip.decode("a", sample, AudioOutput.FORMAT)));
+
+            PronunciationPlayer player = new PronunciationPlayer(root, new SilentAudioOutput(), 8L * 1024 * 1024);
+            player.prefetch(PronunciationPlayer.LETTERS, "a");
+            waitUntil(() -> player.isCached(PronunciationPlayer.LETTERS, "a"));
+            bench.run("warmTap", "output=silent", () -> player.play(PronunciationPlayer.LETTERS, "a"));
+            record(bench, "warmTapToSound", "output=silent", player.getWarmLatency());
+
+            for (int i = 0; i < COLD_TAPS; i++) {
+                player.clear();
+                long before = player.getColdLatency().getCount();
+                player.play(PronunciationPlayer.LETTERS, String.valueOf((char) ('a' + i % 26)));
+                waitUntil(() -> player.getColdLatency().getCount() > before);
+            }
+            record(bench, "coldTapToSound", "output=silent", player.getColdLatency());
+
+            AudioOutput device = AudioOutput.open(2);
+            try {
+                if (!device.isSilent()) {
+                    PronunciationPlayer live = new PronunciationPlayer(root, device, 8L * 1024 * 1024);
+                    live.prefetch(PronunciationPlayer.LETTERS, "a");
+                    waitUntil(() -> live.isCached(PronunciationPlayer.LETTERS, "a"));
+                    for (int i = 0; i < DEVICE_TAPS; i++) {
+                        long before = live.getWarmLatency().getCount();
+                        live.play(PronunciationPlayer.LETTERS, "a");
+                        waitUntil(() -> live.getWarmLatency().getCount() > before);
+                    }
+                    live.stop();
+                    record(bench, "warmTapToSound", "output=device", live.getWarmLatency());
+                    bench.record("deviceBuffer", "", "ms", device.getOutputLatencyMicros() / 1000.0);
+                }
+            } finally {
+                device.close();
+            }
+        } finally {
+            delete(root);
+        }
+        bench.finish();
+    }
+
+    private static void record(Bench bench, String name, String params, LatencyStats stats) {
+        bench.record(name + "P50", params, "ms", LatencyStats.toMillis(stats.getPercentileNanos(50)));
+        bench.record(name + "P99", params, "ms", LatencyStats.toMillis(stats.getPercentileNanos(99)));
+    }
+
+    private static void writeTone(Path file, double hertz) throws IOException {
+        int frames = (int) (SOURCE_FORMAT.getFrameRate() * CLIP_SECONDS);
+        byte[] data = new byte[frames * SOURCE_FORMAT.getFrameSize()];
+        for (int i = 0; i < frames; i++) {
+            short sample = (short) (Math.sin(2 * Math.PI * hertz * i / SOURCE_FORMAT.getFrameRate()) * 12000);
+            for (int channel = 0; channel < 2; channel++) {
+                int offset = i * 4 + channel * 2;
+                data[offset] = (byte) sample;
+                data[offset + 1] = (byte) (sample >> 8);
+            }
+        }
+        try (AudioInputStream stream = new AudioInputStream(new ByteArrayInputStream(data), SOURCE_FORMAT, frames)) {
+            AudioSystem.write(stream, AudioFileFormat.Type.WAVE, file.toFile());
+        }
+    }
+
+    private static void waitUntil(java.util.function.BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Timed out waiting for the loader");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (java.util.stream.Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(java.util.Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
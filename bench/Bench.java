@@ -0,0 +1,252 @@
+import java.io.*;
+import java.lang.management.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * Bench - Minimal headless benchmark harness
+ * Runs each operation for a number of timed warmup and measurement
+ * iterations and reports throughput, time per operation and bytes allocated
+ * per operation (the equivalent of JMH's gc profiler). Results are written as
+ * a JSON array in the same shape as JMH's JSON output so the two can be
+ * tracked with the same tooling.
+ *
+ * Common arguments: --warmup N, --iterations N, --time MILLIS,
+ * --filter REGEX, --out FILE
+ */
+public class Bench {
+    public interface Op {
+        void run() throws Exception;
+    }
+
+    private static volatile long sink;
+
+    private final String suite;
+    private final java.util.List<Result> results = new ArrayList<>();
+    private int warmupIterations = 3;
+    private int measurementIterations = 5;
+    private long iterationMillis = 500;
+    private Pattern filter;
+    private Path output;
+
+    public Bench(String suite, String[] args) {
+        this.suite = suite;
+        this.output = Paths.get("bench-results", suite + ".json");
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--warmup":
+                    warmupIterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--iterations":
+                    measurementIterations = Integer.parseInt(args[i + 1]);
+                    break;
+                case "--time":
+                    iterationMillis = Long.parseLong(args[i + 1]);
+                    break;
+                case "--filter":
+                    filter = Pattern.compile(args[i + 1]);
+                    break;
+                case "--out":
+                    output = Paths.get(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+    }
+
+    /** Keeps a value alive so the JIT cannot remove the work that produced it. */
+    public static void consume(Object value) {
+        sink += System.identityHashCode(value);
+    }
+
+    public static void consume(long value) {
+        sink += value;
+    }
+
+    public boolean isSelected(String name) {
+        return filter == null || filter.matcher(suite + "." + name).find();
+    }
+
+    /** Measures an operation; params is a short description such as "size=400". */
+    public Result run(String name, String params, Op op) throws Exception {
+        if (!isSelected(name)) {
+            return null;
+        }
+        for (int i = 0; i < warmupIterations; i++) {
+            iterate(op);
+        }
+
+        double[] opsPerSecond = new double[measurementIterations];
+        long totalOps = 0;
+        long totalBytes = 0;
+        long gcCount = gcCount();
+        long gcTime = gcTimeMillis();
+        for (int i = 0; i < measurementIterations; i++) {
+            long bytesBefore = AllocationProbe.currentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            long ops = iterate(op);
+            long elapsed = System.nanoTime() - start;
+            totalBytes += AllocationProbe.currentThreadAllocatedBytes() - bytesBefore;
+            totalOps += ops;
+            opsPerSecond[i] = ops * 1e9 / elapsed;
+        }
+
+        Result result = new Result(name, params, opsPerSecond,
+            AllocationProbe.isSupported() ? (double) totalBytes / totalOps : Double.NaN,
+            gcCount() - gcCount, gcTimeMillis() - gcTime);
+        results.add(result);
+        System.out.println(result);
+        return result;
+    }
+
+    /** Adds a result measured outside the harness, such as a one-off wall-clock timing. */
+    public void record(String name, String params, String unit, double value) {
+        if (isSelected(name)) {
+            Result result = new Result(name, params, unit, value);
+            results.add(result);
+            System.out.println(result);
+        }
+    }
+
+    public java.util.List<Result> getResults() {
+        return results;
+    }
+
+    /** Writes the collected results to the output file. */
+    public void finish() throws IOException {
+        if (output.getParent() != null) {
+            Files.createDirectories(output.getParent());
+        }
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append(results.get(i).toJson(suite));
+            json.append(i < results.size() - 1 ? ",\n" : "\n");
+        }
+        json.append("]\n");
+        Files.write(output, json.toString().getBytes(StandardCharsets.UTF_8));
+        System.out.println("Results written to " + output);
+    }
+
+    private long iterate(Op op) throws Exception {
+        long deadline = System.nanoTime() + iterationMillis * 1_000_000L;
+        long ops = 0;
+        // Check the clock every few calls so timing overhead stays small for fast operations
+        do {
+            for (int i = 0; i < 16; i++) {
+                op.run();
+            }
+            ops += 16;
+        } while (System.nanoTime() < deadline);
+        return ops;
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, gc.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTimeMillis() {
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, gc.getCollectionTime());
+        }
+        return time;
+    }
+
+    public static class Result {
+        private final String name;
+        private final String params;
+        private final String unit;
+        private final double score;
+        private final double error;
+        private final double bytesPerOp;
+        private final long gcCount;
+        private final long gcTimeMillis;
+
+        Result(String name, String params, double[] opsPerSecond, double bytesPerOp, long gcCount, long gcTimeMillis) {
+            this.name = name;
+            this.params = params;
+            this.unit = "ops/s";
+            double mean = 0;
+            for (double v : opsPerSecond) {
+                mean += v;
+            }
+            mean /= opsPerSecond.length;
+            double variance = 0;
+            for (double v : opsPerSecond) {
+                variance += (v - mean) * (v - mean);
+            }
+            this.score = mean;
+            this.error = opsPerSecond.length > 1 ? Math.sqrt(variance / (opsPerSecond.length - 1)) : 0;
+            this.bytesPerOp = bytesPerOp;
+            this.gcCount = gcCount;
+            this.gcTimeMillis = gcTimeMillis;
+        }
+
+        Result(String name, String params, String unit, double value) {
+            this.name = name;
+            this.params = params;
+            this.unit = unit;
+            this.score = value;
+            this.error = 0;
+            this.bytesPerOp = Double.NaN;
+            this.gcCount = 0;
+            this.gcTimeMillis = 0;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getNanosPerOp() {
+            return "ops/s".equals(unit) ? 1e9 / score : Double.NaN;
+        }
+
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+
+        String toJson(String suite) {
+            StringBuilder sb = new StringBuilder();
+            sb.append("  {\"benchmark\": \"").append(escape(suite + "." + name)).append('"');
+            sb.append(", \"params\": \"").append(escape(params)).append('"');
+            sb.append(", \"mode\": \"").append("ops/s".equals(unit) ? "thrpt" : "single").append('"');
+            sb.append(", \"primaryMetric\": {\"score\": ").append(number(score));
+            sb.append(", \"scoreError\": ").append(number(error));
+            sb.append(", \"scoreUnit\": \"").append(escape(unit)).append("\"}");
+            if ("ops/s".equals(unit)) {
+                sb.append(", \"secondaryMetrics\": {");
+                sb.append("\"time.per.op\": {\"score\": ").append(number(getNanosPerOp())).append(", \"scoreUnit\": \"ns/op\"}");
+                sb.append(", \"gc.alloc.rate.norm\": {\"score\": ").append(number(bytesPerOp)).append(", \"scoreUnit\": \"B/op\"}");
+                sb.append(", \"gc.count\": {\"score\": ").append(gcCount).append(", \"scoreUnit\": \"counts\"}");
+                sb.append(", \"gc.time\": {\"score\": ").append(gcTimeMillis).append(", \"scoreUnit\": \"ms\"}");
+                sb.append('}');
+            }
+            sb.append('}');
+            return sb.toString();
+        }
+
+        @Override
+        public String toString() {
+            if (!"ops/s".equals(unit)) {
+                return String.format("%-45s %-20s %14.3f %s", name, params, score, unit);
+            }
+            return String.format("%-45s %-20s %14.1f +- %-10.1f ops/s %12.1f ns/op %10.1f B/op",
+                name, params, score, error, getNanosPerOp(), bytesPerOp);
+        }
+
+        private static String number(double value) {
+            return Double.isNaN(value) || Double.isInfinite(value) ? "null" : String.valueOf(value);
+        }
+
+        private static String escape(String value) {
+            return value.replace("\\", "\\\\").replace("\"", "\\\"");
+        }
+    }
+}
@@ -0,0 +1,77 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.*;
+
+/**
+ * ButtonBenchmarks - Hover handling and paint cost of KidButtonUI against listener-styled buttons
+ * "listener" is the previous approach: the look-and-feel's button with a
+ * MouseAdapter that calls setBackground on enter and exit. "kid" is the
+ * shared KidButtonUI, where hover only flips the model's rollover flag.
+ * Measures an enter/exit pair of mouse events and painting one button in
+ * its normal and hover states.
+ */
+public class ButtonBenchmarks {
+    private static final int WIDTH = 250;
+    private static final int HEIGHT = 60;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("buttons", args);
+        ModuleBenchmarks.onEdt(() -> {
+            JButton listener = listenerButton();
+            JButton kid = KidButtonUI.apply(new JButton("Alphabet"));
+            kid.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20));
+            for (JButton button : new JButton[] {listener, kid}) {
+                button.setSize(WIDTH, HEIGHT);
+                button.doLayout();
+            }
+
+            benchHover(bench, "listener", listener);
+            benchHover(bench, "kid", kid);
+
+            BufferedImage image = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = image.createGraphics();
+            bench.run("paint", "ui=listener,state=normal", () -> listener.paint(g));
+            bench.run("paint", "ui=kid,state=normal", () -> kid.paint(g));
+            listener.setBackground(Styles.PRIMARY_HOVER);
+            kid.getModel().setRollover(true);
+            bench.run("paint", "ui=listener,state=hover", () -> listener.paint(g));
+            bench.run("paint", "ui=kid,state=hover", () -> kid.paint(g));
+            g.dispose();
+            bench.record("cornersRendered", "", "count", KidButtonUI.getCornersRendered());
+        });
+        bench.finish();
+    }
+
+    private static void benchHover(Bench bench, String ui, JButton button) throws Exception {
+        MouseEvent entered = new MouseEvent(button, MouseEvent.MOUSE_ENTERED, 0, 0, 10, 10, 0, false);
+        MouseEvent exited = new MouseEvent(button, MouseEvent.MOUSE_EXITED, 0, 0, 300, 10, 0, false);
+        bench.run("hover", "ui=" + ui, () -> {
+            button.dispatchEvent(entered);
+            button.dispatchEvent(exited);
+        });
+    }
+
+    // How buttons were styled before KidButtonUI
+    private static JButton listenerButton() {
+        JButton button = new JButton("Alphabet");
+        button.setFont(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20));
+        button.setBackground(Styles.PRIMARY);
+        button.setForeground(Color.WHITE);
+        button.setFocusPainted(false);
+        button.setBorderPainted(false);
+        button.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseEntered(MouseEvent evt) {
+                button.setBackground(new Color(100, 149, 237));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent evt) {
+                button.setBackground(new Color(70, 130, 180));
+            }
+        });
+        return button;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.*;
+
+/**
+ * ColorBenchmarks - Lab conversion, nearest named color and swatch rendering
+ * toLab compares the table-driven conversion with the same formula using
+ * Math.pow and Math.cbrt. nearest looks up random colors against the CSS
+ * palette by scanning every entry, through the k-d tree, and through the
+ * tree plus its cache with colors repeating as they do on screen; the
+ * scores are queries per second. swatch is a SwatchCache hit and a
+ * fresh render of the lesson's big swatch.
+ */
+public class ColorBenchmarks {
+    private static final int QUERIES = 4096;
+    // Distinct colors in the cached run; a screen shows a few dozen at a time
+    private static final int REPEATING = 64;
+    // Both sizes are powers of two, so the next color is a mask away
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("color", args);
+        Random random = new Random(42);
+        int[] colors = new int[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            colors[i] = random.nextInt(1 << 24);
+        }
+        int[] index = new int[1];
+        float[] lab = new float[3];
+
+        bench.run("toLab", "impl=table", () -> Bench.consume(Float.floatToRawIntBits(ColorEngine.toLab(next(colors, index), lab)[0])));
+        bench.run("toLab", "impl=pow", () -> Bench.consume(Float.floatToRawIntBits(exactToLab(next(colors, index), lab)[0])));
+
+        ColorEngine named = ColorEngine.named();
+        int mismatches = 0;
+        for (int color : colors) {
+            if (named.nearestUncached(color) != named.nearestByScan(color)) {
+                mismatches++;
+            }
+        }
+        bench.record("treeMismatches", "palette=" + named.size(), "count", mismatches);
+        Bench.Result scan = bench.run("nearest", "search=scan",
+            () -> Bench.consume(named.nearestByScan(next(colors, index))));
+        Bench.Result tree = bench.run("nearest", "search=kdtree",
+            () -> Bench.consume(named.nearestUncached(next(colors, index))));
+        int[] repeating = Arrays.copyOf(colors, REPEATING);
+        bench.run("nearest", "search=kdtree+cache", () -> Bench.consume(named.nearest(next(repeating, index))));
+        if (scan != null && tree != null) {
+            bench.record("kdtreeSpeedup", "palette=" + named.size(), "x", tree.getScore() / scan.getScore());
+        }
+
+        SwatchCache cache = new SwatchCache(4L * 1024 * 1024);
+        cache.get(0x1E88E5, 240, 160);
+        bench.run("swatch", "cache=hit", () -> Bench.consume(cache.get(0x1E88E5, 240, 160)));
+        SwatchCache empty = new SwatchCache(0);
+        bench.run("swatch", "cache=miss", () -> Bench.consume(empty.get(next(colors, index), 240, 160)));
+        bench.record("swatchBytes", "size=240x160", "bytes", cache.getUsedBytes());
+        bench.finish();
+    }
+
+    private static int next(int[] colors, int[] index) {
+        int i = index[0] + 1;
+        index[0] = i;
+        return colors[i & (colors.length - 1)];
+    }
+
+    // The textbook conversion, for comparison with the tables
+    private static float[] exactToLab(int color, float[] out) {
+        double r = decode((color >> 16) & 0xFF);
+        double g = decode((color >> 8) & 0xFF);
+        double b = decode(color & 0xFF);
+        double fx = f((0.4124564 * r + 0.3575761 * g + 0.1804375 * b) / 0.95047);
+        double fy = f(0.2126729 * r + 0.7151522 * g + 0.0721750 * b);
+        double fz = f((0.0193339 * r + 0.1191920 * g + 0.9503041 * b) / 1.08883);
+        out[0] = (float) (116 * fy - 16);
+        out[1] = (float) (500 * (fx - fy));
+        out[2] = (float) (200 * (fy - fz));
+        return out;
+    }
+
+    private static double decode(int channel) {
+        double c = channel / 255.0;
+        return c <= 0.04045 ? c / 12.92 : Math.pow((c + 0.055) / 1.055, 2.4);
+    }
+
+    private static double f(double t) {
+        return t > 216.0 / 24389 ? Math.cbrt(t) : (24389.0 / 27 * t + 16) / 116;
+    }
+}
@@ -0,0 +1,56 @@
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * ContentPackBenchmarks - Open time and random lookup latency of a large content pack
+ * Builds a pack with SECTIONS sections of ENTRIES words each in a temporary
+ * file, then measures opening (map + directory read) and random lookups.
+ * An in-memory String[] lookup is included as a reference point.
+ */
+public class ContentPackBenchmarks {
+    private static final int SECTIONS = 20;
+    private static final int ENTRIES = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("contentpack", args);
+        Path file = Files.createTempFile("lessons", ".pack");
+        try {
+            String[] words = new String[ENTRIES];
+            ContentPackWriter writer = new ContentPackWriter();
+            SplittableRandom random = new SplittableRandom(1);
+            for (int s = 0; s < SECTIONS; s++) {
+                for (int i = 0; i < ENTRIES; i++) {
+                    words[i] = "section " + s + " word " + i + " " + Long.toString(random.nextLong(), 36);
+                }
+                writer.addStrings("words." + s, words);
+                writer.addInts("answers." + s, random.ints(ENTRIES, 0, 4).toArray());
+            }
+            long start = System.nanoTime();
+            writer.write(file);
+            bench.record("write", "entries=" + SECTIONS * ENTRIES * 2, "ms", (System.nanoTime() - start) / 1e6);
+            bench.record("fileSize", "", "KB", Files.size(file) / 1024.0);
+
+            bench.run("open", "", () -> {
+                try (ContentPack pack = ContentPack.open(file)) {
+                    Bench.consume(pack.getSection("words.0"));
+                }
+            });
+
+            try (ContentPack pack = ContentPack.open(file)) {
+                ContentPack.Section[] sections = new ContentPack.Section[SECTIONS];
+                for (int s = 0; s < SECTIONS; s++) {
+                    sections[s] = pack.getSection("words." + s);
+                }
+                ContentPack.Section answers = pack.getSection("answers.7");
+                bench.run("randomString", "", () ->
+                    Bench.consume(sections[random.nextInt(SECTIONS)].getString(random.nextInt(ENTRIES))));
+                bench.run("randomInt", "", () -> Bench.consume(answers.getInt(random.nextInt(ENTRIES))));
+                bench.run("sectionByName", "", () -> Bench.consume(pack.getSection("words.13")));
+            }
+            bench.run("arrayReference", "", () -> Bench.consume(words[random.nextInt(ENTRIES)]));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        bench.finish();
+    }
+}
@@ -0,0 +1,47 @@
+import java.awt.*;
+
+/**
+ * CountingBenchmarks - Paint time of the counting visual at 10, 100 and 1,000 items
+ * "legacy" is the original one-fillOval-per-item loop with a fixed 5-per-row
+ * grid; "visualizer" is CountingVisualizer. "partialClip" repaints only a
+ * quarter of the panel, as happens when a small region is invalidated.
+ */
+public class CountingBenchmarks {
+    private static final Color CIRCLE_COLOR = new Color(100, 149, 237, 180);
+    private static final int WIDTH = 600;
+    private static final int HEIGHT = 400;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("counting", args);
+        CountingVisualizer visualizer = new CountingVisualizer(CIRCLE_COLOR);
+        Graphics2D g = ModuleBenchmarks.image(WIDTH).createGraphics();
+        for (int count : new int[] {10, 100, 1000}) {
+            bench.run("legacy", "count=" + count, () -> paintLegacy(g, count));
+            bench.run("visualizer", "count=" + count, () -> visualizer.paint(g, count, WIDTH, HEIGHT));
+
+            Graphics2D clipped = (Graphics2D) g.create();
+            clipped.clipRect(0, 0, WIDTH / 2, HEIGHT / 2);
+            bench.run("visualizer.partialClip", "count=" + count,
+                () -> visualizer.paint(clipped, count, WIDTH, HEIGHT));
+            clipped.dispose();
+        }
+        g.dispose();
+        bench.finish();
+    }
+
+    private static void paintLegacy(Graphics2D g2d, int count) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int size = 30;
+        int gap = 10;
+        int itemsPerRow = 5;
+        int startX = (WIDTH - (Math.min(count, itemsPerRow) * (size + gap))) / 2;
+        int startY = 50;
+        g2d.setColor(CIRCLE_COLOR);
+        for (int i = 0; i < count; i++) {
+            int row = i / itemsPerRow;
+            int col = i % itemsPerRow;
+            g2d.fillOval(startX + col * (size + gap), startY + row * (size + gap), size, size);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * GlyphBenchmarks - Repaint cost of the giant letter as JLabel text versus a cached sprite
+ * Measured at device scales 1.0 and 2.0 to cover HiDPI kiosks.
+ */
+public class GlyphBenchmarks {
+    private static final Font LETTER_FONT = new Font("Segoe UI", Font.BOLD, 150);
+    private static final Color LETTER_COLOR = new Color(70, 130, 180);
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("glyphs", args);
+        ModuleBenchmarks.onEdt(() -> {
+            JLabel label = new JLabel("W", SwingConstants.CENTER);
+            label.setFont(LETTER_FONT);
+            label.setForeground(LETTER_COLOR);
+            ModuleBenchmarks.layout(label, 300, 300);
+
+            GlyphLabel glyph = new GlyphLabel("W");
+            glyph.setFont(LETTER_FONT);
+            glyph.setForeground(LETTER_COLOR);
+            ModuleBenchmarks.layout(glyph, 300, 300);
+
+            for (double scale : new double[] {1.0, 2.0}) {
+                BufferedImage image = new BufferedImage((int) (300 * scale), (int) (300 * scale),
+                    BufferedImage.TYPE_INT_ARGB_PRE);
+                Graphics2D g = image.createGraphics();
+                g.scale(scale, scale);
+                g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+                bench.run("jlabel.paint", "scale=" + scale, () -> label.paint(g));
+                bench.run("glyphLabel.paint", "scale=" + scale, () -> glyph.paint(g));
+                g.dispose();
+            }
+            System.out.println(GlyphCache.shared());
+        });
+        bench.finish();
+    }
+}
@@ -0,0 +1,51 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * HudBenchmarks - Cost of the performance overlay's probes, hidden and showing
+ * probe is one begin/end pair around nothing; hidden it should be close to
+ * free. drawShape repeats the Shapes paint with its probe, so the overlay's
+ * share of a real paint is visible. overlayPaint is the overlay drawing its
+ * own box.
+ */
+public class HudBenchmarks {
+    private static final int SIZE = 400;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("hud", args);
+        ModuleBenchmarks.onEdt(() -> {
+            PerformanceHud.Probe probe = PerformanceHud.probe("Benchmark probe");
+            PerformanceHud.Probe shapeProbe = PerformanceHud.probe("Shapes drawShape");
+            ShapesModule shapes = new ShapesModule(new CardLayout(), new JPanel());
+            ModuleBenchmarks.layout(shapes, SIZE, SIZE);
+            Graphics2D g = ModuleBenchmarks.image(SIZE).createGraphics();
+
+            PerformanceHud hud = new PerformanceHud();
+            hud.setSize(1024, 768);
+            for (String state : new String[] {"hidden", "showing"}) {
+                hud.setVisible("showing".equals(state));
+                bench.run("probe", "hud=" + state, () -> {
+                    probe.begin();
+                    probe.end();
+                });
+                bench.run("drawShape", "hud=" + state, () -> {
+                    shapeProbe.begin();
+                    shapes.drawShape(g, 3);
+                    shapeProbe.end();
+                });
+            }
+
+            // Fill in the overlay's lines now rather than waiting for its timer
+            hud.refresh();
+            BufferedImage screen = new BufferedImage(1024, 768, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D hudGraphics = screen.createGraphics();
+            bench.run("overlayPaint", "", () -> hud.paint(hudGraphics));
+            hud.setVisible(false);
+            hudGraphics.dispose();
+            g.dispose();
+        });
+        bench.finish();
+    }
+}
@@ -0,0 +1,130 @@
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * LeaderboardBenchmarks - Score updates from many writer threads, with a reader watching
+ * record is one update on one thread. contention starts N writer threads
+ * recording quiz scores for a class of learners as fast as they can while
+ * one reader keeps taking the top 10, for the lock-free Leaderboard and
+ * for a board behind a single lock (the obvious synchronized version), and
+ * records total updates per second and the reader's latency percentiles.
+ */
+public class LeaderboardBenchmarks {
+    private static final int[] WRITERS = {1, 4, 16, 64};
+    private static final int LEARNERS = 1000;
+    private static final int TOP = 10;
+    private static final long RUN_MILLIS = 1000;
+
+    /** The two boards under test. */
+    private interface Board {
+        void record(String learner, QuizType type, int score);
+
+        Object top();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("leaderboard", args);
+        String[] names = new String[LEARNERS];
+        for (int i = 0; i < LEARNERS; i++) {
+            names[i] = "Learner " + i;
+        }
+        QuizType[] types = QuizType.values();
+
+        Leaderboard single = new Leaderboard(TOP);
+        SplittableRandom random = new SplittableRandom(1);
+        bench.run("record", "threads=1", () -> single.record(names[random.nextInt(LEARNERS)],
+            types[random.nextInt(types.length)], random.nextInt(6)));
+        bench.run("top", "", () -> Bench.consume(single.getTop()));
+
+        for (int writers : WRITERS) {
+            if (!bench.isSelected("contention")) {
+                break;
+            }
+            Leaderboard lockFree = new Leaderboard(TOP);
+            contend(bench, "lockFree", writers, names, new Board() {
+                @Override
+                public void record(String learner, QuizType type, int score) {
+                    lockFree.record(learner, type, score);
+                }
+
+                @Override
+                public Object top() {
+                    return lockFree.getTop();
+                }
+            });
+            bench.record("contentionPublishRetries", "board=lockFree,writers=" + writers, "count",
+                lockFree.getPublishRetries());
+            contend(bench, "locked", writers, names, new LockedBoard());
+        }
+        bench.finish();
+    }
+
+    private static void contend(Bench bench, String board, int writers, String[] names, Board target)
+            throws InterruptedException {
+        QuizType[] types = QuizType.values();
+        LongAdder updates = new LongAdder();
+        LatencyHistogram reads = new LatencyHistogram();
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            long seed = w;
+            threads.add(new Thread(() -> {
+                SplittableRandom random = new SplittableRandom(seed);
+                long count = 0;
+                while (running.get()) {
+                    target.record(names[random.nextInt(names.length)], types[random.nextInt(types.length)],
+                        random.nextInt(6));
+                    count++;
+                }
+                updates.add(count);
+            }, "writer-" + w));
+        }
+        threads.add(new Thread(() -> {
+            while (running.get()) {
+                long start = System.nanoTime();
+                Bench.consume(target.top());
+                reads.record(System.nanoTime() - start);
+                Thread.yield();
+            }
+        }, "reader"));
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String params = "board=" + board + ",writers=" + writers;
+        bench.record("contentionUpdates", params, "ops/s", updates.sum() / seconds);
+        bench.record("contentionReadP50", params, "us", reads.getPercentileNanos(50) / 1e3);
+        bench.record("contentionReadP99", params, "us", reads.getPercentileNanos(99) / 1e3);
+    }
+
+    /** Totals in a HashMap and the top K sorted out on each read, all under one lock. */
+    private static final class LockedBoard implements Board {
+        private final Map<String, long[]> totals = new HashMap<>();
+
+        @Override
+        public synchronized void record(String learner, QuizType type, int score) {
+            long[] learnerTotals = totals.computeIfAbsent(learner, k -> new long[QuizType.values().length + 1]);
+            learnerTotals[0] += score;
+            learnerTotals[type.ordinal() + 1] += score;
+        }
+
+        @Override
+        public synchronized Object top() {
+            PriorityQueue<Map.Entry<String, long[]>> best = new PriorityQueue<>(
+                Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]));
+            for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+                best.add(entry);
+                if (best.size() > TOP) {
+                    best.poll();
+                }
+            }
+            return new ArrayList<>(best);
+        }
+    }
+}
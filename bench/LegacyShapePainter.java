@@ -0,0 +1,83 @@
+import java.awt.*;
+
+/**
+ * LegacyShapePainter - The original per-paint shape drawing from ShapesModule
+ * Kept only as a baseline for ShapeBenchmarks; every call recomputes the
+ * star trig and heart polynomial and truncates points to integers.
+ */
+public class LegacyShapePainter {
+    private static final Color SHAPE_COLOR = new Color(100, 149, 237);
+
+    static void drawShape(Graphics2D g2d, int shapeIndex, int width, int height) {
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setColor(SHAPE_COLOR);
+        g2d.setStroke(new BasicStroke(3));
+        
+        int size = Math.min(width, height) - 40;
+        int x = (width - size) / 2;
+        int y = (height - size) / 2;
+        
+        switch (shapeIndex) {
+            case 0: // Circle
+                g2d.fillOval(x, y, size, size);
+                break;
+            case 1: // Square
+                g2d.fillRect(x, y, size, size);
+                break;
+            case 2: // Triangle
+                int[] xPoints = {x + size/2, x, x + size};
+                int[] yPoints = {y, y + size, y + size};
+                g2d.fillPolygon(xPoints, yPoints, 3);
+                break;
+            case 3: // Rectangle
+                g2d.fillRect(x, y + size/4, size, size/2);
+                break;
+            case 4: // Oval
+                g2d.fillOval(x, y + size/4, size, size/2);
+                break;
+            case 5: // Star
+                drawStar(g2d, x + size/2, y + size/2, size/2);
+                break;
+            case 6: // Heart
+                drawHeart(g2d, x + size/2, y + size/2, size/2);
+                break;
+            case 7: // Diamond
+                int[] diamondX = {x + size/2, x + size, x + size/2, x};
+                int[] diamondY = {y, y + size/2, y + size, y + size/2};
+                g2d.fillPolygon(diamondX, diamondY, 4);
+                break;
+        }
+    }
+    
+    private static void drawStar(Graphics2D g2d, int centerX, int centerY, int radius) {
+        int[] xPoints = new int[10];
+        int[] yPoints = new int[10];
+        
+        for (int i = 0; i < 10; i++) {
+            double angle = i * Math.PI / 5 - Math.PI / 2;
+            int r = (i % 2 == 0) ? radius : radius / 2;
+            xPoints[i] = centerX + (int)(r * Math.cos(angle));
+            yPoints[i] = centerY + (int)(r * Math.sin(angle));
+        }
+        
+        g2d.fillPolygon(xPoints, yPoints, 10);
+    }
+    
+    private static void drawHeart(Graphics2D g2d, int centerX, int centerY, int size) {
+        int[] xPoints = new int[20];
+        int[] yPoints = new int[20];
+        
+        for (int i = 0; i < 20; i++) {
+            double angle = i * 2 * Math.PI / 20;
+            double t = angle;
+            
+            double x = 16 * Math.pow(Math.sin(t), 3);
+            double y = 13 * Math.cos(t) - 5 * Math.cos(2*t) - 2 * Math.cos(3*t) - Math.cos(4*t);
+            
+            xPoints[i] = centerX + (int)(x * size/20);
+            yPoints[i] = centerY - (int)(y * size/20);
+        }
+        
+        g2d.fillPolygon(xPoints, yPoints, 20);
+    }
+}
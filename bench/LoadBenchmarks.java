@@ -0,0 +1,49 @@
+/**
+ * LoadBenchmarks - Quiz sessions alone and under a crowd of simulated learners
+ * quiz plays one five-question quiz through QuizSession on one thread.
+ * learners runs the LoadGenerator with a thousand learners who answer
+ * instantly (timeScale 0), so the numbers are the engine's capacity rather
+ * than anyone's thinking time, and records quizzes per second and the
+ * answer latency percentiles under that contention. resumeAtEndFinished
+ * checks that a quiz saved after its last answer resumes as finished.
+ */
+public class LoadBenchmarks {
+    private static final int LEARNERS = 1000;
+    private static final int QUIZZES = 20;
+    private static final int QUESTIONS = 5;
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("load", args);
+        int[] items = {0, 1, 2, 3, 4};
+        long[] seed = {0};
+        for (QuizType type : QuizType.values()) {
+            bench.run("quiz", "type=" + type, () -> {
+                QuizSession session = new QuizSession(type, seed[0]++, items, QUESTIONS, 0, 0, 30, () -> 0);
+                Question question = session.getQuestion();
+                while (question != null) {
+                    session.answer(question.getCorrectAnswer());
+                    session.advance();
+                    question = session.getQuestion();
+                }
+                Bench.consume(session.getScore());
+            });
+        }
+
+        // A quiz saved after its last answer resumes as finished, with no question to show
+        QuizSession atEnd = new QuizSession(QuizType.NUMBERS, 1, items, QUESTIONS, QUESTIONS, 3, 30, () -> 0);
+        bench.record("resumeAtEndFinished", "", "bool", atEnd.isFinished() && atEnd.getQuestion() == null ? 1 : 0);
+
+        if (bench.isSelected("learners")) {
+            LoadGenerator.Report report = new LoadGenerator().learners(LEARNERS).quizzesPerLearner(QUIZZES)
+                .questionsPerQuiz(QUESTIONS).timeScale(0).run();
+            String params = "learners=" + LEARNERS + ",threads=" + (VirtualThreads.isAvailable() ? "virtual" : "platform");
+            bench.record("learnersQuizzesPerSecond", params, "ops/s", report.getQuizzesPerSecond());
+            bench.record("learnersAnswersPerSecond", params, "ops/s", report.getAnswersPerSecond());
+            bench.record("learnersAnswerP50", params, "us", report.getAnswerLatency().getPercentileNanos(50) / 1e3);
+            bench.record("learnersAnswerP99", params, "us", report.getAnswerLatency().getPercentileNanos(99) / 1e3);
+            bench.record("learnersStartP99", params, "us", report.getStartLatency().getPercentileNanos(99) / 1e3);
+            bench.record("learnersFailed", params, "count", report.getFailures());
+        }
+        bench.finish();
+    }
+}
@@ -0,0 +1,50 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * LocaleBenchmarks - Cost of switching language with every module on screen
+ * Builds one of each lesson module so their labels are bound, records the
+ * first (loading) switch to each language, then measures switches between
+ * cached languages. Run from the project directory so lang/ is found.
+ */
+public class LocaleBenchmarks {
+    private static final String[] MODULES = {"Alphabet", "Numbers", "Shapes", "Quiz"};
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        // Benchmark quizzes must not end up in the learner's progress
+        System.setProperty("kids.progress.dir", "");
+        Bench bench = new Bench("locale", args);
+        ModuleBenchmarks.onEdt(() -> {
+            java.util.List<String> locales = Localization.getAvailableLocales();
+            if (locales.size() < 2) {
+                System.out.println("Skipping locale switches: no languages found in lang/");
+                return;
+            }
+            ModuleRegistry registry = ModuleRegistry.withBuiltIns();
+            CardLayout cardLayout = new CardLayout();
+            JPanel mainPanel = new JPanel(cardLayout);
+            java.util.List<JPanel> modules = new java.util.ArrayList<>();
+            for (String name : MODULES) {
+                modules.add(registry.create(name, cardLayout, mainPanel));
+            }
+
+            for (String tag : locales) {
+                long start = System.nanoTime();
+                Localization.setLocale(tag);
+                bench.record("firstSwitch", "locale=" + tag, "ms", (System.nanoTime() - start) / 1e6);
+            }
+
+            String first = locales.get(0);
+            String second = locales.get(1);
+            int[] flip = {0};
+            bench.run("cachedSwitch", "modules=" + modules.size(), () ->
+                Localization.setLocale(flip[0]++ % 2 == 0 ? first : second));
+            bench.run("text", "", () -> Bench.consume(Localization.text("quiz.title")));
+            bench.run("format", "args=2", () -> Bench.consume(Localization.format("quiz.finalScore", 3, 5)));
+            Localization.setLocale(Localization.DEFAULT_LOCALE);
+            Bench.consume(modules);
+        });
+        bench.finish();
+    }
+}
@@ -0,0 +1,100 @@
+import java.io.*;
+
+/**
+ * MixerBenchmarks - Mixing cost, deadline misses and command throughput of the audio mixer
+ * Renders offline, so no sound card is needed: one block with 1 to 32 busy
+ * voices (allocation per block should be zero), the same with every voice
+ * fading out, and a burst of play/stop commands from several threads while
+ * blocks are mixed. realtimeFactor is how many times faster than playback
+ * a block is mixed; below 1 the device would underrun.
+ */
+public class MixerBenchmarks {
+    private static final int[] VOICES = {1, 8, 32};
+    private static final int PRODUCERS = 4;
+    private static final int COMMANDS_PER_PRODUCER = 20_000;
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("mixer", args);
+        PcmClip longClip = tone("long", 10.0);
+        PcmClip shortClip = tone("short", 0.05);
+
+        for (int voices : VOICES) {
+            AudioMixer mixer = new AudioMixer(AudioOutput.FORMAT, voices);
+            byte[] out = new byte[mixer.getBlockBytes()];
+            String params = "voices=" + voices;
+            Bench.Result result = bench.run("renderBlock", params, () -> {
+                // Top up voices that ran to the end; rare with a ten second clip
+                if (mixer.getActiveVoices() < voices) {
+                    for (int v = mixer.getActiveVoices(); v < voices; v++) {
+                        mixer.play(longClip, 0.25f, null);
+                    }
+                }
+                mixer.renderOffline(out, 0);
+            });
+            if (result != null) {
+                double blockNanos = AudioMixer.BLOCK_FRAMES / AudioOutput.FORMAT.getFrameRate() * 1e9;
+                bench.record("realtimeFactor", params, "x", blockNanos / result.getNanosPerOp());
+                bench.record("deadlineMisses", params, "blocks", mixer.getDeadlineMisses());
+            }
+        }
+
+        // Short clips and stops keep voices starting, fading and being stolen
+        AudioMixer churn = new AudioMixer(AudioOutput.FORMAT, 8);
+        byte[] out = new byte[churn.getBlockBytes()];
+        bench.run("renderChurn", "voices=8", () -> {
+            churn.play(shortClip, 0.5f, null).stop();
+            churn.play(shortClip, 0.5f, null);
+            churn.renderOffline(out, 0);
+        });
+        bench.record("steals", "voices=8", "count", churn.getSteals());
+
+        AudioMixer contended = new AudioMixer(AudioOutput.FORMAT, 8);
+        Thread[] producers = new Thread[PRODUCERS];
+        long start = System.nanoTime();
+        for (int p = 0; p < PRODUCERS; p++) {
+            producers[p] = new Thread(() -> {
+                for (int i = 0; i < COMMANDS_PER_PRODUCER; i++) {
+                    AudioOutput.Playback playback = contended.play(shortClip, 0.5f, null);
+                    if ((i & 1) == 0) {
+                        playback.stop();
+                    }
+                }
+            });
+            producers[p].start();
+        }
+        byte[] block = new byte[contended.getBlockBytes()];
+        boolean producing = true;
+        while (producing) {
+            contended.renderOffline(block, 0);
+            producing = false;
+            for (Thread producer : producers) {
+                producing |= producer.isAlive();
+            }
+        }
+        contended.renderOffline(block, 0);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        String params = "producers=" + PRODUCERS;
+        long sent = PRODUCERS * (COMMANDS_PER_PRODUCER + COMMANDS_PER_PRODUCER / 2L);
+        bench.record("commandThroughput", params, "commands/s", sent / seconds);
+        bench.record("droppedCommands", params, "count", contended.getDroppedCommands());
+
+        AudioMixer offline = new AudioMixer(AudioOutput.FORMAT, 4);
+        offline.play(longClip, 0.5f, null);
+        ByteArrayOutputStream wav = new ByteArrayOutputStream();
+        long wavStart = System.nanoTime();
+        offline.writeWav(wav, (int) AudioOutput.FORMAT.getFrameRate() * 10);
+        bench.record("renderWav", "seconds=10", "ms", (System.nanoTime() - wavStart) / 1e6);
+        bench.finish();
+    }
+
+    private static PcmClip tone(String name, double seconds) {
+        int frames = (int) (AudioOutput.FORMAT.getFrameRate() * seconds);
+        byte[] data = new byte[frames * 2];
+        for (int i = 0; i < frames; i++) {
+            short sample = (short) (Math.sin(2 * Math.PI * 440 * i / AudioOutput.FORMAT.getFrameRate()) * 8000);
+            data[2 * i] = (byte) sample;
+            data[2 * i + 1] = (byte) (sample >> 8);
+        }
+        return new PcmClip(name, data, AudioOutput.FORMAT);
+    }
+}
@@ -0,0 +1,148 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * ModuleBenchmarks - Construction, painting and navigation cost of the modules
+ * Everything runs on the event dispatch thread, as it does in the app, so
+ * module timers cannot fire in the middle of a measurement.
+ */
+public class ModuleBenchmarks {
+    private static final int[] PAINT_SIZES = {200, 400, 800};
+    private static final String[] MODULES = {"Alphabet", "Numbers", "Colors", "Shapes", "Quiz"};
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        // Benchmark quizzes must not end up in the learner's progress
+        System.setProperty("kids.progress.dir", "");
+        Bench bench = new Bench("modules", args);
+        onEdt(() -> {
+            benchConstruction(bench);
+            benchShapes(bench);
+            benchNumbers(bench);
+            benchAlphabet(bench);
+            benchQuiz(bench);
+        });
+        bench.finish();
+    }
+
+    private static void benchConstruction(Bench bench) throws Exception {
+        ModuleRegistry registry = ModuleRegistry.withBuiltIns();
+        CardLayout cardLayout = new CardLayout();
+        JPanel mainPanel = new JPanel(cardLayout);
+        for (String name : MODULES) {
+            if (registry.create(name, cardLayout, mainPanel) == null) {
+                System.out.println("Skipping construction of unavailable module " + name);
+                continue;
+            }
+            bench.run("construct" + name, "", () -> Bench.consume(registry.create(name, cardLayout, mainPanel)));
+        }
+    }
+
+    private static void benchShapes(Bench bench) throws Exception {
+        ShapesModule module = new ShapesModule(new CardLayout(), new JPanel());
+        for (int size : PAINT_SIZES) {
+            layout(module, size, size);
+            Graphics2D g = image(size).createGraphics();
+            for (int shape = 0; shape < 8; shape++) {
+                int index = shape;
+                bench.run("drawShape", "size=" + size + ",shape=" + index, () -> module.drawShape(g, index));
+            }
+            g.dispose();
+        }
+    }
+
+    private static void benchNumbers(Bench bench) throws Exception {
+        NumbersModule module = new NumbersModule(new CardLayout(), new JPanel());
+        for (int i = 1; i < 20; i++) {
+            module.showNextNumber();
+        }
+        for (int size : PAINT_SIZES) {
+            layout(module, size, size);
+            Graphics2D g = image(size).createGraphics();
+            bench.run("drawVisualRepresentation", "size=" + size + ",count=20", () -> module.drawVisualRepresentation(g));
+            g.dispose();
+        }
+    }
+
+    private static void benchAlphabet(Bench bench) throws Exception {
+        AlphabetModule module = new AlphabetModule(new CardLayout(), new JPanel());
+        layout(module, 1024, 768);
+        boolean[] forward = {true};
+        bench.run("alphabetUpdateDisplay", "", () -> {
+            // Alternate between two letters so every call changes the labels
+            if (forward[0]) {
+                module.showNextLetter();
+            } else {
+                module.showPreviousLetter();
+            }
+            forward[0] = !forward[0];
+        });
+    }
+
+    private static void benchQuiz(Bench bench) throws Exception {
+        QuizModule module = new QuizModule(new CardLayout(), new JPanel());
+        layout(module, 1024, 768);
+        findButton(module, "Numbers").doClick(0);
+        layout(module, 1024, 768);
+        // Freeze the countdown so a long run cannot end the quiz mid-measurement
+        module.moduleHidden();
+        bench.run("quizShowQuestion", "", module::showQuestion);
+
+        // Alternate between different questions so every render rebinds the option texts
+        java.util.List<Question> questions = new QuestionEngine(7).generate(QuizType.NUMBERS, 16);
+        int[] next = {0};
+        bench.run("quizRenderQuestion", "", () -> module.renderQuestion(questions.get(next[0]++ & 15)));
+        System.out.println(module.getQuestionRenderMetrics());
+        module.moduleDisposed();
+    }
+
+    static BufferedImage image(int size) {
+        return new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /** Sizes a component and lays out its whole tree without a window. */
+    static void layout(Component component, int width, int height) {
+        component.setSize(width, height);
+        layoutTree(component);
+    }
+
+    private static void layoutTree(Component component) {
+        if (component instanceof Container) {
+            Container container = (Container) component;
+            container.doLayout();
+            for (Component child : container.getComponents()) {
+                layoutTree(child);
+            }
+        }
+    }
+
+    static JButton findButton(Container container, String text) {
+        for (Component child : container.getComponents()) {
+            if (child instanceof JButton && text.equals(((JButton) child).getText())) {
+                return (JButton) child;
+            }
+            if (child instanceof Container) {
+                JButton found = findButton((Container) child, text);
+                if (found != null) {
+                    return found;
+                }
+            }
+        }
+        return null;
+    }
+
+    static void onEdt(Bench.Op op) throws Exception {
+        Exception[] failure = new Exception[1];
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                op.run();
+            } catch (Exception e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+    }
+}
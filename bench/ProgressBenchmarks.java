@@ -0,0 +1,96 @@
+import java.io.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+/**
+ * ProgressBenchmarks - Append throughput, commit latency and recovery time of the progress log
+ * Appends a burst of events with group commit and with an fsync per event,
+ * then reopens a log of RECOVERY_EVENTS events to time replay. Runs in a
+ * temporary directory on the same disk as the working directory.
+ */
+public class ProgressBenchmarks {
+    private static final int GROUP_EVENTS = 50_000;
+    private static final int SYNC_EACH_EVENTS = 500;
+    private static final int RECOVERY_EVENTS = 200_000;
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("progress", args);
+        Path root = Files.createTempDirectory(Paths.get("."), "progress-bench");
+        try {
+            burst(bench, root.resolve("group"), Integer.MAX_VALUE, GROUP_EVENTS);
+            burst(bench, root.resolve("each"), 1, SYNC_EACH_EVENTS);
+
+            Path recovery = root.resolve("recovery");
+            try (ProgressStore store = new ProgressStore(recovery, 4096, Long.MAX_VALUE)) {
+                append(store, RECOVERY_EVENTS);
+                store.flush();
+            }
+            // A torn final record, as left by a power cut in the middle of a write
+            try (FileChannel log = FileChannel.open(recovery.resolve("progress.log"), StandardOpenOption.APPEND)) {
+                log.write(java.nio.ByteBuffer.wrap(new byte[] {0, 0, 0, 30, 1, 2, 3}));
+            }
+            try (ProgressStore store = new ProgressStore(recovery, 4096, Long.MAX_VALUE)) {
+                bench.record("recovery", "events=" + store.getRecoveredRecords(), "ms",
+                    store.getRecoveryNanos() / 1e6);
+                bench.record("recoveryDiscarded", "", "bytes", store.getDiscardedBytes());
+            }
+
+            // Recovery after compaction reads a snapshot and a short log
+            Path compacted = root.resolve("compacted");
+            try (ProgressStore store = new ProgressStore(compacted, 4096, 64 * 1024)) {
+                append(store, RECOVERY_EVENTS);
+                store.flush();
+                bench.record("compactions", "events=" + RECOVERY_EVENTS, "count", store.getCompactions());
+            }
+            try (ProgressStore store = new ProgressStore(compacted, 4096, 64 * 1024)) {
+                bench.record("recoveryCompacted", "events=" + store.getRecoveredRecords(), "ms",
+                    store.getRecoveryNanos() / 1e6);
+            }
+
+            try (ProgressStore store = new ProgressStore(null)) {
+                int[] seconds = {0};
+                bench.run("appendInMemory", "", () -> store.timeRemaining(seconds[0]++ & 31));
+            }
+        } finally {
+            delete(root);
+        }
+        bench.finish();
+    }
+
+    private static void burst(Bench bench, Path directory, int maxBatch, int events) throws Exception {
+        try (ProgressStore store = new ProgressStore(directory, maxBatch, Long.MAX_VALUE)) {
+            long start = System.nanoTime();
+            append(store, events);
+            store.flush();
+            double seconds = (System.nanoTime() - start) / 1e9;
+            String params = "batch=" + (maxBatch == 1 ? "1" : "group") + ",events=" + events;
+            bench.record("durableThroughput", params, "events/s", events / seconds);
+            bench.record("appendToDiskP50", params, "ms", LatencyStats.toMillis(store.getAppendLatency().getPercentileNanos(50)));
+            bench.record("appendToDiskP99", params, "ms", LatencyStats.toMillis(store.getAppendLatency().getPercentileNanos(99)));
+            bench.record("fsyncs", params, "count", store.getCommits());
+        }
+    }
+
+    // A quiz's worth of events at a time, as the quiz module writes them
+    private static void append(ProgressStore store, int events) {
+        int written = 0;
+        while (written < events) {
+            store.quizStarted(QuizType.NUMBERS, written, 5, 30);
+            written++;
+            for (int q = 0; q < 5 && written < events; q++, written += 2) {
+                store.questionAnswered(q, q % 2 == 0, q);
+                store.timeRemaining(30 - q);
+            }
+            if (written < events) {
+                store.quizFinished(3, 5);
+                written++;
+            }
+        }
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (java.util.stream.Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(java.util.Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
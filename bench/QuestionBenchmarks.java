@@ -0,0 +1,18 @@
+/**
+ * QuestionBenchmarks - Throughput of the procedural QuestionEngine
+ * Runs without touching AWT or Swing, the same way a batch job or server
+ * would use the engine.
+ */
+public class QuestionBenchmarks {
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("questions", args);
+        QuestionEngine engine = new QuestionEngine(42);
+        for (QuizType type : QuizType.values()) {
+            bench.run("next", "type=" + type, () -> Bench.consume(engine.next(type)));
+            bench.run("generateQuiz", "type=" + type + ",count=10", () -> Bench.consume(engine.generate(type, 10)));
+        }
+        bench.run("stream", "type=NUMBERS,count=1000",
+            () -> Bench.consume(engine.stream(QuizType.NUMBERS).limit(1000).count()));
+        bench.finish();
+    }
+}
@@ -0,0 +1,40 @@
+import java.util.*;
+
+/**
+ * ReviewBenchmarks - Selection and rescheduling cost of the spaced repetition scheduler
+ * For banks from a lesson's size up to a million items, measures picking
+ * the next due item, picking a quiz's worth of items, and recording an
+ * answer. Each bank is first given a history of random answers so due
+ * times are spread out as they would be for a real learner.
+ */
+public class ReviewBenchmarks {
+    private static final int[] BANK_SIZES = {26, 1_000, 100_000, 1_000_000};
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("review", args);
+        SplittableRandom random = new SplittableRandom(7);
+        for (int size : BANK_SIZES) {
+            String params = "items=" + size;
+            long start = System.nanoTime();
+            SpacedRepetitionScheduler scheduler = new SpacedRepetitionScheduler(size);
+            bench.record("create", params, "ms", (System.nanoTime() - start) / 1e6);
+
+            long[] now = {System.currentTimeMillis()};
+            for (int i = 0; i < size; i++) {
+                scheduler.review(random.nextInt(size), random.nextInt(6), now[0] + random.nextInt(86_400_000));
+            }
+
+            bench.run("next", params, () -> Bench.consume(scheduler.next()));
+            bench.run("nextQuiz", params + ",count=5", () -> Bench.consume(scheduler.next(5)));
+            // Answer the due item, as a quiz does
+            bench.run("reviewNext", params, () -> {
+                now[0] += 1000;
+                scheduler.review(scheduler.next(), random.nextInt(6), now[0]);
+            });
+            bench.run("reviewRandom", params, () ->
+                scheduler.review(random.nextInt(size), random.nextInt(6), now[0]));
+            bench.run("markSeen", params, () -> scheduler.markSeen(scheduler.next(), now[0]));
+        }
+        bench.finish();
+    }
+}
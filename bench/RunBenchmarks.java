@@ -0,0 +1,49 @@
+import java.util.*;
+
+/**
+ * RunBenchmarks - Runs every benchmark suite in turn
+ * Arguments are passed through to each suite, except --out which names a
+ * directory; each suite writes its own JSON file there.
+ */
+public class RunBenchmarks {
+    public static void main(String[] args) throws Exception {
+        String outDir = "bench-results";
+        java.util.List<String> passThrough = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--out".equals(args[i]) && i + 1 < args.length) {
+                outDir = args[++i];
+            } else {
+                passThrough.add(args[i]);
+            }
+        }
+
+        ModuleBenchmarks.main(withOut(passThrough, outDir + "/modules.json"));
+        StyleBenchmarks.main(withOut(passThrough, outDir + "/styles.json"));
+        ThemeBenchmarks.main(withOut(passThrough, outDir + "/theme.json"));
+        ButtonBenchmarks.main(withOut(passThrough, outDir + "/buttons.json"));
+        AnimationBenchmarks.main(withOut(passThrough, outDir + "/animation.json"));
+        WatchdogBenchmarks.main(withOut(passThrough, outDir + "/watchdog.json"));
+        HudBenchmarks.main(withOut(passThrough, outDir + "/hud.json"));
+        ColorBenchmarks.main(withOut(passThrough, outDir + "/color.json"));
+        ShapeBenchmarks.main(withOut(passThrough, outDir + "/shapes.json"));
+        GlyphBenchmarks.main(withOut(passThrough, outDir + "/glyphs.json"));
+        CountingBenchmarks.main(withOut(passThrough, outDir + "/counting.json"));
+        QuestionBenchmarks.main(withOut(passThrough, outDir + "/questions.json"));
+        LoadBenchmarks.main(withOut(passThrough, outDir + "/load.json"));
+        ServerBenchmarks.main(withOut(passThrough, outDir + "/server.json"));
+        LeaderboardBenchmarks.main(withOut(passThrough, outDir + "/leaderboard.json"));
+        ContentPackBenchmarks.main(withOut(passThrough, outDir + "/contentpack.json"));
+        LocaleBenchmarks.main(withOut(passThrough, outDir + "/locale.json"));
+        ProgressBenchmarks.main(withOut(passThrough, outDir + "/progress.json"));
+        ReviewBenchmarks.main(withOut(passThrough, outDir + "/review.json"));
+        AudioBenchmarks.main(withOut(passThrough, outDir + "/audio.json"));
+        MixerBenchmarks.main(withOut(passThrough, outDir + "/mixer.json"));
+    }
+
+    private static String[] withOut(java.util.List<String> args, String file) {
+        java.util.List<String> result = new ArrayList<>(args);
+        result.add("--out");
+        result.add(file);
+        return result.toArray(new String[0]);
+    }
+}
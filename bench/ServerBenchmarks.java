@@ -0,0 +1,131 @@
+import java.io.*;
+import java.net.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.*;
+
+/**
+ * ServerBenchmarks - The quiz server on loopback with a classroom of tablets and more
+ * Each simulated tablet starts a quiz and answers it as fast as the server
+ * replies. single sends one answer per request; batched has each client
+ * send the answers of a whole table of tablets in one request, the way a
+ * tablet flushes answers buffered during a Wi-Fi drop. Latency is measured
+ * by the clients, so it includes HTTP and the loopback socket.
+ */
+public class ServerBenchmarks {
+    private static final int[] TABLETS = {30, 300};
+    private static final int QUESTIONS = 5;
+    private static final int BATCH = 10;
+    private static final Pattern QUESTION_COUNT = Pattern.compile("\"questionCount\": (\\d+)");
+    private static final Pattern SESSION = Pattern.compile("\"session\": \"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        Bench bench = new Bench("server", args);
+        QuizServer server = QuizServer.onLoopback(0);
+        server.start();
+        String base = "http://127.0.0.1:" + server.getAddress().getPort();
+        String threads = VirtualThreads.isAvailable() ? "virtual" : "platform";
+        // Warm up the server and the client's connection handling
+        runClients(base, 30, 1, 2);
+        for (int tablets : TABLETS) {
+            for (int batch : new int[] {1, BATCH}) {
+                String params = "tablets=" + tablets + ",batch=" + batch + ",threads=" + threads;
+                if (!bench.isSelected("answers")) {
+                    continue;
+                }
+                LatencyHistogram latency = new LatencyHistogram();
+                long answersBefore = server.getAnswersReceived();
+                long start = System.nanoTime();
+                int rounds = 3;
+                runClients(base, tablets, batch, rounds, latency);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                long answers = server.getAnswersReceived() - answersBefore;
+                bench.record("answers", params, "ops/s", answers / seconds);
+                bench.record("requests", params, "ops/s", latency.getCount() / seconds);
+                bench.record("requestP50", params, "ms", LatencyStats.toMillis(latency.getPercentileNanos(50)));
+                bench.record("requestP99", params, "ms", LatencyStats.toMillis(latency.getPercentileNanos(99)));
+            }
+        }
+        bench.record("serverAnswerP99", "threads=" + threads, "ms",
+            LatencyStats.toMillis(server.getLatency("/answers").getPercentileNanos(99)));
+        server.stop();
+        bench.finish();
+    }
+
+    private static void runClients(String base, int tablets, int batch, int rounds) throws Exception {
+        runClients(base, tablets, batch, rounds, new LatencyHistogram());
+    }
+
+    // tablets / batch clients, each playing batch tablets' quizzes for a number of rounds
+    private static void runClients(String base, int tablets, int batch, int rounds, LatencyHistogram latency)
+            throws Exception {
+        ExecutorService executor = VirtualThreads.newThreadPerTaskExecutor("tablet");
+        java.util.List<Future<?>> clients = new ArrayList<>();
+        for (int c = 0; c < tablets / batch; c++) {
+            clients.add(executor.submit(() -> {
+                Random random = new Random();
+                for (int round = 0; round < rounds; round++) {
+                    String[] ids = new String[batch];
+                    int questions = QUESTIONS;
+                    for (int i = 0; i < batch; i++) {
+                        String json = request(base + "/sessions?type=NUMBERS&questions=" + QUESTIONS
+                            + "&seconds=600", "POST", "", latency);
+                        ids[i] = find(SESSION, json);
+                        questions = Integer.parseInt(find(QUESTION_COUNT, json));
+                    }
+                    for (int question = 0; question < questions; question++) {
+                        StringBuilder body = new StringBuilder();
+                        for (String id : ids) {
+                            body.append(id).append(' ').append(question).append(' ')
+                                .append(random.nextInt(QuestionEngine.OPTION_COUNT)).append('\n');
+                        }
+                        String reply = request(base + "/answers", "POST", body.toString(), latency);
+                        if (!reply.contains(" ok ")) {
+                            throw new IllegalStateException("Answers rejected: " + reply);
+                        }
+                    }
+                    for (String id : ids) {
+                        request(base + "/sessions/" + id, "DELETE", null, latency);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> client : clients) {
+            client.get();
+        }
+        executor.shutdown();
+    }
+
+    private static String request(String url, String method, String body, LatencyHistogram latency)
+            throws IOException {
+        long start = System.nanoTime();
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int status = connection.getResponseCode();
+        String reply;
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            reply = in == null ? "" : new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        latency.record(System.nanoTime() - start);
+        if (status >= 400) {
+            throw new IOException(method + " " + url + " returned " + status + ": " + reply);
+        }
+        return reply;
+    }
+
+    private static String find(Pattern pattern, String json) {
+        Matcher matcher = pattern.matcher(json);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Unexpected reply " + json);
+        }
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,42 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * ShapeBenchmarks - Shape painting with the geometry cache versus the original code
+ * "steady" paints at a fixed size, as on an idle screen. "resizeStorm"
+ * changes the panel size on every paint, as while a window is dragged.
+ * Results are paints per second.
+ */
+public class ShapeBenchmarks {
+    private static final int STORM_MIN = 300;
+    private static final int STORM_MAX = 800;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("shapes", args);
+        ModuleBenchmarks.onEdt(() -> {
+            ShapesModule module = new ShapesModule(new CardLayout(), new JPanel());
+            Graphics2D g = ModuleBenchmarks.image(STORM_MAX).createGraphics();
+            for (int shape = 0; shape < ShapeGeometry.SHAPE_COUNT; shape++) {
+                int index = shape;
+                bench.run("legacy.steady", "shape=" + index,
+                    () -> LegacyShapePainter.drawShape(g, index, 400, 400));
+                bench.run("cached.steady", "shape=" + index,
+                    () -> module.paintShape(g, index, 400, 400));
+
+                int[] size = {STORM_MIN};
+                bench.run("legacy.resizeStorm", "shape=" + index,
+                    () -> LegacyShapePainter.drawShape(g, index, nextSize(size), size[0]));
+                bench.run("cached.resizeStorm", "shape=" + index,
+                    () -> module.paintShape(g, index, nextSize(size), size[0]));
+            }
+            g.dispose();
+        });
+        bench.finish();
+    }
+
+    private static int nextSize(int[] size) {
+        size[0] = size[0] >= STORM_MAX ? STORM_MIN : size[0] + 7;
+        return size[0];
+    }
+}
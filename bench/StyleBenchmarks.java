@@ -0,0 +1,77 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.*;
+
+/**
+ * StyleBenchmarks - What the shared style registry saves over per-use style objects
+ * Compares creating the fonts, colors and cursors a lesson screen uses
+ * against looking them up in Styles, a hover enter/exit pair that builds
+ * new colors against one using the shared ones, and measuring font metrics
+ * through a scratch image against the precomputed metrics. Every object a
+ * "New" variant allocates was kept alive by the module that made it, so
+ * its bytes per op are also the heap each module saves.
+ */
+public class StyleBenchmarks {
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("styles", args);
+
+        Bench.Result perModule = bench.run("moduleStylesNew", "", () -> {
+            Bench.consume(new Font("Segoe UI", Font.PLAIN, 24));
+            Bench.consume(new Font("Segoe UI", Font.ITALIC, 20));
+            Bench.consume(new Font("Comic Sans MS", Font.BOLD, 16));
+            Bench.consume(new Font("Comic Sans MS", Font.BOLD, 28));
+            Bench.consume(new Font("Segoe UI", Font.BOLD, 150));
+            Bench.consume(new Font("Segoe UI", Font.BOLD, 20));
+            Bench.consume(new Color(70, 130, 180));
+            Bench.consume(new Color(100, 149, 237));
+            Bench.consume(new Color(245, 245, 255));
+            Bench.consume(new Color(70, 130, 180));
+            Bench.consume(new Color(60, 60, 60));
+            for (int i = 0; i < 4; i++) {
+                Bench.consume(new Cursor(Cursor.HAND_CURSOR));
+            }
+        });
+        Bench.Result shared = bench.run("moduleStylesShared", "", () -> {
+            Bench.consume(Styles.font(Styles.BODY_FAMILY, Font.PLAIN, 24));
+            Bench.consume(Styles.font(Styles.BODY_FAMILY, Font.ITALIC, 20));
+            Bench.consume(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 16));
+            Bench.consume(Styles.font(Styles.PLAYFUL_FAMILY, Font.BOLD, 28));
+            Bench.consume(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 150));
+            Bench.consume(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20));
+            Bench.consume(Styles.PRIMARY);
+            Bench.consume(Styles.PRIMARY_HOVER);
+            Bench.consume(Styles.LIGHT_BACKGROUND);
+            Bench.consume(Styles.color(70, 130, 180));
+            Bench.consume(Styles.TEXT);
+            for (int i = 0; i < 4; i++) {
+                Bench.consume(Styles.HAND_CURSOR);
+            }
+        });
+        if (perModule != null && shared != null) {
+            bench.record("heapSavedPerModule", "", "bytes", perModule.getBytesPerOp() - shared.getBytesPerOp());
+        }
+
+        bench.run("derivedFont", "", () -> Bench.consume(Styles.derive(Styles.font(Styles.BODY_FAMILY, Font.BOLD, 20), 36)));
+
+        JButton button = new JButton("Alphabet");
+        bench.run("hoverNewColor", "", () -> {
+            button.setBackground(new Color(100, 149, 237));
+            button.setBackground(new Color(70, 130, 180));
+        });
+        bench.run("hoverShared", "", () -> {
+            button.setBackground(Styles.PRIMARY_HOVER);
+            button.setBackground(Styles.PRIMARY);
+        });
+
+        Font font = Styles.font(Styles.BODY_FAMILY, Font.BOLD, 150);
+        bench.run("metricsMeasured", "", () -> {
+            BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = scratch.createGraphics();
+            Bench.consume(g.getFontMetrics(font).stringWidth("W"));
+            g.dispose();
+        });
+        bench.run("metricsShared", "", () -> Bench.consume(Styles.metrics(font).stringWidth("W")));
+        bench.finish();
+    }
+}
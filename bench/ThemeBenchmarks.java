@@ -0,0 +1,71 @@
+import javax.swing.*;
+import java.awt.*;
+
+/**
+ * ThemeBenchmarks - Light/Dark switch latency with every module cached
+ * Builds the lesson and quiz modules (several copies, to stand in for a
+ * larger app) and times ThemeEngine switches, reporting p99 against the
+ * 16.7 ms budget of one 60 Hz frame. treeWalk times the old approach of
+ * visiting every component and recoloring panels by type, for comparison.
+ */
+public class ThemeBenchmarks {
+    private static final int[] COPIES = {1, 10, 50};
+    private static final String[] MODULES = {"Alphabet", "Numbers", "Shapes", "Quiz"};
+    private static final double FRAME_MILLIS = 1000.0 / 60;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        System.setProperty("kids.progress.dir", "");
+        Bench bench = new Bench("theme", args);
+        ModuleBenchmarks.onEdt(() -> {
+            ModuleRegistry registry = ModuleRegistry.withBuiltIns();
+            CardLayout cardLayout = new CardLayout();
+            JPanel mainPanel = new JPanel(cardLayout);
+            int built = 0;
+            for (int copies : COPIES) {
+                for (; built < copies; built++) {
+                    for (String name : MODULES) {
+                        JPanel module = registry.create(name, cardLayout, mainPanel);
+                        ModuleBenchmarks.layout(module, 1024, 768);
+                        mainPanel.add(module, name + built);
+                    }
+                }
+                String params = "modules=" + copies * MODULES.length;
+                ThemeEngine.getSwitchStats().reset();
+                bench.run("switch", params, () -> ThemeEngine.setTheme(
+                    ThemeEngine.getTheme() == ThemeEngine.LIGHT ? ThemeEngine.DARK : ThemeEngine.LIGHT));
+                LatencyStats stats = ThemeEngine.getSwitchStats();
+                double p99 = LatencyStats.toMillis(stats.getPercentileNanos(99));
+                bench.record("switchP99", params, "ms", p99);
+                bench.record("switchFrameBudgetUsed", params, "%", 100 * p99 / FRAME_MILLIS);
+                bench.record("updatesPerSwitch", params, "count", ThemeEngine.getLastUpdated());
+
+                boolean[] dark = {false};
+                bench.run("treeWalk", params, () -> {
+                    dark[0] = !dark[0];
+                    walk(mainPanel, dark[0] ? Styles.DARK_BACKGROUND : Styles.LIGHT_BACKGROUND,
+                        dark[0] ? Color.WHITE : Color.BLACK);
+                });
+            }
+            ThemeEngine.setTheme(ThemeEngine.LIGHT);
+            for (Component module : mainPanel.getComponents()) {
+                if (module instanceof LearningModule) {
+                    ((LearningModule) module).moduleDisposed();
+                }
+            }
+        });
+        bench.finish();
+    }
+
+    private static void walk(Container container, Color background, Color foreground) {
+        for (Component child : container.getComponents()) {
+            if (child instanceof JPanel) {
+                child.setBackground(background);
+                child.setForeground(foreground);
+            }
+            if (child instanceof Container) {
+                walk((Container) child, background, foreground);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+import java.awt.*;
+import java.awt.event.*;
+import java.nio.file.*;
+
+/**
+ * WatchdogBenchmarks - What the EDT watchdog costs when nothing stalls, and that it catches a stall
+ * dispatch times an empty InvocationEvent through a plain EventQueue
+ * subclass and through the watchdog's queue; the difference is the
+ * per-event overhead. A deliberate stall is then dispatched to check that
+ * its stack is captured, charged to the right handler and logged.
+ */
+public class WatchdogBenchmarks {
+    private static final long THRESHOLD_MILLIS = 50;
+    private static final long STALL_MILLIS = 200;
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Bench bench = new Bench("watchdog", args);
+        Path logs = Files.createTempDirectory("watchdog-bench");
+        EdtWatchdog watchdog = new EdtWatchdog(THRESHOLD_MILLIS, logs, 1 << 20);
+        ModuleBenchmarks.onEdt(() -> {
+            InvocationEvent empty = new InvocationEvent(WatchdogBenchmarks.class, () -> { });
+            PlainQueue plain = new PlainQueue();
+            EdtWatchdog.WatchedQueue watched = watchdog.getQueue();
+            Bench.Result baseline = bench.run("dispatch", "queue=plain", () -> plain.dispatchEvent(empty));
+            Bench.Result timed = bench.run("dispatch", "queue=watchdog", () -> watched.dispatchEvent(empty));
+            if (baseline != null && timed != null) {
+                bench.record("overheadPerEvent", "", "ns", timed.getNanosPerOp() - baseline.getNanosPerOp());
+            }
+
+            watched.dispatchEvent(new InvocationEvent(WatchdogBenchmarks.class, WatchdogBenchmarks::stall));
+        });
+        watchdog.close();
+        String[] handlers = watchdog.getStallsByHandler();
+        boolean attributed = handlers.length == 1 && handlers[0].startsWith("WatchdogBenchmarks.stall:");
+        bench.record("stallsDetected", "", "count", watchdog.getStallCount());
+        bench.record("stallAttributed", "", "bool", attributed ? 1 : 0);
+        bench.record("logBytes", "", "bytes", Files.size(logs.resolve("edt-stalls.log")));
+        for (String handler : handlers) {
+            System.out.println(handler);
+        }
+        bench.finish();
+    }
+
+    // A handler that hogs the EDT
+    private static void stall() {
+        long end = System.nanoTime() + STALL_MILLIS * 1_000_000L;
+        while (System.nanoTime() < end) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class PlainQueue extends EventQueue {
+        @Override
+        protected void dispatchEvent(AWTEvent event) {
+            super.dispatchEvent(event);
+        }
+    }
+}